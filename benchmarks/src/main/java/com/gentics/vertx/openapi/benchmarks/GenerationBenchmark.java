@@ -0,0 +1,63 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+/**
+ * End-to-end spec generation: the router walk, the component generation, and the serialization.
+ * Uses the baseline generator API only, so that it builds against any generator version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GenerationBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int routes;
+
+	@Param({ "JSON", "YAML" })
+	public Format format;
+
+	@Param({ "false", "true" })
+	public boolean useVersion31;
+
+	protected SyntheticRouters fixture;
+	protected OpenAPIv3Generator generator;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		fixture = new SyntheticRouters(routes);
+		generator = new OpenAPIv3Generator("1.0", List.of("http://localhost:8080"), Optional.empty(), Optional.empty());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		fixture.close();
+	}
+
+	@Benchmark
+	public String generate() throws OpenAPIGenerationException {
+		return generator.generate("benchmark", fixture.routers(), format, false, useVersion31, Optional.empty(), Optional.empty());
+	}
+}
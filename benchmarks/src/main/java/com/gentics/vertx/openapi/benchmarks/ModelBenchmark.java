@@ -0,0 +1,88 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.SpecSnapshot;
+import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+import com.gentics.vertx.openapi.writer.impl.V31Writer;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * The model level generator API: the model generation without the serialization, the byte writing, and the snapshot writing.
+ * Not built by the "baseline" profile, this API postdating the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ModelBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int routes;
+
+	@Param({ "JSON", "YAML" })
+	public Format format;
+
+	@Param({ "false", "true" })
+	public boolean useVersion31;
+
+	protected SyntheticRouters fixture;
+	protected OpenAPIv3Generator generator;
+	protected OpenAPI model;
+	protected SpecSnapshot snapshot;
+
+	protected OpenAPIVersionWriter writer;
+
+	@Setup(Level.Trial)
+	public void setup() throws OpenAPIGenerationException {
+		fixture = new SyntheticRouters(routes);
+		generator = new OpenAPIv3Generator("1.0", List.of("http://localhost:8080"), Optional.empty(), Optional.empty());
+		writer = useVersion31 ? new V31Writer() : new V30Writer();
+		model = generator.generateModel("benchmark", fixture.routers(), useVersion31, Optional.empty(), Optional.empty());
+		snapshot = generator.generateSnapshot("benchmark", fixture.routers(), Optional.empty(), Optional.empty());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		fixture.close();
+	}
+
+	@Benchmark
+	public OpenAPI generateModel() {
+		return generator.generateModel("benchmark", fixture.routers(), useVersion31, Optional.empty(), Optional.empty());
+	}
+
+	@Benchmark
+	public byte[] writeBytes() throws OpenAPIGenerationException {
+		return writer.writeBytes(model, format, false);
+	}
+
+	@Benchmark
+	public byte[] writeSnapshot() throws OpenAPIGenerationException {
+		return snapshot.writeBytes(OutputVariant.of(format, false, useVersion31));
+	}
+}
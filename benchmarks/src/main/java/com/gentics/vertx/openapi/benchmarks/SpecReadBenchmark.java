@@ -0,0 +1,79 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * The consumer side: parsing a written spec back into a tree, per output format.
+ * Needs the binary formats of the current generator, so the "baseline" profile leaves it out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpecReadBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int routes;
+
+	@Param({ "JSON", "CBOR", "SMILE" })
+	public Format format;
+
+	protected byte[] spec;
+	protected ObjectMapper mapper;
+
+	@Setup(Level.Trial)
+	public void setup() throws OpenAPIGenerationException {
+		SyntheticRouters fixture = new SyntheticRouters(routes);
+		try {
+			OpenAPI model = new OpenAPIv3Generator("1.0", List.of("http://localhost:8080"), Optional.empty(), Optional.empty())
+					.generateModel("benchmark", fixture.routers(), false, Optional.empty(), Optional.empty());
+			spec = new V30Writer().writeBytes(model, format, false);
+		} finally {
+			fixture.close();
+		}
+		switch (format) {
+		case CBOR:
+			mapper = new ObjectMapper(new CBORFactory());
+			break;
+		case SMILE:
+			mapper = new ObjectMapper(new SmileFactory());
+			break;
+		default:
+			mapper = new ObjectMapper();
+		}
+	}
+
+	@Benchmark
+	public JsonNode readTree() throws IOException {
+		return mapper.readTree(spec);
+	}
+}
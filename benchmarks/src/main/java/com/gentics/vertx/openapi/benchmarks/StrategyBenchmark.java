@@ -0,0 +1,87 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.benchmarks.model.Root;
+import com.gentics.vertx.openapi.strategy.ComponentGenerationStrategy;
+import com.gentics.vertx.openapi.strategy.impl.JavaReflectionGenerationStrategy;
+import com.gentics.vertx.openapi.strategy.impl.JsonSchemaGenerationStrategy;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+
+/**
+ * The component generation of the deep model graph, by each of the strategies, into an empty model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StrategyBenchmark {
+
+	protected SyntheticRouters fixture;
+	protected ComponentGenerationStrategy<?> jsonSchemaStrategy;
+	protected ComponentGenerationStrategy<?> reflectionStrategy;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		fixture = new SyntheticRouters(1);
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		jsonSchemaStrategy = new JsonSchemaGenerationStrategy(generator, Optional.of(fixture.sampleRoute()));
+		reflectionStrategy = new JavaReflectionGenerationStrategy(generator);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		fixture.close();
+	}
+
+	protected OpenAPI emptyModel() {
+		OpenAPI openApi = new OpenAPI();
+		Components components = new Components();
+		components.setSchemas(new HashMap<>());
+		openApi.setComponents(components);
+		return openApi;
+	}
+
+	@Benchmark
+	public Optional<Schema<?>> jsonSchema() {
+		return jsonSchemaStrategy.checkFillComponent(Root.class, emptyModel(), new HashSet<>());
+	}
+
+	@Benchmark
+	public Optional<Schema<?>> reflection() {
+		return reflectionStrategy.checkFillComponent(Root.class, emptyModel(), new HashSet<>());
+	}
+
+	@Benchmark
+	public Optional<String> jsonSchemaName() {
+		return jsonSchemaStrategy.makeComponentName(Root.class);
+	}
+
+	@Benchmark
+	public Optional<String> reflectionName() {
+		return reflectionStrategy.makeComponentName(Root.class);
+	}
+}
@@ -0,0 +1,128 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gentics.vertx.openapi.benchmarks.model.Branch;
+import com.gentics.vertx.openapi.benchmarks.model.Leaf;
+import com.gentics.vertx.openapi.benchmarks.model.Root;
+import com.gentics.vertx.openapi.benchmarks.model.Tag;
+import com.gentics.vertx.openapi.benchmarks.model.Twig;
+import com.gentics.vertx.openapi.metadata.InternalEndpointRoute;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+/**
+ * A synthetic router tree fixture. The routes are spread over mounted sub-routers of {@link #GROUP_SIZE} routes each,
+ * every group having a nested sub-router, and every route referring the deep {@link Root} model graph.
+ */
+public class SyntheticRouters implements AutoCloseable {
+
+	public static final int GROUP_SIZE = 50;
+	public static final int NESTED_SIZE = 10;
+
+	protected final Vertx vertx;
+	protected final Router root;
+	protected InternalEndpointRoute sampleRoute;
+
+	/**
+	 * Ctor
+	 *
+	 * @param routes total number of the routes
+	 */
+	public SyntheticRouters(int routes) {
+		this.vertx = Vertx.vertx();
+		this.root = Router.router(vertx);
+		int added = 0;
+		for (int group = 0; added < routes; group++) {
+			Router groupRouter = Router.router(vertx);
+			Router nestedRouter = Router.router(vertx);
+			for (int i = 0; i < GROUP_SIZE && added < routes; i++, added++) {
+				Router target = i < NESTED_SIZE ? nestedRouter : groupRouter;
+				InternalEndpointRoute route = endpoint(target, "/items" + i + "/:id", i % 2 == 0 ? HttpMethod.GET : HttpMethod.POST, group);
+				if (sampleRoute == null) {
+					sampleRoute = route;
+				}
+			}
+			groupRouter.route("/nested*").subRouter(nestedRouter);
+			root.route("/group" + group + "*").subRouter(groupRouter);
+		}
+	}
+
+	protected InternalEndpointRoute endpoint(Router router, String path, HttpMethod method, int group) {
+		InternalEndpointBuilder builder = InternalEndpointBuilder.wrap(router)
+			.withPath(path)
+			.withMethod(method)
+			.withDisplayName("Endpoint " + group + path)
+			.withDescription("Synthetic endpoint of group " + group)
+			.withUriParameter("id", "Item id", "42")
+			.withQueryParameter("page", "Page number", "1")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, example(), "The item")
+			.withExampleResponse(HttpResponseStatus.NOT_FOUND, new MessageResponse("Not found"), "No such item")
+			.withHandler(rc -> rc.end());
+		if (method == HttpMethod.POST) {
+			builder.withExampleRequest(example());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Make an example of the deep model graph.
+	 *
+	 * @return
+	 */
+	public static Root example() {
+		Tag tag = new Tag();
+		tag.setKey("color");
+		tag.setValue("green");
+		Leaf leaf = new Leaf();
+		leaf.setValue("leaf");
+		leaf.setSize(12L);
+		leaf.setFlag(true);
+		leaf.setTag(tag);
+		Twig twig = new Twig();
+		twig.setWeight(3);
+		twig.setLeaves(List.of(leaf, leaf));
+		Branch branch = new Branch();
+		branch.setName("branch");
+		branch.setLeaf(leaf);
+		branch.setTwigs(List.of(twig));
+		Root root = new Root();
+		root.setId("root");
+		root.setBranches(List.of(branch, branch));
+		root.setLeaves(Map.of("first", leaf));
+		return root;
+	}
+
+	/**
+	 * Get the router map, as accepted by the generator.
+	 *
+	 * @return
+	 */
+	public Map<Router, String> routers() {
+		return Map.of(root, StringUtils.EMPTY);
+	}
+
+	/**
+	 * Get the first created route, referring the deep model.
+	 *
+	 * @return
+	 */
+	public InternalEndpointRoute sampleRoute() {
+		return sampleRoute;
+	}
+
+	@Override
+	public void close() {
+		vertx.close().await();
+	}
+}
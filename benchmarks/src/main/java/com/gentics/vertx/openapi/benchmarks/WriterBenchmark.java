@@ -0,0 +1,80 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+import com.gentics.vertx.openapi.writer.impl.V31Writer;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * The serialization of a prepared model only. The same model is written in both versions.
+ * Uses the baseline generator API only, so that it builds against any generator version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WriterBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int routes;
+
+	@Param({ "JSON", "YAML" })
+	public Format format;
+
+	@Param({ "false", "true" })
+	public boolean pretty;
+
+	protected SyntheticRouters fixture;
+	protected OpenAPIv3Generator generator;
+	protected OpenAPI model;
+
+	protected final V30Writer v30Writer = new V30Writer();
+	protected final V31Writer v31Writer = new V31Writer();
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		fixture = new SyntheticRouters(routes);
+		generator = new OpenAPIv3Generator("1.0", List.of("http://localhost:8080"), Optional.empty(), Optional.empty());
+		// read back from the written spec, the generator exposing no model in its baseline API
+		model = Json.mapper().readValue(generator.generate("benchmark", fixture.routers(), Format.JSON, false, false, Optional.empty(), Optional.empty()), OpenAPI.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		fixture.close();
+	}
+
+	@Benchmark
+	public String writeV30() throws OpenAPIGenerationException {
+		return v30Writer.write(model, format, pretty);
+	}
+
+	@Benchmark
+	public String writeV31() throws OpenAPIGenerationException {
+		return v31Writer.write(model, format, pretty);
+	}
+}
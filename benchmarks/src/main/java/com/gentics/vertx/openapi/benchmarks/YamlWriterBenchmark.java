@@ -0,0 +1,67 @@
+package com.gentics.vertx.openapi.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.writer.impl.StreamingYamlGenerator;
+
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * The YAML serialization of a prepared model: the Jackson YAML generator of the swagger mapper against the streaming YAML generator.
+ * Not built by the "baseline" profile, the streaming generator being absent from the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class YamlWriterBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int routes;
+
+	protected SyntheticRouters fixture;
+	protected OpenAPI model;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		fixture = new SyntheticRouters(routes);
+		model = new OpenAPIv3Generator("1.0", List.of("http://localhost:8080"), Optional.empty(), Optional.empty())
+				.generateModel("benchmark", fixture.routers(), false, Optional.empty(), Optional.empty());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		fixture.close();
+	}
+
+	@Benchmark
+	public byte[] jackson() throws IOException {
+		return Yaml.mapper().writeValueAsBytes(model);
+	}
+
+	@Benchmark
+	public byte[] streaming() throws IOException {
+		return StreamingYamlGenerator.writeValueAsBytes(Yaml.mapper().writer(), model);
+	}
+}
@@ -0,0 +1,37 @@
+package com.gentics.vertx.openapi.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * The second level of the synthetic model graph.
+ */
+public class Branch {
+
+	private String name;
+	private List<Twig> twigs;
+	private Leaf leaf;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<Twig> getTwigs() {
+		return twigs;
+	}
+
+	public void setTwigs(List<Twig> twigs) {
+		this.twigs = twigs;
+	}
+
+	public Leaf getLeaf() {
+		return leaf;
+	}
+
+	public void setLeaf(Leaf leaf) {
+		this.leaf = leaf;
+	}
+}
@@ -0,0 +1,44 @@
+package com.gentics.vertx.openapi.benchmarks.model;
+
+/**
+ * The fourth level of the synthetic model graph.
+ */
+public class Leaf {
+
+	private String value;
+	private Long size;
+	private Boolean flag;
+	private Tag tag;
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public void setSize(Long size) {
+		this.size = size;
+	}
+
+	public Boolean getFlag() {
+		return flag;
+	}
+
+	public void setFlag(Boolean flag) {
+		this.flag = flag;
+	}
+
+	public Tag getTag() {
+		return tag;
+	}
+
+	public void setTag(Tag tag) {
+		this.tag = tag;
+	}
+}
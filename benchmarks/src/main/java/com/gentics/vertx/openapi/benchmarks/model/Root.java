@@ -0,0 +1,47 @@
+package com.gentics.vertx.openapi.benchmarks.model;
+
+import java.util.List;
+import java.util.Map;
+
+import com.gentics.vertx.openapi.model.RestModel;
+
+import io.vertx.core.json.Json;
+
+/**
+ * The root of the synthetic deep model graph: Root - Branch - Twig - Leaf - Tag.
+ */
+public class Root implements RestModel {
+
+	private String id;
+	private List<Branch> branches;
+	private Map<String, Leaf> leaves;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public List<Branch> getBranches() {
+		return branches;
+	}
+
+	public void setBranches(List<Branch> branches) {
+		this.branches = branches;
+	}
+
+	public Map<String, Leaf> getLeaves() {
+		return leaves;
+	}
+
+	public void setLeaves(Map<String, Leaf> leaves) {
+		this.leaves = leaves;
+	}
+
+	@Override
+	public String toJson(boolean minify) {
+		return minify ? Json.encode(this) : Json.encodePrettily(this);
+	}
+}
@@ -0,0 +1,26 @@
+package com.gentics.vertx.openapi.benchmarks.model;
+
+/**
+ * The last level of the synthetic model graph.
+ */
+public class Tag {
+
+	private String key;
+	private String value;
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+}
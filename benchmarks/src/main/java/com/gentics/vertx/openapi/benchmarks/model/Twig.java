@@ -0,0 +1,28 @@
+package com.gentics.vertx.openapi.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * The third level of the synthetic model graph.
+ */
+public class Twig {
+
+	private Integer weight;
+	private List<Leaf> leaves;
+
+	public Integer getWeight() {
+		return weight;
+	}
+
+	public void setWeight(Integer weight) {
+		this.weight = weight;
+	}
+
+	public List<Leaf> getLeaves() {
+		return leaves;
+	}
+
+	public void setLeaves(List<Leaf> leaves) {
+		this.leaves = leaves;
+	}
+}
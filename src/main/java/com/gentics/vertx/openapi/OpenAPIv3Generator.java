@@ -2,18 +2,33 @@ package com.gentics.vertx.openapi;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -24,19 +39,43 @@ import javax.annotation.Nonnull;
 import org.apache.commons.collections4.keyvalue.UnmodifiableMapEntry;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
+import org.apache.commons.lang3.tuple.Pair;
 import org.raml.model.MimeType;
 import org.raml.model.parameter.AbstractParam;
+import org.raml.model.parameter.QueryParameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 
+import com.gentics.vertx.openapi.jfr.GenerationEvent;
+import com.gentics.vertx.openapi.jfr.RouterWalkEvent;
 import com.gentics.vertx.openapi.metadata.InternalEndpointRoute;
+import com.gentics.vertx.openapi.metadata.RouteChange;
+import com.gentics.vertx.openapi.metadata.WeakRouteChangeListener;
+import com.gentics.vertx.openapi.misc.CanonicalOrder;
+import com.gentics.vertx.openapi.misc.ComponentExtractor;
+import com.gentics.vertx.openapi.misc.ExampleCache;
+import com.gentics.vertx.openapi.misc.ExampleStore;
+import com.gentics.vertx.openapi.misc.Fingerprint;
+import com.gentics.vertx.openapi.misc.LeanSpecFilter;
+import com.gentics.vertx.openapi.misc.ModelCopy;
+import com.gentics.vertx.openapi.misc.PathFilter;
+import com.gentics.vertx.openapi.misc.ReferenceGraph;
+import com.gentics.vertx.openapi.misc.SchemaDeduplicator;
 import com.gentics.vertx.openapi.model.ExtendedSecurityScheme;
 import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GenerationReport;
+import com.gentics.vertx.openapi.model.GenerationReport.Phase;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
 import com.gentics.vertx.openapi.model.InParameter;
 import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
-import com.gentics.vertx.openapi.strategy.ComponentGenerationStrategy;
-import com.gentics.vertx.openapi.strategy.impl.JavaReflectionGenerationStrategy;
-import com.gentics.vertx.openapi.strategy.impl.JsonSchemaGenerationStrategy;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.ParameterProvider;
+import com.gentics.vertx.openapi.model.ShardKey;
+import com.gentics.vertx.openapi.model.ShardedSpec;
+import com.gentics.vertx.openapi.model.SpecDetail;
+import com.gentics.vertx.openapi.model.SpecSnapshot;
+import com.gentics.vertx.openapi.strategy.ComponentGenerationStrategyRegistry;
 import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
 import com.gentics.vertx.openapi.writer.impl.V30Writer;
 import com.gentics.vertx.openapi.writer.impl.V31Writer;
@@ -46,6 +85,8 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.examples.Example;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.MediaType;
@@ -56,6 +97,11 @@ import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.servers.Server;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Route;
@@ -71,8 +117,14 @@ public class OpenAPIv3Generator {
 
 	private static final Logger log = LoggerFactory.getLogger(OpenAPIv3Generator.class);
 
+	/**
+	 * The name of the external example in the media type examples
+	 */
+	public static final String EXTERNAL_EXAMPLE_NAME = "default";
+
 	protected final Optional<? extends Collection<Pattern>> maybePathBlacklist;
 	protected final Optional<? extends Collection<Pattern>> maybePathWhitelist;
+	protected final PathFilter pathFilter;
 
 	protected final List<String> servers;
 	protected final String version;
@@ -82,6 +134,30 @@ public class OpenAPIv3Generator {
 	protected boolean useFullPackageForComponentName = false;
 	protected boolean dontRemoveUnusedComponents = false;
 	protected boolean forceReflectionStrategy = false;
+	protected boolean cacheOutput = false;
+	protected Optional<Executor> maybeParallelExecutor = Optional.empty();
+	protected boolean incrementalGeneration = false;
+	protected boolean deduplicateSchemas = false;
+	protected int sharedSchemaMinOccurrences = 3;
+	protected boolean extractComponents = false;
+	protected int extractedComponentMinOccurrences = 2;
+	protected Optional<String> maybeExternalExampleBaseUrl = Optional.empty();
+	protected int externalExampleMinSize = 16 * 1024;
+	protected boolean canonicalOutput = false;
+	protected ComponentGenerationStrategyRegistry strategyRegistry = ComponentGenerationStrategyRegistry.defaultRegistry(this);
+	protected Optional<Consumer<GenerationReport>> maybeReportListener = Optional.empty();
+
+	protected final Map<Pair<InternalEndpointRoute, Boolean>, RouteFragment> routeFragments = new ConcurrentHashMap<>();
+	protected final BiConsumer<InternalEndpointRoute, RouteChange> routeChangeListener = new WeakRouteChangeListener<>(this, OpenAPIv3Generator::onRouteChange);
+	protected final AtomicLong generations = new AtomicLong();
+
+	protected final Map<OutputVariant, GeneratedSpec> outputCache = new ConcurrentHashMap<>();
+	protected volatile Optional<SpecSnapshot> maybeCachedSnapshot = Optional.empty();
+	protected final Map<Pair<Boolean, ShardKey>, ShardedSpec> shardedCache = new ConcurrentHashMap<>();
+	protected final Map<String, Schema<?>> sharedSchemas = new ConcurrentHashMap<>();
+	protected final Map<String, Object> extractedComponents = new ConcurrentHashMap<>();
+	protected final ExampleCache exampleCache = new ExampleCache(10_000);
+	protected final ExampleStore exampleStore = new ExampleStore();
 
 	/**
 	 * Ctor
@@ -109,6 +185,7 @@ public class OpenAPIv3Generator {
 			@Nonnull Optional<? extends Collection<Pattern>> maybePathWhitelist) {
 		this.maybePathBlacklist = maybePathBlacklist;
 		this.maybePathWhitelist = maybePathWhitelist;
+		this.pathFilter = new PathFilter(maybePathBlacklist, maybePathWhitelist);
 		this.servers = servers;
 		this.version = version;
 		this.security = security;
@@ -144,6 +221,445 @@ public class OpenAPIv3Generator {
 	public String generate(String name, Map<Router, String> routers, Format format, boolean pretty, boolean useVersion31, 
 			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
 			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) throws OpenAPIGenerationException {
+		if (cacheOutput) {
+			return generateSpec(name, routers, OutputVariant.of(format, pretty, useVersion31), maybePathItemTransformer, maybeExtraComponentSupplier).asString();
+		}
+		Optional<GenerationReport> maybeReport = newReport(name);
+		OpenAPI openApi = generateModel(name, routers, useVersion31, maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		long start = System.nanoTime();
+		String spec = getWriter(useVersion31).write(openApi, format, pretty);
+		maybeReport.ifPresent(report -> publishReport(report.addTime(Phase.SERIALIZATION, System.nanoTime() - start)
+				.setOutputSize(OutputVariant.of(format, pretty, useVersion31), spec.getBytes(StandardCharsets.UTF_8).length)));
+		return spec;
+	}
+
+	/**
+	 * Generate the spec bytes of the given output variant. If the output caching is enabled, and the input fingerprint
+	 * has not changed since the last generation of this variant, the previously produced spec is returned.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param variant output variant
+	 * @param maybePathItemTransformer an optional custom path and path item transformer. Expected to be stable between calls, if the caching is on.
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the generated spec
+	 * @throws OpenAPIGenerationException
+	 */
+	public GeneratedSpec generateSpec(String name, Map<Router, String> routers, OutputVariant variant,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) throws OpenAPIGenerationException {
+		String fingerprint = fingerprint(name, routers, maybePathItemTransformer, maybeExtraComponentSupplier);
+		if (cacheOutput) {
+			GeneratedSpec cached = outputCache.get(variant);
+			if (cached != null && cached.getFingerprint().equals(fingerprint)) {
+				log.debug("Spec fingerprint {} hit for {}", fingerprint, variant);
+				return cached;
+			}
+			Optional<SpecSnapshot> maybeSnapshot = getCachedSnapshot(fingerprint);
+			if (maybeSnapshot.isPresent()) {
+				GeneratedSpec spec = maybeSnapshot.get().toSpec(variant);
+				outputCache.put(variant, spec);
+				return spec;
+			}
+		}
+		Optional<GenerationReport> maybeReport = newReport(name);
+		OpenAPI openApi = generateModel(name, routers, variant.isUseVersion31(), maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		long start = System.nanoTime();
+		GeneratedSpec spec = new GeneratedSpec(variant, fingerprint, writeBytes(openApi, variant));
+		maybeReport.ifPresent(report -> publishReport(report.addTime(Phase.SERIALIZATION, System.nanoTime() - start).setOutputSize(variant, spec.getBytes().length)));
+		if (cacheOutput) {
+			outputCache.put(variant, spec);
+		}
+		return spec;
+	}
+
+	/**
+	 * Generate the specs of all the given output variants in a single pass: the model is built once, and serialized into each variant,
+	 * the independent serializations running in parallel on the parallel executor, if set, or the common pool otherwise.
+	 * Respects the output caching: only the outdated variants are generated.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param variants output variants
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the generated specs, in the order of the requested variants
+	 * @throws OpenAPIGenerationException
+	 */
+	public Map<OutputVariant, GeneratedSpec> generateSpecs(String name, Map<Router, String> routers, Collection<OutputVariant> variants,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) throws OpenAPIGenerationException {
+		String fingerprint = fingerprint(name, routers, maybePathItemTransformer, maybeExtraComponentSupplier);
+		Map<OutputVariant, GeneratedSpec> specs = new LinkedHashMap<>();
+		List<OutputVariant> missing = new ArrayList<>();
+		for (OutputVariant variant : new LinkedHashSet<>(variants)) {
+			GeneratedSpec cached = cacheOutput ? outputCache.get(variant) : null;
+			if (cached != null && cached.getFingerprint().equals(fingerprint)) {
+				log.debug("Spec fingerprint {} hit for {}", fingerprint, variant);
+				specs.put(variant, cached);
+			} else {
+				specs.put(variant, null);
+				missing.add(variant);
+			}
+		}
+		if (missing.isEmpty()) {
+			return specs;
+		}
+		Optional<SpecSnapshot> maybeSnapshot = getCachedSnapshot(fingerprint);
+		if (maybeSnapshot.isPresent()) {
+			for (OutputVariant variant : missing) {
+				GeneratedSpec spec = maybeSnapshot.get().toSpec(variant);
+				specs.put(variant, spec);
+				outputCache.put(variant, spec);
+			}
+			return specs;
+		}
+		Optional<GenerationReport> maybeReport = newReport(name);
+		OpenAPI openApi = generateModel(name, routers, false, maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		long start = System.nanoTime();
+		List<GeneratedSpec> generated = writeSpecs(openApi, fingerprint, missing);
+		for (GeneratedSpec spec : generated) {
+			specs.put(spec.getVariant(), spec);
+			if (cacheOutput) {
+				outputCache.put(spec.getVariant(), spec);
+			}
+		}
+		maybeReport.ifPresent(report -> {
+			report.addTime(Phase.SERIALIZATION, System.nanoTime() - start);
+			generated.forEach(spec -> report.setOutputSize(spec.getVariant(), spec.getBytes().length));
+			publishReport(report);
+		});
+		return specs;
+	}
+
+	/**
+	 * Serialize the model into the variants, in parallel, if more than one. The writers do not change the model.
+	 * 
+	 * @param openApi
+	 * @param fingerprint input fingerprint
+	 * @param variants
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	protected List<GeneratedSpec> writeSpecs(OpenAPI openApi, String fingerprint, List<OutputVariant> variants) throws OpenAPIGenerationException {
+		if (variants.size() < 2) {
+			List<GeneratedSpec> specs = new ArrayList<>(variants.size());
+			for (OutputVariant variant : variants) {
+				specs.add(new GeneratedSpec(variant, fingerprint, writeBytes(openApi, variant)));
+			}
+			return specs;
+		}
+		Executor executor = maybeParallelExecutor.orElseGet(ForkJoinPool::commonPool);
+		List<CompletableFuture<GeneratedSpec>> futures = variants.stream().map(variant -> CompletableFuture.supplyAsync(() -> {
+			try {
+				return new GeneratedSpec(variant, fingerprint, writeBytes(openApi, variant));
+			} catch (OpenAPIGenerationException e) {
+				throw new CompletionException(e);
+			}
+		}, executor)).collect(Collectors.toList());
+		try {
+			return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof OpenAPIGenerationException) {
+				throw (OpenAPIGenerationException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Serialize the model into the variant. The lean variants are filtered out of the captured tokens of the model, see {@link LeanSpecFilter}.
+	 * 
+	 * @param openApi
+	 * @param variant
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	protected byte[] writeBytes(OpenAPI openApi, OutputVariant variant) throws OpenAPIGenerationException {
+		OpenAPIVersionWriter writer = getWriter(variant.isUseVersion31());
+		if (variant.getDetail() == SpecDetail.FULL) {
+			return writer.writeBytes(openApi, variant.getFormat(), variant.isPretty());
+		}
+		try (ByteArrayBuilder out = new ByteArrayBuilder()) {
+			writer.write(LeanSpecFilter.filter(writer.capture(openApi), variant.getDetail()), variant.getFormat(), variant.isPretty(), out);
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Generate the compact immutable snapshot of the spec, which can be written into any output variant without the swagger model.
+	 * If the output caching is enabled, the snapshot is cached until the input fingerprint changes, and the other spec generation calls
+	 * write their missing output variants directly out of it.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the spec snapshot
+	 * @throws OpenAPIGenerationException
+	 */
+	public SpecSnapshot generateSnapshot(String name, Map<Router, String> routers,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) throws OpenAPIGenerationException {
+		String fingerprint = fingerprint(name, routers, maybePathItemTransformer, maybeExtraComponentSupplier);
+		Optional<SpecSnapshot> maybeSnapshot = getCachedSnapshot(fingerprint);
+		if (maybeSnapshot.isPresent()) {
+			log.debug("Snapshot fingerprint {} hit", fingerprint);
+			return maybeSnapshot.get();
+		}
+		Optional<GenerationReport> maybeReport = newReport(name);
+		OpenAPI openApi = generateModel(name, routers, false, maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		long start = System.nanoTime();
+		SpecSnapshot snapshot = SpecSnapshot.capture(fingerprint, openApi, getWriter(false), getWriter(true));
+		maybeReport.ifPresent(report -> publishReport(report.addTime(Phase.SERIALIZATION, System.nanoTime() - start)));
+		if (cacheOutput) {
+			maybeCachedSnapshot = Optional.of(snapshot);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Get the cached snapshot, if the output caching is enabled, and the snapshot has been made out of the same input.
+	 * 
+	 * @param fingerprint input fingerprint
+	 * @return
+	 */
+	protected Optional<SpecSnapshot> getCachedSnapshot(String fingerprint) {
+		return cacheOutput ? maybeCachedSnapshot.filter(snapshot -> snapshot.getFingerprint().equals(fingerprint)) : Optional.empty();
+	}
+
+	/**
+	 * Generate the spec, split into the shard documents by the given key: each shard with its paths and the components used by it only,
+	 * the common document with the components used by many shards, and the root index, referencing all the paths. Only the split plan is made here,
+	 * the documents are written lazily on their first request. If the output caching is enabled, the sharded spec is cached until the input fingerprint changes.
+	 * If a report listener is set, the report includes the split time and the total size of the documents of the compact JSON variant, written ahead for it.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param useVersion31 switch between OpenAPI spec versions v3.1 and v3.0
+	 * @param shardKey the criterion of splitting the paths
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the sharded spec
+	 */
+	public ShardedSpec generateSharded(String name, Map<Router, String> routers, boolean useVersion31, ShardKey shardKey,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		String fingerprint = fingerprint(name, routers, maybePathItemTransformer, maybeExtraComponentSupplier);
+		Pair<Boolean, ShardKey> key = Pair.of(useVersion31, shardKey);
+		if (cacheOutput) {
+			ShardedSpec cached = shardedCache.get(key);
+			if (cached != null && cached.getFingerprint().equals(fingerprint)) {
+				log.debug("Sharded spec fingerprint {} hit", fingerprint);
+				return cached;
+			}
+		}
+		Optional<GenerationReport> maybeReport = newReport(name);
+		Context context = generateContext(name, routers, useVersion31, maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		OpenAPI openApi = context.openApi;
+		long start = System.nanoTime();
+		ShardedSpec sharded = ShardedSpec.split(fingerprint, openApi, useVersion31, getWriter(useVersion31), shardFunction(shardKey, openApi.getPaths().keySet(), context.pathTraits));
+		if (cacheOutput) {
+			shardedCache.put(key, sharded);
+		}
+		maybeReport.ifPresent(report -> {
+			// the documents of the default variant are written ahead to be measured, and are kept for their first request
+			OutputVariant variant = OutputVariant.of(Format.JSON, false, useVersion31);
+			long size = Stream.concat(Stream.of(ShardedSpec.INDEX, ShardedSpec.COMMON), sharded.getShards().keySet().stream())
+					.mapToLong(document -> sharded.getDocument(document, variant).map(spec -> spec.getBytes().length).orElse(0))
+					.sum();
+			publishReport(report.addTime(Phase.SERIALIZATION, System.nanoTime() - start).setOutputSize(variant, size));
+		});
+		return sharded;
+	}
+
+	/**
+	 * Make the function, returning the shard name of a path.
+	 * 
+	 * @param shardKey the criterion of splitting the paths
+	 * @param paths all the spec paths
+	 * @param pathTraits the route traits of the spec paths, collected by the generation
+	 * @return
+	 */
+	protected Function<String, String> shardFunction(ShardKey shardKey, Collection<String> paths, Map<String, String[]> pathTraits) {
+		switch (shardKey) {
+		case TRAIT:
+			return path -> Optional.ofNullable(pathTraits.get(path))
+					.flatMap(traits -> Arrays.stream(traits).filter(StringUtils::isNotBlank).findFirst())
+					.orElse(ShardedSpec.DEFAULT_SHARD);
+		case PREFIX:
+		default:
+			List<String[]> segments = paths.stream().map(path -> StringUtils.split(path, '/')).collect(Collectors.toList());
+			int common = 0;
+			if (segments.size() > 1) {
+				common = segments.stream().mapToInt(array -> array.length).min().orElse(0);
+				for (String[] array : segments) {
+					String[] first = segments.get(0);
+					int i = 0;
+					while (i < common && first[i].equals(array[i])) {
+						i++;
+					}
+					common = i;
+				}
+			}
+			int prefixIndex = common;
+			return path -> {
+				String[] array = StringUtils.split(path, '/');
+				return array.length > prefixIndex && !array[prefixIndex].startsWith("{") ? array[prefixIndex] : ShardedSpec.DEFAULT_SHARD;
+			};
+		}
+	}
+
+	/**
+	 * Generate the spec of the given output variant into a Vert.x buffer. Respects the output caching.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param variant output variant
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the spec buffer
+	 * @throws OpenAPIGenerationException
+	 */
+	public Buffer generateBuffer(String name, Map<Router, String> routers, OutputVariant variant,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) throws OpenAPIGenerationException {
+		if (cacheOutput) {
+			return Buffer.buffer(generateSpec(name, routers, variant, maybePathItemTransformer, maybeExtraComponentSupplier).getBytes());
+		}
+		Optional<GenerationReport> maybeReport = newReport(name);
+		OpenAPI openApi = generateModel(name, routers, variant.isUseVersion31(), maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		long start = System.nanoTime();
+		Buffer buffer = variant.getDetail() == SpecDetail.FULL
+				? getWriter(variant.isUseVersion31()).writeBuffer(openApi, variant.getFormat(), variant.isPretty())
+				: Buffer.buffer(writeBytes(openApi, variant));
+		maybeReport.ifPresent(report -> publishReport(report.addTime(Phase.SERIALIZATION, System.nanoTime() - start).setOutputSize(variant, buffer.length())));
+		return buffer;
+	}
+
+	/**
+	 * Generate the spec asynchronously on the Vert.x worker pool, keeping the event loop free.
+	 * 
+	 * @param vertx
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param variant output variant
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the future of the spec buffer
+	 */
+	public Future<Buffer> generateAsync(Vertx vertx, String name, Map<Router, String> routers, OutputVariant variant,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		return vertx.executeBlocking(() -> generateBuffer(name, routers, variant, maybePathItemTransformer, maybeExtraComponentSupplier), false);
+	}
+
+	/**
+	 * Generate the spec asynchronously with the given executor, e.g. a virtual thread per task one. 
+	 * If called from a Vert.x context, the result is delivered back on this context.
+	 * 
+	 * @param executor
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param variant output variant
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the future of the spec buffer
+	 */
+	public Future<Buffer> generateAsync(Executor executor, String name, Map<Router, String> routers, OutputVariant variant,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		io.vertx.core.Context callerContext = Vertx.currentContext();
+		Promise<Buffer> promise = Promise.promise();
+		try {
+			executor.execute(() -> {
+				Buffer result = null;
+				Throwable failure = null;
+				try {
+					result = generateBuffer(name, routers, variant, maybePathItemTransformer, maybeExtraComponentSupplier);
+				} catch (Throwable e) {
+					failure = e;
+				}
+				Buffer finalResult = result;
+				Throwable finalFailure = failure;
+				Handler<Void> completion = v -> {
+					if (finalFailure != null) {
+						promise.fail(finalFailure);
+					} else {
+						promise.complete(finalResult);
+					}
+				};
+				if (callerContext != null) {
+					callerContext.runOnContext(completion);
+				} else {
+					completion.handle(null);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			promise.fail(e);
+		}
+		return promise.future();
+	}
+
+	/**
+	 * Generate the OpenAPI model out of given routes and parameters.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param useVersion31 switch between OpenAPI spec versions v3.1 and v3.0
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the model
+	 */
+	public OpenAPI generateModel(String name, Map<Router, String> routers, boolean useVersion31, 
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		Optional<GenerationReport> maybeReport = newReport(name);
+		OpenAPI openApi = generateModel(name, routers, useVersion31, maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport);
+		maybeReport.ifPresent(this::publishReport);
+		return openApi;
+	}
+
+	/**
+	 * Generate the OpenAPI model out of given routes and parameters, collecting the statistics into the optional report.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param useVersion31 switch between OpenAPI spec versions v3.1 and v3.0
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @param maybeReport an optional report to fill
+	 * @return the generated model
+	 */
+	protected OpenAPI generateModel(String name, Map<Router, String> routers, boolean useVersion31, 
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier,
+			@Nonnull Optional<GenerationReport> maybeReport) {
+		return generateContext(name, routers, useVersion31, maybePathItemTransformer, maybeExtraComponentSupplier, maybeReport).openApi;
+	}
+
+	/**
+	 * Generate the OpenAPI model out of given routes and parameters, collecting the statistics into the optional report.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param useVersion31 switch between OpenAPI spec versions v3.1 and v3.0
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @param maybeReport an optional report to fill
+	 * @return the finished generation context, holding the generated model
+	 */
+	protected Context generateContext(String name, Map<Router, String> routers, boolean useVersion31, 
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier,
+			@Nonnull Optional<GenerationReport> maybeReport) {
+		GenerationEvent event = new GenerationEvent();
+		event.begin();
+		if (io.vertx.core.Context.isOnEventLoopThread()) {
+			log.warn("OpenAPIv3 generation is blocking the event loop thread, consider using generateAsync()");
+		}
 		log.info("Starting OpenAPIv3 generation...");
 		OpenAPI openApi = new OpenAPI();
 		openApi.setPaths(new Paths());
@@ -161,120 +677,618 @@ public class OpenAPIv3Generator {
 		openApi.setComponents(new Components());
 		Set<String> usedComponents = new HashSet<>();
 
-		Context context = new Context(openApi, usedComponents, useVersion31);
+		Context context = new Context(openApi, usedComponents, useVersion31, maybeParallelExecutor, strategyRegistry.newResolver(forceReflectionStrategy), maybeReport);
+		context.generation = generations.incrementAndGet();
 		try {
+			long start = System.nanoTime();
 			addSecurity(openApi);
+			start = context.timed(Phase.SECURITY, start);
 			maybeExtraComponentSupplier.ifPresent(componentSupplier -> {
 				componentSupplier.get().forEach(componentClass -> fillComponent(context, componentClass, Optional.empty()));
 			});
+			start = context.timed(Phase.EXTRA_COMPONENTS, start);
 			for (Entry<Router, String> routerAndParent : routers.entrySet()) {
-				addRouter(context, routerAndParent.getValue(), routerAndParent.getKey(), maybePathItemTransformer);
+				if (context.maybeExecutor.isPresent()) {
+					context.fork(routerAndParent.getValue(), routerAndParent.getKey(), maybePathItemTransformer);
+				} else {
+					addRouter(context, routerAndParent.getValue(), routerAndParent.getKey(), maybePathItemTransformer);
+				}
+			}
+			mergeForks(context);
+			if (incrementalGeneration) {
+				pruneRouteFragments(useVersion31, context.generation);
 			}
+			start = context.timed(Phase.ROUTER_WALK, start);
+			postProcess(context);
+			context.timed(Phase.POST_PROCESS, start);
 		} catch (IOException e) {
 			throw new RuntimeException("Could not add all verticles to raml generator", e);
 		}
-		postProcess(context);
+		maybeReport.ifPresent(report -> {
+			context.resolver.getStrategyHits().forEach(report::addStrategyHits);
+			report.setResult(openApi.getPaths().size(), openApi.getPaths().values().stream().mapToInt(item -> item.readOperations().size()).sum());
+		});
+		event.end();
+		if (event.shouldCommit()) {
+			event.name = name;
+			event.version31 = useVersion31;
+			event.parallel = maybeParallelExecutor.isPresent();
+			event.paths = openApi.getPaths().size();
+			event.operations = openApi.getPaths().values().stream().mapToInt(item -> item.readOperations().size()).sum();
+			event.commit();
+		}
+		return context;
+	}
+
+	/**
+	 * Get the spec writer for the version.
+	 * 
+	 * @param useVersion31
+	 * @return
+	 */
+	protected OpenAPIVersionWriter getWriter(boolean useVersion31) {
+		return useVersion31 ? new V31Writer() : new V30Writer();
+	}
+
+	/**
+	 * Make the fingerprint of the generation input: the generator settings, and all the routers with their routes and route metadata.
+	 * 
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param maybePathItemTransformer an optional custom path and path item transformer. Only its class is taken into account.
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @return the fingerprint hex string
+	 */
+	public String fingerprint(String name, Map<Router, String> routers,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		Fingerprint fingerprint = new Fingerprint()
+				.add(name)
+				.add(version)
+				.addAll(servers)
+				.add(useFullPackageForComponentName)
+				.add(dontRemoveUnusedComponents)
+				.add(forceReflectionStrategy)
+				.add(deduplicateSchemas)
+				.add(sharedSchemaMinOccurrences)
+				.add(extractComponents)
+				.add(extractedComponentMinOccurrences)
+				.add(maybeExternalExampleBaseUrl.orElse(null))
+				.add(externalExampleMinSize)
+				.add(canonicalOutput)
+				.add(maybePathBlacklist.map(Object::toString).orElse(null))
+				.add(maybePathWhitelist.map(Object::toString).orElse(null))
+				.addAll(security, (fp, scheme) -> fp.add(scheme.isGlobal()).add(scheme.getScheme()))
+				.add(maybePathItemTransformer.map(transformer -> transformer.getClass().getName()).orElse(null))
+				.addAll(maybeExtraComponentSupplier.map(supplier -> supplier.get().stream().map(Class::getName).collect(Collectors.toList())).orElse(null));
+		routers.entrySet().forEach(routerAndParent -> {
+			fingerprint.add(routerAndParent.getValue());
+			fingerprintRouter(fingerprint, routerAndParent.getKey());
+		});
+		return fingerprint.toHex();
+	}
+
+	/**
+	 * Add the router routes to the fingerprint, recursively.
+	 * 
+	 * @param fingerprint
+	 * @param router
+	 */
+	protected void fingerprintRouter(Fingerprint fingerprint, Router router) {
+		List<Route> routes = router.getRoutes();
+		fingerprint.add(routes.size());
+		for (Route route : routes) {
+			fingerprint.add(route.getPath())
+				.add(route.getName())
+				.add(route.isRegexPath())
+				.addAll(Optional.ofNullable(route.methods()).map(methods -> methods.stream().map(HttpMethod::name).sorted().collect(Collectors.toList())).orElse(null));
+			InternalEndpointRoute endpoint = route.getMetadata(InternalEndpointRoute.class.getCanonicalName());
+			if (endpoint != null) {
+				fingerprintEndpoint(fingerprint, endpoint);
+			}
+			if (route.getSubRouter() != null) {
+				fingerprintRouter(fingerprint, route.getSubRouter());
+			}
+		}
+	}
+
+	/**
+	 * Add the endpoint metadata to the fingerprint.
+	 * 
+	 * @param fingerprint
+	 * @param endpoint
+	 */
+	protected void fingerprintEndpoint(Fingerprint fingerprint, InternalEndpointRoute endpoint) {
+		fingerprint.add(endpoint.getRamlPath())
+			.add(endpoint.getMethod())
+			.add(endpoint.getDisplayName())
+			.add(endpoint.getDescription())
+			.add(endpoint.isHidden())
+			.add(endpoint.isEnabled())
+			.addAll(endpoint.getProduces())
+			.addAll(endpoint.getConsumes())
+			.addAll(endpoint.getTraits() != null ? Arrays.asList(endpoint.getTraits()) : null)
+			.addAll(endpoint.getQueryParameters(), this::fingerprintParam)
+			.addAll(endpoint.getQueryParameterProviders(), (fp, cls) -> fp.add(cls != null ? cls.getName() : null))
+			.addAll(endpoint.getUriParameters(), this::fingerprintParam)
+			.addAll(endpoint.getExampleResponses(), (fp, response) -> {
+				if (response != null) {
+					fp.add(response.getDescription())
+						.addAll(response.getBody(), this::fingerprintMimeType)
+						.addAll(response.getHeaders(), this::fingerprintParam);
+				} else {
+					fp.add((String) null);
+				}
+			})
+			.addAll(endpoint.getExampleResponseClasses(), (fp, cls) -> fp.add(cls != null ? cls.getName() : null))
+			.addAll(endpoint.getExampleRequestMap(), this::fingerprintMimeType)
+			.add(endpoint.getExampleRequestClass() != null ? endpoint.getExampleRequestClass().getName() : null)
+			.addAll(endpoint.getModel().stream().map(Class::getName).sorted().collect(Collectors.toList()))
+			.addAll(endpoint.getExtendedSecuritySchemes(), (fp, scheme) -> {
+				if (scheme != null) {
+					fp.add(scheme.isGlobal()).add(scheme.getScheme());
+				} else {
+					fp.add((String) null);
+				}
+			});
+	}
+
+	/**
+	 * Add the MIME type definition to the fingerprint.
+	 * 
+	 * @param fingerprint
+	 * @param mimeType
+	 */
+	protected void fingerprintMimeType(Fingerprint fingerprint, MimeType mimeType) {
+		if (mimeType == null) {
+			fingerprint.add((String) null);
+			return;
+		}
+		fingerprint.add(mimeType.getType())
+			.add(mimeType.getExample())
+			.add(mimeType.getSchema())
+			.addAll(mimeType.getFormParameters(), (fp, params) -> {
+				if (params != null) {
+					params.forEach(param -> fingerprintParam(fp, param));
+				} else {
+					fp.add((String) null);
+				}
+			});
+	}
+
+	/**
+	 * Add the parameter definition to the fingerprint.
+	 * 
+	 * @param fingerprint
+	 * @param param
+	 */
+	protected void fingerprintParam(Fingerprint fingerprint, AbstractParam param) {
+		if (param == null) {
+			fingerprint.add((String) null);
+			return;
+		}
+		fingerprint.add(param.getType())
+			.add(param.getDisplayName())
+			.add(param.getDescription())
+			.add(param.isRequired())
+			.add(param.getExample())
+			.add(param.getDefaultValue())
+			.addAll(param.getEnumeration())
+			.add(param.getMinimum())
+			.add(param.getMaximum())
+			.add(param.getMinLength())
+			.add(param.getMaxLength())
+			.add(param.getPattern());
+	}
+
+	/**
+	 * Do a post-processing of the prepared API: extract the repeated parameters, responses and headers and deduplicate the schemas, if requested, 
+	 * remove the components, unreachable from the paths, and bring the model into the canonical order, if requested.
+	 * 
+	 * @param context
+	 */
+	protected void postProcess(Context context) {
+		int generated = Optional.ofNullable(context.openApi.getComponents().getSchemas()).map(Map::size).orElse(0);
+		if (extractComponents) {
+			ComponentExtractor extractor = new ComponentExtractor(extractedComponents, extractedComponentMinOccurrences).extract(context.openApi);
+			log.debug("Extracted {} components, referenced {} times", extractor.getExtracted(), extractor.getReferenced());
+			context.maybeReport.ifPresent(report -> report.addComponentsExtracted(extractor.getExtracted(), extractor.getReferenced()));
+		}
+		if (deduplicateSchemas) {
+			SchemaDeduplicator deduplicator = new SchemaDeduplicator(sharedSchemas, sharedSchemaMinOccurrences).deduplicate(context.openApi);
+			log.debug("Shared {} schema occurrences, promoted {} schemas", deduplicator.getShared(), deduplicator.getPromoted());
+			context.maybeReport.ifPresent(report -> report.addSchemasDeduplicated(deduplicator.getShared(), deduplicator.getPromoted()));
+		}
+		int removed = 0;
+		if (!dontRemoveUnusedComponents) {
+			removed = ReferenceGraph.prune(context.openApi);
+			log.debug("Removed {} unreachable components", removed);
+		}
+		int pruned = removed;
+		context.maybeReport.ifPresent(report -> report.addComponents(generated, pruned));
+		if (canonicalOutput) {
+			CanonicalOrder.apply(context.openApi);
+		}
+	}
+
+	/**
+	 * Should the full class names be used for the component model name?
+	 * @return
+	 */
+	public boolean isUseFullPackageForComponentName() {
+		return useFullPackageForComponentName;
+	}
+
+	/**
+	 * Set to use full class names for the component model name.
+	 * @param useFullPackageForComponentName
+	 * @return 
+	 */
+	public OpenAPIv3Generator setUseFullPackageForComponentName(boolean useFullPackageForComponentName) {
+		this.useFullPackageForComponentName = useFullPackageForComponentName;
+		return this;
+	}
+
+	/**
+	 * Check if unused model components stay in the specification
+	 * 
+	 * @return
+	 */
+	public boolean isDontRemoveUnusedComponents() {
+		return dontRemoveUnusedComponents;
+	}
+
+	/**
+	 * Set unused model components to stay in the specification
+	 * 
+	 * @param dontRemoveUnusedComponents
+	 * @return
+	 */
+	public OpenAPIv3Generator setDontRemoveUnusedComponents(boolean dontRemoveUnusedComponents) {
+		this.dontRemoveUnusedComponents = dontRemoveUnusedComponents;
+		return this;
+	}
+
+	/**
+	 * Is Java reflection strategy forced for all cases?
+	 * 
+	 * @return
+	 */
+	public boolean isForceReflectionStrategy() {
+		return forceReflectionStrategy;
+	}
+
+	/**
+	 * Set Java reflection generation strategy forced for all cases
+	 * 
+	 * @param forceReflectionStrategy
+	 * @return
+	 */
+	public OpenAPIv3Generator setForceReflectionStrategy(boolean forceReflectionStrategy) {
+		this.forceReflectionStrategy = forceReflectionStrategy;
+		return this;
+	}
+
+	/**
+	 * Get the registry of the component generation strategies.
+	 * 
+	 * @return
+	 */
+	public ComponentGenerationStrategyRegistry getStrategyRegistry() {
+		return strategyRegistry;
+	}
+
+	/**
+	 * Set the registry of the component generation strategies. Drops the cached outputs.
+	 * 
+	 * @param strategyRegistry
+	 * @return
+	 */
+	public OpenAPIv3Generator setStrategyRegistry(@Nonnull ComponentGenerationStrategyRegistry strategyRegistry) {
+		this.strategyRegistry = Objects.requireNonNull(strategyRegistry).setTrackRoutes(incrementalGeneration);
+		clearOutputCache();
+		clearRouteFragments();
+		return this;
+	}
+
+	/**
+	 * Are the generated outputs cached, keyed by the input fingerprint?
+	 * 
+	 * @return
+	 */
+	public boolean isCacheOutput() {
+		return cacheOutput;
+	}
+
+	/**
+	 * Set the generated outputs to be cached. On each generation call the input is fingerprinted,
+	 * and if nothing has changed, the previously produced output of the requested variant is given back.
+	 * 
+	 * @param cacheOutput
+	 * @return
+	 */
+	public OpenAPIv3Generator setCacheOutput(boolean cacheOutput) {
+		this.cacheOutput = cacheOutput;
+		if (!cacheOutput) {
+			clearOutputCache();
+		}
+		return this;
+	}
+
+	/**
+	 * Drop the cached outputs and snapshot.
+	 */
+	protected void clearOutputCache() {
+		outputCache.clear();
+		shardedCache.clear();
+		maybeCachedSnapshot = Optional.empty();
+	}
+
+	/**
+	 * Get the executor for the parallel router walking, if set.
+	 * 
+	 * @return
+	 */
+	public Optional<Executor> getParallelExecutor() {
+		return maybeParallelExecutor;
+	}
+
+	/**
+	 * Set the executor for the parallel generation mode, e.g. {@link ForkJoinPool#commonPool()}. Each router and mounted sub-router is walked
+	 * concurrently into own paths and components, which get merged in a deterministic order afterwards.
+	 * The path item transformer, if given, must be thread-safe in this mode. Set null to switch back to the sequential generation.
+	 * 
+	 * @param executor
+	 * @return
+	 */
+	public OpenAPIv3Generator setParallelExecutor(Executor executor) {
+		this.maybeParallelExecutor = Optional.ofNullable(executor);
+		return this;
+	}
+
+	/**
+	 * Is the incremental generation on?
+	 * 
+	 * @return
+	 */
+	public boolean isIncrementalGeneration() {
+		return incrementalGeneration;
+	}
+
+	/**
+	 * Set the incremental generation. The path item and the used components of each {@link InternalEndpointRoute} are memoized
+	 * and reused by the next generations, until the route reports a change of its metadata or removal, see {@link RouteChange}. The fragments
+	 * of the routes not walked by a generation are dropped.
+	 * 
+	 * @param incrementalGeneration
+	 * @return
+	 */
+	public OpenAPIv3Generator setIncrementalGeneration(boolean incrementalGeneration) {
+		this.incrementalGeneration = incrementalGeneration;
+		strategyRegistry.setTrackRoutes(incrementalGeneration);
+		if (!incrementalGeneration) {
+			clearRouteFragments();
+		}
+		return this;
+	}
+
+	/**
+	 * Are the structurally equal schemas deduplicated?
+	 * 
+	 * @return
+	 */
+	public boolean isDeduplicateSchemas() {
+		return deduplicateSchemas;
+	}
+
+	/**
+	 * Set the structural deduplication of the generated schemas. The equal inline schemas share a single instance, 
+	 * and the frequent ones are promoted into the components and referenced, see {@link SchemaDeduplicator}.
+	 * 
+	 * @param deduplicateSchemas
+	 * @return
+	 */
+	public OpenAPIv3Generator setDeduplicateSchemas(boolean deduplicateSchemas) {
+		this.deduplicateSchemas = deduplicateSchemas;
+		if (!deduplicateSchemas) {
+			sharedSchemas.clear();
+		}
+		return this;
+	}
+
+	/**
+	 * Is the output in the canonical order?
+	 * 
+	 * @return
+	 */
+	public boolean isCanonicalOutput() {
+		return canonicalOutput;
+	}
+
+	/**
+	 * Set the canonical output: the paths, components, responses, parameters and schema properties are sorted, see {@link CanonicalOrder}, 
+	 * so the unchanged API always produces the byte-identical spec, with the same {@link GeneratedSpec#getContentHash()}.
+	 * 
+	 * @param canonicalOutput
+	 * @return
+	 */
+	public OpenAPIv3Generator setCanonicalOutput(boolean canonicalOutput) {
+		this.canonicalOutput = canonicalOutput;
+		return this;
+	}
+
+	/**
+	 * Get the minimal number of occurrences of a deduplicated schema, for it to be promoted into the components.
+	 * 
+	 * @return
+	 */
+	public int getSharedSchemaMinOccurrences() {
+		return sharedSchemaMinOccurrences;
+	}
+
+	/**
+	 * Set the minimal number of occurrences of a deduplicated schema, for it to be promoted into the components. Default is 3.
+	 * 
+	 * @param sharedSchemaMinOccurrences
+	 * @return
+	 */
+	public OpenAPIv3Generator setSharedSchemaMinOccurrences(int sharedSchemaMinOccurrences) {
+		this.sharedSchemaMinOccurrences = sharedSchemaMinOccurrences;
+		return this;
+	}
+
+	/**
+	 * Are the repeated parameters, responses and response headers extracted into the components?
+	 * 
+	 * @return
+	 */
+	public boolean isExtractComponents() {
+		return extractComponents;
+	}
+
+	/**
+	 * Set the extraction of the repeated parameters, responses and response headers into the components, referenced by <code>$ref</code>, 
+	 * see {@link ComponentExtractor}. The query parameters, added by a {@link ParameterProvider}, are always referenced as the components, named after the provider.
+	 * 
+	 * @param extractComponents
+	 * @return
+	 */
+	public OpenAPIv3Generator setExtractComponents(boolean extractComponents) {
+		this.extractComponents = extractComponents;
+		if (!extractComponents) {
+			extractedComponents.clear();
+		}
+		return this;
+	}
+
+	/**
+	 * Get the minimal number of occurrences of a parameter, response or response header, for it to be extracted into the components.
+	 * 
+	 * @return
+	 */
+	public int getExtractedComponentMinOccurrences() {
+		return extractedComponentMinOccurrences;
+	}
+
+	/**
+	 * Set the minimal number of occurrences of a parameter, response or response header, for it to be extracted into the components. Default is 2.
+	 * 
+	 * @param extractedComponentMinOccurrences
+	 * @return
+	 */
+	public OpenAPIv3Generator setExtractedComponentMinOccurrences(int extractedComponentMinOccurrences) {
+		this.extractedComponentMinOccurrences = extractedComponentMinOccurrences;
+		return this;
+	}
 
-		OpenAPIVersionWriter writer = useVersion31 ? new V31Writer() : new V30Writer();
-		return writer.write(openApi, format, pretty);
+	/**
+	 * Get the base URL of the external examples, if enabled.
+	 * 
+	 * @return
+	 */
+	public Optional<String> getExternalExampleBaseUrl() {
+		return maybeExternalExampleBaseUrl;
 	}
 
 	/**
-	 * Do a post-processing of the prepared API.
+	 * Set the base URL of the external examples. If set, the examples, not shorter than {@link #getExternalExampleMinSize()}, are moved out of the spec 
+	 * into the {@link #getExampleStore()}, and referenced by the <code>externalValue</code> of <code>&lt;baseUrl&gt;/&lt;key&gt;</code>, 
+	 * to be served by {@link com.gentics.vertx.openapi.route.ExampleHandler}.
 	 * 
-	 * @param context
+	 * @param externalExampleBaseUrl a base URL, or null to keep all the examples inline
+	 * @return
 	 */
-	protected void postProcess(Context context) {
-		if (!dontRemoveUnusedComponents && context.openApi.getComponents() != null && context.openApi.getComponents().getSchemas() != null) {
-			Set<String> keys = new HashSet<>(context.openApi.getComponents().getSchemas().keySet());
-			keys.forEach(schema -> {
-				if (!context.usedComponents.contains(schema)) {
-					context.openApi.getComponents().getSchemas().remove(schema);
-				}
-			});
-		}
+	public OpenAPIv3Generator setExternalExampleBaseUrl(String externalExampleBaseUrl) {
+		this.maybeExternalExampleBaseUrl = Optional.ofNullable(externalExampleBaseUrl).filter(StringUtils::isNotBlank);
+		return this;
 	}
 
 	/**
-	 * Should the full class names be used for the component model name?
+	 * Get the minimal length of an example text, for it to be moved out of the spec.
+	 * 
 	 * @return
 	 */
-	public boolean isUseFullPackageForComponentName() {
-		return useFullPackageForComponentName;
+	public int getExternalExampleMinSize() {
+		return externalExampleMinSize;
 	}
 
 	/**
-	 * Set to use full class names for the component model name.
-	 * @param useFullPackageForComponentName
-	 * @return 
+	 * Set the minimal length of an example text, for it to be moved out of the spec. Default is 16384 characters.
+	 * 
+	 * @param externalExampleMinSize
+	 * @return
 	 */
-	public OpenAPIv3Generator setUseFullPackageForComponentName(boolean useFullPackageForComponentName) {
-		this.useFullPackageForComponentName = useFullPackageForComponentName;
+	public OpenAPIv3Generator setExternalExampleMinSize(int externalExampleMinSize) {
+		this.externalExampleMinSize = externalExampleMinSize;
 		return this;
 	}
 
 	/**
-	 * Check if unused model components stay in the specification
+	 * Get the store of the examples, moved out of the spec.
 	 * 
 	 * @return
 	 */
-	public boolean isDontRemoveUnusedComponents() {
-		return dontRemoveUnusedComponents;
+	public ExampleStore getExampleStore() {
+		return exampleStore;
 	}
 
 	/**
-	 * Set unused model components to stay in the specification
+	 * Get the generation report listener, if set.
 	 * 
-	 * @param dontRemoveUnusedComponents
 	 * @return
 	 */
-	public OpenAPIv3Generator setDontRemoveUnusedComponents(boolean dontRemoveUnusedComponents) {
-		this.dontRemoveUnusedComponents = dontRemoveUnusedComponents;
-		return this;
+	public Optional<Consumer<GenerationReport>> getReportListener() {
+		return maybeReportListener;
 	}
 
 	/**
-	 * Is Java reflection strategy forced for all cases?
+	 * Set the listener of the generation reports. If set, each generation collects a {@link GenerationReport} and passes it to the listener once complete.
+	 * The cached output hits produce no reports.
 	 * 
+	 * @param reportListener a listener, or null to turn the reporting off
 	 * @return
 	 */
-	public boolean isForceReflectionStrategy() {
-		return forceReflectionStrategy;
+	public OpenAPIv3Generator setReportListener(Consumer<GenerationReport> reportListener) {
+		this.maybeReportListener = Optional.ofNullable(reportListener);
+		return this;
 	}
 
 	/**
-	 * Set Java reflection generation strategy forced for all cases
+	 * Create a new report, if there is a listener for it.
 	 * 
-	 * @param forceReflectionStrategy
+	 * @param name spec title
 	 * @return
 	 */
-	public OpenAPIv3Generator setForceReflectionStrategy(boolean forceReflectionStrategy) {
-		this.forceReflectionStrategy = forceReflectionStrategy;
-		return this;
+	protected Optional<GenerationReport> newReport(String name) {
+		return maybeReportListener.map(listener -> new GenerationReport(name));
+	}
+
+	/**
+	 * Pass the complete report to the listener.
+	 * 
+	 * @param report
+	 */
+	protected void publishReport(GenerationReport report) {
+		log.debug("{}", report);
+		maybeReportListener.ifPresent(listener -> {
+			try {
+				listener.accept(report);
+			} catch (Throwable e) {
+				log.error("Generation report listener failed", e);
+			}
+		});
 	}
 
 	/**
 	 * Make the component model name out of this class.
 	 * 
+	 * @param context
 	 * @param cls
+	 * @param maybeInternalRoute
 	 * @return
 	 */
-	protected String getComponentName(Class<?> cls, Optional<InternalEndpointRoute> maybeInternalRoute) {
-		List<? extends ComponentGenerationStrategy<?>> componentGenerationStrategies = isForceReflectionStrategy() 
-				? List.of(
-					new JavaReflectionGenerationStrategy(this)
-				)					
-				: List.of(
-					new JsonSchemaGenerationStrategy(this, maybeInternalRoute),
-					new JavaReflectionGenerationStrategy(this)
-				);
-		for (ComponentGenerationStrategy<?> strategy : componentGenerationStrategies) {
-			Optional<String> maybeName = strategy.makeComponentName(cls);
-			if (maybeName.isPresent()) {
-				return maybeName.get();
-			}
-		}
-		return cls.getSimpleName();
+	protected String getComponentName(Context context, Class<?> cls, Optional<InternalEndpointRoute> maybeInternalRoute) {
+		return context.resolver.getComponentName(cls, maybeInternalRoute);
 	}
 
 	/**
@@ -325,24 +1339,15 @@ public class OpenAPIv3Generator {
 		if (components.getSchemas() == null) {
 			components.setSchemas(new HashMap<>(Map.of("AnyJson", new Schema<String>())));
 		}
-		List<? extends ComponentGenerationStrategy<?>> componentGenerationStrategies = isForceReflectionStrategy() 
-			? List.of(
-				new JavaReflectionGenerationStrategy(this)
-			)					
-			: List.of(
-				new JsonSchemaGenerationStrategy(this, maybeInternalRoute),
-				new JavaReflectionGenerationStrategy(this)
-			);
 		log.debug("Generating {}", Objects.toString(cls));
-		componentGenerationStrategies.stream().map(strategy -> strategy.checkFillComponent(cls, context.openApi, context.usedComponents))
-			.filter(Optional::isPresent)
-			.findAny()
-			.map(Optional::get)
-			.ifPresentOrElse(schema -> {
-				log.debug("Generated component: {}", schema.getName());
-			}, () -> {
-				log.warn("Could not find strategy for the generation: {}", Objects.toString(cls));
-			});
+		long start = System.nanoTime();
+		Optional<Schema<?>> maybeSchema = context.resolver.fillComponent(cls, maybeInternalRoute, context.openApi, context.usedComponents);
+		context.timed(Phase.COMPONENT_FILL, start);
+		maybeSchema.ifPresentOrElse(schema -> {
+			log.debug("Generated component: {}", schema.getName());
+		}, () -> {
+			log.warn("Could not find strategy for the generation: {}", Objects.toString(cls));
+		});
 	}
 
 	/**
@@ -382,7 +1387,7 @@ public class OpenAPIv3Generator {
 		}
 		resolveMethod(method.name(), pathItem, operation);
 		List<Stream<Parameter>> params = List.of(
-				endpoint.getQueryParameters().entrySet().stream().map(e -> parameter(e.getKey(), e.getValue(), InParameter.QUERY, context.useVersion31)),
+				endpoint.getQueryParameters().entrySet().stream().map(e -> queryParameter(context, endpoint, e.getKey(), e.getValue())),
 				endpoint.getUriParameters().entrySet().stream().map(e -> parameter(e.getKey(), e.getValue(), InParameter.PATH, context.useVersion31)));
 		operation.setParameters(params.stream().flatMap(Function.identity()).filter(Objects::nonNull).collect(Collectors.toList()));
 		ApiResponses responses = new ApiResponses();
@@ -408,12 +1413,19 @@ public class OpenAPIv3Generator {
 			.map(e -> {
 				ApiResponse response = new ApiResponse();
 				response.setDescription(e.getValue().getDescription());
+				if (e.getValue().getHeaders() != null && !e.getValue().getHeaders().isEmpty()) {
+					Map<String, Header> headers = new LinkedHashMap<>();
+					e.getValue().getHeaders().entrySet().stream().filter(h -> Objects.nonNull(h.getValue()))
+						.sorted(Map.Entry.comparingByKey())
+						.forEach(h -> headers.put(h.getKey(), header(h.getKey(), h.getValue(), context.useVersion31)));
+					response.setHeaders(headers);
+				}
 				Content responseBody = new Content();
 				if (endpoint.getExampleResponseClasses() != null && endpoint.getExampleResponseClasses().get(e.getKey()) != null) {
 					Schema<String> schema = new Schema<>();
 					Class<?> ref = endpoint.getExampleResponseClasses().get(e.getKey());
 					if (ref != null && !ref.getCanonicalName().startsWith("java.")) {
-						String usedComponent = getComponentName(ref, Optional.of(endpoint));
+						String usedComponent = getComponentName(context, ref, Optional.of(endpoint));
 						schema.set$ref("#/components/schemas/" + usedComponent);
 						context.usedComponents.add(usedComponent);
 					}
@@ -432,18 +1444,7 @@ public class OpenAPIv3Generator {
 					if (bodyMime != null) {
 						String exampleText = bodyMime.getExample();
 						if (exampleText != null) {
-							exampleText = exampleText.trim();
-							try {
-								if (exampleText.startsWith("{")) {
-									mediaType.setExample(new io.vertx.core.json.JsonObject(exampleText).getMap());
-								} else if (exampleText.startsWith("[")) {
-									mediaType.setExample(new io.vertx.core.json.JsonArray(exampleText).getList());
-								} else {
-									mediaType.setExample(exampleText);
-								}
-							} catch (Exception ex) {
-								mediaType.setExample(exampleText);
-							}
+							fillExample(mediaType, mimeKey, exampleText, true);
 						}
 					}
 					if (mimeKey == null) {
@@ -521,13 +1522,23 @@ public class OpenAPIv3Generator {
 	 * @throws IOException
 	 */
 	protected void addRouter(Context context, String parent, Router router, Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer) throws IOException {
-		for (Route route : router.getRoutes()) {
+		RouterWalkEvent event = new RouterWalkEvent();
+		event.begin();
+		List<Route> routes = router.getRoutes();
+		for (Route route : routes) {
 			addRoute(context, parent, route, maybePathItemTransformer);
 		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.parent = parent;
+			event.routes = routes.size();
+			event.commit();
+		}
 	}
 
 	/**
-	 * Add the given route to the specification.
+	 * Add the given route to the specification. A mounted sub-router is walked even if the mount path itself is filtered off,
+	 * unless no path below it may pass the filter.
 	 * 
 	 * @param parent router parent path
 	 * @param router router
@@ -537,6 +1548,7 @@ public class OpenAPIv3Generator {
 	 * @throws IOException
 	 */
 	protected void addRoute(Context context, String parent, Route route, Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer) throws IOException {
+		context.maybeReport.ifPresent(GenerationReport::addRoute);
 		String rawPath = route.getPath();
 		InternalEndpointRoute internalRoute = (InternalEndpointRoute) route.metadata().get(InternalEndpointRoute.class.getCanonicalName());
 		if (internalRoute != null && StringUtils.isNotBlank(internalRoute.getRamlPath()) ) {
@@ -549,11 +1561,37 @@ public class OpenAPIv3Generator {
 						.collect(Collectors.joining("/"))))
 				.replace("//", "/");
 
-		if(maybePathBlacklist.flatMap(list -> list.stream().filter(blacklisted -> blacklisted.matcher(path).matches()).findAny()).isPresent()
-				|| (maybePathWhitelist.isPresent() && maybePathWhitelist.flatMap(list -> list.stream().filter(whitelisted -> whitelisted.matcher(path).matches()).findAny()).isEmpty())) {
-			log.debug("Path filtered off: " + path);
+		if (internalRoute != null && !internalRoute.isEnabled()) {
+			log.debug("Path {} is disabled and skipped", path);
 			return;
 		}
+		if (pathFilter.accepts(path)) {
+			if (incrementalGeneration && internalRoute != null) {
+				addMemoizedRoutePath(context, path, route, internalRoute, maybePathItemTransformer);
+			} else {
+				addRoutePath(context, path, route, maybePathItemTransformer);
+			}
+		} else {
+			log.debug("Path filtered off: " + path);
+		}
+		if (route.getSubRouter() != null) {
+			if (pathFilter.mayAcceptBelow(path)) {
+				addSubRouter(context, path, route.getSubRouter(), maybePathItemTransformer);
+			} else {
+				log.debug("Sub-router at {} is filtered off", path);
+			}
+		}
+	}
+
+	/**
+	 * Add the path item of the given route to the specification.
+	 * 
+	 * @param context
+	 * @param path full route path
+	 * @param route
+	 * @param maybePathItemTransformer
+	 */
+	protected void addRoutePath(Context context, String path, Route route, Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer) {
 		Paths paths = context.openApi.getPaths();
 
 		PathItem pathItem = Optional.ofNullable(paths.get(path)).orElseGet(() -> {
@@ -563,10 +1601,14 @@ public class OpenAPIv3Generator {
 			paths.put(path, item);
 			return item;
 		});
+		Map<PathItem.HttpMethod, Operation> previousOperations = pathItem.readOperationsMap();
 		Optional.ofNullable(route.getMetadata(InternalEndpointRoute.class.getCanonicalName()))
 			.map(InternalEndpointRoute.class::cast)
 			.ifPresentOrElse(endpoint -> {
 				log.debug("Path with metadata: " + path);
+				if (endpoint.getTraits() != null && endpoint.getTraits().length > 0) {
+					context.pathTraits.put(path, endpoint.getTraits());
+				}
 				pathItem.setSummary(endpoint.getDisplayName());
 				pathItem.setDescription(endpoint.getDescription());
 				endpoint.getModel().forEach(modelComponent -> fillComponent(context, modelComponent, Optional.of(endpoint)));
@@ -579,15 +1621,286 @@ public class OpenAPIv3Generator {
 			if (!Strings.CI.equals(path, newPath)) {
 				paths.remove(path, pathItem);
 				paths.put(newPath, pathItem);
+				Optional.ofNullable(context.pathTraits.get(path)).ifPresent(traits -> context.pathTraits.put(newPath, traits));
 			}
 			return path;
 		}).orElse(path);
+		pathItem.readOperationsMap().forEach((method, operation) -> {
+			if (previousOperations.get(method) != operation) {
+				context.markOperation(path1, method);
+			}
+		});
 		if (pathItem.readOperations().isEmpty()) {
 			log.debug("Path removed due to having no operations: " + path1);
 			paths.remove(path1, pathItem);
 		}
-		if (route.getSubRouter() != null) {
-			addRouter(context, path, route.getSubRouter(), maybePathItemTransformer);
+	}
+
+	/**
+	 * Add the path item of the given route to the specification, reusing the memoized route fragment: the path item and all the components it needs.
+	 * The fragment is recomputed only if the route or the generation settings have changed. The fragment is kept captured, and a fresh copy of it
+	 * is merged into each generated model.
+	 * 
+	 * @param context
+	 * @param path full route path
+	 * @param route
+	 * @param endpoint route metadata
+	 * @param maybePathItemTransformer
+	 */
+	protected void addMemoizedRoutePath(Context context, String path, Route route, InternalEndpointRoute endpoint, Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer) {
+		// the route metadata changes are reported by the route itself, so only the surroundings of the route are fingerprinted here
+		long settings = new Fingerprint()
+				.add(path)
+				.add(route.getName())
+				.add(useFullPackageForComponentName)
+				.add(forceReflectionStrategy)
+				.add(extractComponents)
+				.add(maybeExternalExampleBaseUrl.orElse(null))
+				.add(externalExampleMinSize)
+				.add(maybePathItemTransformer.map(transformer -> transformer.getClass().getName()).orElse(null))
+				.get();
+		Pair<InternalEndpointRoute, Boolean> key = Pair.of(endpoint, context.useVersion31);
+		RouteFragment fragment = routeFragments.get(key);
+		if (fragment == null || fragment.settings != settings) {
+			log.debug("Resolving route fragment of {}", path);
+			endpoint.addChangeListener(routeChangeListener);
+			OpenAPI fragmentApi = new OpenAPI();
+			fragmentApi.setPaths(new Paths());
+			fragmentApi.setComponents(new Components());
+			Context fragmentContext = new Context(fragmentApi, new HashSet<>(), context.useVersion31, Optional.empty(), context.resolver, context.maybeReport);
+			addRoutePath(fragmentContext, path, route, maybePathItemTransformer);
+			fragment = new RouteFragment(settings, fragmentContext);
+			routeFragments.put(key, fragment);
+		}
+		fragment.visit(context.generation);
+		// the post processing rewrites the path items in place, so each generation gets its own copy of them
+		for (Entry<String, PathItem> entry : fragment.openApi.getPaths().entrySet()) {
+			mergePath(context.openApi.getPaths(), entry.getKey(), ModelCopy.copy(entry.getValue()));
+			entry.getValue().readOperationsMap().keySet().forEach(method -> context.markOperation(entry.getKey(), method));
+		}
+		Context memoized = new Context(fragment.openApi, fragment.usedComponents, context.useVersion31, Optional.empty(), context.resolver, context.maybeReport);
+		memoized.pathTraits.putAll(fragment.pathTraits);
+		mergeComponents(context, memoized);
+	}
+
+	/**
+	 * React on the route change: drop the cached output, and the memoized fragments of an updated or removed route.
+	 * 
+	 * @param endpoint
+	 * @param change
+	 */
+	protected void onRouteChange(InternalEndpointRoute endpoint, RouteChange change) {
+		log.debug("Route {} has been changed: {}", endpoint.getRamlPath(), change);
+		clearOutputCache();
+		if (change == RouteChange.UPDATED || change == RouteChange.REMOVED) {
+			routeFragments.keySet().removeIf(key -> key.getKey() == endpoint);
+		}
+		if (change == RouteChange.REMOVED) {
+			endpoint.removeChangeListener(routeChangeListener);
+		}
+	}
+
+	/**
+	 * Drop the memoized fragments of the spec version, not visited since the given generation started, i.e. of the routes no longer walked.
+	 * The routes left without any fragment are not listened to anymore.
+	 * 
+	 * @param useVersion31
+	 * @param generation
+	 */
+	protected void pruneRouteFragments(boolean useVersion31, long generation) {
+		Set<InternalEndpointRoute> pruned = new HashSet<>();
+		routeFragments.entrySet().removeIf(entry -> {
+			if (entry.getKey().getValue() == useVersion31 && entry.getValue().lastVisit < generation) {
+				pruned.add(entry.getKey().getKey());
+				return true;
+			}
+			return false;
+		});
+		routeFragments.keySet().forEach(key -> pruned.remove(key.getKey()));
+		pruned.forEach(endpoint -> endpoint.removeChangeListener(routeChangeListener));
+		if (!pruned.isEmpty()) {
+			log.debug("Pruned the route fragments of {} routes", pruned.size());
+		}
+	}
+
+	/**
+	 * Drop all the memoized route fragments.
+	 */
+	public void clearRouteFragments() {
+		routeFragments.keySet().forEach(key -> key.getKey().removeChangeListener(routeChangeListener));
+		routeFragments.clear();
+	}
+
+	/**
+	 * Add all routes of a mounted sub-router to the specification. In the parallel mode the sub-router is walked concurrently
+	 * into its own context, which gets merged back at the current position later.
+	 * 
+	 * @param context
+	 * @param parent sub-router mount path
+	 * @param subRouter
+	 * @param maybePathItemTransformer
+	 * @throws IOException
+	 */
+	protected void addSubRouter(Context context, String parent, Router subRouter, Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer) throws IOException {
+		if (context.maybeExecutor.isPresent()) {
+			context.fork(parent, subRouter, maybePathItemTransformer);
+		} else {
+			addRouter(context, parent, subRouter, maybePathItemTransformer);
+		}
+	}
+
+	/**
+	 * Merge all the forked router contexts into the given one, in the order they would have been walked sequentially.
+	 * 
+	 * @param context
+	 */
+	protected void mergeForks(Context context) {
+		if (context.forks.isEmpty()) {
+			return;
+		}
+		Paths ownPaths = context.openApi.getPaths();
+		List<Entry<String, PathItem>> ownEntries = List.copyOf(ownPaths.entrySet());
+		Paths merged = new Paths();
+		merged.setExtensions(ownPaths.getExtensions());
+		int position = 0;
+		for (int forkIndex = 0; forkIndex < context.forks.size(); forkIndex++) {
+			Pair<Integer, CompletableFuture<Context>> fork = context.forks.get(forkIndex);
+			while (position < fork.getKey()) {
+				Entry<String, PathItem> entry = ownEntries.get(position++);
+				mergePath(merged, entry.getKey(), entry.getValue());
+			}
+			Context child;
+			try {
+				child = fork.getValue().join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+			mergeForks(child);
+			// an own operation, set after the fork, is walked later, so it wins over the forked one
+			int index = forkIndex;
+			child.openApi.getPaths().forEach((path, pathItem) -> mergePath(merged, path, pathItem,
+					method -> context.operationForks.getOrDefault(operationKey(path, method), 0) > index));
+			mergeComponents(context, child);
+		}
+		while (position < ownEntries.size()) {
+			Entry<String, PathItem> entry = ownEntries.get(position++);
+			mergePath(merged, entry.getKey(), entry.getValue());
+		}
+		context.forks.clear();
+		context.openApi.setPaths(merged);
+	}
+
+	/**
+	 * Merge the path item into the paths, joining the operations, if the path already exists. As in the sequential walk, the operations
+	 * of the later route replace the existing ones of the same method. The path item itself is never modified.
+	 * 
+	 * @param paths
+	 * @param path
+	 * @param pathItem
+	 */
+	protected void mergePath(Paths paths, String path, PathItem pathItem) {
+		mergePath(paths, path, pathItem, method -> false);
+	}
+
+	/**
+	 * Merge the path item into the paths, joining the operations, if the path already exists. The operations of the path item replace
+	 * the existing ones of the same method, unless the existing ones are to be kept. The path item itself is never modified.
+	 * 
+	 * @param paths
+	 * @param path
+	 * @param pathItem
+	 * @param keepExisting the test of the methods, whose existing operation has been set later than the one of the path item
+	 */
+	protected void mergePath(Paths paths, String path, PathItem pathItem, Predicate<PathItem.HttpMethod> keepExisting) {
+		PathItem existing = paths.get(path);
+		if (existing == null) {
+			PathItem copy = new PathItem()
+					.summary(pathItem.getSummary())
+					.description(pathItem.getDescription())
+					.servers(pathItem.getServers())
+					.parameters(pathItem.getParameters());
+			copy.set$ref(pathItem.get$ref());
+			copy.setExtensions(pathItem.getExtensions());
+			pathItem.readOperationsMap().forEach(copy::operation);
+			paths.put(path, copy);
+			return;
+		}
+		Map<PathItem.HttpMethod, Operation> existingOperations = existing.readOperationsMap();
+		boolean replaced = false;
+		for (Entry<PathItem.HttpMethod, Operation> operation : pathItem.readOperationsMap().entrySet()) {
+			if (!existingOperations.containsKey(operation.getKey()) || !keepExisting.test(operation.getKey())) {
+				existing.operation(operation.getKey(), operation.getValue());
+				replaced = true;
+			}
+		}
+		if (existing.getSummary() == null || (replaced && pathItem.getSummary() != null)) {
+			existing.setSummary(pathItem.getSummary());
+		}
+		if (existing.getDescription() == null || (replaced && pathItem.getDescription() != null)) {
+			existing.setDescription(pathItem.getDescription());
+		}
+	}
+
+	/**
+	 * Make the key of an operation, see {@link Context#operationForks}.
+	 * 
+	 * @param path
+	 * @param method
+	 * @return
+	 */
+	protected static String operationKey(String path, PathItem.HttpMethod method) {
+		return method + " " + path;
+	}
+
+	/**
+	 * Merge the components, used components, security requirements and path traits of the source context into the target one. 
+	 * Already existing entries are kept, except for the path traits, where the later walked route wins.
+	 * 
+	 * @param target
+	 * @param source
+	 */
+	protected void mergeComponents(Context target, Context source) {
+		target.usedComponents.addAll(source.usedComponents);
+		target.pathTraits.putAll(source.pathTraits);
+		Components from = source.openApi.getComponents();
+		Components to = target.openApi.getComponents();
+		if (from.getSchemas() != null) {
+			if (to.getSchemas() == null) {
+				to.setSchemas(new HashMap<>());
+			}
+			from.getSchemas().forEach(to.getSchemas()::putIfAbsent);
+		}
+		if (from.getParameters() != null) {
+			if (to.getParameters() == null) {
+				to.setParameters(new HashMap<>());
+			}
+			from.getParameters().forEach(to.getParameters()::putIfAbsent);
+		}
+		if (from.getResponses() != null) {
+			if (to.getResponses() == null) {
+				to.setResponses(new HashMap<>());
+			}
+			from.getResponses().forEach(to.getResponses()::putIfAbsent);
+		}
+		if (from.getHeaders() != null) {
+			if (to.getHeaders() == null) {
+				to.setHeaders(new HashMap<>());
+			}
+			from.getHeaders().forEach(to.getHeaders()::putIfAbsent);
+		}
+		if (from.getSecuritySchemes() != null) {
+			from.getSecuritySchemes().forEach((key, scheme) -> {
+				if (to.getSecuritySchemes() == null || !to.getSecuritySchemes().containsKey(key)) {
+					to.addSecuritySchemes(key, scheme);
+				}
+			});
+		}
+		if (source.openApi.getSecurity() != null) {
+			source.openApi.getSecurity().forEach(requirement -> {
+				if (target.openApi.getSecurity() == null || !target.openApi.getSecurity().contains(requirement)) {
+					target.openApi.addSecurityItem(requirement);
+				}
+			});
 		}
 	}
 
@@ -622,6 +1935,24 @@ public class OpenAPIv3Generator {
 		Optional.ofNullable(route.methods()).ifPresent(methods -> methods.stream().forEach(m -> resolveMethod(m.name(), pathItem, o)));
 	}
 
+	/**
+	 * Set the example of the media type. If the external examples are enabled, and the example text is not shorter than the threshold,
+	 * the example is moved into the {@link ExampleStore}, and referenced by its <code>externalValue</code> URL.
+	 * 
+	 * @param mediaType
+	 * @param contentType the media type name
+	 * @param exampleText
+	 * @param parse should the inlined example text be parsed into a value
+	 */
+	protected void fillExample(MediaType mediaType, String contentType, String exampleText, boolean parse) {
+		if (maybeExternalExampleBaseUrl.isPresent() && exampleText.length() >= externalExampleMinSize) {
+			String key = exampleStore.put(exampleText, contentType);
+			mediaType.setExamples(Map.of(EXTERNAL_EXAMPLE_NAME, new Example().externalValue(Strings.CS.removeEnd(maybeExternalExampleBaseUrl.get(), "/") + "/" + key)));
+		} else {
+			mediaType.setExample(parse ? exampleCache.get(exampleText) : exampleText);
+		}
+	}
+
 	/**
 	 * Make the name-mediatype map for the current key name, MIME, and model component class. 
 	 * 
@@ -634,7 +1965,9 @@ public class OpenAPIv3Generator {
 	@SuppressWarnings("rawtypes")
 	protected Map.Entry<String, MediaType> fillMediaType(Context context, String key, MimeType mimeType, Class<?> refClass, Optional<InternalEndpointRoute> maybeInternalRoute) {
 		MediaType mediaType = new MediaType();
-		mediaType.setExample(mimeType.getExample());
+		if (mimeType.getExample() != null) {
+			fillExample(mediaType, key, mimeType.getExample(), false);
+		}
 		if (mimeType.getFormParameters() != null) {
 			Map<String, Schema> props = mimeType.getFormParameters().entrySet().stream().map(p -> parameter(p.getKey(), p.getValue().get(0), null, context.useVersion31))
 					.collect(Collectors.toMap(p -> p.getName(), p -> p.getSchema()));
@@ -645,7 +1978,7 @@ public class OpenAPIv3Generator {
 			return new UnmodifiableMapEntry<String, MediaType>("multipart/form-data", mediaType);
 		} else if (mimeType.getSchema() != null) {
 			JsonObject jschema = new JsonObject(mimeType.getSchema());
-			String usedComponent = getComponentName(refClass, maybeInternalRoute);
+			String usedComponent = getComponentName(context, refClass, maybeInternalRoute);
 			Schema<String> schema = new Schema<>();
 			schema.setType(jschema.getString("type", "string"));
 			schema.set$id(jschema.getString("id"));
@@ -655,7 +1988,6 @@ public class OpenAPIv3Generator {
 			fillComponent(context, refClass, maybeInternalRoute);
 			return new UnmodifiableMapEntry<String, MediaType>(key, mediaType);
 		} else if (refClass != null && refClass.getSimpleName().toLowerCase().startsWith("json")) {
-			mediaType.setExample(mimeType.getExample());
 			Schema<String> schema = new Schema<>();
 			schema.set$ref("#/components/schemas/AnyJson");
 			context.usedComponents.add("AnyJson");
@@ -667,15 +1999,82 @@ public class OpenAPIv3Generator {
 	}
 
 	/**
-	 * Make a spec parameter.
+	 * Make a spec query parameter. A parameter, added by a {@link ParameterProvider}, is registered as a parameter component, named after the provider, 
+	 * and referenced, if the component extraction is enabled.
+	 * 
+	 * @param context
+	 * @param endpoint
+	 * @param name
+	 * @param param
+	 * @return
+	 */
+	protected Parameter queryParameter(Context context, InternalEndpointRoute endpoint, String name, QueryParameter param) {
+		Parameter parameter = parameter(name, param, InParameter.QUERY, context.useVersion31);
+		Class<? extends ParameterProvider> provider = endpoint.getQueryParameterProviders().get(name);
+		if (!extractComponents || provider == null) {
+			return parameter;
+		}
+		String componentName = ComponentExtractor.componentName(getComponentName(context, provider, Optional.of(endpoint)) + "_" + name);
+		Components components = context.openApi.getComponents();
+		if (components.getParameters() == null) {
+			components.setParameters(new HashMap<>());
+		}
+		Parameter existing = components.getParameters().putIfAbsent(componentName, parameter);
+		if (existing != null && !existing.equals(parameter)) {
+			// the same provider name is used for a different parameter content
+			return parameter;
+		}
+		return new Parameter().$ref(ComponentExtractor.PARAMETERS_PREFIX + componentName);
+	}
+
+	/**
+	 * Make a spec response header.
+	 * 
+	 * @param name
+	 * @param param
+	 * @param useVersion31
+	 * @return
+	 */
+	protected Header header(String name, AbstractParam param, boolean useVersion31) {
+		Parameter parameter = parameter(name, param, null, useVersion31);
+		Header header = new Header();
+		header.setDescription(parameter.getDescription());
+		if (param.isRequired()) {
+			header.setRequired(true);
+		}
+		header.setSchema(parameter.getSchema());
+		return header;
+	}
+
+	/**
+	 * Make a spec parameter, with its own schema instance.
 	 * 
 	 * @param name
 	 * @param param
 	 * @param inType
 	 * @return
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	protected final Parameter parameter(String name, AbstractParam param, InParameter inType, boolean useVersion31) {
+		Parameter p = new Parameter();
+		p.setRequired(param.isRequired());
+		p.setDescription(param.getDescription());
+		p.setSchema(parameterSchema(param, useVersion31));
+		p.setName(name);
+		if (inType != null) {
+			p.setIn(inType.toString());
+		}
+		return p;
+	}
+
+	/**
+	 * Make a schema of a spec parameter.
+	 * 
+	 * @param param
+	 * @param useVersion31
+	 * @return
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected Schema<?> parameterSchema(AbstractParam param, boolean useVersion31) {
 		Schema schema;
 		switch (param.getType()) {
 			case BOOLEAN:
@@ -720,21 +2119,13 @@ public class OpenAPIv3Generator {
 		schema.setPattern(param.getPattern());
 		schema.setDescription(param.getDescription());
 		if (StringUtils.isNotBlank(param.getExample())) {
-			if (useVersion31) {
-				schema.setExamples(List.of(param.getExample()));
-			} else {
+			schema.setExamples(List.of(param.getExample()));
+			if (!useVersion31) {
+				// ignored by the v3.1 writer, so a v3.0 model serves both versions
 				schema.setExample(param.getExample());
 			}
 		}
-		Parameter p = new Parameter();
-		p.setRequired(param.isRequired());
-		p.setDescription(param.getDescription());
-		p.setSchema(schema);
-		p.setName(name);
-		if (inType != null) {
-			p.setIn(inType.toString());
-		}
-		return p;
+		return schema;
 	}
 
 	/**
@@ -744,11 +2135,127 @@ public class OpenAPIv3Generator {
 		public final OpenAPI openApi;
 		public final Set<String> usedComponents;
 		public final boolean useVersion31;
+		public final Optional<Executor> maybeExecutor;
+		public final ComponentGenerationStrategyRegistry.Resolver resolver;
+		public final Optional<GenerationReport> maybeReport;
+
+		/**
+		 * Forked router walks, each with the count of own paths existing at the fork moment.
+		 */
+		protected final List<Pair<Integer, CompletableFuture<Context>>> forks = new ArrayList<>();
+
+		/**
+		 * The number of the forks made before each own operation has been set last, by the operation key {@link OpenAPIv3Generator#operationKey(String, PathItem.HttpMethod)}.
+		 * Tracked in the parallel mode only.
+		 */
+		protected final Map<String, Integer> operationForks = new HashMap<>();
+
+		/**
+		 * The route traits of the paths, for splitting the spec by them.
+		 */
+		public final Map<String, String[]> pathTraits = new HashMap<>();
+
+		/**
+		 * The number of the generation, the context belongs to, for telling the route fragments not visited anymore.
+		 */
+		protected long generation;
 
 		public Context(OpenAPI consumer, Set<String> usedComponents, boolean useVersion31) {
+			this(consumer, usedComponents, useVersion31, Optional.empty());
+		}
+
+		public Context(OpenAPI consumer, Set<String> usedComponents, boolean useVersion31, Optional<Executor> maybeExecutor) {
+			this(consumer, usedComponents, useVersion31, maybeExecutor, strategyRegistry.newResolver(forceReflectionStrategy));
+		}
+
+		public Context(OpenAPI consumer, Set<String> usedComponents, boolean useVersion31, Optional<Executor> maybeExecutor, ComponentGenerationStrategyRegistry.Resolver resolver) {
+			this(consumer, usedComponents, useVersion31, maybeExecutor, resolver, Optional.empty());
+		}
+
+		public Context(OpenAPI consumer, Set<String> usedComponents, boolean useVersion31, Optional<Executor> maybeExecutor, ComponentGenerationStrategyRegistry.Resolver resolver, Optional<GenerationReport> maybeReport) {
 			this.openApi = consumer;
 			this.usedComponents = usedComponents;
 			this.useVersion31 = useVersion31;
+			this.maybeExecutor = maybeExecutor;
+			this.resolver = resolver;
+			this.maybeReport = maybeReport;
+		}
+
+		/**
+		 * Add the time passed since the start to the report phase, if reporting.
+		 * 
+		 * @param phase
+		 * @param start phase start nanos
+		 * @return current nanos
+		 */
+		public long timed(Phase phase, long start) {
+			long now = System.nanoTime();
+			maybeReport.ifPresent(report -> report.addTime(phase, now - start));
+			return now;
+		}
+
+		/**
+		 * Note the own operation being set now, after the forks made so far.
+		 * 
+		 * @param path
+		 * @param method
+		 */
+		public void markOperation(String path, PathItem.HttpMethod method) {
+			if (maybeExecutor.isPresent()) {
+				operationForks.put(operationKey(path, method), forks.size());
+			}
+		}
+
+		/**
+		 * Walk the router concurrently into a new child context, to be merged with {@link OpenAPIv3Generator#mergeForks(Context)}.
+		 * 
+		 * @param parent router parent path
+		 * @param router
+		 * @param maybePathItemTransformer
+		 */
+		public void fork(String parent, Router router, Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer) {
+			Executor executor = maybeExecutor.orElseThrow(() -> new IllegalStateException("The context is not parallel"));
+			OpenAPI childApi = new OpenAPI();
+			childApi.setPaths(new Paths());
+			childApi.setComponents(new Components());
+			Context child = new Context(childApi, new HashSet<>(), useVersion31, maybeExecutor, resolver, maybeReport);
+			child.generation = generation;
+			forks.add(Pair.of(openApi.getPaths().size(), CompletableFuture.supplyAsync(() -> {
+				try {
+					addRouter(child, parent, router, maybePathItemTransformer);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return child;
+			}, executor)));
+		}
+	}
+
+	/**
+	 * A memoized contribution of a single route: its path item and the components it needs. The fragment model is never changed,
+	 * the generations merge the copies of its path items.
+	 */
+	protected static class RouteFragment {
+		protected final long settings;
+		protected final OpenAPI openApi;
+		protected final Set<String> usedComponents;
+		protected final Map<String, String[]> pathTraits;
+		protected volatile long lastVisit;
+
+		protected RouteFragment(long settings, Context context) {
+			this.settings = settings;
+			this.openApi = context.openApi;
+			this.usedComponents = Set.copyOf(context.usedComponents);
+			this.pathTraits = Map.copyOf(context.pathTraits);
+		}
+
+		/**
+		 * Note the fragment being used by the generation.
+		 * 
+		 * @param generation
+		 */
+		protected synchronized void visit(long generation) {
+			lastVisit = Math.max(lastVisit, generation);
 		}
 	}
 }
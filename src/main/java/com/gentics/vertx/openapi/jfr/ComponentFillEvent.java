@@ -0,0 +1,28 @@
+package com.gentics.vertx.openapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A model component fill from a Java class.
+ */
+@Name("com.gentics.vertx.openapi.ComponentFill")
+@Label("OpenAPI Component Fill")
+@Category({ "Gentics", "OpenAPI" })
+@Description("A model component fill from a Java class.")
+@StackTrace(false)
+public class ComponentFillEvent extends Event {
+
+	@Label("Class Name")
+	public String className;
+
+	@Label("Strategy")
+	public String strategy;
+
+	@Label("Memoized Strategy")
+	public boolean memoized;
+}
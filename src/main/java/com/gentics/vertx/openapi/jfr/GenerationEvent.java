@@ -0,0 +1,34 @@
+package com.gentics.vertx.openapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single OpenAPI model generation.
+ */
+@Name("com.gentics.vertx.openapi.Generation")
+@Label("OpenAPI Generation")
+@Category({ "Gentics", "OpenAPI" })
+@Description("A single OpenAPI model generation.")
+@StackTrace(false)
+public class GenerationEvent extends Event {
+
+	@Label("Spec Title")
+	public String name;
+
+	@Label("OpenAPI 3.1")
+	public boolean version31;
+
+	@Label("Parallel Walk")
+	public boolean parallel;
+
+	@Label("Paths")
+	public int paths;
+
+	@Label("Operations")
+	public int operations;
+}
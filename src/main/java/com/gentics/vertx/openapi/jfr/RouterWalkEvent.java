@@ -0,0 +1,25 @@
+package com.gentics.vertx.openapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A walk over a router or a mounted sub-router, including the nested ones.
+ */
+@Name("com.gentics.vertx.openapi.RouterWalk")
+@Label("OpenAPI Router Walk")
+@Category({ "Gentics", "OpenAPI" })
+@Description("A walk over a router or a mounted sub-router, including the nested ones.")
+@StackTrace(false)
+public class RouterWalkEvent extends Event {
+
+	@Label("Parent Path")
+	public String parent;
+
+	@Label("Routes")
+	public int routes;
+}
@@ -0,0 +1,22 @@
+package com.gentics.vertx.openapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JSON schema computation of a route model class.
+ */
+@Name("com.gentics.vertx.openapi.SchemaComputation")
+@Label("OpenAPI JSON Schema Computation")
+@Category({ "Gentics", "OpenAPI" })
+@Description("A JSON schema computation of a route model class.")
+@StackTrace(false)
+public class SchemaComputationEvent extends Event {
+
+	@Label("Class Name")
+	public String className;
+}
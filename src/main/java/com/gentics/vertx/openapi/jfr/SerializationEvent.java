@@ -0,0 +1,57 @@
+package com.gentics.vertx.openapi.jfr;
+
+import java.util.function.LongSupplier;
+
+import com.gentics.vertx.openapi.model.Format;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A serialization of the model by a spec writer.
+ */
+@Name("com.gentics.vertx.openapi.Serialization")
+@Label("OpenAPI Serialization")
+@Category({ "Gentics", "OpenAPI" })
+@Description("A serialization of the model by a spec writer.")
+@StackTrace(false)
+public class SerializationEvent extends Event {
+
+	@Label("Format")
+	public String format;
+
+	@Label("Pretty")
+	public boolean pretty;
+
+	@Label("OpenAPI 3.1")
+	public boolean version31;
+
+	@Label("Size")
+	@Description("Output size, or -1 if written into a stream")
+	@DataAmount
+	public long size;
+
+	/**
+	 * End the event, and commit it with the serialization details, if enabled. The size is computed only then.
+	 *
+	 * @param format
+	 * @param pretty
+	 * @param version31
+	 * @param sizeSupplier
+	 */
+	public void complete(Format format, boolean pretty, boolean version31, LongSupplier sizeSupplier) {
+		end();
+		if (shouldCommit()) {
+			this.format = format.name();
+			this.pretty = pretty;
+			this.version31 = version31;
+			this.size = sizeSupplier.getAsLong();
+			commit();
+		}
+	}
+}
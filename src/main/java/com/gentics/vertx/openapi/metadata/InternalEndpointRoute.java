@@ -2,10 +2,12 @@ package com.gentics.vertx.openapi.metadata;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.raml.model.MimeType;
 import org.raml.model.Response;
@@ -338,6 +340,15 @@ public interface InternalEndpointRoute extends Comparable<InternalEndpointRoute>
 	 */
 	Map<String, QueryParameter> getQueryParameters();
 
+	/**
+	 * Return the classes of the parameter providers, which added the query parameters using {@link #addQueryParameters(Class)}, by the parameter name.
+	 * 
+	 * @return
+	 */
+	default Map<String, Class<? extends ParameterProvider>> getQueryParameterProviders() {
+		return Collections.emptyMap();
+	}
+
 	/**
 	 * Return the Vert.x route path regex.
 	 * 
@@ -565,4 +576,33 @@ public interface InternalEndpointRoute extends Comparable<InternalEndpointRoute>
 	 * @return
 	 */
 	JsonSchema getSchema(String id);
+
+	/**
+	 * Is this endpoint enabled? Disabled endpoints are skipped by the spec generator.
+	 * 
+	 * @return
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Add a listener, notified on this endpoint metadata update, removal, disabling and enabling. The default implementation never notifies.
+	 * 
+	 * @param listener
+	 * @return Fluent API
+	 */
+	default InternalEndpointRoute addChangeListener(BiConsumer<InternalEndpointRoute, RouteChange> listener) {
+		return this;
+	}
+
+	/**
+	 * Remove the change listener.
+	 * 
+	 * @param listener
+	 * @return Fluent API
+	 */
+	default InternalEndpointRoute removeChangeListener(BiConsumer<InternalEndpointRoute, RouteChange> listener) {
+		return this;
+	}
 }
@@ -18,6 +18,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +45,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.module.jsonSchema.JsonSchema;
 import com.fasterxml.jackson.module.jsonSchema.JsonSchemaGenerator;
+import com.gentics.vertx.openapi.jfr.SchemaComputationEvent;
 import com.gentics.vertx.openapi.misc.UtilsAndConstants;
 import com.gentics.vertx.openapi.model.ExtendedSecurityScheme;
 import com.gentics.vertx.openapi.model.ParameterProvider;
@@ -95,6 +98,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	protected final Set<String> consumes = new LinkedHashSet<>();
 	protected final Set<String> produces = new LinkedHashSet<>();
 	protected final Map<String, QueryParameter> parameters = new HashMap<>();
+	protected final Map<String, Class<? extends ParameterProvider>> parameterProviders = new HashMap<>();
 	protected final Collection<Class<?>> modelComponents = new HashSet<>();
 
 	protected String[] traits = new String[] {};
@@ -107,6 +111,9 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	protected Boolean mutating;
 
 	private boolean hidden;
+	private volatile boolean enabled = true;
+
+	protected final List<BiConsumer<InternalEndpointRoute, RouteChange>> changeListeners = new CopyOnWriteArrayList<>();
 
 	static {
 		minifyingPrettyPrinter = new MinimalPrettyPrinter();
@@ -167,6 +174,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	@Override
 	public InternalEndpointRoute path(String path) {
 		route.path(path);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -177,6 +185,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		}
 		this.method = method;
 		route.method(method);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -184,6 +193,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	public InternalEndpointRoute pathRegex(String path) {
 		this.pathRegex = path;
 		route.pathRegex(path);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -191,6 +201,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	public InternalEndpointRoute produces(String contentType) {
 		produces.add(contentType);
 		route.produces(contentType);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -198,6 +209,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	public InternalEndpointRoute consumes(String contentType) {
 		consumes.add(contentType);
 		route.consumes(contentType);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -290,21 +302,61 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	@Override
 	public InternalEndpointRoute remove() {
 		route.remove();
+		notifyChange(RouteChange.REMOVED);
 		return this;
 	}
 
 	@Override
 	public InternalEndpointRoute disable() {
 		route.disable();
+		enabled = false;
+		notifyChange(RouteChange.DISABLED);
 		return this;
 	}
 
 	@Override
 	public InternalEndpointRoute enable() {
 		route.enable();
+		enabled = true;
+		notifyChange(RouteChange.ENABLED);
+		return this;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public InternalEndpointRoute addChangeListener(BiConsumer<InternalEndpointRoute, RouteChange> listener) {
+		changeListeners.removeIf(known -> known instanceof WeakRouteChangeListener && ((WeakRouteChangeListener<?>) known).isCleared());
+		if (!changeListeners.contains(listener)) {
+			changeListeners.add(listener);
+		}
+		return this;
+	}
+
+	@Override
+	public InternalEndpointRoute removeChangeListener(BiConsumer<InternalEndpointRoute, RouteChange> listener) {
+		changeListeners.remove(listener);
 		return this;
 	}
 
+	/**
+	 * Notify the change listeners
+	 * 
+	 * @param change
+	 */
+	protected void notifyChange(RouteChange change) {
+		changeListeners.forEach(listener -> {
+			try {
+				listener.accept(this, change);
+			} catch (Throwable e) {
+				log.error("Route change listener failed on " + change + " of " + getRamlPath(), e);
+			}
+		});
+	}
+
 	@Override
 	public InternalEndpointRoute useNormalisedPath(boolean useNormalisedPath) {
 		route.useNormalizedPath(useNormalisedPath);
@@ -327,12 +379,14 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	@Override
 	public InternalEndpointRoute displayName(String name) {
 		this.displayName = name;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
 	@Override
 	public InternalEndpointRoute description(String description) {
 		this.description = description;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -360,6 +414,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 			headers.put(headerName, header);
 			response.setHeaders(headers);
 		}
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -403,6 +458,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 
 		exampleResponses.put(status.code(), response);
 		exampleResponseClasses.put(status.code(), model.getClass());
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -428,6 +484,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		mimeType.setExample(bodyText);
 		bodyMap.put("text/plain", mimeType);
 		this.exampleRequestMap = bodyMap;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -438,6 +495,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		mimeType.setFormParameters(parameters);
 		bodyMap.put("multipart/form-data", mimeType);
 		this.exampleRequestMap = bodyMap;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -456,6 +514,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		}
 		this.exampleRequestMap = bodyMap;
 		this.exampleRequestClass = model.getClass();
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -467,12 +526,14 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		mimeType.setExample(json);
 		bodyMap.put("application/json", mimeType);
 		this.exampleRequestMap = bodyMap;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
 	@Override
 	public InternalEndpointRoute traits(String... traits) {
 		this.traits = traits;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -510,22 +571,34 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	public InternalEndpointRoute addQueryParameters(Class<? extends ParameterProvider> clazz) {
 		try {
 			ParameterProvider provider = clazz.getConstructor().newInstance();
-			parameters.putAll(provider.getRAMLParameters());
+			provider.getRAMLParameters().forEach((name, param) -> {
+				parameters.put(name, param);
+				parameterProviders.put(name, clazz);
+			});
 		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
 			e.printStackTrace();
 		}
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
 	@Override
 	public InternalEndpointRoute addQueryParameter(String name, QueryParameter param) {
 		parameters.put(name, param);
+		parameterProviders.remove(name);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
+	@Override
+	public Map<String, Class<? extends ParameterProvider>> getQueryParameterProviders() {
+		return parameterProviders;
+	}
+
 	@Override
 	public InternalEndpointRoute setRAMLPath(String path) {
 		this.ramlPath = path;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -541,6 +614,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		param.setExample(example);
 		param.setRequired(true);
 		uriParameters.put(key, param);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -557,10 +631,18 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	 * @return
 	 */
 	protected JsonSchema getJsonSchemaObject(Class<?> clazz) {
+		SchemaComputationEvent event = new SchemaComputationEvent();
+		event.begin();
 		try {
 			return schemaGen.generateSchema(clazz);
 		} catch (JsonProcessingException e) {
 			throw new IllegalStateException(e);
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.className = clazz.getName();
+				event.commit();
+			}
 		}
 	}
 
@@ -628,6 +710,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	@Override
 	public InternalEndpointRouteImpl setMutating(Boolean mutating) {
 		this.mutating = mutating;
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -648,6 +731,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		} else {
 			this.securitySchemes.clear();
 		}
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -663,6 +747,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		} else {
 			this.securitySchemes.clear();
 		}
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -680,6 +765,7 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 	@Override
 	public InternalEndpointRoute setModel(Collection<Class<?>> modelComponents) {
 		this.modelComponents.addAll(modelComponents);
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
@@ -707,12 +793,14 @@ public class InternalEndpointRouteImpl implements InternalEndpointRoute {
 		if (insecure) {
 			this.securitySchemes.clear();
 		}
+		notifyChange(RouteChange.UPDATED);
 		return this;
 	}
 
 	@Override
 	public void setHidden(boolean hidden) {
 		this.hidden = hidden;
+		notifyChange(RouteChange.UPDATED);
 	}
 
 	@Override
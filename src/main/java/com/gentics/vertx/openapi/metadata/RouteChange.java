@@ -0,0 +1,23 @@
+package com.gentics.vertx.openapi.metadata;
+
+/**
+ * A kind of change of an {@link InternalEndpointRoute}, reported to its change listeners.
+ */
+public enum RouteChange {
+	/**
+	 * The route metadata has been changed by one of its mutators. The changes made directly to the returned collections are not reported.
+	 */
+	UPDATED,
+	/**
+	 * The route has been removed from its router
+	 */
+	REMOVED,
+	/**
+	 * The route has been disabled
+	 */
+	DISABLED,
+	/**
+	 * The route has been (re)enabled
+	 */
+	ENABLED
+}
@@ -0,0 +1,57 @@
+package com.gentics.vertx.openapi.metadata;
+
+import java.lang.ref.WeakReference;
+import java.util.function.BiConsumer;
+
+/**
+ * A route change listener, holding its owner weakly, so the routes do not keep the owner (e.g. a spec generator with all its caches) alive.
+ * Once the owner is collected, the listener unregisters itself on the next notification, and is dropped by {@link InternalEndpointRouteImpl}
+ * on the next listener registration.
+ *
+ * @param <T> owner type
+ */
+public final class WeakRouteChangeListener<T> implements BiConsumer<InternalEndpointRoute, RouteChange> {
+
+	private final WeakReference<T> owner;
+	private final Callback<T> callback;
+
+	/**
+	 * Ctor
+	 *
+	 * @param owner the listener owner
+	 * @param callback the owner's reaction, which must not capture the owner itself
+	 */
+	public WeakRouteChangeListener(T owner, Callback<T> callback) {
+		this.owner = new WeakReference<>(owner);
+		this.callback = callback;
+	}
+
+	@Override
+	public void accept(InternalEndpointRoute route, RouteChange change) {
+		T t = owner.get();
+		if (t == null) {
+			route.removeChangeListener(this);
+		} else {
+			callback.onRouteChange(t, route, change);
+		}
+	}
+
+	/**
+	 * Has the owner been collected?
+	 *
+	 * @return
+	 */
+	public boolean isCleared() {
+		return owner.get() == null;
+	}
+
+	/**
+	 * The owner's reaction on a route change.
+	 *
+	 * @param <T> owner type
+	 */
+	@FunctionalInterface
+	public interface Callback<T> {
+		void onRouteChange(T owner, InternalEndpointRoute route, RouteChange change);
+	}
+}
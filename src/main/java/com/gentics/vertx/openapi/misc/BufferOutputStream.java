@@ -0,0 +1,40 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.io.OutputStream;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * An {@link OutputStream}, appending directly into a Vert.x {@link Buffer}.
+ */
+public class BufferOutputStream extends OutputStream {
+
+	protected final Buffer buffer;
+
+	public BufferOutputStream(Buffer buffer) {
+		this.buffer = buffer;
+	}
+
+	public BufferOutputStream() {
+		this(Buffer.buffer());
+	}
+
+	@Override
+	public void write(int b) {
+		buffer.appendByte((byte) b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		buffer.appendBytes(b, off, len);
+	}
+
+	/**
+	 * Get the target buffer
+	 * 
+	 * @return
+	 */
+	public Buffer getBuffer() {
+		return buffer;
+	}
+}
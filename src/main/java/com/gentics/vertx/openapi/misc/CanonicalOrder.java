@@ -0,0 +1,290 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+/**
+ * The canonical ordering of an OpenAPI model, making its serialization byte-stable, regardless of the order, in which the routes were walked
+ * and the components were filled. The paths, webhooks, components, responses, media types, headers and schema properties are sorted by their names,
+ * the parameters by their location and name, and the <code>required</code> lists alphabetically. The order of the lists with a meaning
+ * (<code>allOf</code>, <code>enum</code>, tags, security) is kept.
+ * <p>
+ * The maps and lists are only replaced, if not yet in order, so the model objects, shared between the generations, are never reordered twice.
+ */
+public final class CanonicalOrder {
+
+	private static final Comparator<Parameter> PARAMETER_ORDER = Comparator
+			.comparing((Parameter parameter) -> Objects.toString(parameter.getIn(), ""))
+			.thenComparing(parameter -> Objects.toString(parameter.getName(), ""))
+			.thenComparing(parameter -> Objects.toString(parameter.get$ref(), ""));
+
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private CanonicalOrder() {
+	}
+
+	/**
+	 * Bring the model into the canonical order.
+	 *
+	 * @param openApi
+	 */
+	public static void apply(OpenAPI openApi) {
+		CanonicalOrder order = new CanonicalOrder();
+		if (openApi.getPaths() != null) {
+			sortInPlace(openApi.getPaths());
+			openApi.getPaths().values().forEach(order::walk);
+		}
+		if (openApi.getWebhooks() != null) {
+			openApi.setWebhooks(sorted(openApi.getWebhooks()));
+			openApi.getWebhooks().values().forEach(order::walk);
+		}
+		if (openApi.getComponents() != null) {
+			order.walk(openApi.getComponents());
+		}
+	}
+
+	/**
+	 * Check whether the map keys are in the ascending order.
+	 *
+	 * @param map
+	 * @return
+	 */
+	private static boolean isSorted(Map<String, ?> map) {
+		Iterator<String> keys = map.keySet().iterator();
+		String previous = null;
+		while (keys.hasNext()) {
+			String key = keys.next();
+			if (previous != null && previous.compareTo(key) > 0) {
+				return false;
+			}
+			previous = key;
+		}
+		return true;
+	}
+
+	/**
+	 * Get the map in the key order: the same one, if already sorted, or a sorted copy.
+	 *
+	 * @param <T>
+	 * @param map
+	 * @return
+	 */
+	private static <T> Map<String, T> sorted(Map<String, T> map) {
+		if (map == null || isSorted(map)) {
+			return map;
+		}
+		Map<String, T> sorted = new LinkedHashMap<>(map.size());
+		map.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> sorted.put(e.getKey(), e.getValue()));
+		return sorted;
+	}
+
+	/**
+	 * Sort the insertion ordered map in place, e.g. the model classes, extending {@link LinkedHashMap}.
+	 *
+	 * @param <T>
+	 * @param map
+	 */
+	private static <T> void sortInPlace(Map<String, T> map) {
+		if (!isSorted(map)) {
+			Map<String, T> sorted = sorted(map);
+			map.clear();
+			map.putAll(sorted);
+		}
+	}
+
+	private static <T> List<T> sorted(List<T> list, Comparator<? super T> comparator) {
+		if (list == null || list.size() < 2) {
+			return list;
+		}
+		for (int i = 1; i < list.size(); i++) {
+			if (comparator.compare(list.get(i - 1), list.get(i)) > 0) {
+				List<T> sorted = new ArrayList<>(list);
+				sorted.sort(comparator);
+				return sorted;
+			}
+		}
+		return list;
+	}
+
+	private boolean visit(Object item) {
+		return item != null && visited.add(item);
+	}
+
+	private void walk(Components components) {
+		components.setSchemas(sorted(components.getSchemas()));
+		components.setResponses(sorted(components.getResponses()));
+		components.setParameters(sorted(components.getParameters()));
+		components.setExamples(sorted(components.getExamples()));
+		components.setRequestBodies(sorted(components.getRequestBodies()));
+		components.setHeaders(sorted(components.getHeaders()));
+		components.setSecuritySchemes(sorted(components.getSecuritySchemes()));
+		components.setLinks(sorted(components.getLinks()));
+		components.setCallbacks(sorted(components.getCallbacks()));
+		components.setPathItems(sorted(components.getPathItems()));
+		walkAll(components.getSchemas(), this::walk);
+		walkAll(components.getResponses(), this::walk);
+		walkAll(components.getParameters(), this::walk);
+		walkAll(components.getRequestBodies(), this::walk);
+		walkAll(components.getHeaders(), this::walk);
+		walkAll(components.getCallbacks(), this::walk);
+		walkAll(components.getPathItems(), this::walk);
+	}
+
+	private <T> void walkAll(Map<String, T> items, Consumer<T> walker) {
+		if (items != null) {
+			items.values().forEach(walker);
+		}
+	}
+
+	private <T> void walkAll(Collection<T> items, Consumer<T> walker) {
+		if (items != null) {
+			items.forEach(walker);
+		}
+	}
+
+	private void walk(PathItem pathItem) {
+		if (visit(pathItem)) {
+			pathItem.setParameters(sorted(pathItem.getParameters(), PARAMETER_ORDER));
+			walkAll(pathItem.getParameters(), this::walk);
+			walkAll(pathItem.readOperations(), this::walk);
+		}
+	}
+
+	private void walk(Operation operation) {
+		if (visit(operation)) {
+			operation.setParameters(sorted(operation.getParameters(), PARAMETER_ORDER));
+			walkAll(operation.getParameters(), this::walk);
+			walk(operation.getRequestBody());
+			ApiResponses responses = operation.getResponses();
+			if (responses != null) {
+				sortInPlace(responses);
+				walkAll(responses, this::walk);
+			}
+			operation.setCallbacks(sorted(operation.getCallbacks()));
+			walkAll(operation.getCallbacks(), this::walk);
+		}
+	}
+
+	private void walk(Callback callback) {
+		if (visit(callback)) {
+			sortInPlace(callback);
+			walkAll(callback, this::walk);
+		}
+	}
+
+	private void walk(Parameter parameter) {
+		if (visit(parameter)) {
+			walk(parameter.getSchema());
+			walk(parameter.getContent());
+			parameter.setExamples(sorted(parameter.getExamples()));
+		}
+	}
+
+	private void walk(RequestBody requestBody) {
+		if (visit(requestBody)) {
+			walk(requestBody.getContent());
+		}
+	}
+
+	private void walk(ApiResponse response) {
+		if (visit(response)) {
+			walk(response.getContent());
+			response.setHeaders(sorted(response.getHeaders()));
+			walkAll(response.getHeaders(), this::walk);
+			response.setLinks(sorted(response.getLinks()));
+		}
+	}
+
+	private void walk(Header header) {
+		if (visit(header)) {
+			walk(header.getSchema());
+			walk(header.getContent());
+			header.setExamples(sorted(header.getExamples()));
+		}
+	}
+
+	private void walk(Content content) {
+		if (visit(content)) {
+			sortInPlace(content);
+			walkAll(content, this::walk);
+		}
+	}
+
+	private void walk(MediaType mediaType) {
+		if (visit(mediaType)) {
+			walk(mediaType.getSchema());
+			mediaType.setExamples(sorted(mediaType.getExamples()));
+			mediaType.setEncoding(sorted(mediaType.getEncoding()));
+		}
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void walk(Schema schema) {
+		if (!visit(schema)) {
+			return;
+		}
+		Map<String, Schema> properties = schema.getProperties();
+		if (properties != null && !isSorted(properties)) {
+			schema.setProperties(sorted(properties));
+		}
+		walkAll((Map<String, Schema>) schema.getProperties(), this::walk);
+		List<String> required = schema.getRequired();
+		if (required != null && sorted(required, Comparator.naturalOrder()) != required) {
+			schema.setRequired(sorted(required, Comparator.naturalOrder()));
+		}
+		Set<String> types = schema.getTypes();
+		if (types != null && types.size() > 1 && !new ArrayList<>(types).equals(new ArrayList<>(new TreeSet<>(types)))) {
+			schema.setTypes(new LinkedHashSet<>(new TreeSet<>(types)));
+		}
+		walk(schema.getItems());
+		walkAll((Collection<Schema>) schema.getAllOf(), this::walk);
+		walkAll((Collection<Schema>) schema.getAnyOf(), this::walk);
+		walkAll((Collection<Schema>) schema.getOneOf(), this::walk);
+		walk(schema.getNot());
+		if (schema.getAdditionalProperties() instanceof Schema) {
+			walk((Schema) schema.getAdditionalProperties());
+		}
+		walkAll((Collection<Schema>) schema.getPrefixItems(), this::walk);
+		Map<String, Schema> patternProperties = schema.getPatternProperties();
+		if (patternProperties != null && !isSorted(patternProperties)) {
+			schema.setPatternProperties(sorted(patternProperties));
+		}
+		walkAll((Map<String, Schema>) schema.getPatternProperties(), this::walk);
+		walkAll((Map<String, Schema>) schema.getDependentSchemas(), this::walk);
+		walk(schema.getContains());
+		walk(schema.getPropertyNames());
+		walk(schema.getAdditionalItems());
+		walk(schema.getUnevaluatedItems());
+		walk(schema.getUnevaluatedProperties());
+		walk(schema.getContentSchema());
+		walk(schema.getIf());
+		walk(schema.getThen());
+		walk(schema.getElse());
+	}
+}
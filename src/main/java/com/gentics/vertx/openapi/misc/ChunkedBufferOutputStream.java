@@ -0,0 +1,176 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * An {@link OutputStream}, collecting the output into a list of fixed size Vert.x {@link Buffer} chunks,
+ * which can be piped into a {@link WriteStream} with respect to its back-pressure. No contiguous copy of the whole output is ever made.
+ * The chunks may also be produced lazily by a {@link ChunkSource}, as the stream accepts them.
+ */
+public class ChunkedBufferOutputStream extends OutputStream {
+
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+	protected final int chunkSize;
+	protected final List<Buffer> chunks = new ArrayList<>();
+	protected Buffer current;
+	protected boolean exhausted;
+	protected Future<Void> lastWrite = Future.succeededFuture();
+
+	public ChunkedBufferOutputStream(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	public ChunkedBufferOutputStream() {
+		this(DEFAULT_CHUNK_SIZE);
+	}
+
+	@Override
+	public void write(int b) {
+		ensureCurrent().appendByte((byte) b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		while (len > 0) {
+			Buffer target = ensureCurrent();
+			int toWrite = Math.min(len, chunkSize - target.length());
+			target.appendBytes(b, off, toWrite);
+			off += toWrite;
+			len -= toWrite;
+		}
+	}
+
+	/**
+	 * Get the chunk with a free space, starting a new one, if the current one is full.
+	 * 
+	 * @return
+	 */
+	protected Buffer ensureCurrent() {
+		if (current == null || current.length() >= chunkSize) {
+			current = Buffer.buffer(chunkSize);
+			chunks.add(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Get the written chunks
+	 * 
+	 * @return
+	 */
+	public List<Buffer> getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * Get the total written length
+	 * 
+	 * @return
+	 */
+	public long length() {
+		return chunks.stream().mapToLong(Buffer::length).sum();
+	}
+
+	/**
+	 * Write all the chunks into the stream, with respect to its back-pressure. The stream handlers are left intact, and the stream is not ended.
+	 * The written chunks are released.
+	 * 
+	 * @param stream
+	 * @return a future, completed when the last chunk is written
+	 */
+	public Future<Void> pipeTo(WriteStream<Buffer> stream) {
+		return pipeTo(stream, out -> false);
+	}
+
+	/**
+	 * Write the content of the source into the stream, with respect to its back-pressure. The content is produced lazily, only when the stream accepts
+	 * more, so at most a chunk is kept beyond the stream write queue. While the write queue is full, the completion of the last write is awaited, 
+	 * so the stream handlers are left intact. The stream is not ended.
+	 * 
+	 * @param stream
+	 * @param source
+	 * @return a future, completed when the content is written
+	 */
+	public Future<Void> pipeTo(WriteStream<Buffer> stream, ChunkSource source) {
+		Promise<Void> promise = Promise.promise();
+		pump(stream, source, promise);
+		return promise.future();
+	}
+
+	/**
+	 * Write the chunks, producing them on the way, until the stream write queue is full, then continue once the last write is done.
+	 * A write queue, filled by other writers, is not waited for.
+	 * 
+	 * @param stream
+	 * @param source
+	 * @param promise
+	 */
+	protected void pump(WriteStream<Buffer> stream, ChunkSource source, Promise<Void> promise) {
+		try {
+			while (!promise.future().isComplete()) {
+				if (!exhausted && !hasCompleteChunk()) {
+					exhausted = !source.produce(this);
+				} else if (chunks.isEmpty()) {
+					lastWrite.onComplete(result -> {
+						if (result.succeeded()) {
+							promise.tryComplete();
+						} else {
+							promise.tryFail(result.cause());
+						}
+					});
+					return;
+				} else if (stream.writeQueueFull() && !lastWrite.isComplete()) {
+					lastWrite.onComplete(result -> {
+						if (result.succeeded()) {
+							pump(stream, source, promise);
+						} else {
+							promise.tryFail(result.cause());
+						}
+					});
+					return;
+				} else {
+					Buffer chunk = chunks.remove(0);
+					if (chunk == current) {
+						current = null;
+					}
+					lastWrite = stream.write(chunk);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			promise.tryFail(e);
+		}
+	}
+
+	/**
+	 * Check, whether a chunk is ready to be written.
+	 * 
+	 * @return
+	 */
+	protected boolean hasCompleteChunk() {
+		return chunks.size() > 1 || (chunks.size() == 1 && chunks.get(0).length() >= chunkSize);
+	}
+
+	/**
+	 * A lazy source of the content.
+	 */
+	@FunctionalInterface
+	public interface ChunkSource {
+		/**
+		 * Write the next part of the content into the stream. Called repeatedly, while no complete chunk is available.
+		 * 
+		 * @param out
+		 * @return false, if the content is complete
+		 * @throws IOException
+		 */
+		boolean produce(ChunkedBufferOutputStream out) throws IOException;
+	}
+}
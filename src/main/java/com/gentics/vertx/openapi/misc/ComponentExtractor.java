@@ -0,0 +1,321 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+/**
+ * The extraction of the repeated inline parameters, responses and response headers of the operations into the named
+ * <code>components/parameters</code>, <code>components/responses</code> and <code>components/headers</code>, referenced by <code>$ref</code>.
+ * The equal occurrences are found by the structural equality of the models.
+ * <p>
+ * The model is changed in place. The extracted components are also registered in the given map by their reference, which is expected to outlive a single
+ * generation: the references to them, met in the reused model parts, get their components back. A component name, while
+ * registered, always denotes the same content. The registered components, neither extracted nor referenced by the latest run, are evicted.
+ */
+public final class ComponentExtractor {
+
+	public static final String PARAMETERS_PREFIX = ReferenceGraph.COMPONENTS_PREFIX + ReferenceGraph.PARAMETERS + "/";
+	public static final String RESPONSES_PREFIX = ReferenceGraph.COMPONENTS_PREFIX + ReferenceGraph.RESPONSES + "/";
+	public static final String HEADERS_PREFIX = ReferenceGraph.COMPONENTS_PREFIX + ReferenceGraph.HEADERS + "/";
+
+	private static final String SCHEMAS_PREFIX = ReferenceGraph.COMPONENTS_PREFIX + ReferenceGraph.SCHEMAS + "/";
+
+	private final Map<String, Object> extractedComponents;
+	private final int minOccurrences;
+
+	private final Map<Parameter, Occurrences<Parameter>> parameters = new LinkedHashMap<>();
+	private final Map<ApiResponse, Occurrences<ApiResponse>> responses = new LinkedHashMap<>();
+	private final Map<Header, Occurrences<Header>> headers = new LinkedHashMap<>();
+	private final Set<String> refs = new HashSet<>();
+	private final Set<String> extractedRefs = new HashSet<>();
+
+	private int extracted;
+	private int referenced;
+
+	/**
+	 * Ctor
+	 *
+	 * @param extractedComponents a thread-safe registry of the extracted components, by the reference
+	 * @param minOccurrences the minimal number of occurrences of a parameter, response or header for the extraction
+	 */
+	public ComponentExtractor(Map<String, Object> extractedComponents, int minOccurrences) {
+		this.extractedComponents = extractedComponents;
+		this.minOccurrences = minOccurrences;
+	}
+
+	/**
+	 * Extract the repeated parameters, responses and headers of the paths and webhooks of the model.
+	 *
+	 * @param openApi
+	 * @return fluent API
+	 */
+	public ComponentExtractor extract(OpenAPI openApi) {
+		if (openApi.getComponents() == null) {
+			openApi.setComponents(new Components());
+		}
+		Components components = openApi.getComponents();
+		if (openApi.getPaths() != null) {
+			openApi.getPaths().values().forEach(this::walk);
+		}
+		if (openApi.getWebhooks() != null) {
+			openApi.getWebhooks().values().forEach(this::walk);
+		}
+		extract(headers, HEADERS_PREFIX, components::getHeaders, components::setHeaders, ref -> new Header().$ref(ref));
+		extract(parameters, PARAMETERS_PREFIX, components::getParameters, components::setParameters, ref -> new Parameter().$ref(ref));
+		extract(responses, RESPONSES_PREFIX, components::getResponses, components::setResponses, ref -> new ApiResponse().$ref(ref));
+		restore(components);
+		evict();
+		return this;
+	}
+
+	/**
+	 * Get the number of the components, extracted by this run
+	 *
+	 * @return
+	 */
+	public int getExtracted() {
+		return extracted;
+	}
+
+	/**
+	 * Get the number of the inline occurrences, replaced by a reference to an extracted component
+	 *
+	 * @return
+	 */
+	public int getReferenced() {
+		return referenced;
+	}
+
+	/**
+	 * Move the frequent items into the components, replacing all their occurrences with a shared reference.
+	 *
+	 * @param <T>
+	 * @param occurrences
+	 * @param prefix
+	 * @param getter
+	 * @param setter
+	 * @param referenceFactory
+	 */
+	private <T> void extract(Map<T, Occurrences<T>> occurrences, String prefix, Supplier<Map<String, T>> getter, Consumer<Map<String, T>> setter, Function<String, T> referenceFactory) {
+		for (Map.Entry<T, Occurrences<T>> entry : occurrences.entrySet()) {
+			Occurrences<T> occurrence = entry.getValue();
+			if (occurrence.slots.size() < minOccurrences) {
+				continue;
+			}
+			if (getter.get() == null) {
+				setter.accept(new LinkedHashMap<>());
+			}
+			Map<String, T> items = getter.get();
+			T item = occurrence.item;
+			String name = occurrence.name;
+			if (!isFree(items, prefix, name, item)) {
+				// another content has already taken the name
+				name = name + "_" + new Fingerprint().add(serialize(item)).toHex();
+				if (!isFree(items, prefix, name, item)) {
+					continue;
+				}
+			}
+			String ref = prefix + name;
+			items.putIfAbsent(name, item);
+			extractedComponents.putIfAbsent(ref, item);
+			extractedRefs.add(ref);
+			T reference = referenceFactory.apply(ref);
+			occurrence.slots.forEach(slot -> slot.accept(reference));
+			extracted++;
+			referenced += occurrence.slots.size();
+		}
+	}
+
+	private boolean isFree(Map<String, ?> items, String prefix, String name, Object item) {
+		Object existing = items.get(name);
+		Object registered = extractedComponents.get(prefix + name);
+		return (existing == null || existing.equals(item)) && (registered == null || registered.equals(item));
+	}
+
+	/**
+	 * Add the previously extracted components back, if referenced by the reused model parts.
+	 *
+	 * @param components
+	 */
+	private void restore(Components components) {
+		// the restored responses may in turn reference the extracted headers
+		for (String ref : new ArrayList<>(refs)) {
+			Object component = extractedComponents.get(ref);
+			if (component instanceof ApiResponse && ((ApiResponse) component).getHeaders() != null) {
+				((ApiResponse) component).getHeaders().values().stream()
+					.filter(header -> header != null && header.get$ref() != null)
+					.forEach(header -> refs.add(header.get$ref()));
+			}
+		}
+		for (String ref : refs) {
+			Object component = extractedComponents.get(ref);
+			if (component instanceof Parameter) {
+				if (components.getParameters() == null) {
+					components.setParameters(new LinkedHashMap<>());
+				}
+				components.getParameters().putIfAbsent(ref.substring(PARAMETERS_PREFIX.length()), (Parameter) component);
+			} else if (component instanceof ApiResponse) {
+				if (components.getResponses() == null) {
+					components.setResponses(new LinkedHashMap<>());
+				}
+				components.getResponses().putIfAbsent(ref.substring(RESPONSES_PREFIX.length()), (ApiResponse) component);
+			} else if (component instanceof Header) {
+				if (components.getHeaders() == null) {
+					components.setHeaders(new LinkedHashMap<>());
+				}
+				components.getHeaders().putIfAbsent(ref.substring(HEADERS_PREFIX.length()), (Header) component);
+			}
+		}
+	}
+
+	/**
+	 * Evict the registered components, neither extracted nor referenced by this run, so the registry does not outgrow the latest generation.
+	 */
+	private void evict() {
+		extractedComponents.keySet().removeIf(ref -> !extractedRefs.contains(ref) && !refs.contains(ref));
+	}
+
+	private void walk(PathItem pathItem) {
+		pathItem.setParameters(walk(pathItem.getParameters()));
+		pathItem.readOperations().forEach(this::walk);
+	}
+
+	private void walk(Operation operation) {
+		operation.setParameters(walk(operation.getParameters()));
+		ApiResponses operationResponses = operation.getResponses();
+		if (operationResponses != null) {
+			for (Map.Entry<String, ApiResponse> entry : operationResponses.entrySet()) {
+				ApiResponse response = entry.getValue();
+				if (response == null) {
+					continue;
+				}
+				if (response.get$ref() != null) {
+					refs.add(response.get$ref());
+					continue;
+				}
+				walk(response);
+				String status = entry.getKey();
+				responses.computeIfAbsent(response, r -> new Occurrences<>(r, responseName(r, status)))
+					.slots.add(reference -> operationResponses.put(status, reference));
+			}
+		}
+	}
+
+	private void walk(ApiResponse response) {
+		if (response.getHeaders() == null) {
+			return;
+		}
+		Map<String, Header> responseHeaders = new LinkedHashMap<>(response.getHeaders());
+		response.setHeaders(responseHeaders);
+		for (Map.Entry<String, Header> entry : responseHeaders.entrySet()) {
+			Header header = entry.getValue();
+			if (header == null) {
+				continue;
+			}
+			if (header.get$ref() != null) {
+				refs.add(header.get$ref());
+				continue;
+			}
+			String name = entry.getKey();
+			headers.computeIfAbsent(header, h -> new Occurrences<>(h, componentName(name)))
+				.slots.add(reference -> responseHeaders.put(name, reference));
+		}
+	}
+
+	private List<Parameter> walk(List<Parameter> items) {
+		if (items == null) {
+			return null;
+		}
+		List<Parameter> copy = new ArrayList<>(items);
+		for (int i = 0; i < copy.size(); i++) {
+			Parameter parameter = copy.get(i);
+			if (parameter == null) {
+				continue;
+			}
+			if (parameter.get$ref() != null) {
+				refs.add(parameter.get$ref());
+				continue;
+			}
+			int index = i;
+			parameters.computeIfAbsent(parameter, p -> new Occurrences<>(p, componentName(p.getName() + "_" + p.getIn())))
+				.slots.add(reference -> copy.set(index, reference));
+		}
+		return copy;
+	}
+
+	/**
+	 * Make the name of a response component: the name of its referenced body schema, if any, and the status code.
+	 *
+	 * @param response
+	 * @param status
+	 * @return
+	 */
+	private static String responseName(ApiResponse response, String status) {
+		String base = "Response";
+		if (response.getContent() != null) {
+			base = response.getContent().values().stream()
+				.filter(Objects::nonNull)
+				.map(MediaType::getSchema)
+				.filter(schema -> schema != null && schema.get$ref() != null && schema.get$ref().startsWith(SCHEMAS_PREFIX))
+				.map(schema -> schema.get$ref().substring(SCHEMAS_PREFIX.length()))
+				.findFirst()
+				.orElse(base);
+		}
+		return componentName(base + "_" + status);
+	}
+
+	/**
+	 * Make a valid component name, replacing the unsupported characters.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static String componentName(String name) {
+		return name.replaceAll("[^a-zA-Z0-9\\.\\-_]", "_");
+	}
+
+	private static String serialize(Object item) {
+		try {
+			return Json.mapper().writeValueAsString(item);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize a component", e);
+		}
+	}
+
+	/**
+	 * The occurrences of a structurally equal item.
+	 *
+	 * @param <T>
+	 */
+	private static final class Occurrences<T> {
+		private final T item;
+		private final String name;
+		private final List<Consumer<T>> slots = new ArrayList<>();
+
+		private Occurrences(T item, String name) {
+			this.item = item;
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The cache of the parsed example values, keyed by the example text. The example texts are held by the route metadata, so the same
+ * text instances are looked up by each generation, without paying for the parsing again. The text, which is not a JSON object or array,
+ * is its own value.
+ * <p>
+ * The cached values are shared between the generated models, so they must not be modified. The cache is dropped completely,
+ * once it reaches its maximal size.
+ */
+public final class ExampleCache {
+
+	private final Map<String, Object> values = new ConcurrentHashMap<>();
+	private final int maxSize;
+
+	/**
+	 * Ctor
+	 *
+	 * @param maxSize the maximal number of the cached examples
+	 */
+	public ExampleCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Get the value of the example text, parsing it if not cached yet.
+	 *
+	 * @param exampleText
+	 * @return the parsed map or list of a JSON object or array, or the trimmed text otherwise
+	 */
+	public Object get(String exampleText) {
+		Object value = values.get(exampleText);
+		if (value == null) {
+			if (values.size() >= maxSize) {
+				values.clear();
+			}
+			value = values.computeIfAbsent(exampleText, ExampleCache::parse);
+		}
+		return value;
+	}
+
+	/**
+	 * Get the number of the cached examples.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Drop all the cached examples.
+	 */
+	public void clear() {
+		values.clear();
+	}
+
+	/**
+	 * Parse the example text. Only the texts, enclosed into the JSON object or array brackets, are attempted to be parsed.
+	 *
+	 * @param exampleText
+	 * @return the parsed map or list of a JSON object or array, or the trimmed text otherwise
+	 */
+	public static Object parse(String exampleText) {
+		String text = exampleText.trim();
+		try {
+			if (text.startsWith("{") && text.endsWith("}")) {
+				return new JsonObject(text).getMap();
+			} else if (text.startsWith("[") && text.endsWith("]")) {
+				return new JsonArray(text).getList();
+			}
+		} catch (DecodeException e) {
+			// not a JSON after all
+		}
+		return text;
+	}
+}
@@ -0,0 +1,106 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The content addressed store of the examples, moved out of the spec document. Each example is keyed by the SHA-256 hash of its text,
+ * so the same example, used by many operations, is stored once, and its key (and URL) never changes as long as its text does not.
+ * <p>
+ * The store only grows with the distinct examples ever generated, since the spec documents, cached by the clients, may still refer
+ * to the previous ones.
+ */
+public final class ExampleStore {
+
+	private final Map<String, StoredExample> examples = new ConcurrentHashMap<>();
+
+	/**
+	 * Store the example text.
+	 *
+	 * @param exampleText
+	 * @param contentType the media type of the example
+	 * @return the key of the stored example
+	 */
+	public String put(String exampleText, String contentType) {
+		byte[] bytes = exampleText.getBytes(StandardCharsets.UTF_8);
+		String key = hash(bytes);
+		examples.computeIfAbsent(key, k -> new StoredExample(contentType, bytes));
+		return key;
+	}
+
+	/**
+	 * Get the stored example.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public Optional<StoredExample> get(String key) {
+		return key != null ? Optional.ofNullable(examples.get(key)) : Optional.empty();
+	}
+
+	/**
+	 * Get the number of the stored examples.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return examples.size();
+	}
+
+	/**
+	 * Drop all the stored examples.
+	 */
+	public void clear() {
+		examples.clear();
+	}
+
+	/**
+	 * Make the content key of the example bytes.
+	 *
+	 * @param bytes
+	 * @return SHA-256 hex string
+	 */
+	public static String hash(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	/**
+	 * The stored example: its media type and UTF-8 bytes.
+	 */
+	public static final class StoredExample {
+		private final String contentType;
+		private final byte[] bytes;
+
+		private StoredExample(String contentType, byte[] bytes) {
+			this.contentType = contentType;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Get the media type of the example.
+		 *
+		 * @return
+		 */
+		public String getContentType() {
+			return contentType;
+		}
+
+		/**
+		 * Get the example bytes. Must not be modified.
+		 *
+		 * @return
+		 */
+		public byte[] getBytes() {
+			return bytes;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * The rewriter of the <code>$ref</code> values in a serialized spec, e.g. for pointing the local component references into another document.
+ * The captured tokens are replayed with the rewritten references, so the swagger model, the tokens were captured from, stays untouched.
+ */
+public final class ExternalRefRewriter extends JsonGeneratorDelegate {
+
+	private final UnaryOperator<String> rewrite;
+	private boolean refValue;
+
+	private ExternalRefRewriter(JsonGenerator delegate, UnaryOperator<String> rewrite) {
+		super(delegate, false);
+		this.rewrite = rewrite;
+	}
+
+	/**
+	 * Replay the captured spec tokens into a new token buffer, with the <code>$ref</code> values rewritten.
+	 *
+	 * @param tokens captured spec
+	 * @param rewrite the reference rewriting function, returning the same reference, if it should be kept
+	 * @return
+	 */
+	public static TokenBuffer rewrite(TokenBuffer tokens, UnaryOperator<String> rewrite) {
+		TokenBuffer rewritten = new TokenBuffer(tokens.getCodec(), false);
+		try (JsonGenerator generator = new ExternalRefRewriter(rewritten, rewrite)) {
+			tokens.serialize(generator);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return rewritten;
+	}
+
+	@Override
+	public void writeFieldName(String name) throws IOException {
+		refValue = "$ref".equals(name);
+		super.writeFieldName(name);
+	}
+
+	@Override
+	public void writeFieldName(SerializableString name) throws IOException {
+		refValue = "$ref".equals(name.getValue());
+		super.writeFieldName(name);
+	}
+
+	@Override
+	public void writeString(String text) throws IOException {
+		if (refValue && text != null) {
+			text = rewrite.apply(text);
+		}
+		refValue = false;
+		super.writeString(text);
+	}
+
+	@Override
+	public void writeString(SerializableString text) throws IOException {
+		if (refValue) {
+			writeString(text.getValue());
+		} else {
+			super.writeString(text);
+		}
+	}
+}
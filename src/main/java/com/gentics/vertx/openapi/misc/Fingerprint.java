@@ -0,0 +1,155 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * A cheap 64 bit (FNV-1a) fingerprint accumulator, used to detect changes of the generation input.
+ * Not a cryptographic hash.
+ */
+public final class Fingerprint {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private long hash = FNV_OFFSET;
+
+	/**
+	 * Mix a single character in.
+	 *
+	 * @param c
+	 */
+	private void mix(char c) {
+		hash ^= (c & 0xff);
+		hash *= FNV_PRIME;
+		hash ^= (c >>> 8);
+		hash *= FNV_PRIME;
+	}
+
+	/**
+	 * Add a string. Nulls are distinguished from empty strings.
+	 *
+	 * @param value
+	 * @return fluent API
+	 */
+	public Fingerprint add(String value) {
+		if (value == null) {
+			mix('\u0000');
+		} else {
+			for (int i = 0; i < value.length(); i++) {
+				mix(value.charAt(i));
+			}
+		}
+		mix('\u001f');
+		return this;
+	}
+
+	/**
+	 * Add the raw bytes, e.g. of a produced spec.
+	 *
+	 * @param bytes
+	 * @return fluent API
+	 */
+	public Fingerprint add(byte[] bytes) {
+		for (byte b : bytes) {
+			hash ^= (b & 0xff);
+			hash *= FNV_PRIME;
+		}
+		mix('\u001f');
+		return this;
+	}
+
+	/**
+	 * Add a number.
+	 *
+	 * @param value
+	 * @return fluent API
+	 */
+	public Fingerprint add(long value) {
+		for (int i = 0; i < 4; i++) {
+			mix((char) (value >>> (i * 16)));
+		}
+		mix('\u001f');
+		return this;
+	}
+
+	/**
+	 * Add a flag.
+	 *
+	 * @param value
+	 * @return fluent API
+	 */
+	public Fingerprint add(boolean value) {
+		mix(value ? '\u0001' : '\u0002');
+		return this;
+	}
+
+	/**
+	 * Add any object by its string representation.
+	 *
+	 * @param value
+	 * @return fluent API
+	 */
+	public Fingerprint add(Object value) {
+		return add(value == null ? null : value.toString());
+	}
+
+	/**
+	 * Add all the items of a collection, in its iteration order.
+	 *
+	 * @param values
+	 * @return fluent API
+	 */
+	public Fingerprint addAll(Collection<?> values) {
+		if (values == null) {
+			return add((String) null);
+		}
+		add(values.size());
+		values.forEach(this::add);
+		return this;
+	}
+
+	/**
+	 * Add all the entries of a map, sorted by the key, so the insertion order does not matter.
+	 *
+	 * @param <K>
+	 * @param <V>
+	 * @param values
+	 * @param valueConsumer the value fingerprinting function
+	 * @return fluent API
+	 */
+	public <K, V> Fingerprint addAll(Map<K, V> values, BiConsumer<Fingerprint, V> valueConsumer) {
+		if (values == null) {
+			return add((String) null);
+		}
+		add(values.size());
+		Map<K, V> sorted = new TreeMap<>(Comparator.comparing(key -> String.valueOf(key)));
+		sorted.putAll(values);
+		sorted.forEach((key, value) -> {
+			add(key);
+			valueConsumer.accept(this, value);
+		});
+		return this;
+	}
+
+	/**
+	 * Get the current fingerprint value.
+	 *
+	 * @return
+	 */
+	public long get() {
+		return hash;
+	}
+
+	/**
+	 * Get the current fingerprint value as a hexadecimal string.
+	 *
+	 * @return
+	 */
+	public String toHex() {
+		return String.format("%016x", hash);
+	}
+}
@@ -0,0 +1,166 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.filter.TokenFilter.Inclusion;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.gentics.vertx.openapi.model.SpecDetail;
+
+/**
+ * The token filter of a serialized spec, which leaves out the parts, not needed for the given {@link SpecDetail}: the examples,
+ * the <code>x-</code> extensions, and optionally the descriptions and summaries. The filter tracks the structure of the spec,
+ * so the user defined names (e.g. schema properties, path templates, component names) are never taken for the spec keywords,
+ * and the literal values (defaults, enums) are kept intact. The response descriptions, required by the spec, are also kept.
+ */
+public final class LeanSpecFilter extends TokenFilter {
+
+	/**
+	 * The keywords, whose value is a map, keyed by the user defined names, with the spec objects as values
+	 */
+	private static final Set<String> NAMED_OBJECTS = Set.of("paths", "webhooks", "pathItems", "schemas", "properties", "patternProperties", "$defs",
+			"definitions", "dependentSchemas", "requestBodies", "headers", "securitySchemes", "links", "content", "encoding", "variables");
+
+	/**
+	 * The keywords, whose value is a literal data, or contains no droppable content
+	 */
+	private static final Set<String> LITERALS = Set.of("default", "enum", "const", "required", "dependentRequired", "security", "scopes", "mapping");
+
+	private final boolean dropDescriptions;
+	private final boolean response;
+	private LeanSpecFilter objects;
+	private NamedFilter namedObjects;
+	private NamedFilter namedResponses;
+	private NamedFilter callbacks;
+
+	private LeanSpecFilter(boolean dropDescriptions, boolean response) {
+		this.dropDescriptions = dropDescriptions;
+		this.response = response;
+	}
+
+	/**
+	 * Get the filter of the detail level.
+	 *
+	 * @param detail
+	 * @return the filter, or null for the full detail
+	 */
+	public static LeanSpecFilter of(SpecDetail detail) {
+		switch (detail) {
+		case LEAN:
+			return create(false);
+		case MINIMAL:
+			return create(true);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Create the filter of the spec root, wiring the filters of the nested structures.
+	 *
+	 * @param dropDescriptions
+	 * @return
+	 */
+	private static LeanSpecFilter create(boolean dropDescriptions) {
+		LeanSpecFilter objects = new LeanSpecFilter(dropDescriptions, false);
+		LeanSpecFilter responses = new LeanSpecFilter(dropDescriptions, true);
+		NamedFilter namedObjects = new NamedFilter(objects);
+		NamedFilter namedResponses = new NamedFilter(responses);
+		NamedFilter callbacks = new NamedFilter(namedObjects);
+		for (LeanSpecFilter filter : new LeanSpecFilter[] { objects, responses }) {
+			filter.objects = objects;
+			filter.namedObjects = namedObjects;
+			filter.namedResponses = namedResponses;
+			filter.callbacks = callbacks;
+		}
+		return objects;
+	}
+
+	/**
+	 * Filter the captured spec tokens into a new token buffer of the detail level.
+	 *
+	 * @param tokens captured spec
+	 * @param detail
+	 * @return filtered tokens, or the same tokens for the full detail
+	 */
+	public static TokenBuffer filter(TokenBuffer tokens, SpecDetail detail) {
+		LeanSpecFilter filter = of(detail);
+		if (filter == null) {
+			return tokens;
+		}
+		TokenBuffer filtered = new TokenBuffer(tokens.getCodec(), false);
+		try (JsonGenerator generator = new FilteringGeneratorDelegate(filtered, filter, Inclusion.INCLUDE_NON_NULL, true)) {
+			tokens.serialize(generator);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return filtered;
+	}
+
+	@Override
+	public TokenFilter includeProperty(String name) {
+		if (name.startsWith("x-") || "example".equals(name) || "examples".equals(name)) {
+			return null;
+		}
+		if (dropDescriptions && ("summary".equals(name) || ("description".equals(name) && !response))) {
+			return null;
+		}
+		switch (name) {
+		case "responses":
+			return namedResponses;
+		case "callbacks":
+			return callbacks;
+		case "parameters":
+			// a list of the parameters in the operations, a map of the named parameters in the components
+			return namedObjects;
+		default:
+			if (NAMED_OBJECTS.contains(name)) {
+				return namedObjects;
+			} else if (LITERALS.contains(name)) {
+				return TokenFilter.INCLUDE_ALL;
+			}
+			return objects;
+		}
+	}
+
+	@Override
+	protected boolean _includeScalar() {
+		return true;
+	}
+
+	/**
+	 * The filter of a map, keyed by the user defined names. The keys are kept, the values are filtered as the spec objects.
+	 * A list in place of the map holds the spec objects as well.
+	 */
+	private static final class NamedFilter extends TokenFilter {
+		private final TokenFilter values;
+
+		private NamedFilter(TokenFilter values) {
+			this.values = values;
+		}
+
+		@Override
+		public TokenFilter includeProperty(String name) {
+			return values;
+		}
+
+		@Override
+		public TokenFilter filterStartArray() {
+			return values;
+		}
+
+		@Override
+		public TokenFilter includeElement(int index) {
+			return values;
+		}
+
+		@Override
+		protected boolean _includeScalar() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+/**
+ * The copying of the swagger model parts, which the post-processing ({@link ComponentExtractor}, {@link SchemaDeduplicator}, {@link CanonicalOrder})
+ * changes in place: the path items down to the parameters, request bodies, responses, headers and media types. Everything below them,
+ * i.e. the schemas, examples and extensions, is shared with the original, since the post-processing never changes it in place.
+ * The copy is exact, so it serializes into either spec version just as the original does.
+ */
+public final class ModelCopy {
+
+	private static final ClassValue<List<Field>> FIELDS = new ClassValue<>() {
+		@Override
+		protected List<Field> computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			return fields;
+		}
+	};
+
+	private ModelCopy() {
+	}
+
+	/**
+	 * Make a shallow copy of the model bean, of the same class. The swagger models offer no copy means short of a deep serialization round trip.
+	 * Not to be used for the models being maps themselves, like {@link Content} or {@link ApiResponses}.
+	 *
+	 * @param <T> model type
+	 * @param item
+	 * @return the copy, or null for null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T shallow(T item) {
+		if (item == null) {
+			return null;
+		}
+		try {
+			T copy = (T) item.getClass().getDeclaredConstructor().newInstance();
+			for (Field field : FIELDS.get(item.getClass())) {
+				field.set(copy, field.get(item));
+			}
+			return copy;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not copy a model of " + item.getClass(), e);
+		}
+	}
+
+	/**
+	 * Copy the path item with its operations, for the post-processing to change.
+	 *
+	 * @param pathItem
+	 * @return the copy, or null for null
+	 */
+	public static PathItem copy(PathItem pathItem) {
+		PathItem copy = shallow(pathItem);
+		if (copy != null) {
+			copy.setParameters(copyAll(copy.getParameters()));
+			pathItem.readOperationsMap().forEach((method, operation) -> copy.operation(method, copy(operation)));
+		}
+		return copy;
+	}
+
+	private static Operation copy(Operation operation) {
+		Operation copy = shallow(operation);
+		if (copy != null) {
+			copy.setParameters(copyAll(copy.getParameters()));
+			copy.setRequestBody(copy(copy.getRequestBody()));
+			copy.setResponses(copy(copy.getResponses()));
+			if (copy.getCallbacks() != null) {
+				Map<String, Callback> callbacks = new LinkedHashMap<>();
+				copy.getCallbacks().forEach((name, callback) -> callbacks.put(name, copy(callback)));
+				copy.setCallbacks(callbacks);
+			}
+		}
+		return copy;
+	}
+
+	private static Callback copy(Callback callback) {
+		if (callback == null) {
+			return null;
+		}
+		Callback copy = new Callback();
+		copy.setExtensions(callback.getExtensions());
+		copy.set$ref(callback.get$ref());
+		callback.forEach((expression, pathItem) -> copy.addPathItem(expression, copy(pathItem)));
+		return copy;
+	}
+
+	private static List<Parameter> copyAll(List<Parameter> parameters) {
+		if (parameters == null) {
+			return null;
+		}
+		List<Parameter> copy = new ArrayList<>(parameters.size());
+		parameters.forEach(parameter -> copy.add(copy(parameter)));
+		return copy;
+	}
+
+	private static Parameter copy(Parameter parameter) {
+		Parameter copy = shallow(parameter);
+		if (copy != null) {
+			copy.setContent(copy(copy.getContent()));
+		}
+		return copy;
+	}
+
+	private static RequestBody copy(RequestBody requestBody) {
+		RequestBody copy = shallow(requestBody);
+		if (copy != null) {
+			copy.setContent(copy(copy.getContent()));
+		}
+		return copy;
+	}
+
+	private static ApiResponses copy(ApiResponses responses) {
+		if (responses == null) {
+			return null;
+		}
+		ApiResponses copy = new ApiResponses();
+		copy.setExtensions(responses.getExtensions());
+		responses.forEach((status, response) -> copy.put(status, copy(response)));
+		return copy;
+	}
+
+	private static ApiResponse copy(ApiResponse response) {
+		ApiResponse copy = shallow(response);
+		if (copy != null) {
+			copy.setContent(copy(copy.getContent()));
+			if (copy.getHeaders() != null) {
+				Map<String, Header> headers = new LinkedHashMap<>();
+				copy.getHeaders().forEach((name, header) -> headers.put(name, copy(header)));
+				copy.setHeaders(headers);
+			}
+		}
+		return copy;
+	}
+
+	private static Header copy(Header header) {
+		Header copy = shallow(header);
+		if (copy != null) {
+			copy.setContent(copy(copy.getContent()));
+		}
+		return copy;
+	}
+
+	private static Content copy(Content content) {
+		if (content == null) {
+			return null;
+		}
+		Content copy = new Content();
+		content.forEach((name, mediaType) -> copy.addMediaType(name, shallow(mediaType)));
+		return copy;
+	}
+}
@@ -0,0 +1,169 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A compiled path blacklist/whitelist. Each list is combined into a single matcher, and the decisions are cached per path.
+ * The literal prefixes of the patterns are analyzed, to tell whether any path below a given mount point may pass the filter.
+ */
+public final class PathFilter {
+
+	/**
+	 * The decision cache is dropped, once grown over this size.
+	 */
+	public static final int MAX_CACHED_DECISIONS = 16384;
+
+	private static final String REGEX_META = "\\.[](){}*+?^$|";
+
+	private final Optional<CompiledList> maybeBlacklist;
+	private final Optional<CompiledList> maybeWhitelist;
+	private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+	/**
+	 * Ctor
+	 *
+	 * @param maybePathBlacklist optional regex for API path blacklist
+	 * @param maybePathWhitelist optional regex for API path whitelist
+	 */
+	public PathFilter(Optional<? extends Collection<Pattern>> maybePathBlacklist, Optional<? extends Collection<Pattern>> maybePathWhitelist) {
+		this.maybeBlacklist = maybePathBlacklist.map(CompiledList::new);
+		this.maybeWhitelist = maybePathWhitelist.map(CompiledList::new);
+	}
+
+	/**
+	 * Does the path pass the filter: not blacklisted, and whitelisted, if the whitelist is set?
+	 *
+	 * @param path
+	 * @return
+	 */
+	public boolean accepts(String path) {
+		if (maybeBlacklist.isEmpty() && maybeWhitelist.isEmpty()) {
+			return true;
+		}
+		Boolean decision = decisions.get(path);
+		if (decision == null) {
+			decision = !maybeBlacklist.map(list -> list.matches(path)).orElse(false) && maybeWhitelist.map(list -> list.matches(path)).orElse(true);
+			if (decisions.size() >= MAX_CACHED_DECISIONS) {
+				decisions.clear();
+			}
+			decisions.put(path, decision);
+		}
+		return decision;
+	}
+
+	/**
+	 * May any path mounted below the given one pass the filter? The mounted paths are expected to start with a slash.
+	 * A blacklisted mount path prunes everything below it, as the blacklist is meant to hide whole sub-APIs.
+	 * Otherwise a negative answer is given only if it is certain from the pattern literal prefixes.
+	 *
+	 * @param mountPath
+	 * @return
+	 */
+	public boolean mayAcceptBelow(String mountPath) {
+		String prefix = StringUtils.stripEnd(mountPath, "/") + "/";
+		if (maybeBlacklist.map(list -> list.matches(mountPath) || list.coversAllBelow(prefix)).orElse(false)) {
+			return false;
+		}
+		return maybeWhitelist.map(list -> list.mayMatchBelow(prefix)).orElse(true);
+	}
+
+	/**
+	 * A list of patterns, combined into a single one, if possible.
+	 */
+	private static final class CompiledList {
+		private final List<Pattern> patterns;
+		private final Optional<Pattern> maybeCombined;
+		private final List<PrefixInfo> prefixes;
+
+		private CompiledList(Collection<Pattern> source) {
+			this.patterns = List.copyOf(source);
+			this.maybeCombined = combine(patterns);
+			this.prefixes = patterns.stream().map(PrefixInfo::of).collect(Collectors.toList());
+		}
+
+		private boolean matches(String path) {
+			return maybeCombined.map(combined -> combined.matcher(path).matches())
+					.orElseGet(() -> patterns.stream().anyMatch(pattern -> pattern.matcher(path).matches()));
+		}
+
+		/**
+		 * Are all the paths starting with the prefix matched by some pattern?
+		 */
+		private boolean coversAllBelow(String prefix) {
+			return prefixes.stream().anyMatch(info -> info.anySuffix && prefix.startsWith(info.prefix));
+		}
+
+		/**
+		 * Can any path starting with the prefix be matched by some pattern?
+		 */
+		private boolean mayMatchBelow(String prefix) {
+			return prefixes.stream().anyMatch(info -> prefix.startsWith(info.prefix) || info.prefix.startsWith(prefix));
+		}
+
+		/**
+		 * Combine the patterns into an alternation. Only the patterns of the same flags are combined.
+		 */
+		private static Optional<Pattern> combine(List<Pattern> patterns) {
+			if (patterns.size() < 2 || patterns.stream().mapToInt(Pattern::flags).distinct().count() > 1) {
+				return Optional.empty();
+			}
+			try {
+				return Optional.of(Pattern.compile(patterns.stream().map(pattern -> "(?:" + pattern.pattern() + ")").collect(Collectors.joining("|")), patterns.get(0).flags()));
+			} catch (PatternSyntaxException e) {
+				return Optional.empty();
+			}
+		}
+	}
+
+	/**
+	 * The literal prefix of a pattern, and whether the pattern matches any suffix after it.
+	 */
+	private static final class PrefixInfo {
+		private final String prefix;
+		private final boolean anySuffix;
+
+		private PrefixInfo(String prefix, boolean anySuffix) {
+			this.prefix = prefix;
+			this.anySuffix = anySuffix;
+		}
+
+		private static PrefixInfo of(Pattern pattern) {
+			String regex = pattern.pattern();
+			if ((pattern.flags() & Pattern.LITERAL) != 0) {
+				return new PrefixInfo(regex, false);
+			}
+			if ((pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS)) != 0 || regex.indexOf('|') >= 0) {
+				return new PrefixInfo(StringUtils.EMPTY, false);
+			}
+			StringBuilder prefix = new StringBuilder();
+			int i = regex.startsWith("^") ? 1 : 0;
+			while (i < regex.length()) {
+				char c = regex.charAt(i);
+				if (c == '\\' && i + 1 < regex.length() && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+					prefix.append(regex.charAt(i + 1));
+					i += 2;
+				} else if (REGEX_META.indexOf(c) >= 0) {
+					break;
+				} else {
+					prefix.append(c);
+					i++;
+				}
+			}
+			String rest = regex.substring(i);
+			if (!rest.isEmpty() && "?*{".indexOf(rest.charAt(0)) >= 0) {
+				// the last literal is optional
+				return new PrefixInfo(prefix.length() > 0 ? prefix.substring(0, prefix.length() - 1) : StringUtils.EMPTY, false);
+			}
+			return new PrefixInfo(prefix.toString(), ".*".equals(rest) || ".*$".equals(rest));
+		}
+	}
+}
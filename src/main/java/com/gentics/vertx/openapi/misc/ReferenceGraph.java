@@ -0,0 +1,321 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.Encoding;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * The local <code>$ref</code> graph of an OpenAPI model. The components reachable from the paths and webhooks are marked in a single walk,
+ * visiting each model object once, so the unreachable ones can be pruned in linear time.
+ */
+public final class ReferenceGraph {
+
+	public static final String COMPONENTS_PREFIX = "#/components/";
+	public static final String SCHEMAS = "schemas";
+	public static final String PARAMETERS = "parameters";
+	public static final String REQUEST_BODIES = "requestBodies";
+	public static final String RESPONSES = "responses";
+	public static final String HEADERS = "headers";
+	public static final String EXAMPLES = "examples";
+	public static final String LINKS = "links";
+	public static final String CALLBACKS = "callbacks";
+	public static final String PATH_ITEMS = "pathItems";
+
+	private final Components components;
+	private final Set<String> reachable = new HashSet<>();
+	private final Deque<String> pending = new ArrayDeque<>();
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private ReferenceGraph(OpenAPI openApi) {
+		this.components = openApi.getComponents() != null ? openApi.getComponents() : new Components();
+	}
+
+	/**
+	 * Collect the references of all the components, reachable from the paths and webhooks of the model.
+	 *
+	 * @param openApi
+	 * @return a set of the local references, e.g. <code>#/components/schemas/Name</code>
+	 */
+	public static Set<String> reachable(OpenAPI openApi) {
+		ReferenceGraph graph = new ReferenceGraph(openApi);
+		if (openApi.getPaths() != null) {
+			openApi.getPaths().values().forEach(graph::walk);
+		}
+		if (openApi.getWebhooks() != null) {
+			openApi.getWebhooks().values().forEach(graph::walk);
+		}
+		graph.drain();
+		return graph.reachable;
+	}
+
+	/**
+	 * Remove the unreachable schemas, parameters, request bodies, responses and headers from the model components.
+	 * The security schemes and other component types stay untouched.
+	 *
+	 * @param openApi
+	 * @return the number of removed components
+	 */
+	public static int prune(OpenAPI openApi) {
+		Components components = openApi.getComponents();
+		if (components == null) {
+			return 0;
+		}
+		Set<String> reachable = reachable(openApi);
+		return prune(components.getSchemas(), SCHEMAS, reachable)
+				+ prune(components.getParameters(), PARAMETERS, reachable)
+				+ prune(components.getRequestBodies(), REQUEST_BODIES, reachable)
+				+ prune(components.getResponses(), RESPONSES, reachable)
+				+ prune(components.getHeaders(), HEADERS, reachable);
+	}
+
+	private static int prune(Map<String, ?> map, String type, Set<String> reachable) {
+		if (map == null) {
+			return 0;
+		}
+		int size = map.size();
+		String prefix = COMPONENTS_PREFIX + type + "/";
+		map.keySet().removeIf(name -> !reachable.contains(prefix + name));
+		return size - map.size();
+	}
+
+	/**
+	 * Walk the referenced components, until there are no new ones.
+	 */
+	private void drain() {
+		while (!pending.isEmpty()) {
+			String ref = pending.pop();
+			String[] typeAndName = StringUtils.split(ref.substring(COMPONENTS_PREFIX.length()), "/", 2);
+			if (typeAndName.length < 2) {
+				continue;
+			}
+			String name = typeAndName[1];
+			switch (typeAndName[0]) {
+			case SCHEMAS:
+				walk(get(components.getSchemas(), name), this::walk);
+				break;
+			case PARAMETERS:
+				walk(get(components.getParameters(), name), this::walk);
+				break;
+			case REQUEST_BODIES:
+				walk(get(components.getRequestBodies(), name), this::walk);
+				break;
+			case RESPONSES:
+				walk(get(components.getResponses(), name), this::walk);
+				break;
+			case HEADERS:
+				walk(get(components.getHeaders(), name), this::walk);
+				break;
+			case EXAMPLES:
+				walk(get(components.getExamples(), name), this::walk);
+				break;
+			case LINKS:
+				walk(get(components.getLinks(), name), this::walk);
+				break;
+			case CALLBACKS:
+				walk(get(components.getCallbacks(), name), this::walk);
+				break;
+			case PATH_ITEMS:
+				walk(get(components.getPathItems(), name), this::walk);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	private static <T> T get(Map<String, T> map, String name) {
+		return map != null ? map.get(name) : null;
+	}
+
+	private <T> void walk(T item, Function<T, Void> walker) {
+		if (item != null) {
+			walker.apply(item);
+		}
+	}
+
+	private <T> void walkAll(Collection<T> items, Function<T, Void> walker) {
+		if (items != null) {
+			items.forEach(item -> walk(item, walker));
+		}
+	}
+
+	private <T> void walkAll(Map<String, T> items, Function<T, Void> walker) {
+		if (items != null) {
+			walkAll(items.values(), walker);
+		}
+	}
+
+	/**
+	 * Mark a reference as reachable.
+	 *
+	 * @param ref
+	 * @return true, if the reference is a local component one
+	 */
+	private boolean ref(String ref) {
+		if (ref == null || !ref.startsWith(COMPONENTS_PREFIX)) {
+			return false;
+		}
+		if (reachable.add(ref)) {
+			pending.push(ref);
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether the model object is seen for the first time.
+	 */
+	private boolean visit(Object item) {
+		return visited.add(item);
+	}
+
+	private Void walk(PathItem pathItem) {
+		if (visit(pathItem) && !ref(pathItem.get$ref())) {
+			walkAll(pathItem.getParameters(), this::walk);
+			walkAll(pathItem.readOperations(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(Operation operation) {
+		if (visit(operation)) {
+			walkAll(operation.getParameters(), this::walk);
+			walk(operation.getRequestBody(), this::walk);
+			walkAll(operation.getResponses(), this::walk);
+			walkAll(operation.getCallbacks(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(Callback callback) {
+		if (visit(callback) && !ref(callback.get$ref())) {
+			walkAll(callback, this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(Parameter parameter) {
+		if (visit(parameter) && !ref(parameter.get$ref())) {
+			walk(parameter.getSchema(), this::walk);
+			walk(parameter.getContent(), this::walk);
+			walkAll(parameter.getExamples(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(RequestBody requestBody) {
+		if (visit(requestBody) && !ref(requestBody.get$ref())) {
+			walk(requestBody.getContent(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(ApiResponse response) {
+		if (visit(response) && !ref(response.get$ref())) {
+			walk(response.getContent(), this::walk);
+			walkAll(response.getHeaders(), this::walk);
+			walkAll(response.getLinks(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(Header header) {
+		if (visit(header) && !ref(header.get$ref())) {
+			walk(header.getSchema(), this::walk);
+			walk(header.getContent(), this::walk);
+			walkAll(header.getExamples(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(Example example) {
+		if (visit(example)) {
+			ref(example.get$ref());
+		}
+		return null;
+	}
+
+	@SuppressWarnings("deprecation") // the link headers are not in the OpenAPI spec, but are still serialized by swagger, so their references count
+	private Void walk(Link link) {
+		if (visit(link) && !ref(link.get$ref())) {
+			walkAll(link.getHeaders(), this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(Content content) {
+		if (visit(content)) {
+			walkAll(content, this::walk);
+		}
+		return null;
+	}
+
+	private Void walk(MediaType mediaType) {
+		if (visit(mediaType)) {
+			walk(mediaType.getSchema(), this::walk);
+			walkAll(mediaType.getExamples(), this::walk);
+			if (mediaType.getEncoding() != null) {
+				for (Encoding encoding : mediaType.getEncoding().values()) {
+					walkAll(encoding.getHeaders(), this::walk);
+				}
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Void walk(Schema schema) {
+		if (!visit(schema)) {
+			return null;
+		}
+		ref(schema.get$ref());
+		walkAll((Map<String, Schema>) schema.getProperties(), this::walk);
+		walk(schema.getItems(), this::walk);
+		walkAll((Collection<Schema>) schema.getAllOf(), this::walk);
+		walkAll((Collection<Schema>) schema.getAnyOf(), this::walk);
+		walkAll((Collection<Schema>) schema.getOneOf(), this::walk);
+		walk(schema.getNot(), this::walk);
+		if (schema.getAdditionalProperties() instanceof Schema) {
+			walk((Schema) schema.getAdditionalProperties());
+		}
+		walkAll((Collection<Schema>) schema.getPrefixItems(), this::walk);
+		walkAll((Map<String, Schema>) schema.getPatternProperties(), this::walk);
+		walkAll((Map<String, Schema>) schema.getDependentSchemas(), this::walk);
+		walk(schema.getContains(), this::walk);
+		walk(schema.getPropertyNames(), this::walk);
+		walk(schema.getAdditionalItems(), this::walk);
+		walk(schema.getUnevaluatedItems(), this::walk);
+		walk(schema.getUnevaluatedProperties(), this::walk);
+		walk(schema.getContentSchema(), this::walk);
+		walk(schema.getIf(), this::walk);
+		walk(schema.getThen(), this::walk);
+		walk(schema.getElse(), this::walk);
+		if (schema.getDiscriminator() != null && schema.getDiscriminator().getMapping() != null) {
+			schema.getDiscriminator().getMapping().values().forEach(this::ref);
+		}
+		return null;
+	}
+}
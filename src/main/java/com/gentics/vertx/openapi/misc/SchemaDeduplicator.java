@@ -0,0 +1,499 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * The structural deduplication of the inline schemas of an OpenAPI model. The structurally equal schemas, i.e. the ones serialized
+ * equally into both spec versions, are hash-consed bottom-up into a single shared instance. The frequent ones, whose reference is shorter
+ * than their content, are promoted into the named <code>components/schemas</code>, and referenced by <code>$ref</code>.
+ * <p>
+ * The model is changed in place, but the schemas themselves are not: a schema, whose children are replaced, is copied first, since it may be
+ * shared with the caches outliving a generation. The structural key of a schema is built from its own content and the ids of its already
+ * interned children, so each schema is serialized once, without its subtree. The promoted schemas are also registered in the given map, which is expected to outlive a single
+ * generation: the references to them, met in the reused model parts (e.g. extracted components), get their components back. The registered schemas,
+ * neither promoted nor referenced by the latest run, are evicted.
+ */
+public final class SchemaDeduplicator {
+
+	public static final String SHARED_SCHEMA_PREFIX = "Shared_";
+
+	private static final ObjectWriter V30_KEY_WRITER = Json.mapper().writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+	private static final ObjectWriter V31_KEY_WRITER = Json31.mapper().writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+	private static final String SCHEMAS_PREFIX = ReferenceGraph.COMPONENTS_PREFIX + ReferenceGraph.SCHEMAS + "/";
+
+	private final Map<String, Schema<?>> sharedSchemas;
+	private final int minOccurrences;
+
+	private final Map<Schema<?>, String> keys = new IdentityHashMap<>();
+	private final Map<String, Node> nodes = new HashMap<>();
+	private final Map<String, Schema<?>> canonical = new HashMap<>();
+	@SuppressWarnings("rawtypes")
+	private final Map<String, List<Consumer<Schema>>> slots = new LinkedHashMap<>();
+	@SuppressWarnings("rawtypes")
+	private final Map<Schema, Schema> copies = new IdentityHashMap<>();
+	private final Set<String> sharedRefs = new HashSet<>();
+	private final Set<String> promotedNames = new HashSet<>();
+
+	private int shared;
+	private int promoted;
+
+	/**
+	 * Ctor
+	 *
+	 * @param sharedSchemas a thread-safe registry of the promoted schemas, by the component name
+	 * @param minOccurrences the minimal number of occurrences of a schema for the promotion
+	 */
+	public SchemaDeduplicator(Map<String, Schema<?>> sharedSchemas, int minOccurrences) {
+		this.sharedSchemas = sharedSchemas;
+		this.minOccurrences = minOccurrences;
+	}
+
+	/**
+	 * Deduplicate the schemas of the paths, webhooks and components of the model.
+	 *
+	 * @param openApi
+	 * @return fluent API
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public SchemaDeduplicator deduplicate(OpenAPI openApi) {
+		if (openApi.getComponents() == null) {
+			openApi.setComponents(new Components());
+		}
+		Components components = openApi.getComponents();
+		if (openApi.getPaths() != null) {
+			openApi.getPaths().values().forEach(this::walk);
+		}
+		if (openApi.getWebhooks() != null) {
+			openApi.getWebhooks().values().forEach(this::walk);
+		}
+		if (components.getSchemas() != null) {
+			// the named components themselves stay in place, only their content is deduplicated
+			for (Map.Entry<String, Schema> entry : components.getSchemas().entrySet()) {
+				if (entry.getValue() != null) {
+					entry.setValue(expand(entry.getValue()));
+				}
+			}
+		}
+		forEach(components.getParameters(), this::walk);
+		forEach(components.getRequestBodies(), this::walk);
+		forEach(components.getResponses(), this::walk);
+		forEach(components.getHeaders(), this::walk);
+		forEach(components.getPathItems(), this::walk);
+		promote(components);
+		restore(components);
+		evict();
+		return this;
+	}
+
+	/**
+	 * Get the number of the schema occurrences, replaced by a shared instance
+	 *
+	 * @return
+	 */
+	public int getShared() {
+		return shared;
+	}
+
+	/**
+	 * Get the number of the schemas, promoted into the components by this run
+	 *
+	 * @return
+	 */
+	public int getPromoted() {
+		return promoted;
+	}
+
+	/**
+	 * Promote the frequent schemas, replacing all their occurrences with a shared reference.
+	 *
+	 * @param components
+	 */
+	@SuppressWarnings("rawtypes")
+	private void promote(Components components) {
+		for (Map.Entry<String, List<Consumer<Schema>>> entry : slots.entrySet()) {
+			Schema<?> schema = canonical.get(entry.getKey());
+			if (entry.getValue().size() < minOccurrences || schema.get$ref() != null) {
+				continue;
+			}
+			Node node = nodes.get(entry.getKey());
+			String name = SHARED_SCHEMA_PREFIX + node.hash;
+			String ref = SCHEMAS_PREFIX + name;
+			// the reference has to be shorter than the content it replaces
+			if (node.size <= ref.length() + 12) {
+				continue;
+			}
+			if (components.getSchemas() == null) {
+				components.setSchemas(new HashMap<>());
+			}
+			Schema<?> existing = components.getSchemas().putIfAbsent(name, schema);
+			if (existing != null && existing != schema && !entry.getKey().equals(keys.get(existing))) {
+				// an unlikely fingerprint collision with a foreign component
+				continue;
+			}
+			sharedSchemas.putIfAbsent(name, schema);
+			promotedNames.add(name);
+			Schema reference = new Schema<>().$ref(ref);
+			entry.getValue().forEach(slot -> slot.accept(reference));
+			promoted++;
+		}
+	}
+
+	/**
+	 * Add the previously promoted schemas back, if referenced by the reused model parts, or by the restored schemas in turn.
+	 *
+	 * @param components
+	 */
+	private void restore(Components components) {
+		Deque<String> pending = new ArrayDeque<>(sharedRefs);
+		while (!pending.isEmpty()) {
+			String name = pending.pop().substring(SCHEMAS_PREFIX.length());
+			Schema<?> schema = sharedSchemas.get(name);
+			if (schema != null) {
+				if (components.getSchemas() == null) {
+					components.setSchemas(new HashMap<>());
+				}
+				if (components.getSchemas().putIfAbsent(name, schema) == null) {
+					collectSharedRefs(schema, pending);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collect the not yet known references to the shared schemas from the subtree of the schema, which is not interned by this run.
+	 *
+	 * @param schema
+	 * @param pending the collected references
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void collectSharedRefs(Schema schema, Deque<String> pending) {
+		if (schema == null) {
+			return;
+		}
+		if (schema.get$ref() != null) {
+			if (schema.get$ref().startsWith(SCHEMAS_PREFIX + SHARED_SCHEMA_PREFIX) && sharedRefs.add(schema.get$ref())) {
+				pending.push(schema.get$ref());
+			}
+			return;
+		}
+		if (schema.getProperties() != null) {
+			((Map<String, Schema>) schema.getProperties()).values().forEach(child -> collectSharedRefs(child, pending));
+		}
+		collectSharedRefs(schema.getItems(), pending);
+		collectSharedRefs(schema.getNot(), pending);
+		if (schema.getAdditionalProperties() instanceof Schema) {
+			collectSharedRefs((Schema) schema.getAdditionalProperties(), pending);
+		}
+		forEach((List<Schema>) schema.getAllOf(), child -> collectSharedRefs(child, pending));
+		forEach((List<Schema>) schema.getAnyOf(), child -> collectSharedRefs(child, pending));
+		forEach((List<Schema>) schema.getOneOf(), child -> collectSharedRefs(child, pending));
+	}
+
+	/**
+	 * Evict the registered schemas, neither promoted nor referenced by this run, so the registry does not outgrow the latest generation.
+	 */
+	private void evict() {
+		sharedSchemas.keySet().removeIf(name -> !promotedNames.contains(name) && !sharedRefs.contains(SCHEMAS_PREFIX + name));
+	}
+
+	private static <T> void forEach(Map<String, T> items, Consumer<T> walker) {
+		if (items != null) {
+			items.values().forEach(item -> {
+				if (item != null) {
+					walker.accept(item);
+				}
+			});
+		}
+	}
+
+	private static <T> void forEach(Collection<T> items, Consumer<T> walker) {
+		if (items != null) {
+			items.forEach(item -> {
+				if (item != null) {
+					walker.accept(item);
+				}
+			});
+		}
+	}
+
+	private void walk(PathItem pathItem) {
+		forEach(pathItem.getParameters(), this::walk);
+		forEach(pathItem.readOperations(), this::walk);
+	}
+
+	private void walk(Operation operation) {
+		forEach(operation.getParameters(), this::walk);
+		if (operation.getRequestBody() != null) {
+			walk(operation.getRequestBody());
+		}
+		forEach(operation.getResponses(), this::walk);
+		forEach(operation.getCallbacks(), this::walk);
+	}
+
+	private void walk(Callback callback) {
+		forEach(callback, this::walk);
+	}
+
+	private void walk(Parameter parameter) {
+		parameter.setSchema(intern(parameter.getSchema(), parameter::setSchema));
+		walk(parameter.getContent());
+	}
+
+	private void walk(RequestBody requestBody) {
+		walk(requestBody.getContent());
+	}
+
+	private void walk(ApiResponse response) {
+		walk(response.getContent());
+		forEach(response.getHeaders(), this::walk);
+	}
+
+	private void walk(Header header) {
+		header.setSchema(intern(header.getSchema(), header::setSchema));
+		walk(header.getContent());
+	}
+
+	private void walk(Content content) {
+		forEach(content, this::walk);
+	}
+
+	private void walk(MediaType mediaType) {
+		mediaType.setSchema(intern(mediaType.getSchema(), mediaType::setSchema));
+	}
+
+	/**
+	 * Intern the schema, and its children first. Registers the slot of the occurrence for a possible promotion.
+	 *
+	 * @param schema a schema, or null
+	 * @param slot the setter of the schema occurrence
+	 * @return the shared instance of the schema
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Schema intern(Schema schema, Consumer<Schema> slot) {
+		if (schema == null) {
+			return null;
+		}
+		if (schema.get$ref() != null && schema.get$ref().startsWith(SCHEMAS_PREFIX + SHARED_SCHEMA_PREFIX)) {
+			sharedRefs.add(schema.get$ref());
+		}
+		Schema expanded = expand(schema);
+		String key = key(expanded);
+		Schema<?> existing = canonical.putIfAbsent(key, expanded);
+		slots.computeIfAbsent(key, k -> new ArrayList<>()).add(slot);
+		if (existing != null && existing != expanded) {
+			shared++;
+			return existing;
+		}
+		return expanded;
+	}
+
+	/**
+	 * Get the copy of the schema with its children interned. The schema itself is left intact, since it may be shared with the caches
+	 * outliving the generation (e.g. memoized route fragments or registered components). A schema without children is returned as is,
+	 * since there is nothing to set in.
+	 *
+	 * @param schema
+	 * @return the copy, or the childless schema itself
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Schema expand(Schema schema) {
+		if (!hasChildren(schema)) {
+			return schema;
+		}
+		Schema copy = copies.get(schema);
+		if (copy != null) {
+			return copy;
+		}
+		Schema target = ModelCopy.shallow(schema);
+		copies.put(schema, target);
+		if (target.getProperties() != null) {
+			Map<String, Schema> properties = new LinkedHashMap<>((Map<String, Schema>) target.getProperties());
+			target.setProperties(properties);
+			for (Map.Entry<String, Schema> property : properties.entrySet()) {
+				property.setValue(intern(property.getValue(), child -> properties.put(property.getKey(), child)));
+			}
+		}
+		target.setItems(intern(target.getItems(), target::setItems));
+		target.setNot(intern(target.getNot(), target::setNot));
+		if (target.getAdditionalProperties() instanceof Schema) {
+			target.setAdditionalProperties(intern((Schema) target.getAdditionalProperties(), target::setAdditionalProperties));
+		}
+		target.setAllOf(internAll(target.getAllOf()));
+		target.setAnyOf(internAll(target.getAnyOf()));
+		target.setOneOf(internAll(target.getOneOf()));
+		return target;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private List<Schema> internAll(List<Schema> schemas) {
+		if (schemas == null) {
+			return null;
+		}
+		List<Schema> copy = new ArrayList<>(schemas);
+		for (int i = 0; i < copy.size(); i++) {
+			int index = i;
+			copy.set(i, intern(copy.get(i), child -> copy.set(index, child)));
+		}
+		return copy;
+	}
+
+	/**
+	 * Make the structural key of the expanded schema: its own content serialized for both spec versions, with the map entries sorted,
+	 * followed by the ids of its already interned children. Each schema is serialized once, without its subtree.
+	 *
+	 * @param schema
+	 * @return
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private String key(Schema schema) {
+		String key = keys.get(schema);
+		if (key != null) {
+			return key;
+		}
+		Map<String, Schema> properties = schema.getProperties();
+		Schema items = schema.getItems();
+		Schema not = schema.getNot();
+		Object additionalProperties = schema.getAdditionalProperties();
+		List<Schema> allOf = schema.getAllOf();
+		List<Schema> anyOf = schema.getAnyOf();
+		List<Schema> oneOf = schema.getOneOf();
+		String content;
+		if (hasChildren(schema)) {
+			// only the private copies made by expand() have children, so they can be detached for a moment
+			schema.setProperties(null);
+			schema.setItems(null);
+			schema.setNot(null);
+			if (additionalProperties instanceof Schema) {
+				schema.setAdditionalProperties(null);
+			}
+			schema.setAllOf(null);
+			schema.setAnyOf(null);
+			schema.setOneOf(null);
+			try {
+				content = serialize(schema);
+			} finally {
+				schema.setProperties(properties);
+				schema.setItems(items);
+				schema.setNot(not);
+				schema.setAdditionalProperties(additionalProperties);
+				schema.setAllOf(allOf);
+				schema.setAnyOf(anyOf);
+				schema.setOneOf(oneOf);
+			}
+		} else {
+			content = serialize(schema);
+		}
+		StringBuilder builder = new StringBuilder(content);
+		Fingerprint hash = new Fingerprint().add(content);
+		int size = content.indexOf('\u0000');
+		if (properties != null) {
+			// sorted, like the map entries of the content
+			for (Map.Entry<String, Schema> property : new TreeMap<>(properties).entrySet()) {
+				size += appendChild(builder, hash, "p" + property.getKey(), property.getValue());
+			}
+		}
+		size += appendChild(builder, hash, "i", items);
+		size += appendChild(builder, hash, "n", not);
+		if (additionalProperties instanceof Schema) {
+			size += appendChild(builder, hash, "a", (Schema) additionalProperties);
+		}
+		size += appendChildren(builder, hash, "allOf", allOf);
+		size += appendChildren(builder, hash, "anyOf", anyOf);
+		size += appendChildren(builder, hash, "oneOf", oneOf);
+		key = builder.toString();
+		keys.put(schema, key);
+		nodes.putIfAbsent(key, new Node(nodes.size(), hash.toHex(), size));
+		return key;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private int appendChildren(StringBuilder builder, Fingerprint hash, String role, List<Schema> children) {
+		if (children == null) {
+			return 0;
+		}
+		int size = 0;
+		for (int i = 0; i < children.size(); i++) {
+			size += appendChild(builder, hash, role + i, children.get(i));
+		}
+		return size;
+	}
+
+	/**
+	 * Append the child schema, identified by the id of its key, to the key of its parent.
+	 *
+	 * @param builder key of the parent
+	 * @param hash content hash of the parent
+	 * @param role the position of the child within the parent
+	 * @param child child schema, or null
+	 * @return the content size of the child
+	 */
+	@SuppressWarnings("rawtypes")
+	private int appendChild(StringBuilder builder, Fingerprint hash, String role, Schema child) {
+		if (child == null) {
+			return 0;
+		}
+		Node node = nodes.get(key(child));
+		builder.append('\u0001').append(role).append('=').append(node.id);
+		hash.add(role).add(node.hash);
+		return node.size;
+	}
+
+	private static String serialize(Schema<?> schema) {
+		try {
+			return V30_KEY_WRITER.writeValueAsString(schema) + '\u0000' + V31_KEY_WRITER.writeValueAsString(schema);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize a schema", e);
+		}
+	}
+
+	private static boolean hasChildren(Schema<?> schema) {
+		return schema.getProperties() != null || schema.getItems() != null || schema.getNot() != null || schema.getAdditionalProperties() instanceof Schema
+				|| schema.getAllOf() != null || schema.getAnyOf() != null || schema.getOneOf() != null;
+	}
+
+	/**
+	 * The interned schema content.
+	 */
+	private static final class Node {
+		private final int id;
+		private final String hash;
+		private final int size;
+
+		private Node(int id, String hash, int size) {
+			this.id = id;
+			this.hash = hash;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.gentics.vertx.openapi.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.gentics.vertx.openapi.model.SpecManifest;
+import com.gentics.vertx.openapi.model.SpecManifest.Node;
+
+/**
+ * The structural diff of two generated spec versions, made out of their {@link SpecManifest}s. The equal subtrees are skipped by their hash,
+ * so the cost depends on the number of the changed path items and components, not on the spec size. The diff can be turned into
+ * a JSON Patch (RFC 6902), transforming the older document into the newer one.
+ */
+public final class SpecDiff {
+
+	/**
+	 * The type of a change
+	 */
+	public enum Type {
+		ADDED, REMOVED, CHANGED
+	}
+
+	/**
+	 * A changed spec part, addressed by its JSON pointer.
+	 */
+	public static final class Change {
+		private final Type type;
+		private final String pointer;
+
+		private Change(Type type, String pointer) {
+			this.type = type;
+			this.pointer = pointer;
+		}
+
+		/**
+		 * Get the change type
+		 *
+		 * @return
+		 */
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * Get the JSON pointer of the changed part, e.g. <code>/paths/~1items</code> or <code>/components/schemas/Item</code>
+		 *
+		 * @return
+		 */
+		public String getPointer() {
+			return pointer;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + pointer;
+		}
+	}
+
+	private SpecDiff() {
+	}
+
+	/**
+	 * Find the changes between the two spec versions.
+	 *
+	 * @param from the older version
+	 * @param to the newer version
+	 * @return the list of the changes, empty if the versions are equal
+	 */
+	public static List<Change> diff(SpecManifest from, SpecManifest to) {
+		List<Change> changes = new ArrayList<>();
+		diff(StringUtils.EMPTY, from.getRoot(), to.getRoot(), changes);
+		return changes;
+	}
+
+	private static void diff(String pointer, Node from, Node to, List<Change> changes) {
+		if (from.getHash() == to.getHash()) {
+			return;
+		}
+		Map<String, Node> fromChildren = from.getChildren();
+		Map<String, Node> toChildren = to.getChildren();
+		if (fromChildren == null || toChildren == null) {
+			changes.add(new Change(Type.CHANGED, pointer));
+			return;
+		}
+		fromChildren.forEach((name, child) -> {
+			if (!toChildren.containsKey(name)) {
+				changes.add(new Change(Type.REMOVED, pointer + "/" + SpecManifest.escape(name)));
+			}
+		});
+		toChildren.forEach((name, child) -> {
+			Node previous = fromChildren.get(name);
+			if (previous == null) {
+				changes.add(new Change(Type.ADDED, pointer + "/" + SpecManifest.escape(name)));
+			} else {
+				diff(pointer + "/" + SpecManifest.escape(name), previous, child, changes);
+			}
+		});
+	}
+
+	/**
+	 * Make the JSON Patch out of the changes.
+	 *
+	 * @param changes the changes, as returned by {@link #diff(SpecManifest, SpecManifest)}
+	 * @param to the newer version document, the added and changed values are taken from. The values are not copied, so the patch
+	 * must not outlive the modifications of the document.
+	 * @return the JSON Patch operations array
+	 */
+	public static ArrayNode toJsonPatch(List<Change> changes, JsonNode to) {
+		ArrayNode patch = JsonNodeFactory.instance.arrayNode(changes.size());
+		for (Change change : changes) {
+			switch (change.getType()) {
+			case ADDED:
+				patch.addObject().put("op", "add").put("path", change.getPointer()).set("value", to.at(change.getPointer()));
+				break;
+			case CHANGED:
+				patch.addObject().put("op", "replace").put("path", change.getPointer()).set("value", to.at(change.getPointer()));
+				break;
+			case REMOVED:
+				patch.addObject().put("op", "remove").put("path", change.getPointer());
+				break;
+			}
+		}
+		return patch;
+	}
+
+	/**
+	 * Make the JSON Patch, replacing the whole document, for the clients with an unknown version.
+	 *
+	 * @param to
+	 * @return
+	 */
+	public static ArrayNode replaceAll(JsonNode to) {
+		ArrayNode patch = JsonNodeFactory.instance.arrayNode(1);
+		patch.addObject().put("op", "replace").put("path", StringUtils.EMPTY).set("value", to);
+		return patch;
+	}
+}
@@ -1,5 +1,12 @@
 package com.gentics.vertx.openapi.misc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * Utils and constants
  */
@@ -15,5 +22,43 @@ public class UtilsAndConstants {
 	public static final String APPLICATION_JSON_UTF8 = UtilsAndConstants.APPLICATION_JSON + "; charset=utf-8";
 	public static final String APPLICATION_YAML = "application/x-yaml";
 	public static final String APPLICATION_YAML_UTF8 = APPLICATION_YAML + "; charset=utf-8";
+	public static final String APPLICATION_CBOR = "application/cbor";
+	public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+	public static final String APPLICATION_JSON_PATCH = "application/json-patch+json";
+	public static final String ENCODING_GZIP = "gzip";
+	public static final String ENCODING_DEFLATE = "deflate";
+	public static final String ENCODING_IDENTITY = "identity";
+
+	/**
+	 * Compress the data with GZIP.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static byte[] gzip(byte[] data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		try (OutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Compress the data with DEFLATE, in the zlib format, as expected by the HTTP `deflate` content encoding.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static byte[] deflate(byte[] data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		try (OutputStream deflate = new DeflaterOutputStream(out)) {
+			deflate.write(data);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
 
 }
@@ -7,7 +7,24 @@ import java.util.Arrays;
  */
 public enum Format {
 	YAML,
-	JSON;
+	JSON,
+	/**
+	 * Binary JSON, RFC 8949
+	 */
+	CBOR,
+	/**
+	 * Binary JSON of Jackson
+	 */
+	SMILE;
+
+	/**
+	 * Check whether the format is a binary one, which cannot be represented as text, and is never prettified.
+	 * 
+	 * @return
+	 */
+	public boolean isBinary() {
+		return this == CBOR || this == SMILE;
+	}
 
 	public static final Format parse(String text) {
 		if (text == null) {
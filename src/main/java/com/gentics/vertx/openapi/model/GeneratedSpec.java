@@ -0,0 +1,84 @@
+package com.gentics.vertx.openapi.model;
+
+import java.nio.charset.StandardCharsets;
+
+import com.gentics.vertx.openapi.misc.Fingerprint;
+
+/**
+ * An immutable result of the specification generation: the produced bytes of an output variant,
+ * along with the fingerprint of the input it was generated from.
+ */
+public class GeneratedSpec {
+
+	protected final OutputVariant variant;
+	protected final String fingerprint;
+	protected final byte[] bytes;
+
+	private volatile String text;
+	private volatile String contentHash;
+
+	public GeneratedSpec(OutputVariant variant, String fingerprint, byte[] bytes) {
+		this.variant = variant;
+		this.fingerprint = fingerprint;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Get the output variant
+	 *
+	 * @return
+	 */
+	public OutputVariant getVariant() {
+		return variant;
+	}
+
+	/**
+	 * Get the fingerprint of the generation input
+	 *
+	 * @return
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Get the produced bytes. The array is shared and must not be modified.
+	 *
+	 * @return
+	 */
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Get the hash of the produced bytes, computed once and memoized. Unlike the input fingerprint, it only changes with the output itself,
+	 * so it is usable as a strong ETag, shared by all the instances, producing the same spec.
+	 *
+	 * @return the hexadecimal hash string
+	 */
+	public String getContentHash() {
+		String result = contentHash;
+		if (result == null) {
+			result = new Fingerprint().add(bytes).toHex();
+			contentHash = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Get the produced spec text, decoded once and memoized. Not available for the binary formats.
+	 *
+	 * @return
+	 */
+	public String asString() {
+		if (variant.getFormat().isBinary()) {
+			throw new IllegalStateException("Binary format " + variant.getFormat() + " has no text representation");
+		}
+		String result = text;
+		if (result == null) {
+			result = new String(bytes, StandardCharsets.UTF_8);
+			text = result;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,320 @@
+package com.gentics.vertx.openapi.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The statistics of a single specification generation: phase timings, counts of the processed items, strategy hits and output sizes.
+ * Filled concurrently by the generation, and handed over to the report listener once complete.
+ */
+public class GenerationReport {
+
+	/**
+	 * The generation phase
+	 */
+	public static enum Phase {
+		/**
+		 * Adding the security schemes
+		 */
+		SECURITY,
+		/**
+		 * Filling the supplied extra components
+		 */
+		EXTRA_COMPONENTS,
+		/**
+		 * Walking the routers, including the component fill of the routes
+		 */
+		ROUTER_WALK,
+		/**
+		 * Filling the components, as a part of the other phases
+		 */
+		COMPONENT_FILL,
+		/**
+		 * Post-processing the model, e.g. removing the unused components
+		 */
+		POST_PROCESS,
+		/**
+		 * Serializing the model into the output variants
+		 */
+		SERIALIZATION
+	}
+
+	protected final String name;
+	protected final Instant started = Instant.now();
+	protected final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+	protected final LongAdder routes = new LongAdder();
+	protected final LongAdder componentsGenerated = new LongAdder();
+	protected final LongAdder componentsPruned = new LongAdder();
+	protected final LongAdder schemasShared = new LongAdder();
+	protected final LongAdder schemasPromoted = new LongAdder();
+	protected final LongAdder componentsExtracted = new LongAdder();
+	protected final LongAdder componentReferences = new LongAdder();
+	protected final Map<String, LongAdder> strategyHits = new ConcurrentHashMap<>();
+	protected final Map<OutputVariant, Long> outputSizes = new ConcurrentHashMap<>();
+
+	protected volatile int paths;
+	protected volatile int operations;
+
+	/**
+	 * Ctor
+	 *
+	 * @param name spec title
+	 */
+	public GenerationReport(String name) {
+		this.name = name;
+		for (Phase phase : Phase.values()) {
+			phaseNanos.put(phase, new LongAdder());
+		}
+	}
+
+	/**
+	 * Add the time spent in the phase.
+	 *
+	 * @param phase
+	 * @param nanos
+	 * @return fluent API
+	 */
+	public GenerationReport addTime(Phase phase, long nanos) {
+		phaseNanos.get(phase).add(nanos);
+		return this;
+	}
+
+	/**
+	 * Count a processed route.
+	 *
+	 * @return fluent API
+	 */
+	public GenerationReport addRoute() {
+		routes.increment();
+		return this;
+	}
+
+	/**
+	 * Count the generated and pruned components.
+	 *
+	 * @param generated
+	 * @param pruned
+	 * @return fluent API
+	 */
+	public GenerationReport addComponents(int generated, int pruned) {
+		componentsGenerated.add(generated);
+		componentsPruned.add(pruned);
+		return this;
+	}
+
+	/**
+	 * Count the schema occurrences, replaced by a shared instance, and the schemas, promoted into the components.
+	 *
+	 * @param shared
+	 * @param promoted
+	 * @return fluent API
+	 */
+	public GenerationReport addSchemasDeduplicated(int shared, int promoted) {
+		schemasShared.add(shared);
+		schemasPromoted.add(promoted);
+		return this;
+	}
+
+	/**
+	 * Count the parameters, responses and headers, extracted into the components, and the inline occurrences, replaced by their references.
+	 *
+	 * @param extracted
+	 * @param references
+	 * @return fluent API
+	 */
+	public GenerationReport addComponentsExtracted(int extracted, int references) {
+		componentsExtracted.add(extracted);
+		componentReferences.add(references);
+		return this;
+	}
+
+	/**
+	 * Count the applications of the strategy.
+	 *
+	 * @param strategy strategy name
+	 * @param hits
+	 * @return fluent API
+	 */
+	public GenerationReport addStrategyHits(String strategy, long hits) {
+		strategyHits.computeIfAbsent(strategy, key -> new LongAdder()).add(hits);
+		return this;
+	}
+
+	/**
+	 * Set the counts of the resulting paths and operations.
+	 *
+	 * @param paths
+	 * @param operations
+	 * @return fluent API
+	 */
+	public GenerationReport setResult(int paths, int operations) {
+		this.paths = paths;
+		this.operations = operations;
+		return this;
+	}
+
+	/**
+	 * Set the output size of the variant.
+	 *
+	 * @param variant
+	 * @param bytes
+	 * @return fluent API
+	 */
+	public GenerationReport setOutputSize(OutputVariant variant, long bytes) {
+		outputSizes.put(variant, bytes);
+		return this;
+	}
+
+	/**
+	 * Get the spec title
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the generation start time
+	 *
+	 * @return
+	 */
+	public Instant getStarted() {
+		return started;
+	}
+
+	/**
+	 * Get the time spent in the phase
+	 *
+	 * @param phase
+	 * @return
+	 */
+	public Duration getTime(Phase phase) {
+		return Duration.ofNanos(phaseNanos.get(phase).sum());
+	}
+
+	/**
+	 * Get the time spent in each phase
+	 *
+	 * @return
+	 */
+	public Map<Phase, Duration> getTimes() {
+		Map<Phase, Duration> times = new EnumMap<>(Phase.class);
+		phaseNanos.forEach((phase, nanos) -> times.put(phase, Duration.ofNanos(nanos.sum())));
+		return times;
+	}
+
+	/**
+	 * Get the number of the processed routes
+	 *
+	 * @return
+	 */
+	public long getRoutes() {
+		return routes.sum();
+	}
+
+	/**
+	 * Get the number of the resulting paths
+	 *
+	 * @return
+	 */
+	public int getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Get the number of the resulting operations
+	 *
+	 * @return
+	 */
+	public int getOperations() {
+		return operations;
+	}
+
+	/**
+	 * Get the number of the generated components, before pruning
+	 *
+	 * @return
+	 */
+	public long getComponentsGenerated() {
+		return componentsGenerated.sum();
+	}
+
+	/**
+	 * Get the number of the unused components pruned
+	 *
+	 * @return
+	 */
+	public long getComponentsPruned() {
+		return componentsPruned.sum();
+	}
+
+	/**
+	 * Get the number of the schema occurrences, replaced by a shared instance
+	 *
+	 * @return
+	 */
+	public long getSchemasShared() {
+		return schemasShared.sum();
+	}
+
+	/**
+	 * Get the number of the schemas, promoted into the components by the deduplication
+	 *
+	 * @return
+	 */
+	public long getSchemasPromoted() {
+		return schemasPromoted.sum();
+	}
+
+	/**
+	 * Get the number of the parameters, responses and headers, extracted into the components
+	 *
+	 * @return
+	 */
+	public long getComponentsExtracted() {
+		return componentsExtracted.sum();
+	}
+
+	/**
+	 * Get the number of the inline occurrences, replaced by a reference to an extracted component
+	 *
+	 * @return
+	 */
+	public long getComponentReferences() {
+		return componentReferences.sum();
+	}
+
+	/**
+	 * Get the number of the component fills per strategy
+	 *
+	 * @return
+	 */
+	public Map<String, Long> getStrategyHits() {
+		return Collections.unmodifiableMap(strategyHits.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum())));
+	}
+
+	/**
+	 * Get the output size in bytes per variant
+	 *
+	 * @return
+	 */
+	public Map<OutputVariant, Long> getOutputSizes() {
+		return Collections.unmodifiableMap(outputSizes);
+	}
+
+	@Override
+	public String toString() {
+		return "GenerationReport [name=" + name + ", times=" + getTimes() + ", routes=" + getRoutes() + ", paths=" + paths + ", operations=" + operations
+				+ ", componentsGenerated=" + getComponentsGenerated() + ", componentsPruned=" + getComponentsPruned()
+				+ ", schemasShared=" + getSchemasShared() + ", schemasPromoted=" + getSchemasPromoted()
+				+ ", componentsExtracted=" + getComponentsExtracted() + ", componentReferences=" + getComponentReferences()
+				+ ", strategyHits=" + getStrategyHits() + ", outputSizes=" + outputSizes + "]";
+	}
+}
@@ -0,0 +1,104 @@
+package com.gentics.vertx.openapi.model;
+
+import java.util.Objects;
+
+/**
+ * A single output variant of the generated specification: format, prettifying, the spec version and the level of detail.
+ */
+public final class OutputVariant {
+
+	private final Format format;
+	private final boolean pretty;
+	private final boolean useVersion31;
+	private final SpecDetail detail;
+
+	private OutputVariant(Format format, boolean pretty, boolean useVersion31, SpecDetail detail) {
+		this.format = Objects.requireNonNull(format, "Output format must be set");
+		this.pretty = pretty;
+		this.useVersion31 = useVersion31;
+		this.detail = Objects.requireNonNull(detail, "Spec detail must be set");
+	}
+
+	/**
+	 * Create an output variant.
+	 *
+	 * @param format
+	 * @param pretty
+	 * @param useVersion31
+	 * @return
+	 */
+	public static OutputVariant of(Format format, boolean pretty, boolean useVersion31) {
+		return new OutputVariant(format, pretty, useVersion31, SpecDetail.FULL);
+	}
+
+	/**
+	 * Create an output variant of the given level of detail.
+	 *
+	 * @param format
+	 * @param pretty
+	 * @param useVersion31
+	 * @param detail
+	 * @return
+	 */
+	public static OutputVariant of(Format format, boolean pretty, boolean useVersion31, SpecDetail detail) {
+		return new OutputVariant(format, pretty, useVersion31, detail);
+	}
+
+	/**
+	 * Get the output format
+	 *
+	 * @return
+	 */
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * Is the output prettified?
+	 *
+	 * @return
+	 */
+	public boolean isPretty() {
+		return pretty;
+	}
+
+	/**
+	 * Is the output of OpenAPI v3.1, or v3.0?
+	 *
+	 * @return
+	 */
+	public boolean isUseVersion31() {
+		return useVersion31;
+	}
+
+	/**
+	 * Get the level of detail of the output
+	 *
+	 * @return
+	 */
+	public SpecDetail getDetail() {
+		return detail;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(format, pretty, useVersion31, detail);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof OutputVariant)) {
+			return false;
+		}
+		OutputVariant other = (OutputVariant) obj;
+		return format == other.format && pretty == other.pretty && useVersion31 == other.useVersion31 && detail == other.detail;
+	}
+
+	@Override
+	public String toString() {
+		return format + (useVersion31 ? "/3.1" : "/3.0") + (pretty ? "/pretty" : "") + (detail != SpecDetail.FULL ? "/" + detail.name().toLowerCase() : "");
+	}
+}
@@ -0,0 +1,17 @@
+package com.gentics.vertx.openapi.model;
+
+/**
+ * The criterion of splitting the spec paths into the shards, see {@link ShardedSpec}.
+ */
+public enum ShardKey {
+	/**
+	 * The top level path segment, following the segments, shared by all the paths, e.g. <code>/api/v2/items/{id}</code> goes into the shard <code>items</code>,
+	 * if all the paths start with <code>/api/v2</code>
+	 */
+	PREFIX,
+	/**
+	 * The first trait of the path endpoint, see {@link com.gentics.vertx.openapi.metadata.InternalEndpointRoute#getTraits()}. The paths without traits go into the shard
+	 * {@value ShardedSpec#DEFAULT_SHARD}
+	 */
+	TRAIT
+}
@@ -0,0 +1,329 @@
+package com.gentics.vertx.openapi.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.gentics.vertx.openapi.misc.ComponentExtractor;
+import com.gentics.vertx.openapi.misc.ExternalRefRewriter;
+import com.gentics.vertx.openapi.misc.LeanSpecFilter;
+import com.gentics.vertx.openapi.misc.ReferenceGraph;
+import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+
+/**
+ * The generated specification, split into the shard documents: each shard holds a part of the paths, along with the components,
+ * used by this shard only. The components, used by many shards, go into the common document, and are referenced by the external
+ * <code>$ref</code>, e.g. <code>common.json#/components/schemas/Item</code>. The root index document lists all the paths, each
+ * referencing its path item in the shard document, e.g. <code>items.json#/paths/~1items</code>. The documents are expected to be
+ * served side by side, under the names of {@link #fileName(String, Format)}.
+ * <p>
+ * The split plan is made at once, by the walk of the component references, and the documents are written lazily, on the first
+ * request of each document and output variant. The model, the shards are made of, must not be modified afterwards.
+ */
+public final class ShardedSpec {
+
+	public static final String INDEX = "index";
+	public static final String COMMON = "common";
+	public static final String DEFAULT_SHARD = "default";
+
+	private final String fingerprint;
+	private final OpenAPI openApi;
+	private final boolean useVersion31;
+	private final OpenAPIVersionWriter writer;
+	private final Map<String, List<String>> shardPaths;
+	private final Map<String, Set<String>> shardRefs;
+	private final Set<String> commonRefs;
+	private final Map<Pair<String, OutputVariant>, GeneratedSpec> documents = new ConcurrentHashMap<>();
+
+	private ShardedSpec(String fingerprint, OpenAPI openApi, boolean useVersion31, OpenAPIVersionWriter writer, Map<String, List<String>> shardPaths,
+			Map<String, Set<String>> shardRefs, Set<String> commonRefs) {
+		this.fingerprint = fingerprint;
+		this.openApi = openApi;
+		this.useVersion31 = useVersion31;
+		this.writer = writer;
+		this.shardPaths = shardPaths;
+		this.shardRefs = shardRefs;
+		this.commonRefs = commonRefs;
+	}
+
+	/**
+	 * Split the generated model into the shards.
+	 *
+	 * @param fingerprint input fingerprint
+	 * @param openApi the generated model
+	 * @param useVersion31 the spec version of the model
+	 * @param writer the writer of the spec version
+	 * @param shardOf the function, returning the shard name of a path
+	 * @return
+	 */
+	public static ShardedSpec split(String fingerprint, OpenAPI openApi, boolean useVersion31, OpenAPIVersionWriter writer, Function<String, String> shardOf) {
+		Map<String, List<String>> shardPaths = new TreeMap<>();
+		if (openApi.getPaths() != null) {
+			for (String path : openApi.getPaths().keySet()) {
+				shardPaths.computeIfAbsent(shardName(shardOf.apply(path)), key -> new ArrayList<>()).add(path);
+			}
+		}
+		Map<String, Set<String>> shardRefs = new LinkedHashMap<>();
+		Map<String, Integer> usages = new HashMap<>();
+		shardPaths.forEach((shard, paths) -> {
+			Set<String> refs = ReferenceGraph.reachable(new OpenAPI().paths(paths(openApi, paths)).components(openApi.getComponents()));
+			refs.forEach(ref -> usages.merge(ref, 1, Integer::sum));
+			shardRefs.put(shard, refs);
+		});
+		// the components of a single shard stay local, the rest, including the unreferenced ones, go into the common document
+		shardRefs.values().forEach(refs -> refs.removeIf(ref -> usages.get(ref) > 1));
+		Set<String> commonRefs = new HashSet<>(refs(openApi.getComponents()));
+		shardRefs.values().forEach(commonRefs::removeAll);
+		return new ShardedSpec(fingerprint, openApi, useVersion31, writer, Collections.unmodifiableMap(shardPaths), shardRefs, Collections.unmodifiableSet(commonRefs));
+	}
+
+	/**
+	 * Make a safe and unique document name out of the shard key.
+	 *
+	 * @param key
+	 * @return
+	 */
+	private static String shardName(String key) {
+		String name = StringUtils.isBlank(key) ? DEFAULT_SHARD : ComponentExtractor.componentName(key);
+		return INDEX.equals(name) || COMMON.equals(name) ? name + "_" : name;
+	}
+
+	/**
+	 * Get the file name of the document in the format.
+	 *
+	 * @param document document name: {@link #INDEX}, {@link #COMMON} or a shard name
+	 * @param format
+	 * @return
+	 */
+	public static String fileName(String document, Format format) {
+		return document + "." + format.name().toLowerCase();
+	}
+
+	/**
+	 * Get the fingerprint of the generation input
+	 *
+	 * @return
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Is the spec generated for OpenAPI v3.1?
+	 *
+	 * @return
+	 */
+	public boolean isUseVersion31() {
+		return useVersion31;
+	}
+
+	/**
+	 * Get the shards with their paths.
+	 *
+	 * @return a map of the shard name to its paths
+	 */
+	public Map<String, List<String>> getShards() {
+		return shardPaths;
+	}
+
+	/**
+	 * Get the references of the components in the common document.
+	 *
+	 * @return
+	 */
+	public Set<String> getCommonComponents() {
+		return commonRefs;
+	}
+
+	/**
+	 * Get the document of the output variant, writing it on the first request.
+	 *
+	 * @param document document name: {@link #INDEX}, {@link #COMMON} or a shard name
+	 * @param variant output variant of the same spec version
+	 * @return the document, or empty for an unknown document name
+	 */
+	public Optional<GeneratedSpec> getDocument(String document, OutputVariant variant) {
+		if (variant.isUseVersion31() != useVersion31) {
+			throw new IllegalArgumentException("The shards are generated for OpenAPI " + (useVersion31 ? "3.1" : "3.0") + ", requested " + variant);
+		}
+		if (!INDEX.equals(document) && !COMMON.equals(document) && !shardPaths.containsKey(document)) {
+			return Optional.empty();
+		}
+		Pair<String, OutputVariant> key = Pair.of(document, variant);
+		GeneratedSpec spec = documents.get(key);
+		if (spec == null) {
+			spec = documents.computeIfAbsent(key, k -> new GeneratedSpec(variant, fingerprint, write(document, variant)));
+		}
+		return Optional.of(spec);
+	}
+
+	/**
+	 * Write the document in the output variant.
+	 *
+	 * @param document
+	 * @param variant
+	 * @return
+	 */
+	private byte[] write(String document, OutputVariant variant) {
+		TokenBuffer tokens;
+		try {
+			tokens = writer.capture(model(document, variant.getFormat()));
+		} catch (OpenAPIGenerationException e) {
+			throw new IllegalStateException(e);
+		}
+		if (!INDEX.equals(document) && !COMMON.equals(document)) {
+			String common = fileName(COMMON, variant.getFormat());
+			tokens = ExternalRefRewriter.rewrite(tokens, ref -> commonRefs.contains(ref) ? common + ref : ref);
+		}
+		try (ByteArrayBuilder out = new ByteArrayBuilder()) {
+			writer.write(LeanSpecFilter.filter(tokens, variant.getDetail()), variant.getFormat(), variant.isPretty(), out);
+			return out.toByteArray();
+		} catch (OpenAPIGenerationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Make the model of the document, sharing the objects of the generated model.
+	 *
+	 * @param document
+	 * @param format
+	 * @return
+	 */
+	private OpenAPI model(String document, Format format) {
+		OpenAPI model = new OpenAPI()
+				.servers(openApi.getServers())
+				.security(openApi.getSecurity())
+				.externalDocs(openApi.getExternalDocs());
+		Info info = openApi.getInfo();
+		Components components = new Components();
+		if (openApi.getComponents() != null) {
+			components.setSecuritySchemes(openApi.getComponents().getSecuritySchemes());
+		}
+		switch (document) {
+		case INDEX:
+			Paths index = new Paths();
+			shardPaths.forEach((shard, paths) -> paths.forEach(path -> index.addPathItem(path,
+					new PathItem().$ref(fileName(shard, format) + "#/paths/" + SpecManifest.escape(path)))));
+			return model.info(info).tags(openApi.getTags()).paths(index);
+		case COMMON:
+			return model.info(info(info, COMMON)).paths(new Paths()).components(select(components, commonRefs));
+		default:
+			return model.info(info(info, document)).paths(paths(openApi, shardPaths.get(document))).components(select(components, shardRefs.get(document)));
+		}
+	}
+
+	private static Info info(Info info, String document) {
+		if (info == null) {
+			return null;
+		}
+		return new Info().title(info.getTitle() + " - " + document).version(info.getVersion()).description(info.getDescription());
+	}
+
+	private static Paths paths(OpenAPI openApi, List<String> paths) {
+		Paths selected = new Paths();
+		paths.forEach(path -> selected.addPathItem(path, openApi.getPaths().get(path)));
+		return selected;
+	}
+
+	/**
+	 * Collect the references of all the components of the types, tracked by {@link ReferenceGraph}.
+	 *
+	 * @param components
+	 * @return
+	 */
+	private static Set<String> refs(Components components) {
+		Set<String> refs = new HashSet<>();
+		if (components != null) {
+			refs(components.getSchemas(), ReferenceGraph.SCHEMAS, refs);
+			refs(components.getParameters(), ReferenceGraph.PARAMETERS, refs);
+			refs(components.getRequestBodies(), ReferenceGraph.REQUEST_BODIES, refs);
+			refs(components.getResponses(), ReferenceGraph.RESPONSES, refs);
+			refs(components.getHeaders(), ReferenceGraph.HEADERS, refs);
+			refs(components.getExamples(), ReferenceGraph.EXAMPLES, refs);
+			refs(components.getLinks(), ReferenceGraph.LINKS, refs);
+			refs(components.getCallbacks(), ReferenceGraph.CALLBACKS, refs);
+			refs(components.getPathItems(), ReferenceGraph.PATH_ITEMS, refs);
+		}
+		return refs;
+	}
+
+	private static void refs(Map<String, ?> map, String type, Set<String> refs) {
+		if (map != null) {
+			map.keySet().forEach(name -> refs.add(ReferenceGraph.COMPONENTS_PREFIX + type + "/" + name));
+		}
+	}
+
+	/**
+	 * Fill the components of the document with the referenced components of the generated model.
+	 *
+	 * @param target
+	 * @param refs
+	 * @return the target
+	 */
+	private Components select(Components target, Set<String> refs) {
+		Components source = openApi.getComponents();
+		if (source == null) {
+			return target;
+		}
+		for (String ref : refs) {
+			String[] typeAndName = StringUtils.split(ref.substring(ReferenceGraph.COMPONENTS_PREFIX.length()), "/", 2);
+			if (typeAndName.length < 2) {
+				continue;
+			}
+			String name = typeAndName[1];
+			switch (typeAndName[0]) {
+			case ReferenceGraph.SCHEMAS:
+				target.addSchemas(name, source.getSchemas().get(name));
+				break;
+			case ReferenceGraph.PARAMETERS:
+				target.addParameters(name, source.getParameters().get(name));
+				break;
+			case ReferenceGraph.REQUEST_BODIES:
+				target.addRequestBodies(name, source.getRequestBodies().get(name));
+				break;
+			case ReferenceGraph.RESPONSES:
+				target.addResponses(name, source.getResponses().get(name));
+				break;
+			case ReferenceGraph.HEADERS:
+				target.addHeaders(name, source.getHeaders().get(name));
+				break;
+			case ReferenceGraph.EXAMPLES:
+				target.addExamples(name, source.getExamples().get(name));
+				break;
+			case ReferenceGraph.LINKS:
+				target.addLinks(name, source.getLinks().get(name));
+				break;
+			case ReferenceGraph.CALLBACKS:
+				target.addCallbacks(name, source.getCallbacks().get(name));
+				break;
+			case ReferenceGraph.PATH_ITEMS:
+				target.addPathItem(name, source.getPathItems().get(name));
+				break;
+			default:
+				break;
+			}
+		}
+		return target;
+	}
+}
@@ -0,0 +1,32 @@
+package com.gentics.vertx.openapi.model;
+
+import java.util.Arrays;
+
+/**
+ * The level of detail of the written spec. The lean levels serve the machine consumers (gateways, request validators, SDK generators),
+ * which never read the human oriented parts of the spec.
+ */
+public enum SpecDetail {
+	/**
+	 * Everything in the model
+	 */
+	FULL,
+	/**
+	 * No examples and no <code>x-</code> extensions
+	 */
+	LEAN,
+	/**
+	 * Same as {@link #LEAN}, plus no descriptions and summaries, except for the ones required by the spec
+	 */
+	MINIMAL;
+
+	public static final SpecDetail parse(String text) {
+		if (text == null) {
+			throw new IllegalArgumentException("Cannot parse null to OpenAPI spec detail");
+		}
+		return Arrays.stream(values())
+				.filter(v -> v.name().equals(text.trim().toUpperCase()))
+				.findAny()
+				.orElseThrow(() -> new IllegalStateException("Unsupported OpenAPI spec detail:" + text));
+	}
+}
@@ -0,0 +1,185 @@
+package com.gentics.vertx.openapi.model;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gentics.vertx.openapi.misc.Fingerprint;
+
+/**
+ * The Merkle tree of a generated spec document. Each path item, webhook, component and the other top level parts of the spec
+ * (info, servers, tags etc) get the structural hash of their content, and each container (<code>paths</code>, <code>components</code>,
+ * <code>components/schemas</code> etc) gets the hash of its children's names and hashes. The root hash is the version of the spec,
+ * so two documents are compared in O(1), and their differences are found by descending into the changed containers only, see
+ * {@link com.gentics.vertx.openapi.misc.SpecDiff}.
+ */
+public final class SpecManifest {
+
+	private final Node root;
+
+	private SpecManifest(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Build the manifest of the spec document tree.
+	 *
+	 * @param spec
+	 * @return
+	 */
+	public static SpecManifest of(JsonNode spec) {
+		Map<String, Node> children = new LinkedHashMap<>();
+		for (Iterator<Entry<String, JsonNode>> fields = spec.fields(); fields.hasNext();) {
+			Entry<String, JsonNode> field = fields.next();
+			children.put(field.getKey(), node(field.getValue(), containerDepth(field.getKey())));
+		}
+		return new SpecManifest(container(children));
+	}
+
+	/**
+	 * Get the version of the spec: the hash of the Merkle tree root.
+	 *
+	 * @return the hexadecimal hash string
+	 */
+	public String getVersion() {
+		return hex(root.hash);
+	}
+
+	/**
+	 * Get the hashes of the Merkle tree leaves: the path items, webhooks, components and other top level spec parts.
+	 *
+	 * @return an ordered map of the JSON pointer to the hexadecimal hash string
+	 */
+	public Map<String, String> getHashes() {
+		Map<String, String> hashes = new LinkedHashMap<>();
+		collect(StringUtils.EMPTY, root, hashes);
+		return Collections.unmodifiableMap(hashes);
+	}
+
+	/**
+	 * Get the tree root.
+	 *
+	 * @return
+	 */
+	public Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * Escape a name for a JSON pointer segment.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static String escape(String name) {
+		return name.replace("~", "~0").replace("/", "~1");
+	}
+
+	private static void collect(String pointer, Node node, Map<String, String> hashes) {
+		if (node.children == null) {
+			hashes.put(pointer, hex(node.hash));
+		} else {
+			node.children.forEach((name, child) -> collect(pointer + "/" + escape(name), child, hashes));
+		}
+	}
+
+	private static String hex(long hash) {
+		return String.format("%016x", hash);
+	}
+
+	/**
+	 * Get the number of the container levels under the top level spec key: 1 for the map of the path items, 2 for the map of the component maps.
+	 *
+	 * @param key
+	 * @return
+	 */
+	private static int containerDepth(String key) {
+		switch (key) {
+		case "paths":
+		case "webhooks":
+			return 1;
+		case "components":
+			return 2;
+		default:
+			return 0;
+		}
+	}
+
+	private static Node node(JsonNode value, int depth) {
+		if (depth == 0 || !value.isObject()) {
+			return new Node(hash(value), null);
+		}
+		Map<String, Node> children = new LinkedHashMap<>();
+		for (Iterator<Entry<String, JsonNode>> fields = value.fields(); fields.hasNext();) {
+			Entry<String, JsonNode> field = fields.next();
+			children.put(field.getKey(), node(field.getValue(), depth - 1));
+		}
+		return container(children);
+	}
+
+	private static Node container(Map<String, Node> children) {
+		Fingerprint fingerprint = new Fingerprint().add(children.size());
+		children.forEach((name, child) -> fingerprint.add(name).add(child.hash));
+		return new Node(fingerprint.get(), Collections.unmodifiableMap(children));
+	}
+
+	/**
+	 * Make the structural hash of a JSON value.
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static long hash(JsonNode value) {
+		Fingerprint fingerprint = new Fingerprint().add(value.getNodeType().name());
+		if (value.isObject()) {
+			for (Iterator<Entry<String, JsonNode>> fields = value.fields(); fields.hasNext();) {
+				Entry<String, JsonNode> field = fields.next();
+				fingerprint.add(field.getKey()).add(hash(field.getValue()));
+			}
+		} else if (value.isArray()) {
+			fingerprint.add(value.size());
+			for (JsonNode item : value) {
+				fingerprint.add(hash(item));
+			}
+		} else {
+			fingerprint.add(value.asText());
+		}
+		return fingerprint.get();
+	}
+
+	/**
+	 * A node of the Merkle tree: a container with the named children, or a leaf.
+	 */
+	public static final class Node {
+		private final long hash;
+		private final Map<String, Node> children;
+
+		private Node(long hash, Map<String, Node> children) {
+			this.hash = hash;
+			this.children = children;
+		}
+
+		/**
+		 * Get the hash of the node content.
+		 *
+		 * @return
+		 */
+		public long getHash() {
+			return hash;
+		}
+
+		/**
+		 * Get the children of the container node.
+		 *
+		 * @return the named children, or null for a leaf
+		 */
+		public Map<String, Node> getChildren() {
+			return children;
+		}
+	}
+}
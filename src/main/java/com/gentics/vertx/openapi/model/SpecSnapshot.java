@@ -0,0 +1,177 @@
+package com.gentics.vertx.openapi.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.gentics.vertx.openapi.misc.BufferOutputStream;
+import com.gentics.vertx.openapi.misc.LeanSpecFilter;
+import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A compact immutable representation of the generated specification: the serialized token streams of both spec versions,
+ * independent of the output format. Holds no reference to the swagger model it was captured from, can be cached for long
+ * and written from many threads at once, directly into any output variant. The swagger model is only materialized on request.
+ */
+public final class SpecSnapshot {
+
+	private final String fingerprint;
+	private final TokenBuffer v30;
+	private final TokenBuffer v31;
+	private final OpenAPIVersionWriter v30Writer;
+	private final OpenAPIVersionWriter v31Writer;
+
+	private volatile JsonNode v30Tree;
+	private volatile JsonNode v31Tree;
+	private volatile SpecManifest v30Manifest;
+	private volatile SpecManifest v31Manifest;
+
+	private SpecSnapshot(String fingerprint, TokenBuffer v30, TokenBuffer v31, OpenAPIVersionWriter v30Writer, OpenAPIVersionWriter v31Writer) {
+		this.fingerprint = fingerprint;
+		this.v30 = v30;
+		this.v31 = v31;
+		this.v30Writer = v30Writer;
+		this.v31Writer = v31Writer;
+	}
+
+	/**
+	 * Capture the snapshot of a model, generated for v3.0. The model may be dropped afterwards.
+	 *
+	 * @param fingerprint input fingerprint
+	 * @param openApi
+	 * @param v30Writer
+	 * @param v31Writer
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	public static SpecSnapshot capture(String fingerprint, OpenAPI openApi, OpenAPIVersionWriter v30Writer, OpenAPIVersionWriter v31Writer) throws OpenAPIGenerationException {
+		return new SpecSnapshot(fingerprint, v30Writer.capture(openApi), v31Writer.capture(openApi), v30Writer, v31Writer);
+	}
+
+	/**
+	 * Get the fingerprint of the generation input
+	 *
+	 * @return
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Write the variant into the output stream. The lean variants are filtered out of the full tokens on each write. The stream is not closed.
+	 *
+	 * @param variant
+	 * @param out
+	 * @throws OpenAPIGenerationException
+	 */
+	public void write(OutputVariant variant, OutputStream out) throws OpenAPIGenerationException {
+		if (variant.isUseVersion31()) {
+			v31Writer.write(LeanSpecFilter.filter(v31, variant.getDetail()), variant.getFormat(), variant.isPretty(), out);
+		} else {
+			v30Writer.write(LeanSpecFilter.filter(v30, variant.getDetail()), variant.getFormat(), variant.isPretty(), out);
+		}
+	}
+
+	/**
+	 * Write the variant into a byte array.
+	 *
+	 * @param variant
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	public byte[] writeBytes(OutputVariant variant) throws OpenAPIGenerationException {
+		try (ByteArrayBuilder out = new ByteArrayBuilder()) {
+			write(variant, out);
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Write the variant into a new Vert.x buffer.
+	 *
+	 * @param variant
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	public Buffer writeBuffer(OutputVariant variant) throws OpenAPIGenerationException {
+		BufferOutputStream out = new BufferOutputStream();
+		write(variant, out);
+		return out.getBuffer();
+	}
+
+	/**
+	 * Write the variant into a new generated spec.
+	 *
+	 * @param variant
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	public GeneratedSpec toSpec(OutputVariant variant) throws OpenAPIGenerationException {
+		return new GeneratedSpec(variant, fingerprint, writeBytes(variant));
+	}
+
+	/**
+	 * Get the document tree of the spec version, built once and memoized. The tree is shared and must not be modified.
+	 *
+	 * @param useVersion31
+	 * @return
+	 */
+	public JsonNode getTree(boolean useVersion31) {
+		JsonNode tree = useVersion31 ? v31Tree : v30Tree;
+		if (tree == null) {
+			try (JsonParser parser = useVersion31 ? v31.asParser() : v30.asParser()) {
+				tree = Json.mapper().readTree(parser);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (useVersion31) {
+				v31Tree = tree;
+			} else {
+				v30Tree = tree;
+			}
+		}
+		return tree;
+	}
+
+	/**
+	 * Get the Merkle tree manifest of the spec version, built once and memoized.
+	 *
+	 * @param useVersion31
+	 * @return
+	 */
+	public SpecManifest getManifest(boolean useVersion31) {
+		SpecManifest manifest = useVersion31 ? v31Manifest : v30Manifest;
+		if (manifest == null) {
+			manifest = SpecManifest.of(getTree(useVersion31));
+			if (useVersion31) {
+				v31Manifest = manifest;
+			} else {
+				v30Manifest = manifest;
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * Materialize a new mutable swagger model of the spec version.
+	 *
+	 * @param useVersion31
+	 * @return
+	 */
+	public OpenAPI toModel(boolean useVersion31) {
+		try (JsonParser parser = useVersion31 ? v31.asParser() : v30.asParser()) {
+			return (useVersion31 ? Json31.mapper() : Json.mapper()).readValue(parser, OpenAPI.class);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.gentics.vertx.openapi.route;
+
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.misc.ExampleStore;
+import com.gentics.vertx.openapi.misc.ExampleStore.StoredExample;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * A ready-made request handler, serving the examples, moved out of the spec document by {@link OpenAPIv3Generator#setExternalExampleBaseUrl(String)}.
+ * It is expected to be mounted at the base URL, with the example key as the last path segment, or as the path parameter {@value #PARAM_KEY}, e.g.
+ * <pre>
+ * router.get("/openapi/examples/:key").handler(new ExampleHandler(generator.getExampleStore()));
+ * </pre>
+ * The examples are content addressed, so they are served as immutable, with the key as the strong ETag.
+ */
+public class ExampleHandler implements Handler<RoutingContext> {
+
+	public static final String PARAM_KEY = "key";
+
+	protected final ExampleStore store;
+
+	/**
+	 * Ctor
+	 *
+	 * @param store the example store of the generator
+	 */
+	public ExampleHandler(ExampleStore store) {
+		this.store = store;
+	}
+
+	@Override
+	public void handle(RoutingContext rc) {
+		String key = rc.pathParam(PARAM_KEY);
+		if (key == null) {
+			key = StringUtils.substringAfterLast(rc.normalizedPath(), "/");
+		}
+		Optional<StoredExample> maybeExample = store.get(key);
+		if (maybeExample.isEmpty()) {
+			rc.fail(HttpResponseStatus.NOT_FOUND.code());
+			return;
+		}
+		HttpServerResponse response = rc.response();
+		String etag = "\"" + key + "\"";
+		response.putHeader(HttpHeaders.ETAG, etag);
+		response.putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+		String ifNoneMatch = rc.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || "*".equals(ifNoneMatch.trim()))) {
+			response.setStatusCode(HttpResponseStatus.NOT_MODIFIED.code()).end();
+			return;
+		}
+		StoredExample example = maybeExample.get();
+		response.putHeader(HttpHeaders.CONTENT_TYPE, example.getContentType() + "; charset=utf-8");
+		response.end(Buffer.buffer(example.getBytes()));
+	}
+}
@@ -0,0 +1,540 @@
+package com.gentics.vertx.openapi.route;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.SpecDetail;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.oas.models.PathItem;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * A ready-made request handler, serving the generated specification. All the variants (JSON/YAML/CBOR/Smile &times; OpenAPI 3.0/3.1)
+ * are generated on demand and kept as buffers along with their precompressed GZIP and DEFLATE copies, so the repeated requests
+ * cost no serialization or compression. The conditional requests are answered with 304 by the strong ETag of the variant, made of the output
+ * content hash, so it is shared by all the instances, serving the same spec (see {@link OpenAPIv3Generator#setCanonicalOutput(boolean)}).
+ * <p>
+ * The variant is selected by the query parameters {@value #PARAM_FORMAT} (json/yaml/cbor/smile), {@value #PARAM_VERSION} (3.0/3.1)
+ * and {@value #PARAM_PRETTY}, or, if no format is given, by the `Accept` header with its quality values. The content encoding is negotiated by `Accept-Encoding`.
+ * <p>
+ * The prepared variants are served until {@link #invalidate()} is called, or, if {@link #setRevalidateInterval(long)} is set, until a periodic
+ * input check on the worker pool finds the routes changed.
+ */
+public class OpenAPISpecHandler implements Handler<RoutingContext> {
+
+	private static final Logger log = LoggerFactory.getLogger(OpenAPISpecHandler.class);
+
+	public static final String PARAM_FORMAT = "format";
+	public static final String PARAM_VERSION = "version";
+	public static final String PARAM_PRETTY = "pretty";
+	public static final String PARAM_DETAIL = "detail";
+
+	/**
+	 * The media types, requesting the format by the `Accept` header
+	 */
+	public static final Map<Format, List<String>> MEDIA_TYPES = Map.of(
+			Format.JSON, List.of(UtilsAndConstants.APPLICATION_JSON, "application/vnd.oai.openapi+json"),
+			Format.YAML, List.of(UtilsAndConstants.APPLICATION_YAML, "application/yaml", "text/yaml", "text/x-yaml", "application/vnd.oai.openapi"),
+			Format.CBOR, List.of(UtilsAndConstants.APPLICATION_CBOR),
+			Format.SMILE, List.of(UtilsAndConstants.APPLICATION_SMILE));
+
+	protected final OpenAPIv3Generator generator;
+	protected final String name;
+	protected final Map<Router, String> routers;
+	protected final Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer;
+	protected final Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier;
+
+	protected final Map<OutputVariant, Future<SpecBuffers>> variants = new ConcurrentHashMap<>();
+
+	protected Format defaultFormat = Format.JSON;
+	protected boolean defaultPretty = false;
+	protected boolean defaultVersion31 = false;
+	protected long revalidateInterval = 0;
+	protected final AtomicLong lastRevalidation = new AtomicLong();
+	protected final AtomicBoolean revalidating = new AtomicBoolean();
+
+	/**
+	 * Ctor
+	 *
+	 * @param generator the spec generator
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 */
+	public OpenAPISpecHandler(OpenAPIv3Generator generator, String name, Map<Router, String> routers,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		this.generator = generator;
+		this.name = name;
+		this.routers = routers;
+		this.maybePathItemTransformer = maybePathItemTransformer;
+		this.maybeExtraComponentSupplier = maybeExtraComponentSupplier;
+	}
+
+	/**
+	 * Ctor
+	 *
+	 * @param generator the spec generator
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 */
+	public OpenAPISpecHandler(OpenAPIv3Generator generator, String name, Map<Router, String> routers) {
+		this(generator, name, routers, Optional.empty(), Optional.empty());
+	}
+
+	@Override
+	public void handle(RoutingContext rc) {
+		OutputVariant variant = resolveVariant(rc);
+		if (variant == null) {
+			rc.fail(HttpResponseStatus.BAD_REQUEST.code());
+			return;
+		}
+		getBuffers(rc, variant).onSuccess(buffers -> respond(rc, buffers)).onFailure(rc::fail);
+	}
+
+	/**
+	 * Drop all the prepared variants, so they are regenerated on the next request.
+	 */
+	public void invalidate() {
+		variants.clear();
+	}
+
+	/**
+	 * Get the prepared variant buffers, generating them if absent.
+	 *
+	 * @param rc
+	 * @param variant
+	 * @return
+	 */
+	protected Future<SpecBuffers> getBuffers(RoutingContext rc, OutputVariant variant) {
+		maybeRevalidate(rc);
+		Future<SpecBuffers> existing = variants.get(variant);
+		if (existing != null && existing.failed()) {
+			variants.remove(variant, existing);
+			existing = null;
+		}
+		if (existing != null) {
+			return existing;
+		}
+		return variants.computeIfAbsent(variant, key -> rc.vertx().executeBlocking(() -> new SpecBuffers(
+				generator.generateSpec(name, routers, key, maybePathItemTransformer, maybeExtraComponentSupplier)), false));
+	}
+
+	/**
+	 * Start the check of the input fingerprint on the worker pool, if the revalidation is enabled and due. The variants of a changed input are dropped,
+	 * so they are regenerated on their next request. Until the check is done, the prepared variants are served as they are.
+	 *
+	 * @param rc
+	 */
+	protected void maybeRevalidate(RoutingContext rc) {
+		if (revalidateInterval <= 0 || variants.isEmpty()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long last = lastRevalidation.get();
+		if (now - last < revalidateInterval || !lastRevalidation.compareAndSet(last, now) || !revalidating.compareAndSet(false, true)) {
+			return;
+		}
+		rc.vertx().executeBlocking(() -> generator.fingerprint(name, routers, maybePathItemTransformer, maybeExtraComponentSupplier), false)
+			.onSuccess(fingerprint -> variants.entrySet().removeIf(entry -> {
+				Future<SpecBuffers> buffers = entry.getValue();
+				if (buffers.succeeded() && !fingerprint.equals(buffers.result().fingerprint)) {
+					log.debug("Spec fingerprint changed for {}, regenerating", entry.getKey());
+					return true;
+				}
+				return false;
+			}))
+			.onFailure(e -> log.warn("Could not revalidate the spec", e))
+			.onComplete(done -> revalidating.set(false));
+	}
+
+	/**
+	 * Send the negotiated representation of the variant.
+	 *
+	 * @param rc
+	 * @param buffers
+	 */
+	protected void respond(RoutingContext rc, SpecBuffers buffers) {
+		HttpServerResponse response = rc.response();
+		String encoding = negotiateEncoding(rc.request().getHeader(HttpHeaders.ACCEPT_ENCODING));
+		response.putHeader(HttpHeaders.VARY, "Accept, Accept-Encoding");
+		response.putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		String etag = buffers.etag(encoding);
+		response.putHeader(HttpHeaders.ETAG, etag);
+
+		String ifNoneMatch = rc.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null && buffers.matches(ifNoneMatch)) {
+			response.setStatusCode(HttpResponseStatus.NOT_MODIFIED.code()).end();
+			return;
+		}
+		response.putHeader(HttpHeaders.CONTENT_TYPE, contentType(buffers.spec.getVariant().getFormat()));
+		if (!UtilsAndConstants.ENCODING_IDENTITY.equals(encoding)) {
+			response.putHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+		}
+		response.end(buffers.get(encoding));
+	}
+
+	/**
+	 * Get the content type of the format.
+	 *
+	 * @param format
+	 * @return
+	 */
+	protected String contentType(Format format) {
+		switch (format) {
+		case YAML:
+			return UtilsAndConstants.APPLICATION_YAML_UTF8;
+		case CBOR:
+			return UtilsAndConstants.APPLICATION_CBOR;
+		case SMILE:
+			return UtilsAndConstants.APPLICATION_SMILE;
+		default:
+			return UtilsAndConstants.APPLICATION_JSON_UTF8;
+		}
+	}
+
+	/**
+	 * Resolve the requested variant. Returns null for an unknown format, version or detail level.
+	 *
+	 * @param rc
+	 * @return
+	 */
+	protected OutputVariant resolveVariant(RoutingContext rc) {
+		Format format = defaultFormat;
+		String formatParam = rc.request().getParam(PARAM_FORMAT);
+		if (StringUtils.isNotBlank(formatParam)) {
+			try {
+				format = Format.parse(formatParam);
+			} catch (RuntimeException e) {
+				return null;
+			}
+		} else {
+			format = negotiateFormat(rc.request().getHeader(HttpHeaders.ACCEPT));
+		}
+		boolean version31 = defaultVersion31;
+		String versionParam = rc.request().getParam(PARAM_VERSION);
+		if (StringUtils.isNotBlank(versionParam)) {
+			switch (versionParam.trim()) {
+			case "3.1":
+			case "31":
+				version31 = true;
+				break;
+			case "3.0":
+			case "30":
+				version31 = false;
+				break;
+			default:
+				return null;
+			}
+		}
+		String prettyParam = rc.request().getParam(PARAM_PRETTY);
+		boolean pretty = prettyParam != null ? !"false".equalsIgnoreCase(prettyParam.trim()) : defaultPretty;
+		SpecDetail detail = SpecDetail.FULL;
+		String detailParam = rc.request().getParam(PARAM_DETAIL);
+		if (StringUtils.isNotBlank(detailParam)) {
+			try {
+				detail = SpecDetail.parse(detailParam);
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+		return OutputVariant.of(format, pretty, version31, detail);
+	}
+
+	/**
+	 * Select the format of the highest quality out of the `Accept` header value. The quality of a format is the one of the most specific media range
+	 * matching any of its {@link #MEDIA_TYPES}. The default format wins the ties, e.g. against a wildcard, and is used if no format is acceptable.
+	 *
+	 * @param accept
+	 * @return
+	 */
+	protected Format negotiateFormat(String accept) {
+		if (StringUtils.isBlank(accept)) {
+			return defaultFormat;
+		}
+		String[] ranges = accept.split(",");
+		String[] mediaRanges = new String[ranges.length];
+		double[] qualities = new double[ranges.length];
+		for (int i = 0; i < ranges.length; i++) {
+			String[] tokens = ranges[i].trim().split(";");
+			mediaRanges[i] = tokens[0].trim().toLowerCase();
+			qualities[i] = 1;
+			for (int j = 1; j < tokens.length; j++) {
+				String param = tokens[j].trim();
+				if (param.startsWith("q=")) {
+					try {
+						qualities[i] = Double.parseDouble(param.substring(2));
+					} catch (NumberFormatException e) {
+						qualities[i] = 0;
+					}
+				}
+			}
+		}
+		Format best = defaultFormat;
+		double bestQuality = 0;
+		for (Format format : ArrayUtils.insert(0, Format.values(), defaultFormat)) {
+			int specificity = -1;
+			double quality = 0;
+			for (int i = 0; i < mediaRanges.length; i++) {
+				for (String mediaType : MEDIA_TYPES.get(format)) {
+					int match = matchSpecificity(mediaRanges[i], mediaType);
+					if (match > specificity) {
+						specificity = match;
+						quality = qualities[i];
+					}
+				}
+			}
+			if (quality > bestQuality) {
+				best = format;
+				bestQuality = quality;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Match the media type against the media range.
+	 *
+	 * @param mediaRange range out of the `Accept` header, lower case
+	 * @param mediaType
+	 * @return 2 for the exact match, 1 for the subtype wildcard, 0 for the full wildcard, -1 for no match
+	 */
+	protected static int matchSpecificity(String mediaRange, String mediaType) {
+		if (mediaRange.equals(mediaType)) {
+			return 2;
+		} else if (mediaRange.endsWith("/*") && mediaType.startsWith(mediaRange.substring(0, mediaRange.length() - 1))) {
+			return 1;
+		} else if ("*/*".equals(mediaRange) || "*".equals(mediaRange)) {
+			return 0;
+		}
+		return -1;
+	}
+
+	/**
+	 * Select the best supported content encoding out of the `Accept-Encoding` header value.
+	 *
+	 * @param acceptEncoding
+	 * @return
+	 */
+	protected String negotiateEncoding(String acceptEncoding) {
+		if (StringUtils.isBlank(acceptEncoding)) {
+			return UtilsAndConstants.ENCODING_IDENTITY;
+		}
+		String best = UtilsAndConstants.ENCODING_IDENTITY;
+		double bestQuality = 0;
+		for (String part : acceptEncoding.split(",")) {
+			String[] tokens = part.trim().split(";");
+			String coding = tokens[0].trim().toLowerCase();
+			double quality = 1;
+			for (int i = 1; i < tokens.length; i++) {
+				String param = tokens[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						quality = Double.parseDouble(param.substring(2));
+					} catch (NumberFormatException e) {
+						quality = 0;
+					}
+				}
+			}
+			if (quality <= 0) {
+				continue;
+			}
+			// prefer gzip over deflate on equal quality
+			if ((UtilsAndConstants.ENCODING_GZIP.equals(coding) && quality >= bestQuality)
+					|| (UtilsAndConstants.ENCODING_DEFLATE.equals(coding) && quality > bestQuality)) {
+				best = coding;
+				bestQuality = quality;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Get the default format, used if neither query parameter nor `Accept` header selects one.
+	 *
+	 * @return
+	 */
+	public Format getDefaultFormat() {
+		return defaultFormat;
+	}
+
+	/**
+	 * Set the default format
+	 *
+	 * @param defaultFormat
+	 * @return
+	 */
+	public OpenAPISpecHandler setDefaultFormat(Format defaultFormat) {
+		this.defaultFormat = defaultFormat;
+		return this;
+	}
+
+	/**
+	 * Is the output prettified by default?
+	 *
+	 * @return
+	 */
+	public boolean isDefaultPretty() {
+		return defaultPretty;
+	}
+
+	/**
+	 * Set the output to be prettified by default
+	 *
+	 * @param defaultPretty
+	 * @return
+	 */
+	public OpenAPISpecHandler setDefaultPretty(boolean defaultPretty) {
+		this.defaultPretty = defaultPretty;
+		return this;
+	}
+
+	/**
+	 * Is OpenAPI v3.1 served by default?
+	 *
+	 * @return
+	 */
+	public boolean isDefaultVersion31() {
+		return defaultVersion31;
+	}
+
+	/**
+	 * Set OpenAPI v3.1 to be served by default
+	 *
+	 * @param defaultVersion31
+	 * @return
+	 */
+	public OpenAPISpecHandler setDefaultVersion31(boolean defaultVersion31) {
+		this.defaultVersion31 = defaultVersion31;
+		return this;
+	}
+
+	/**
+	 * Get the minimal interval of the input fingerprint checks, in milliseconds. Zero means no checks.
+	 *
+	 * @return
+	 */
+	public long getRevalidateInterval() {
+		return revalidateInterval;
+	}
+
+	/**
+	 * Set the minimal interval of the input fingerprint checks, in milliseconds. The check walks all the routes, so it is done on the worker pool,
+	 * triggered by a request at most once per interval, and the request itself is served from the prepared variants. Default is zero: no checks,
+	 * the prepared variants are served until {@link #invalidate()} is called.
+	 *
+	 * @param revalidateInterval
+	 * @return
+	 */
+	public OpenAPISpecHandler setRevalidateInterval(long revalidateInterval) {
+		this.revalidateInterval = revalidateInterval;
+		return this;
+	}
+
+	/**
+	 * The prepared spec variant with its compressed copies.
+	 */
+	protected static class SpecBuffers {
+		protected final GeneratedSpec spec;
+		protected final String fingerprint;
+		protected final String etag;
+		protected final Buffer identity;
+		protected final Buffer gzip;
+		protected final Buffer deflate;
+
+		protected SpecBuffers(GeneratedSpec spec) {
+			this.spec = spec;
+			this.fingerprint = spec.getFingerprint();
+			OutputVariant variant = spec.getVariant();
+			this.etag = "\"" + spec.getContentHash() + "-" + variant.getFormat().name().toLowerCase() + (variant.isUseVersion31() ? "31" : "30") + (variant.isPretty() ? "p" : "")
+					+ (variant.getDetail() != SpecDetail.FULL ? "-" + variant.getDetail().name().toLowerCase() : "");
+			this.identity = Buffer.buffer(spec.getBytes());
+			this.gzip = Buffer.buffer(UtilsAndConstants.gzip(spec.getBytes()));
+			this.deflate = Buffer.buffer(UtilsAndConstants.deflate(spec.getBytes()));
+		}
+
+		/**
+		 * Get the representation for the encoding
+		 *
+		 * @param encoding
+		 * @return
+		 */
+		protected Buffer get(String encoding) {
+			switch (encoding) {
+			case UtilsAndConstants.ENCODING_GZIP:
+				return gzip;
+			case UtilsAndConstants.ENCODING_DEFLATE:
+				return deflate;
+			default:
+				return identity;
+			}
+		}
+
+		/**
+		 * Get the strong ETag of the representation for the encoding
+		 *
+		 * @param encoding
+		 * @return
+		 */
+		protected String etag(String encoding) {
+			switch (encoding) {
+			case UtilsAndConstants.ENCODING_GZIP:
+				return etag + "-gz\"";
+			case UtilsAndConstants.ENCODING_DEFLATE:
+				return etag + "-df\"";
+			default:
+				return etag + "\"";
+			}
+		}
+
+		/**
+		 * Check the `If-None-Match` header value against the representations of this variant.
+		 *
+		 * @param ifNoneMatch
+		 * @return
+		 */
+		protected boolean matches(String ifNoneMatch) {
+			for (String candidate : ifNoneMatch.split(",")) {
+				String tag = candidate.trim();
+				if ("*".equals(tag)) {
+					return true;
+				}
+				if (tag.startsWith("W/")) {
+					tag = tag.substring(2);
+				}
+				if (tag.equals(etag(UtilsAndConstants.ENCODING_IDENTITY)) || tag.equals(etag(UtilsAndConstants.ENCODING_GZIP))
+						|| tag.equals(etag(UtilsAndConstants.ENCODING_DEFLATE))) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
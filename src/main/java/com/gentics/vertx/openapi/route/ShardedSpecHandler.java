@@ -0,0 +1,162 @@
+package com.gentics.vertx.openapi.route;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.ShardKey;
+import com.gentics.vertx.openapi.model.ShardedSpec;
+import com.gentics.vertx.openapi.model.SpecDetail;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.oas.models.PathItem;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * A ready-made request handler, serving the generated specification as the shard documents of {@link ShardedSpec}. It is expected to be mounted
+ * with a wildcard, the document file name being the last path segment, e.g.
+ * <pre>
+ * router.get("/openapi/shards/*").handler(new ShardedSpecHandler(generator, "My API", routers, ShardKey.PREFIX, false));
+ * </pre>
+ * The root document is <code>/openapi/shards/index.json</code> (or <code>.yaml</code>, <code>.cbor</code>, <code>.smile</code>), referencing
+ * the shards and the common document by the relative file names of the same format. The spec version and the shard key are fixed per handler,
+ * since the query parameters do not survive the relative reference resolution; the query parameters {@value #PARAM_PRETTY} and {@value #PARAM_DETAIL}
+ * apply to the requested document only.
+ * <p>
+ * The spec is taken from {@link OpenAPIv3Generator#generateSharded(String, Map, boolean, ShardKey, Optional, Optional)}, so the generator is expected
+ * to have the output caching enabled. Each document is written on its first request.
+ */
+public class ShardedSpecHandler implements Handler<RoutingContext> {
+
+	public static final String PARAM_PRETTY = "pretty";
+	public static final String PARAM_DETAIL = "detail";
+
+	protected final OpenAPIv3Generator generator;
+	protected final String name;
+	protected final Map<Router, String> routers;
+	protected final ShardKey shardKey;
+	protected final boolean useVersion31;
+	protected final Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer;
+	protected final Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier;
+
+	/**
+	 * Ctor
+	 *
+	 * @param generator the spec generator
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param shardKey the criterion of splitting the paths
+	 * @param useVersion31 switch between OpenAPI spec versions v3.1 and v3.0
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 */
+	public ShardedSpecHandler(OpenAPIv3Generator generator, String name, Map<Router, String> routers, ShardKey shardKey, boolean useVersion31,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		this.generator = generator;
+		this.name = name;
+		this.routers = routers;
+		this.shardKey = shardKey;
+		this.useVersion31 = useVersion31;
+		this.maybePathItemTransformer = maybePathItemTransformer;
+		this.maybeExtraComponentSupplier = maybeExtraComponentSupplier;
+	}
+
+	/**
+	 * Ctor
+	 *
+	 * @param generator the spec generator
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param shardKey the criterion of splitting the paths
+	 * @param useVersion31 switch between OpenAPI spec versions v3.1 and v3.0
+	 */
+	public ShardedSpecHandler(OpenAPIv3Generator generator, String name, Map<Router, String> routers, ShardKey shardKey, boolean useVersion31) {
+		this(generator, name, routers, shardKey, useVersion31, Optional.empty(), Optional.empty());
+	}
+
+	@Override
+	public void handle(RoutingContext rc) {
+		String fileName = StringUtils.substringAfterLast(rc.normalizedPath(), "/");
+		String document = StringUtils.substringBeforeLast(fileName, ".");
+		Format format;
+		SpecDetail detail = SpecDetail.FULL;
+		try {
+			format = Format.parse(StringUtils.substringAfterLast(fileName, "."));
+			String detailParam = rc.request().getParam(PARAM_DETAIL);
+			if (StringUtils.isNotBlank(detailParam)) {
+				detail = SpecDetail.parse(detailParam);
+			}
+		} catch (RuntimeException e) {
+			rc.fail(HttpResponseStatus.NOT_FOUND.code());
+			return;
+		}
+		String prettyParam = rc.request().getParam(PARAM_PRETTY);
+		boolean pretty = prettyParam != null && !"false".equalsIgnoreCase(prettyParam.trim());
+		OutputVariant variant = OutputVariant.of(format, pretty, useVersion31, detail);
+		rc.vertx().executeBlocking(() -> generator.generateSharded(name, routers, useVersion31, shardKey, maybePathItemTransformer, maybeExtraComponentSupplier)
+				.getDocument(document, variant), false)
+			.onSuccess(maybeSpec -> {
+				if (maybeSpec.isPresent()) {
+					respond(rc, maybeSpec.get());
+				} else {
+					rc.fail(HttpResponseStatus.NOT_FOUND.code());
+				}
+			}).onFailure(rc::fail);
+	}
+
+	/**
+	 * Send the document.
+	 *
+	 * @param rc
+	 * @param spec
+	 */
+	protected void respond(RoutingContext rc, GeneratedSpec spec) {
+		HttpServerResponse response = rc.response();
+		String etag = "\"" + spec.getContentHash() + "\"";
+		response.putHeader(HttpHeaders.ETAG, etag);
+		response.putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		String ifNoneMatch = rc.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+			response.setStatusCode(HttpResponseStatus.NOT_MODIFIED.code()).end();
+			return;
+		}
+		response.putHeader(HttpHeaders.CONTENT_TYPE, contentType(spec.getVariant().getFormat()));
+		response.end(Buffer.buffer(spec.getBytes()));
+	}
+
+	/**
+	 * Get the content type of the format.
+	 *
+	 * @param format
+	 * @return
+	 */
+	protected String contentType(Format format) {
+		switch (format) {
+		case YAML:
+			return UtilsAndConstants.APPLICATION_YAML_UTF8;
+		case CBOR:
+			return UtilsAndConstants.APPLICATION_CBOR;
+		case SMILE:
+			return UtilsAndConstants.APPLICATION_SMILE;
+		default:
+			return UtilsAndConstants.APPLICATION_JSON_UTF8;
+		}
+	}
+}
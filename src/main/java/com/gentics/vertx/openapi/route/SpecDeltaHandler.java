@@ -0,0 +1,220 @@
+package com.gentics.vertx.openapi.route;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.misc.SpecDiff;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.SpecManifest;
+import com.gentics.vertx.openapi.model.SpecSnapshot;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.PathItem;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * A ready-made request handler, serving the changes of the generated specification as JSON Patch (RFC 6902) deltas, so the clients, polling
+ * for the changes, do not download the whole spec again. The spec version is the root hash of its {@link SpecManifest}, and is sent as the ETag.
+ * <p>
+ * Without the query parameter {@value #PARAM_SINCE}, the whole JSON spec of the current version is served. With it, the patch from the given version
+ * to the current one is served: empty, if the version is current, and replacing the whole document, if the version is not known (any more).
+ * The last {@link #getHistorySize()} versions of each spec version are known. The spec version is selected by the query parameter {@value #PARAM_VERSION} (3.0/3.1).
+ * <p>
+ * The spec is taken from {@link OpenAPIv3Generator#generateSnapshot(String, Map, Optional, Optional)}, so the generator is required to have the output caching enabled.
+ */
+public class SpecDeltaHandler implements Handler<RoutingContext> {
+
+	private static final Logger log = LoggerFactory.getLogger(SpecDeltaHandler.class);
+
+	public static final String PARAM_SINCE = "since";
+	public static final String PARAM_VERSION = "version";
+
+	protected final OpenAPIv3Generator generator;
+	protected final String name;
+	protected final Map<Router, String> routers;
+	protected final Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer;
+	protected final Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier;
+
+	protected int historySize = 16;
+	protected final Map<String, SpecManifest> history30 = newHistory();
+	protected final Map<String, SpecManifest> history31 = newHistory();
+
+	/**
+	 * Ctor
+	 *
+	 * @param generator the spec generator
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @param maybePathItemTransformer an optional custom path and path item transformer
+	 * @param maybeExtraComponentSupplier an optional supplier of extra model components
+	 * @throws IllegalArgumentException if the generator output caching is disabled, making each poll generate the spec anew
+	 */
+	public SpecDeltaHandler(OpenAPIv3Generator generator, String name, Map<Router, String> routers,
+			@Nonnull Optional<BiFunction<String, PathItem, String>> maybePathItemTransformer,
+			@Nonnull Optional<Supplier<Collection<Class<?>>>> maybeExtraComponentSupplier) {
+		if (!generator.isCacheOutput()) {
+			throw new IllegalArgumentException("The spec delta generator must have the output caching enabled");
+		}
+		this.generator = generator;
+		this.name = name;
+		this.routers = routers;
+		this.maybePathItemTransformer = maybePathItemTransformer;
+		this.maybeExtraComponentSupplier = maybeExtraComponentSupplier;
+	}
+
+	/**
+	 * Ctor
+	 *
+	 * @param generator the spec generator
+	 * @param name spec title
+	 * @param routers a map of router-basepath entries
+	 * @throws IllegalArgumentException if the generator output caching is disabled, making each poll generate the spec anew
+	 */
+	public SpecDeltaHandler(OpenAPIv3Generator generator, String name, Map<Router, String> routers) {
+		this(generator, name, routers, Optional.empty(), Optional.empty());
+	}
+
+	@Override
+	public void handle(RoutingContext rc) {
+		boolean useVersion31;
+		String versionParam = rc.request().getParam(PARAM_VERSION);
+		switch (Objects.toString(versionParam, "3.0").trim()) {
+		case "3.1":
+		case "31":
+			useVersion31 = true;
+			break;
+		case "3.0":
+		case "30":
+			useVersion31 = false;
+			break;
+		default:
+			rc.fail(HttpResponseStatus.BAD_REQUEST.code());
+			return;
+		}
+		String since = StringUtils.trimToNull(rc.request().getParam(PARAM_SINCE));
+		rc.vertx().executeBlocking(() -> delta(useVersion31, since), false).onSuccess(delta -> respond(rc, delta)).onFailure(rc::fail);
+	}
+
+	/**
+	 * Make the delta from the given version to the current one.
+	 *
+	 * @param useVersion31
+	 * @param since the version known to the client, or null for the whole spec
+	 * @return
+	 * @throws Exception
+	 */
+	protected Delta delta(boolean useVersion31, String since) throws Exception {
+		SpecSnapshot snapshot = generator.generateSnapshot(name, routers, maybePathItemTransformer, maybeExtraComponentSupplier);
+		SpecManifest manifest = snapshot.getManifest(useVersion31);
+		JsonNode tree = snapshot.getTree(useVersion31);
+		Map<String, SpecManifest> history = useVersion31 ? history31 : history30;
+		SpecManifest previous;
+		synchronized (history) {
+			history.put(manifest.getVersion(), manifest);
+			previous = since != null ? history.get(since) : null;
+		}
+		if (since == null) {
+			return new Delta(manifest.getVersion(), UtilsAndConstants.APPLICATION_JSON_UTF8, write(tree));
+		} else if (previous == null) {
+			log.debug("Unknown spec version {}, sending the whole spec", since);
+			return new Delta(manifest.getVersion(), UtilsAndConstants.APPLICATION_JSON_PATCH, write(SpecDiff.replaceAll(tree)));
+		} else {
+			return new Delta(manifest.getVersion(), UtilsAndConstants.APPLICATION_JSON_PATCH, write(SpecDiff.toJsonPatch(SpecDiff.diff(previous, manifest), tree)));
+		}
+	}
+
+	/**
+	 * Make the map of the last {@link #getHistorySize()} spec versions, evicting the least recently used one.
+	 *
+	 * @return
+	 */
+	protected Map<String, SpecManifest> newHistory() {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SpecManifest> eldest) {
+				return size() > historySize;
+			}
+		};
+	}
+
+	/**
+	 * Send the delta.
+	 *
+	 * @param rc
+	 * @param delta
+	 */
+	protected void respond(RoutingContext rc, Delta delta) {
+		HttpServerResponse response = rc.response();
+		String etag = "\"" + delta.version + "\"";
+		response.putHeader(HttpHeaders.ETAG, etag);
+		response.putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		String ifNoneMatch = rc.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null && ifNoneMatch.contains(etag) && UtilsAndConstants.APPLICATION_JSON_UTF8.equals(delta.contentType)) {
+			response.setStatusCode(HttpResponseStatus.NOT_MODIFIED.code()).end();
+			return;
+		}
+		response.putHeader(HttpHeaders.CONTENT_TYPE, delta.contentType);
+		response.end(delta.body);
+	}
+
+	private static Buffer write(JsonNode node) throws JsonProcessingException {
+		return Buffer.buffer(Json.mapper().writeValueAsBytes(node));
+	}
+
+	/**
+	 * Get the number of the remembered spec versions.
+	 *
+	 * @return
+	 */
+	public int getHistorySize() {
+		return historySize;
+	}
+
+	/**
+	 * Set the number of the remembered spec versions, the deltas can be made from. Default is 16.
+	 *
+	 * @param historySize
+	 * @return
+	 */
+	public SpecDeltaHandler setHistorySize(int historySize) {
+		this.historySize = historySize;
+		return this;
+	}
+
+	/**
+	 * The prepared response: the current spec version, and either the whole spec or the patch.
+	 */
+	protected static class Delta {
+		protected final String version;
+		protected final String contentType;
+		protected final Buffer body;
+
+		protected Delta(String version, String contentType, Buffer body) {
+			this.version = version;
+			this.contentType = contentType;
+			this.body = body;
+		}
+	}
+}
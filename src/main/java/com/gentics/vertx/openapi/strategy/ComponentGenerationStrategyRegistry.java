@@ -0,0 +1,277 @@
+package com.gentics.vertx.openapi.strategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.gentics.vertx.openapi.OpenAPIv3Generator;
+import com.gentics.vertx.openapi.jfr.ComponentFillEvent;
+import com.gentics.vertx.openapi.metadata.InternalEndpointRoute;
+import com.gentics.vertx.openapi.metadata.RouteChange;
+import com.gentics.vertx.openapi.metadata.WeakRouteChangeListener;
+import com.gentics.vertx.openapi.strategy.impl.JavaReflectionGenerationStrategy;
+import com.gentics.vertx.openapi.strategy.impl.JsonSchemaGenerationStrategy;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+
+/**
+ * A registry of the {@link ComponentGenerationStrategy} instances. The strategies are probed in the registration order, with the fallback strategy being the last one.
+ * If the routes are tracked, the instances are created once per route and reused by all the generations, until the route is removed. Otherwise they are created
+ * once per route and generation, and no route keeps a reference to the registry.
+ */
+public class ComponentGenerationStrategyRegistry {
+
+	protected final List<Function<Optional<InternalEndpointRoute>, ComponentGenerationStrategy<?>>> strategyFactories = new CopyOnWriteArrayList<>();
+	protected final Map<InternalEndpointRoute, List<ComponentGenerationStrategy<?>>> routeStrategies = new ConcurrentHashMap<>();
+	protected final BiConsumer<InternalEndpointRoute, RouteChange> routeChangeListener = new WeakRouteChangeListener<>(this, ComponentGenerationStrategyRegistry::onRouteChange);
+	protected volatile boolean trackRoutes = false;
+	protected volatile List<ComponentGenerationStrategy<?>> routelessStrategies;
+	protected volatile Optional<ComponentGenerationStrategy<?>> maybeFallbackStrategy = Optional.empty();
+
+	/**
+	 * Create the registry of the default strategies: the JSON schema one, falling back to the Java reflection one.
+	 *
+	 * @param generator
+	 * @return
+	 */
+	public static ComponentGenerationStrategyRegistry defaultRegistry(OpenAPIv3Generator generator) {
+		return new ComponentGenerationStrategyRegistry()
+				.addStrategy(maybeInternalRoute -> new JsonSchemaGenerationStrategy(generator, maybeInternalRoute))
+				.setFallbackStrategy(new JavaReflectionGenerationStrategy(generator));
+	}
+
+	/**
+	 * Register a strategy factory, called once per route (or once with an empty route for the route-less components).
+	 *
+	 * @param strategyFactory
+	 * @return
+	 */
+	public ComponentGenerationStrategyRegistry addStrategy(Function<Optional<InternalEndpointRoute>, ComponentGenerationStrategy<?>> strategyFactory) {
+		strategyFactories.add(strategyFactory);
+		clear();
+		return this;
+	}
+
+	/**
+	 * Set the strategy to be probed after all the registered ones. This one is also the only strategy used, when the reflection strategy is forced.
+	 *
+	 * @param fallbackStrategy
+	 * @return
+	 */
+	public ComponentGenerationStrategyRegistry setFallbackStrategy(ComponentGenerationStrategy<?> fallbackStrategy) {
+		this.maybeFallbackStrategy = Optional.ofNullable(fallbackStrategy);
+		clear();
+		return this;
+	}
+
+	/**
+	 * Get the fallback strategy, if set.
+	 *
+	 * @return
+	 */
+	public Optional<ComponentGenerationStrategy<?>> getFallbackStrategy() {
+		return maybeFallbackStrategy;
+	}
+
+	/**
+	 * Are the per route strategy instances kept across the generations, listening to the route changes?
+	 *
+	 * @return
+	 */
+	public boolean isTrackRoutes() {
+		return trackRoutes;
+	}
+
+	/**
+	 * Set the per route strategy instances to be kept across the generations, listening to the route changes. Meant for the incremental generation only,
+	 * since each tracked route refers to the registry until it is removed, cleared or the registry is collected.
+	 *
+	 * @param trackRoutes
+	 * @return
+	 */
+	public ComponentGenerationStrategyRegistry setTrackRoutes(boolean trackRoutes) {
+		this.trackRoutes = trackRoutes;
+		if (!trackRoutes) {
+			clear();
+		}
+		return this;
+	}
+
+	/**
+	 * Get the ordered strategies applicable to the route context. The strategies of a route are cached only if the routes are tracked.
+	 *
+	 * @param maybeInternalRoute
+	 * @param fallbackOnly use the fallback strategy only
+	 * @return
+	 */
+	public List<ComponentGenerationStrategy<?>> getStrategies(Optional<InternalEndpointRoute> maybeInternalRoute, boolean fallbackOnly) {
+		if (fallbackOnly) {
+			return maybeFallbackStrategy.map(List::<ComponentGenerationStrategy<?>>of).orElse(List.of());
+		}
+		return maybeInternalRoute.map(route -> trackRoutes ? routeStrategies.computeIfAbsent(route, this::createStrategies) : createStrategies(route)).orElseGet(() -> {
+			List<ComponentGenerationStrategy<?>> strategies = routelessStrategies;
+			if (strategies == null) {
+				strategies = createStrategies(null);
+				routelessStrategies = strategies;
+			}
+			return strategies;
+		});
+	}
+
+	/**
+	 * Drop the created strategy instances, and stop listening to the tracked routes.
+	 */
+	public void clear() {
+		routeStrategies.keySet().forEach(route -> route.removeChangeListener(routeChangeListener));
+		routeStrategies.clear();
+		routelessStrategies = null;
+	}
+
+	/**
+	 * Create a new resolver, which memoizes the strategy choice and the component name per class and route context.
+	 * Should be used within a single generation.
+	 *
+	 * @param forceReflectionStrategy
+	 * @return
+	 */
+	public Resolver newResolver(boolean forceReflectionStrategy) {
+		return new Resolver(forceReflectionStrategy);
+	}
+
+	protected List<ComponentGenerationStrategy<?>> createStrategies(InternalEndpointRoute route) {
+		if (route != null && trackRoutes) {
+			route.addChangeListener(routeChangeListener);
+		}
+		List<ComponentGenerationStrategy<?>> strategies = new ArrayList<>(strategyFactories.size() + 1);
+		strategyFactories.forEach(factory -> strategies.add(factory.apply(Optional.ofNullable(route))));
+		maybeFallbackStrategy.ifPresent(strategies::add);
+		return Collections.unmodifiableList(strategies);
+	}
+
+	protected void onRouteChange(InternalEndpointRoute route, RouteChange change) {
+		if (change == RouteChange.REMOVED) {
+			routeStrategies.remove(route);
+			route.removeChangeListener(routeChangeListener);
+		}
+	}
+
+	/**
+	 * A per generation memo of the strategy resolutions. Thread safe.
+	 */
+	public class Resolver {
+		protected final boolean forceReflectionStrategy;
+		protected final Map<Pair<Class<?>, Optional<InternalEndpointRoute>>, String> componentNames = new ConcurrentHashMap<>();
+		protected final Map<Pair<Class<?>, Optional<InternalEndpointRoute>>, ComponentGenerationStrategy<?>> fillStrategies = new ConcurrentHashMap<>();
+		protected final Map<ComponentGenerationStrategy<?>, LongAdder> hits = new ConcurrentHashMap<>();
+		protected final Map<InternalEndpointRoute, List<ComponentGenerationStrategy<?>>> untrackedStrategies = new ConcurrentHashMap<>();
+
+		protected Resolver(boolean forceReflectionStrategy) {
+			this.forceReflectionStrategy = forceReflectionStrategy;
+		}
+
+		/**
+		 * Make the component name of the class, using the first applicable strategy, or the class simple name otherwise.
+		 *
+		 * @param cls
+		 * @param maybeInternalRoute
+		 * @return
+		 */
+		public String getComponentName(Class<?> cls, Optional<InternalEndpointRoute> maybeInternalRoute) {
+			return componentNames.computeIfAbsent(Pair.of(cls, maybeInternalRoute), key -> {
+				for (ComponentGenerationStrategy<?> strategy : strategies(maybeInternalRoute)) {
+					Optional<String> maybeName = strategy.makeComponentName(cls);
+					if (maybeName.isPresent()) {
+						return maybeName.get();
+					}
+				}
+				return cls.getSimpleName();
+			});
+		}
+
+		/**
+		 * Fill the component of the class into the given API, using the strategy applied last time first.
+		 *
+		 * @param cls
+		 * @param maybeInternalRoute
+		 * @param openApi
+		 * @param usedComponents
+		 * @return schema, if any strategy has been applied
+		 */
+		public Optional<Schema<?>> fillComponent(Class<?> cls, Optional<InternalEndpointRoute> maybeInternalRoute, OpenAPI openApi, Set<String> usedComponents) {
+			ComponentFillEvent event = new ComponentFillEvent();
+			event.begin();
+			Pair<Class<?>, Optional<InternalEndpointRoute>> key = Pair.of(cls, maybeInternalRoute);
+			ComponentGenerationStrategy<?> known = fillStrategies.get(key);
+			if (known != null) {
+				Optional<Schema<?>> maybeSchema = known.checkFillComponent(cls, openApi, usedComponents);
+				if (maybeSchema.isPresent()) {
+					hit(known);
+					commit(event, cls, known, true);
+					return maybeSchema;
+				}
+			}
+			for (ComponentGenerationStrategy<?> strategy : strategies(maybeInternalRoute)) {
+				if (strategy == known) {
+					continue;
+				}
+				Optional<Schema<?>> maybeSchema = strategy.checkFillComponent(cls, openApi, usedComponents);
+				if (maybeSchema.isPresent()) {
+					fillStrategies.put(key, strategy);
+					hit(strategy);
+					commit(event, cls, strategy, false);
+					return maybeSchema;
+				}
+			}
+			commit(event, cls, null, false);
+			return Optional.empty();
+		}
+
+		/**
+		 * Get the strategies of the route context, created once per generation, if the routes are not tracked.
+		 *
+		 * @param maybeInternalRoute
+		 * @return
+		 */
+		protected List<ComponentGenerationStrategy<?>> strategies(Optional<InternalEndpointRoute> maybeInternalRoute) {
+			if (!forceReflectionStrategy && !trackRoutes && maybeInternalRoute.isPresent()) {
+				return untrackedStrategies.computeIfAbsent(maybeInternalRoute.get(), route -> createStrategies(route));
+			}
+			return getStrategies(maybeInternalRoute, forceReflectionStrategy);
+		}
+
+		/**
+		 * Get the number of the component fills, done by each strategy, keyed by the strategy class simple name.
+		 *
+		 * @return
+		 */
+		public Map<String, Long> getStrategyHits() {
+			return hits.entrySet().stream().collect(Collectors.toMap(e -> e.getKey().getClass().getSimpleName(), e -> e.getValue().sum(), Long::sum));
+		}
+
+		protected void commit(ComponentFillEvent event, Class<?> cls, ComponentGenerationStrategy<?> strategy, boolean memoized) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.className = cls.getName();
+				event.strategy = strategy != null ? strategy.getClass().getSimpleName() : null;
+				event.memoized = memoized;
+				event.commit();
+			}
+		}
+
+		protected void hit(ComponentGenerationStrategy<?> strategy) {
+			hits.computeIfAbsent(strategy, key -> new LongAdder()).increment();
+		}
+	}
+}
@@ -1,15 +1,41 @@
 package com.gentics.vertx.openapi.writer;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gentics.vertx.openapi.misc.BufferOutputStream;
+import com.gentics.vertx.openapi.misc.ChunkedBufferOutputStream;
 import com.gentics.vertx.openapi.model.Format;
 import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
 
 /**
  * An abstraction of OpenAPI writer
  */
 public interface OpenAPIVersionWriter {
 
+	/**
+	 * The number of tokens, serialized into a write stream at once
+	 */
+	int STREAMED_TOKENS_PER_STEP = 1024;
+
 	/**
 	 * Generate the string content of a given API and output format
 	 * 
@@ -23,7 +49,7 @@ public interface OpenAPIVersionWriter {
 	}
 
 	/**
-	 * Generate the string content of a given API, output format, and prettifying.
+	 * Generate the string content of a given API, output format, and prettifying. The binary formats cannot be written as string.
 	 * 
 	 * @param api
 	 * @param format
@@ -32,4 +58,196 @@ public interface OpenAPIVersionWriter {
 	 * @throws OpenAPIGenerationException 
 	 */
 	String write(OpenAPI api, Format format, boolean prettyPrint) throws OpenAPIGenerationException;
+
+	/**
+	 * Generate the encoded content of a given API, output format, and prettifying: UTF-8 text, or the binary format bytes.
+	 * 
+	 * @param api
+	 * @param format
+	 * @param prettyPrint
+	 * @return
+	 * @throws OpenAPIGenerationException 
+	 */
+	default byte[] writeBytes(OpenAPI api, Format format, boolean prettyPrint) throws OpenAPIGenerationException {
+		return write(api, format, prettyPrint).getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Stream the encoded content of a given API, output format, and prettifying into the output stream. The stream is not closed.
+	 * 
+	 * @param api
+	 * @param format
+	 * @param prettyPrint
+	 * @param out
+	 * @throws OpenAPIGenerationException
+	 */
+	default void write(OpenAPI api, Format format, boolean prettyPrint, OutputStream out) throws OpenAPIGenerationException {
+		try {
+			out.write(writeBytes(api, format, prettyPrint));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Generate the content of a given API, output format, and prettifying directly into a new Vert.x buffer.
+	 * 
+	 * @param api
+	 * @param format
+	 * @param prettyPrint
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	default Buffer writeBuffer(OpenAPI api, Format format, boolean prettyPrint) throws OpenAPIGenerationException {
+		BufferOutputStream out = new BufferOutputStream();
+		write(api, format, prettyPrint, out);
+		return out.getBuffer();
+	}
+
+	/**
+	 * Generate the content of a given API, output format, and prettifying into the given Netty buffer, e.g. a pooled one. 
+	 * The buffer ownership stays with the caller.
+	 * 
+	 * @param api
+	 * @param format
+	 * @param prettyPrint
+	 * @param target
+	 * @return the target buffer
+	 * @throws OpenAPIGenerationException
+	 */
+	default ByteBuf write(OpenAPI api, Format format, boolean prettyPrint, ByteBuf target) throws OpenAPIGenerationException {
+		write(api, format, prettyPrint, new ByteBufOutputStream(target));
+		return target;
+	}
+
+	/**
+	 * Generate the content of a given API, output format, and prettifying into the write stream, respecting its back-pressure.
+	 * The API is captured first, and written lazily, see {@link #write(TokenBuffer, Format, boolean, WriteStream)}. The stream is not ended.
+	 * 
+	 * @param api
+	 * @param format
+	 * @param prettyPrint
+	 * @param stream
+	 * @return a future, completed when all the content is written
+	 */
+	default Future<Void> write(OpenAPI api, Format format, boolean prettyPrint, WriteStream<Buffer> stream) {
+		TokenBuffer tokens;
+		try {
+			tokens = capture(api);
+		} catch (OpenAPIGenerationException | RuntimeException e) {
+			return Future.failedFuture(e);
+		}
+		return write(tokens, format, prettyPrint, stream);
+	}
+
+	/**
+	 * Write the captured content in the output format into the write stream, respecting its back-pressure. The content is serialized lazily, 
+	 * a chunk at a time, whenever the stream accepts more, without making a contiguous copy. The stream handlers are left intact, and the stream is not ended.
+	 * Since the container sizes are not captured, CBOR arrays and maps are written with the indefinite length.
+	 * 
+	 * @param tokens content, captured by {@link #capture(OpenAPI)}
+	 * @param format
+	 * @param prettyPrint
+	 * @param stream
+	 * @return a future, completed when all the content is written
+	 */
+	default Future<Void> write(TokenBuffer tokens, Format format, boolean prettyPrint, WriteStream<Buffer> stream) {
+		ChunkedBufferOutputStream out = new ChunkedBufferOutputStream();
+		JsonGenerator generator;
+		try {
+			generator = createGenerator(format, prettyPrint, out);
+		} catch (OpenAPIGenerationException | RuntimeException e) {
+			return Future.failedFuture(e);
+		}
+		JsonParser parser = tokens.asParser();
+		return out.pipeTo(stream, target -> {
+			for (int i = 0; i < STREAMED_TOKENS_PER_STEP; i++) {
+				if (parser.nextToken() == null) {
+					parser.close();
+					generator.close();
+					return false;
+				}
+				generator.copyCurrentEvent(parser);
+			}
+			generator.flush();
+			return true;
+		});
+	}
+
+	/**
+	 * Capture the content of a given API, as serialized by this writer, into a compact token buffer, independent of the output format.
+	 * The buffer is not modified by the later writes, so it can be shared between threads. 
+	 * This default implementation parses the written JSON back.
+	 * 
+	 * @param api
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	default TokenBuffer capture(OpenAPI api) throws OpenAPIGenerationException {
+		try (JsonParser parser = Json.mapper().createParser(writeBytes(api, Format.JSON, false))) {
+			TokenBuffer tokens = new TokenBuffer(parser);
+			if (parser.nextToken() != null) {
+				tokens.copyCurrentStructure(parser);
+			}
+			return tokens;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Write the captured content in the output format into the output stream. The stream is not closed.
+	 * 
+	 * @param tokens content, captured by {@link #capture(OpenAPI)}
+	 * @param format
+	 * @param prettyPrint
+	 * @param out
+	 * @throws OpenAPIGenerationException
+	 */
+	default void write(TokenBuffer tokens, Format format, boolean prettyPrint, OutputStream out) throws OpenAPIGenerationException {
+		try (JsonGenerator generator = createGenerator(format, prettyPrint, out); JsonParser parser = tokens.asParser()) {
+			if (parser.nextToken() != null) {
+				generator.copyCurrentStructure(parser);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Create a generator of the output format into the output stream, configured as this writer does. The stream is not closed by the generator.
+	 * 
+	 * @param format
+	 * @param prettyPrint
+	 * @param out
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	default JsonGenerator createGenerator(Format format, boolean prettyPrint, OutputStream out) throws OpenAPIGenerationException {
+		ObjectWriter writer;
+		switch (format) {
+		case YAML:
+			writer = Yaml.mapper().writer();
+			break;
+		case JSON:
+			writer = Json.mapper().writer();
+			break;
+		case CBOR:
+			writer = Json.mapper().copyWith(new CBORFactory()).writer();
+			break;
+		case SMILE:
+			writer = Json.mapper().copyWith(new SmileFactory()).writer();
+			break;
+		default:
+			throw new OpenAPIGenerationException("Please specify a response format: YAML, JSON, CBOR or SMILE");
+		}
+		if (prettyPrint && !format.isBinary()) {
+			writer = writer.with(new DefaultPrettyPrinter());
+		}
+		try {
+			return writer.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
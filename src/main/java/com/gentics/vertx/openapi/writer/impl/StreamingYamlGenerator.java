@@ -0,0 +1,1073 @@
+package com.gentics.vertx.openapi.writer.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.ErrorReportConfiguration;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.StreamWriteConstraints;
+import com.fasterxml.jackson.core.base.GeneratorBase;
+import com.fasterxml.jackson.core.io.ContentReference;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * A streaming YAML generator, tuned to the shape of the serialized OpenAPI model: nested block mappings and sequences of scalars,
+ * with the empty collections in the flow style. The UTF-8 bytes are written directly into the output, without the intermediate YAML events.
+ * The output is the same as of the swagger YAML mappers, i.e. the Jackson YAML generator with the minimized quotes, split lines and no document start marker,
+ * over the default SnakeYAML emitter options. Raw and binary content is not supported.
+ */
+public class StreamingYamlGenerator extends GeneratorBase {
+
+	protected static final int BUFFER_SIZE = 8000;
+	protected static final int BEST_INDENT = 2;
+	protected static final int BEST_WIDTH = 80;
+	protected static final int MAX_SIMPLE_KEY_LENGTH = 128;
+
+	protected static final int EMPTY = 1;
+	protected static final int MULTILINE = 2;
+	protected static final int ALLOW_BLOCK_PLAIN = 4;
+	protected static final int ALLOW_SINGLE_QUOTED = 8;
+	protected static final int ALLOW_BLOCK = 16;
+
+	protected static final String DOUBLE_QUOTED_ESCAPES = "\"\\\u0085\u2028\u2029\uFEFF";
+
+	protected static final Set<String> RESERVED_KEYWORDS = Set.of("false", "False", "FALSE", "n", "N", "no", "No", "NO", "null", "Null", "NULL",
+			"on", "On", "ON", "off", "Off", "OFF", "true", "True", "TRUE", "y", "Y", "yes", "Yes", "YES");
+
+	/**
+	 * The scalar style
+	 */
+	protected static enum Style {
+		PLAIN, SINGLE_QUOTED, DOUBLE_QUOTED, LITERAL
+	}
+
+	protected final OutputStream out;
+	protected byte[] buffer = new byte[BUFFER_SIZE];
+	protected int tail;
+
+	protected int column;
+	protected boolean whitespace = true;
+	protected boolean indention = true;
+	protected int indent = -1;
+	protected int[] indents = new int[16];
+	protected int depth;
+
+	protected boolean mappingContext;
+	protected boolean simpleKey;
+	protected char pendingStart;
+	protected int documents;
+
+	/**
+	 * Ctor
+	 *
+	 * @param out target stream
+	 */
+	public StreamingYamlGenerator(OutputStream out) {
+		super(JsonGenerator.Feature.collectDefaults(), null, new IOContext(StreamReadConstraints.defaults(), StreamWriteConstraints.defaults(),
+				ErrorReportConfiguration.defaults(), new BufferRecycler(), ContentReference.rawReference(out), false));
+		this.out = out;
+	}
+
+	/**
+	 * Serialize the value with the writer into the output stream. The stream is not closed.
+	 *
+	 * @param writer object writer of a YAML mapper
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	public static void writeValue(ObjectWriter writer, OutputStream out, Object value) throws IOException {
+		try (StreamingYamlGenerator generator = new StreamingYamlGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			writer.writeValue(generator, value);
+		}
+	}
+
+	/**
+	 * Serialize the value with the writer into a byte array.
+	 *
+	 * @param writer object writer of a YAML mapper
+	 * @param value
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] writeValueAsBytes(ObjectWriter writer, Object value) throws IOException {
+		try (ByteArrayBuilder out = new ByteArrayBuilder()) {
+			writeValue(writer, out, value);
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * Serialize the value with the writer into a string.
+	 *
+	 * @param writer object writer of a YAML mapper
+	 * @param value
+	 * @return
+	 * @throws IOException
+	 */
+	public static String writeValueAsString(ObjectWriter writer, Object value) throws IOException {
+		return new String(writeValueAsBytes(writer, value), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void writeStartArray() throws IOException {
+		_verifyValueWrite("start an array");
+		_writeContext = _writeContext.createChildArrayContext();
+		streamWriteConstraints().validateNestingDepth(_writeContext.getNestingDepth());
+		pendingStart = '[';
+	}
+
+	@Override
+	public void writeEndArray() throws IOException {
+		if (!_writeContext.inArray()) {
+			_reportError("Current context not Array but " + _writeContext.typeDesc());
+		}
+		_writeContext = _writeContext.clearAndGetParent();
+		writeCollectionEnd(']');
+	}
+
+	@Override
+	public void writeStartObject() throws IOException {
+		_verifyValueWrite("start an object");
+		_writeContext = _writeContext.createChildObjectContext();
+		streamWriteConstraints().validateNestingDepth(_writeContext.getNestingDepth());
+		pendingStart = '{';
+	}
+
+	@Override
+	public void writeEndObject() throws IOException {
+		if (!_writeContext.inObject()) {
+			_reportError("Current context not Object but " + _writeContext.typeDesc());
+		}
+		_writeContext = _writeContext.clearAndGetParent();
+		writeCollectionEnd('}');
+	}
+
+	@Override
+	public void writeFieldName(String name) throws IOException {
+		if (_writeContext.writeFieldName(name) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+			_reportError("Can not write a field name, expecting a value");
+		}
+		startPendingBlock();
+		writeIndent();
+		int analysis = analyze(name);
+		simpleKey = name.length() < MAX_SIMPLE_KEY_LENGTH && (analysis & (EMPTY | MULTILINE)) == 0;
+		if (!simpleKey) {
+			writeIndicator("?", true, false, true);
+		}
+		mappingContext = true;
+		writeScalar(name, needToQuoteName(name) ? Style.DOUBLE_QUOTED : Style.PLAIN, analysis, simpleKey);
+	}
+
+	@Override
+	public void writeString(String text) throws IOException {
+		if (text == null) {
+			writeNull();
+			return;
+		}
+		_verifyValueWrite("write String value");
+		Style style;
+		if (text.isEmpty()) {
+			if (_writeContext.inRoot() && documents == 1) {
+				// an empty document is always started explicitly
+				writeIndicator("---", true, false, false);
+			}
+			style = Style.DOUBLE_QUOTED;
+		} else if (text.indexOf('\n') >= 0) {
+			style = Style.LITERAL;
+		} else if (needToQuoteValue(text) || looksLikePlainNumber(text)) {
+			style = Style.DOUBLE_QUOTED;
+		} else {
+			style = Style.PLAIN;
+		}
+		writeScalar(text, style, analyze(text), false);
+	}
+
+	@Override
+	public void writeString(char[] text, int offset, int len) throws IOException {
+		writeString(new String(text, offset, len));
+	}
+
+	@Override
+	public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+		_reportUnsupportedOperation();
+	}
+
+	@Override
+	public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+		writeString(new String(text, offset, length, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void writeRaw(String text) throws IOException {
+		_reportUnsupportedOperation();
+	}
+
+	@Override
+	public void writeRaw(String text, int offset, int len) throws IOException {
+		_reportUnsupportedOperation();
+	}
+
+	@Override
+	public void writeRaw(char[] text, int offset, int len) throws IOException {
+		_reportUnsupportedOperation();
+	}
+
+	@Override
+	public void writeRaw(char c) throws IOException {
+		_reportUnsupportedOperation();
+	}
+
+	@Override
+	public void writeBinary(Base64Variant bv, byte[] data, int offset, int len) throws IOException {
+		_reportUnsupportedOperation();
+	}
+
+	@Override
+	public int writeBinary(Base64Variant bv, InputStream data, int dataLength) throws IOException {
+		_reportUnsupportedOperation();
+		return -1;
+	}
+
+	@Override
+	public void writeNumber(int v) throws IOException {
+		writePlainValue(String.valueOf(v));
+	}
+
+	@Override
+	public void writeNumber(long v) throws IOException {
+		writePlainValue(String.valueOf(v));
+	}
+
+	@Override
+	public void writeNumber(BigInteger v) throws IOException {
+		if (v == null) {
+			writeNull();
+			return;
+		}
+		writePlainValue(v.toString());
+	}
+
+	@Override
+	public void writeNumber(double v) throws IOException {
+		writePlainValue(String.valueOf(v));
+	}
+
+	@Override
+	public void writeNumber(float v) throws IOException {
+		writePlainValue(String.valueOf(v));
+	}
+
+	@Override
+	public void writeNumber(BigDecimal v) throws IOException {
+		if (v == null) {
+			writeNull();
+			return;
+		}
+		writePlainValue(isEnabled(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN) ? v.toPlainString() : v.toString());
+	}
+
+	@Override
+	public void writeNumber(String encodedValue) throws IOException {
+		if (encodedValue == null) {
+			writeNull();
+			return;
+		}
+		writePlainValue(encodedValue);
+	}
+
+	@Override
+	public void writeBoolean(boolean state) throws IOException {
+		writePlainValue(state ? "true" : "false");
+	}
+
+	@Override
+	public void writeNull() throws IOException {
+		writePlainValue("null");
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		if (isEnabled(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)) {
+			out.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (isClosed()) {
+			return;
+		}
+		if (documents > 0) {
+			writeIndent();
+		}
+		flushBuffer();
+		if (isEnabled(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+			out.close();
+		} else if (isEnabled(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)) {
+			out.flush();
+		}
+		super.close();
+	}
+
+	@Override
+	protected void _releaseBuffers() {
+		buffer = null;
+	}
+
+	/**
+	 * Check the value is allowed in the current context, and write the prefix of the value node: the document separator,
+	 * the sequence item indicator or the mapping value indicator.
+	 */
+	@Override
+	protected void _verifyValueWrite(String typeMsg) throws IOException {
+		int status = _writeContext.writeValue();
+		if (status == JsonWriteContext.STATUS_EXPECT_NAME) {
+			_reportError("Can not " + typeMsg + ", expecting field name");
+		}
+		startPendingBlock();
+		if (_writeContext.inRoot()) {
+			if (documents++ > 0) {
+				writeIndent();
+				writeIndicator("---", true, false, false);
+			}
+			mappingContext = false;
+		} else if (_writeContext.inArray()) {
+			writeIndent();
+			writeIndicator("-", true, false, true);
+			mappingContext = false;
+		} else {
+			if (simpleKey) {
+				writeIndicator(":", false, false, false);
+			} else {
+				writeIndent();
+				writeIndicator(":", true, false, true);
+			}
+			mappingContext = true;
+		}
+	}
+
+	/**
+	 * Write the scalar value, which is plain if possible.
+	 *
+	 * @param text
+	 * @throws IOException
+	 */
+	protected void writePlainValue(String text) throws IOException {
+		_verifyValueWrite("write value");
+		writeScalar(text, Style.PLAIN, analyze(text), false);
+	}
+
+	/**
+	 * The collection is known not to be empty, when a nested item is written, so start the pending collection in the block style.
+	 */
+	protected void startPendingBlock() {
+		if (pendingStart == '[') {
+			increaseIndent(false, mappingContext && !indention);
+		} else if (pendingStart == '{') {
+			increaseIndent(false, false);
+		}
+		pendingStart = 0;
+	}
+
+	/**
+	 * End the collection. An empty collection is written in the flow style.
+	 *
+	 * @param indicator flow end indicator
+	 * @throws IOException
+	 */
+	protected void writeCollectionEnd(char indicator) throws IOException {
+		if (pendingStart != 0) {
+			writeIndicator(pendingStart == '[' ? "[" : "{", true, true, false);
+			writeIndicator(indicator == ']' ? "]" : "}", false, false, false);
+			pendingStart = 0;
+		} else {
+			popIndent();
+		}
+	}
+
+	/**
+	 * Write the scalar in the requested style, or in the nearest style allowed by its content.
+	 *
+	 * @param text
+	 * @param requested requested style
+	 * @param analysis content analysis flags
+	 * @param simpleKeyContext whether the scalar is a simple mapping key
+	 * @throws IOException
+	 */
+	protected void writeScalar(String text, Style requested, int analysis, boolean simpleKeyContext) throws IOException {
+		increaseIndent(true, false);
+		boolean split = !simpleKeyContext;
+		switch (chooseStyle(requested, analysis, simpleKeyContext)) {
+		case PLAIN:
+			writePlain(text, split);
+			break;
+		case SINGLE_QUOTED:
+			writeSingleQuoted(text, split);
+			break;
+		case LITERAL:
+			writeLiteral(text);
+			break;
+		default:
+			writeDoubleQuoted(text, split);
+			break;
+		}
+		popIndent();
+	}
+
+	protected Style chooseStyle(Style requested, int analysis, boolean simpleKeyContext) {
+		if (requested == Style.DOUBLE_QUOTED) {
+			return Style.DOUBLE_QUOTED;
+		}
+		if (requested == Style.PLAIN && !(simpleKeyContext && (analysis & (EMPTY | MULTILINE)) != 0) && (analysis & ALLOW_BLOCK_PLAIN) != 0) {
+			return Style.PLAIN;
+		}
+		if (requested == Style.LITERAL && !simpleKeyContext && (analysis & ALLOW_BLOCK) != 0) {
+			return Style.LITERAL;
+		}
+		if ((requested == Style.PLAIN || requested == Style.SINGLE_QUOTED) && (analysis & ALLOW_SINGLE_QUOTED) != 0
+				&& !(simpleKeyContext && (analysis & MULTILINE) != 0)) {
+			return Style.SINGLE_QUOTED;
+		}
+		return Style.DOUBLE_QUOTED;
+	}
+
+	/**
+	 * Analyze the scalar content for the allowed styles.
+	 *
+	 * @param text
+	 * @return analysis flags
+	 */
+	protected static int analyze(String text) {
+		int len = text.length();
+		if (len == 0) {
+			return EMPTY | ALLOW_BLOCK_PLAIN | ALLOW_SINGLE_QUOTED;
+		}
+		boolean blockIndicators = false;
+		boolean flowIndicators = false;
+		boolean lineBreaks = false;
+		boolean special = false;
+		boolean leadingSpace = false;
+		boolean leadingBreak = false;
+		boolean trailingSpace = false;
+		boolean trailingBreak = false;
+		boolean breakSpace = false;
+		boolean spaceBreak = false;
+		if (text.startsWith("---") || text.startsWith("...")) {
+			blockIndicators = true;
+			flowIndicators = true;
+		}
+		boolean preceded = true;
+		boolean previousSpace = false;
+		boolean previousBreak = false;
+		for (int index = 0; index < len;) {
+			int c = text.codePointAt(index);
+			switch (c) {
+			case '#':
+				if (index == 0 || preceded) {
+					flowIndicators = true;
+					blockIndicators = true;
+				}
+				break;
+			case ',':
+			case '[':
+			case ']':
+			case '{':
+			case '}':
+				flowIndicators = true;
+				blockIndicators |= index == 0;
+				break;
+			case '?':
+				flowIndicators = true;
+				blockIndicators |= index == 0 && isFollowedByBlank(text, index, previousBreak);
+				break;
+			case ':':
+				flowIndicators = true;
+				blockIndicators |= isFollowedByBlank(text, index, previousBreak);
+				break;
+			case '-':
+				if (index == 0 && isFollowedByBlank(text, index, previousBreak)) {
+					flowIndicators = true;
+					blockIndicators = true;
+				}
+				break;
+			case '&':
+			case '*':
+			case '!':
+			case '|':
+			case '>':
+			case '\'':
+			case '"':
+			case '%':
+			case '@':
+			case '`':
+				if (index == 0) {
+					flowIndicators = true;
+					blockIndicators = true;
+				}
+				break;
+			default:
+				break;
+			}
+			boolean lineBreak = isBreak(c);
+			lineBreaks |= lineBreak;
+			if (c < 0x20 ? c != '\n' : c > 0x7E && !(c == 0x85 || (c >= 0xA0 && c <= 0xD7FF) || (c >= 0xE000 && c <= 0xFFFD) || c >= 0x10000)) {
+				special = true;
+			}
+			if (c == ' ') {
+				leadingSpace |= index == 0;
+				trailingSpace |= index == len - 1;
+				breakSpace |= previousBreak;
+				previousSpace = true;
+				previousBreak = false;
+			} else if (lineBreak) {
+				leadingBreak |= index == 0;
+				trailingBreak |= index == len - 1;
+				spaceBreak |= previousSpace;
+				previousSpace = false;
+				previousBreak = true;
+			} else {
+				previousSpace = false;
+				previousBreak = false;
+			}
+			preceded = isBlank(c) || lineBreak;
+			index += Character.charCount(c);
+		}
+
+		boolean blockPlain = true;
+		boolean singleQuoted = true;
+		boolean block = true;
+		if (leadingSpace || leadingBreak || trailingSpace || trailingBreak || hasLeadingZero(text)) {
+			blockPlain = false;
+		}
+		if (trailingSpace) {
+			block = false;
+		}
+		if (breakSpace) {
+			blockPlain = false;
+			singleQuoted = false;
+		}
+		if (spaceBreak || special) {
+			blockPlain = false;
+			singleQuoted = false;
+			block = false;
+		}
+		if (blockIndicators) {
+			blockPlain = false;
+		}
+		return (lineBreaks ? MULTILINE : 0) | (blockPlain ? ALLOW_BLOCK_PLAIN : 0) | (singleQuoted ? ALLOW_SINGLE_QUOTED : 0) | (block ? ALLOW_BLOCK : 0);
+	}
+
+	/**
+	 * Check whether the character at the index is followed by a blank, the way the SnakeYAML scalar analysis does: the check of a later character
+	 * also passes after a line break.
+	 *
+	 * @param text
+	 * @param index
+	 * @param afterBreak whether the previous character is a line break
+	 * @return
+	 */
+	protected static boolean isFollowedByBlank(String text, int index, boolean afterBreak) {
+		int len = text.length();
+		if (index == 0) {
+			return len == 1 || isBlankOrBreak(text.codePointAt(1));
+		}
+		if (index + 1 >= len) {
+			return true;
+		}
+		int next = index + Character.charCount(text.codePointAt(index));
+		return next >= len || isBlank(text.codePointAt(next)) || afterBreak;
+	}
+
+	protected static boolean hasLeadingZero(String text) {
+		if (text.length() < 2 || text.charAt(0) != '0') {
+			return false;
+		}
+		for (int i = 1; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if ((c < '0' || c > '9') && c != '_') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static boolean isBreak(int c) {
+		return c == '\n' || c == 0x85 || c == 0x2028 || c == 0x2029;
+	}
+
+	protected static boolean isBlank(int c) {
+		return c == 0 || c == ' ' || c == '\t';
+	}
+
+	protected static boolean isBlankOrBreak(int c) {
+		return isBlank(c) || isBreak(c);
+	}
+
+	protected static boolean isPrintable(int c) {
+		return (c >= 0x20 && c <= 0x7E) || c == 0x9 || c == 0xA || c == 0xD || c == 0x85 || (c >= 0xA0 && c <= 0xD7FF) || (c >= 0xE000 && c <= 0xFFFD)
+				|| (c >= 0x10000 && c <= 0x10FFFF);
+	}
+
+	protected static boolean isReservedKeyword(String text) {
+		if (text.isEmpty()) {
+			return true;
+		}
+		switch (text.charAt(0)) {
+		case '~':
+			return true;
+		case 'f':
+		case 'F':
+		case 'n':
+		case 'N':
+		case 'o':
+		case 'O':
+		case 't':
+		case 'T':
+		case 'y':
+		case 'Y':
+			return RESERVED_KEYWORDS.contains(text);
+		default:
+			return false;
+		}
+	}
+
+	protected static boolean needToQuoteName(String name) {
+		if (isReservedKeyword(name)) {
+			return true;
+		}
+		char first = name.charAt(0);
+		if (first == '+' || first == '-' || first == '.' || (first >= '0' && first <= '9')) {
+			return true;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) < ' ') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected static boolean needToQuoteValue(String text) {
+		if (isReservedKeyword(text)) {
+			return true;
+		}
+		int len = text.length();
+		for (int i = 0; i < len; i++) {
+			switch (text.charAt(i)) {
+			case '[':
+			case ']':
+			case '{':
+			case '}':
+			case ',':
+				return true;
+			case '#':
+				if (i > 0 && (text.charAt(i - 1) == ' ' || text.charAt(i - 1) == '\t')) {
+					return true;
+				}
+				break;
+			case ':':
+				if (i < len - 1 && (text.charAt(i + 1) == ' ' || text.charAt(i + 1) == '\t')) {
+					return true;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check whether the text matches <code>[+-]?[0-9]*(\.[0-9]*)?</code>, so would be read as a number, if not quoted.
+	 *
+	 * @param text
+	 * @return
+	 */
+	protected static boolean looksLikePlainNumber(String text) {
+		int len = text.length();
+		int i = 0;
+		if (i < len && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+			i++;
+		}
+		while (i < len && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+			i++;
+		}
+		if (i < len && text.charAt(i) == '.') {
+			i++;
+			while (i < len && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+				i++;
+			}
+		}
+		return i == len;
+	}
+
+	protected void writePlain(String text, boolean split) throws IOException {
+		if (text.isEmpty()) {
+			return;
+		}
+		if (!whitespace) {
+			column++;
+			writeByte(' ');
+		}
+		whitespace = false;
+		indention = false;
+		boolean spaces = false;
+		boolean breaks = false;
+		int start = 0;
+		int len = text.length();
+		for (int end = 0; end <= len; end++) {
+			char ch = end < len ? text.charAt(end) : 0;
+			if (spaces) {
+				if (ch != ' ') {
+					if (start + 1 == end && column > BEST_WIDTH && split) {
+						writeIndent();
+						whitespace = false;
+						indention = false;
+					} else {
+						column += end - start;
+						writeText(text, start, end);
+					}
+					start = end;
+				}
+			} else if (breaks) {
+				if (!isBreak(ch)) {
+					writeBreaks(text, start, end);
+					writeIndent();
+					whitespace = false;
+					indention = false;
+					start = end;
+				}
+			} else if (ch == 0 || ch == ' ' || isBreak(ch)) {
+				column += end - start;
+				writeText(text, start, end);
+				start = end;
+			}
+			if (ch != 0) {
+				spaces = ch == ' ';
+				breaks = isBreak(ch);
+			}
+		}
+	}
+
+	protected void writeSingleQuoted(String text, boolean split) throws IOException {
+		writeIndicator("'", true, false, false);
+		boolean spaces = false;
+		boolean breaks = false;
+		int start = 0;
+		int len = text.length();
+		for (int end = 0; end <= len; end++) {
+			char ch = end < len ? text.charAt(end) : 0;
+			if (spaces) {
+				if (ch != ' ') {
+					if (start + 1 == end && column > BEST_WIDTH && split && start != 0 && end != len) {
+						writeIndent();
+					} else {
+						column += end - start;
+						writeText(text, start, end);
+					}
+					start = end;
+				}
+			} else if (breaks) {
+				if (!isBreak(ch)) {
+					writeBreaks(text, start, end);
+					writeIndent();
+					start = end;
+				}
+			} else if ((ch == 0 || ch == ' ' || ch == '\'' || isBreak(ch)) && start < end) {
+				column += end - start;
+				writeText(text, start, end);
+				start = end;
+			}
+			if (ch == '\'') {
+				column += 2;
+				writeByte('\'');
+				writeByte('\'');
+				start = end + 1;
+			}
+			if (ch != 0) {
+				spaces = ch == ' ';
+				breaks = isBreak(ch);
+			}
+		}
+		writeIndicator("'", false, false, false);
+	}
+
+	protected void writeDoubleQuoted(String text, boolean split) throws IOException {
+		writeIndicator("\"", true, false, false);
+		int start = 0;
+		int len = text.length();
+		for (int end = 0; end <= len; end++) {
+			char ch = end < len ? text.charAt(end) : 0;
+			if (end == len || ch < ' ' || ch > '~' || DOUBLE_QUOTED_ESCAPES.indexOf(ch) >= 0) {
+				if (start < end) {
+					column += end - start;
+					writeText(text, start, end);
+					start = end;
+				}
+				if (end < len) {
+					String data = escape(ch);
+					if (data == null) {
+						int cp = Character.isHighSurrogate(ch) && end + 1 < len ? Character.toCodePoint(ch, text.charAt(end + 1)) : ch;
+						if (isPrintable(cp)) {
+							data = String.valueOf(Character.toChars(cp));
+							if (Character.charCount(cp) == 2) {
+								end++;
+							}
+						} else if (ch <= 0xFF) {
+							String hex = "0" + Integer.toString(ch, 16);
+							data = "\\x" + hex.substring(hex.length() - 2);
+						} else if (Character.charCount(cp) == 2) {
+							end++;
+							String hex = "000" + Long.toHexString(cp);
+							data = "\\U" + hex.substring(hex.length() - 8);
+						} else {
+							String hex = "000" + Integer.toString(ch, 16);
+							data = "\\u" + hex.substring(hex.length() - 4);
+						}
+					}
+					column += data.length();
+					writeText(data, 0, data.length());
+					start = end + 1;
+				}
+			}
+			if (0 < end && end < len - 1 && (ch == ' ' || start >= end) && column + (end - start) > BEST_WIDTH && split) {
+				if (start < end) {
+					column += end - start;
+					writeText(text, start, end);
+					start = end;
+				}
+				column++;
+				writeByte('\\');
+				writeIndent();
+				whitespace = false;
+				indention = false;
+				if (text.charAt(start) == ' ') {
+					column++;
+					writeByte('\\');
+				}
+			}
+		}
+		writeIndicator("\"", false, false, false);
+	}
+
+	protected void writeLiteral(String text) throws IOException {
+		writeIndicator("|" + blockHints(text), true, false, false);
+		writeLineBreak('\n');
+		boolean breaks = true;
+		int start = 0;
+		int len = text.length();
+		for (int end = 0; end <= len; end++) {
+			char ch = end < len ? text.charAt(end) : 0;
+			if (breaks) {
+				if (ch == 0 || !isBreak(ch)) {
+					for (int i = start; i < end; i++) {
+						writeLineBreak(text.charAt(i));
+					}
+					if (ch != 0) {
+						writeIndent();
+					}
+					start = end;
+				}
+			} else if (ch == 0 || isBreak(ch)) {
+				writeText(text, start, end);
+				if (ch == 0) {
+					writeLineBreak('\n');
+				}
+				start = end;
+			}
+			if (ch != 0) {
+				breaks = isBreak(ch);
+			}
+		}
+	}
+
+	protected String blockHints(String text) {
+		StringBuilder hints = new StringBuilder();
+		char first = text.charAt(0);
+		if (first == ' ' || isBreak(first)) {
+			hints.append(BEST_INDENT);
+		}
+		char last = text.charAt(text.length() - 1);
+		if (!isBreak(last)) {
+			hints.append('-');
+		} else if (text.length() == 1 || isBreak(text.charAt(text.length() - 2))) {
+			hints.append('+');
+		}
+		return hints.toString();
+	}
+
+	protected static String escape(char ch) {
+		switch (ch) {
+		case 0:
+			return "\\0";
+		case 7:
+			return "\\a";
+		case 8:
+			return "\\b";
+		case 9:
+			return "\\t";
+		case 10:
+			return "\\n";
+		case 11:
+			return "\\v";
+		case 12:
+			return "\\f";
+		case 13:
+			return "\\r";
+		case 27:
+			return "\\e";
+		case '"':
+			return "\\\"";
+		case '\\':
+			return "\\\\";
+		case 0x85:
+			return "\\N";
+		case 0xA0:
+			return "\\_";
+		case 0x2028:
+			return "\\L";
+		case 0x2029:
+			return "\\P";
+		default:
+			return null;
+		}
+	}
+
+	protected void increaseIndent(boolean flow, boolean indentless) {
+		if (depth == indents.length) {
+			indents = Arrays.copyOf(indents, depth * 2);
+		}
+		indents[depth++] = indent;
+		if (indent < 0) {
+			indent = flow ? BEST_INDENT : 0;
+		} else if (!indentless) {
+			indent += BEST_INDENT;
+		}
+	}
+
+	protected void popIndent() {
+		indent = indents[--depth];
+	}
+
+	protected void writeIndicator(String indicator, boolean needWhitespace, boolean whitespace, boolean indentation) throws IOException {
+		if (!this.whitespace && needWhitespace) {
+			column++;
+			writeByte(' ');
+		}
+		this.whitespace = whitespace;
+		indention = indention && indentation;
+		column += indicator.length();
+		writeText(indicator, 0, indicator.length());
+	}
+
+	protected void writeIndent() throws IOException {
+		int indent = Math.max(this.indent, 0);
+		if (!indention || column > indent || (column == indent && !whitespace)) {
+			writeLineBreak('\n');
+		}
+		if (indent > column) {
+			whitespace = true;
+			writeSpaces(indent - column);
+			column = indent;
+		}
+	}
+
+	protected void writeBreaks(String text, int start, int end) throws IOException {
+		if (text.charAt(start) == '\n') {
+			writeLineBreak('\n');
+		}
+		for (int i = start; i < end; i++) {
+			writeLineBreak(text.charAt(i));
+		}
+	}
+
+	protected void writeLineBreak(char ch) throws IOException {
+		whitespace = true;
+		indention = true;
+		column = 0;
+		if (ch == '\n') {
+			writeByte('\n');
+		} else {
+			writeText(String.valueOf(ch), 0, 1);
+		}
+	}
+
+	protected void writeByte(int b) throws IOException {
+		if (tail >= buffer.length) {
+			flushBuffer();
+		}
+		buffer[tail++] = (byte) b;
+	}
+
+	/**
+	 * Write the UTF-8 encoding of the text range.
+	 *
+	 * @param text
+	 * @param start
+	 * @param end
+	 * @throws IOException
+	 */
+	protected void writeText(String text, int start, int end) throws IOException {
+		int i = start;
+		while (i < end) {
+			if (buffer.length - tail < 4) {
+				flushBuffer();
+			}
+			// at most 4 bytes per char, a surrogate pair taking 4 bytes for 2 chars
+			int limit = Math.min(end, i + (buffer.length - tail) / 4);
+			for (; i < limit; i++) {
+				int c = text.charAt(i);
+				if (c < 0x80) {
+					buffer[tail++] = (byte) c;
+				} else if (c < 0x800) {
+					buffer[tail++] = (byte) (0xC0 | (c >> 6));
+					buffer[tail++] = (byte) (0x80 | (c & 0x3F));
+				} else if (Character.isHighSurrogate((char) c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+					c = Character.toCodePoint((char) c, text.charAt(++i));
+					buffer[tail++] = (byte) (0xF0 | (c >> 18));
+					buffer[tail++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+					buffer[tail++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					buffer[tail++] = (byte) (0x80 | (c & 0x3F));
+				} else {
+					buffer[tail++] = (byte) (0xE0 | (c >> 12));
+					buffer[tail++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					buffer[tail++] = (byte) (0x80 | (c & 0x3F));
+				}
+			}
+		}
+	}
+
+	protected void writeSpaces(int count) throws IOException {
+		while (count > 0) {
+			if (tail >= buffer.length) {
+				flushBuffer();
+			}
+			int chunk = Math.min(count, buffer.length - tail);
+			Arrays.fill(buffer, tail, tail + chunk, (byte) ' ');
+			tail += chunk;
+			count -= chunk;
+		}
+	}
+
+	protected void flushBuffer() throws IOException {
+		if (tail > 0) {
+			out.write(buffer, 0, tail);
+			tail = 0;
+		}
+	}
+}
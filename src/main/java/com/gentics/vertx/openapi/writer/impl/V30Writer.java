@@ -1,6 +1,15 @@
 package com.gentics.vertx.openapi.writer.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gentics.vertx.openapi.jfr.SerializationEvent;
 import com.gentics.vertx.openapi.model.Format;
 import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
 import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
@@ -11,23 +20,127 @@ import io.swagger.v3.oas.models.OpenAPI;
 
 public class V30Writer implements OpenAPIVersionWriter {
 
+	private static final ObjectWriter YAML = Yaml.mapper().writer();
+	private static final ObjectWriter YAML_PRETTY = Yaml.pretty();
+	private static final ObjectWriter JSON = Json.mapper().writer();
+	private static final ObjectWriter JSON_PRETTY = Json.pretty();
+	private static final ObjectWriter CBOR = Json.mapper().copyWith(new CBORFactory()).writer();
+	private static final ObjectWriter SMILE = Json.mapper().copyWith(new SmileFactory()).writer();
+
 	@Override
 	public String write(OpenAPI openApi, Format format, boolean pretty) throws OpenAPIGenerationException {
+		if (format.isBinary()) {
+			throw new OpenAPIGenerationException("Binary format " + format + " cannot be written as text");
+		}
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			ObjectWriter writer = getObjectWriter(format, pretty);
+			String spec = format == Format.YAML ? StreamingYamlGenerator.writeValueAsString(writer, openApi) : writer.writeValueAsString(openApi);
+			event.complete(format, pretty, false, () -> spec.getBytes(StandardCharsets.UTF_8).length);
+			return spec;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public byte[] writeBytes(OpenAPI openApi, Format format, boolean pretty) throws OpenAPIGenerationException {
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			ObjectWriter writer = getObjectWriter(format, pretty);
+			byte[] spec = format == Format.YAML ? StreamingYamlGenerator.writeValueAsBytes(writer, openApi) : writer.writeValueAsBytes(openApi);
+			event.complete(format, pretty, false, () -> spec.length);
+			return spec;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public void write(OpenAPI openApi, Format format, boolean pretty, OutputStream out) throws OpenAPIGenerationException {
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			writeValue(getObjectWriter(format, pretty), format, out, openApi);
+			event.complete(format, pretty, false, () -> -1);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public TokenBuffer capture(OpenAPI openApi) throws OpenAPIGenerationException {
+		TokenBuffer tokens = new TokenBuffer(Json.mapper(), false);
+		try {
+			Json.mapper().writeValue(tokens, openApi);
+			return tokens;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not capture the spec", e);
+		}
+	}
+
+	@Override
+	public void write(TokenBuffer tokens, Format format, boolean pretty, OutputStream out) throws OpenAPIGenerationException {
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			writeValue(getObjectWriter(format, pretty), format, out, tokens);
+			event.complete(format, pretty, false, () -> -1);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public JsonGenerator createGenerator(Format format, boolean pretty, OutputStream out) throws OpenAPIGenerationException {
+		ObjectWriter writer = getObjectWriter(format, pretty);
+		try {
+			JsonGenerator generator = format == Format.YAML ? new StreamingYamlGenerator(out) : writer.createGenerator(out);
+			return generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	/**
+	 * Serialize the value with the writer into the output stream, not closing it. YAML is written by the {@link StreamingYamlGenerator}.
+	 * 
+	 * @param writer
+	 * @param format
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	protected void writeValue(ObjectWriter writer, Format format, OutputStream out, Object value) throws IOException {
+		if (format == Format.YAML) {
+			StreamingYamlGenerator.writeValue(writer, out, value);
+		} else {
+			writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, value);
+		}
+	}
+
+	/**
+	 * Get the preconfigured object writer for the format. The binary formats are never prettified.
+	 * 
+	 * @param format
+	 * @param pretty
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	protected ObjectWriter getObjectWriter(Format format, boolean pretty) throws OpenAPIGenerationException {
 		switch (format) {
 		case YAML:
-			try {
-				return pretty ? Yaml.pretty().writeValueAsString(openApi) : Yaml.mapper().writer().writeValueAsString(openApi) ;
-			} catch (JsonProcessingException e) {
-				throw new RuntimeException("Could not generate YAML", e);
-			}
+			return pretty ? YAML_PRETTY : YAML;
 		case JSON:
-			try {
-				return pretty ? Json.pretty(openApi) : Json.mapper().writer().writeValueAsString(openApi);
-			} catch (JsonProcessingException e) {
-				throw new RuntimeException(e);
-			}
+			return pretty ? JSON_PRETTY : JSON;
+		case CBOR:
+			return CBOR;
+		case SMILE:
+			return SMILE;
 		default:
-			throw new OpenAPIGenerationException("Please specify a response format: YAML or JSON");
+			throw new OpenAPIGenerationException("Please specify a response format: YAML, JSON, CBOR or SMILE");
 		}
 	}
-}
\ No newline at end of file
+}
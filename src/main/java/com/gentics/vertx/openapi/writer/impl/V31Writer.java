@@ -1,37 +1,295 @@
 package com.gentics.vertx.openapi.writer.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gentics.vertx.openapi.jfr.SerializationEvent;
 import com.gentics.vertx.openapi.model.Format;
 import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
 import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
 
 import io.swagger.v3.core.util.Json31;
-import io.swagger.v3.core.util.OpenAPI30To31;
 import io.swagger.v3.core.util.Yaml31;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Schema;
 
+/**
+ * The OpenAPI v3.1 writer. The input model is never changed: the v3.1 specifics are applied to a shallow copy of the model top level,
+ * and the schema <code>examples</code> list takes precedence over the v3.0 <code>example</code> during the serialization.
+ * So a single model, generated for any version, can be serialized concurrently into both versions.
+ */
 public class V31Writer implements OpenAPIVersionWriter {
 
+	public static final String OPENAPI_VERSION = "3.1.0";
+	public static final String JSON_SCHEMA_DIALECT = "https://spec.openapis.org/oas/3.1/dialect/base";
+
+	private static final ObjectMapper YAML_MAPPER = withExamplesPrecedence(Yaml31.mapper());
+	private static final ObjectMapper JSON_MAPPER = withExamplesPrecedence(Json31.mapper());
+
+	private static final ObjectWriter YAML = YAML_MAPPER.writer();
+	private static final ObjectWriter YAML_PRETTY = YAML_MAPPER.writer(new DefaultPrettyPrinter());
+	private static final ObjectWriter JSON = JSON_MAPPER.writer();
+	private static final ObjectWriter JSON_PRETTY = JSON_MAPPER.writer(new DefaultPrettyPrinter());
+	private static final ObjectWriter CBOR = JSON_MAPPER.copyWith(new CBORFactory()).writer();
+	private static final ObjectWriter SMILE = JSON_MAPPER.copyWith(new SmileFactory()).writer();
+
 	@Override
 	public String write(OpenAPI openApi, Format format, boolean pretty) throws OpenAPIGenerationException {
-		new OpenAPI30To31().process(openApi);
-		openApi.jsonSchemaDialect("https://spec.openapis.org/oas/3.1/dialect/base");
+		if (format.isBinary()) {
+			throw new OpenAPIGenerationException("Binary format " + format + " cannot be written as text");
+		}
+		ObjectWriter writer = getObjectWriter(format, pretty);
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			String spec = format == Format.YAML ? StreamingYamlGenerator.writeValueAsString(writer, convert(openApi)) : writer.writeValueAsString(convert(openApi));
+			event.complete(format, pretty, true, () -> spec.getBytes(StandardCharsets.UTF_8).length);
+			return spec;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public byte[] writeBytes(OpenAPI openApi, Format format, boolean pretty) throws OpenAPIGenerationException {
+		ObjectWriter writer = getObjectWriter(format, pretty);
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			byte[] spec = format == Format.YAML ? StreamingYamlGenerator.writeValueAsBytes(writer, convert(openApi)) : writer.writeValueAsBytes(convert(openApi));
+			event.complete(format, pretty, true, () -> spec.length);
+			return spec;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public void write(OpenAPI openApi, Format format, boolean pretty, OutputStream out) throws OpenAPIGenerationException {
+		ObjectWriter writer = getObjectWriter(format, pretty);
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			writeValue(writer, format, out, convert(openApi));
+			event.complete(format, pretty, true, () -> -1);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public TokenBuffer capture(OpenAPI openApi) throws OpenAPIGenerationException {
+		TokenBuffer tokens = new TokenBuffer(JSON_MAPPER, false);
+		try {
+			JSON_MAPPER.writeValue(tokens, convert(openApi));
+			return tokens;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not capture the spec", e);
+		}
+	}
+
+	@Override
+	public void write(TokenBuffer tokens, Format format, boolean pretty, OutputStream out) throws OpenAPIGenerationException {
+		SerializationEvent event = new SerializationEvent();
+		event.begin();
+		try {
+			writeValue(getObjectWriter(format, pretty), format, out, tokens);
+			event.complete(format, pretty, true, () -> -1);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
+
+	@Override
+	public JsonGenerator createGenerator(Format format, boolean pretty, OutputStream out) throws OpenAPIGenerationException {
+		ObjectWriter writer = getObjectWriter(format, pretty);
+		try {
+			JsonGenerator generator = format == Format.YAML ? new StreamingYamlGenerator(out) : writer.createGenerator(out);
+			return generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not generate " + format, e);
+		}
+	}
 
+	/**
+	 * Make a v3.1 view of the API model, the same way {@link io.swagger.v3.core.util.OpenAPI30To31} does, without changing the model itself.
+	 * Only the model top level is copied; the info, paths and components are copied only if the reserved extensions have to be removed from them.
+	 * 
+	 * @param openApi
+	 * @return
+	 */
+	protected OpenAPI convert(OpenAPI openApi) {
+		OpenAPI converted = new OpenAPI()
+				.openapi(OPENAPI_VERSION)
+				.jsonSchemaDialect(JSON_SCHEMA_DIALECT)
+				.specVersion(SpecVersion.V31)
+				.info(convert(openApi.getInfo()))
+				.externalDocs(openApi.getExternalDocs())
+				.servers(openApi.getServers())
+				.security(openApi.getSecurity())
+				.tags(openApi.getTags())
+				.paths(convert(openApi.getPaths()))
+				.components(convert(openApi.getComponents()))
+				.webhooks(openApi.getWebhooks());
+		converted.setExtensions(withoutReservedExtensions(openApi.getExtensions()));
+		return converted;
+	}
+
+	protected Info convert(Info info) {
+		if (info == null || !hasReservedExtensions(info.getExtensions())) {
+			return info;
+		}
+		Info converted = new Info()
+				.title(info.getTitle())
+				.summary(info.getSummary())
+				.description(info.getDescription())
+				.termsOfService(info.getTermsOfService())
+				.contact(info.getContact())
+				.license(info.getLicense())
+				.version(info.getVersion());
+		converted.setExtensions(withoutReservedExtensions(info.getExtensions()));
+		return converted;
+	}
+
+	protected Paths convert(Paths paths) {
+		if (paths == null || !hasReservedExtensions(paths.getExtensions())) {
+			return paths;
+		}
+		Paths converted = new Paths();
+		converted.putAll(paths);
+		converted.setExtensions(withoutReservedExtensions(paths.getExtensions()));
+		return converted;
+	}
+
+	protected Components convert(Components components) {
+		if (components == null || !hasReservedExtensions(components.getExtensions())) {
+			return components;
+		}
+		Components converted = new Components()
+				.schemas(components.getSchemas())
+				.responses(components.getResponses())
+				.parameters(components.getParameters())
+				.examples(components.getExamples())
+				.requestBodies(components.getRequestBodies())
+				.headers(components.getHeaders())
+				.securitySchemes(components.getSecuritySchemes())
+				.links(components.getLinks())
+				.callbacks(components.getCallbacks())
+				.pathItems(components.getPathItems());
+		converted.setExtensions(withoutReservedExtensions(components.getExtensions()));
+		return converted;
+	}
+
+	/**
+	 * Check whether the extensions contain the ones, reserved by the v3.1 spec.
+	 * 
+	 * @param extensions
+	 * @return
+	 */
+	protected static boolean hasReservedExtensions(Map<String, Object> extensions) {
+		return extensions != null && extensions.keySet().stream().anyMatch(V31Writer::isReservedExtension);
+	}
+
+	protected static Map<String, Object> withoutReservedExtensions(Map<String, Object> extensions) {
+		if (!hasReservedExtensions(extensions)) {
+			return extensions;
+		}
+		return extensions.entrySet().stream().filter(e -> !isReservedExtension(e.getKey()))
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+	}
+
+	protected static boolean isReservedExtension(String name) {
+		return name.startsWith("x-oas-") || name.startsWith("x-oai-");
+	}
+
+	/**
+	 * Make a copy of the mapper, that skips the schema <code>example</code>, if the schema has the <code>examples</code> list set.
+	 * 
+	 * @param mapper
+	 * @return
+	 */
+	protected static ObjectMapper withExamplesPrecedence(ObjectMapper mapper) {
+		SimpleModule module = new SimpleModule("OpenAPI31ExamplesPrecedence");
+		module.setSerializerModifier(new BeanSerializerModifier() {
+			@Override
+			public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+				if (!Schema.class.isAssignableFrom(beanDesc.getBeanClass())) {
+					return beanProperties;
+				}
+				return beanProperties.stream().map(property -> "example".equals(property.getName()) ? new BeanPropertyWriter(property) {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+						if (((Schema<?>) bean).getExamples() == null) {
+							super.serializeAsField(bean, gen, prov);
+						}
+					}
+				} : property).collect(Collectors.toList());
+			}
+		});
+		return mapper.copy().registerModule(module);
+	}
+
+	/**
+	 * Serialize the value with the writer into the output stream, not closing it. YAML is written by the {@link StreamingYamlGenerator}.
+	 * 
+	 * @param writer
+	 * @param format
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	protected void writeValue(ObjectWriter writer, Format format, OutputStream out, Object value) throws IOException {
+		if (format == Format.YAML) {
+			StreamingYamlGenerator.writeValue(writer, out, value);
+		} else {
+			writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, value);
+		}
+	}
+
+	/**
+	 * Get the preconfigured object writer for the format. The binary formats are never prettified.
+	 * 
+	 * @param format
+	 * @param pretty
+	 * @return
+	 * @throws OpenAPIGenerationException
+	 */
+	protected ObjectWriter getObjectWriter(Format format, boolean pretty) throws OpenAPIGenerationException {
 		switch (format) {
 		case YAML:
-			try {
-				return pretty ? Yaml31.mapper().writer().writeValueAsString(openApi) : Yaml31.pretty().writeValueAsString(openApi);
-			} catch (JsonProcessingException e) {
-				throw new RuntimeException("Could not generate YAML", e);
-			}
+			return pretty ? YAML_PRETTY : YAML;
 		case JSON:
-			try {
-				return pretty ? Json31.mapper().writer().writeValueAsString(openApi) : Json31.pretty(openApi);
-			} catch (JsonProcessingException e) {
-				throw new RuntimeException(e);
-			}
+			return pretty ? JSON_PRETTY : JSON;
+		case CBOR:
+			return CBOR;
+		case SMILE:
+			return SMILE;
 		default:
-			throw new OpenAPIGenerationException("Please specify a response format: YAML or JSON");
+			throw new OpenAPIGenerationException("Please specify a response format: YAML, JSON, CBOR or SMILE");
 		}
 	}
 }
@@ -0,0 +1,90 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.swagger.v3.oas.models.PathItem;
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class AsyncGenerationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	@BeforeClass
+	public static void setup() {
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/async")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Async endpoint")
+			.produces(UtilsAndConstants.TEXT_PLAIN)
+			.withHandler(rc -> rc.end("async"))
+			.build();
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testAsyncEqualsBlocking() throws OpenAPIGenerationException {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		OutputVariant variant = OutputVariant.of(Format.JSON, true, false);
+		String expected = generator.generate("async", Map.of(router, StringUtils.EMPTY), Format.JSON, true, false, Optional.empty(), Optional.empty());
+
+		// the generation threads, as seen by the path item transformer
+		List<Boolean> onEventLoop = new CopyOnWriteArrayList<>();
+		Optional<BiFunction<String, PathItem, String>> transformer = Optional.of((path, pathItem) -> {
+			onEventLoop.add(Context.isOnEventLoopThread());
+			return path;
+		});
+
+		Promise<Buffer> promise = Promise.promise();
+		vertx.runOnContext(v -> {
+			onEventLoop.add(Context.isOnEventLoopThread());
+			generator.generateAsync(vertx, "async", Map.of(router, StringUtils.EMPTY), variant, transformer, Optional.empty()).onComplete(promise);
+		});
+		Buffer onWorker = promise.future().await();
+		assertThat(onWorker.toString()).isEqualTo(expected);
+		assertThat(onEventLoop).as("Called on the event loop, generated off it").containsExactly(true, false);
+
+		onEventLoop.clear();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Promise<String> executorPromise = Promise.promise();
+			vertx.runOnContext(v -> {
+				onEventLoop.add(Context.isOnEventLoopThread());
+				generator.generateAsync(executor, "async", Map.of(router, StringUtils.EMPTY), variant, transformer, Optional.empty())
+						.map(buffer -> Context.isOnEventLoopThread() ? buffer.toString() : null).onComplete(executorPromise);
+			});
+			assertThat(executorPromise.future().await()).as("Delivered back on the event loop").isEqualTo(expected);
+			assertThat(onEventLoop).as("Called on the event loop, generated off it").containsExactly(true, false);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
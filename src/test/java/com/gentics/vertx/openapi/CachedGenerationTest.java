@@ -0,0 +1,66 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class CachedGenerationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testCacheHitAndInvalidation() throws OpenAPIGenerationException {
+		Router router = Router.router(vertx);
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/first")
+			.withMethod(HttpMethod.GET)
+			.withDescription("First endpoint")
+			.produces(UtilsAndConstants.TEXT_PLAIN)
+			.withHandler(rc -> rc.end("first"))
+			.build();
+
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setCacheOutput(true);
+		OutputVariant variant = OutputVariant.of(Format.JSON, false, false);
+		GeneratedSpec first = generator.generateSpec("cached", Map.of(router, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+		GeneratedSpec second = generator.generateSpec("cached", Map.of(router, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+		assertThat(second).as("Cached spec").isSameAs(first);
+		assertThat(first.asString()).contains("/first");
+
+		GeneratedSpec yaml = generator.generateSpec("cached", Map.of(router, StringUtils.EMPTY), OutputVariant.of(Format.YAML, false, false), Optional.empty(), Optional.empty());
+		assertThat(yaml).as("Other variant").isNotSameAs(first);
+		assertThat(yaml.getFingerprint()).isEqualTo(first.getFingerprint());
+
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/second")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Second endpoint")
+			.produces(UtilsAndConstants.TEXT_PLAIN)
+			.withHandler(rc -> rc.end("second"))
+			.build();
+		GeneratedSpec third = generator.generateSpec("cached", Map.of(router, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+		assertThat(third.getFingerprint()).as("Changed fingerprint").isNotEqualTo(first.getFingerprint());
+		assertThat(third.asString()).contains("/first", "/second");
+	}
+}
@@ -0,0 +1,98 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class CanonicalOutputTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testStableOutput() throws Exception {
+		Router forward = router(List.of("alpha", "beta", "gamma", "delta"), false);
+		Router backward = router(List.of("delta", "gamma", "beta", "alpha"), true);
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			OutputVariant variant = OutputVariant.of(Format.JSON, false, useVersion31);
+			GeneratedSpec plainForward = generator(false).generateSpec("canonical", Map.of(forward, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+			GeneratedSpec plainBackward = generator(false).generateSpec("canonical", Map.of(backward, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+			assertThat(plainForward.getBytes()).as("Route order dependent output").isNotEqualTo(plainBackward.getBytes());
+
+			GeneratedSpec canonicalForward = generator(true).generateSpec("canonical", Map.of(forward, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+			GeneratedSpec canonicalBackward = generator(true).generateSpec("canonical", Map.of(backward, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty());
+			assertThat(canonicalForward.getBytes()).as("Canonical output").isEqualTo(canonicalBackward.getBytes());
+			assertThat(canonicalForward.getContentHash()).isEqualTo(canonicalBackward.getContentHash()).isNotEqualTo(plainForward.getContentHash());
+			assertThat(new OpenAPIParser().readContents(canonicalForward.asString(), null, null).getMessages()).as("Error messages").isNullOrEmpty();
+
+			JsonNode spec = Json.mapper().readTree(canonicalForward.getBytes());
+			assertThat(names(spec.get("paths"))).isSorted().contains("/alpha", "/delta");
+			assertThat(names(spec.at("/components/schemas"))).isSorted();
+			assertThat(names(spec.at("/components/schemas/MessageResponse/properties"))).isSorted().isNotEmpty();
+			List<String> parameters = new ArrayList<>();
+			spec.at("/paths/~1alpha/get/parameters").forEach(parameter -> parameters.add(parameter.get("name").asText()));
+			assertThat(parameters).containsExactly("first", "second", "third");
+		}
+	}
+
+	protected OpenAPIv3Generator generator(boolean canonical) {
+		return new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setCanonicalOutput(canonical);
+	}
+
+	protected Router router(List<String> paths, boolean reverseParameters) {
+		Router router = Router.router(vertx);
+		List<String> parameters = new ArrayList<>(List.of("first", "second", "third"));
+		if (reverseParameters) {
+			Collections.reverse(parameters);
+		}
+		for (String path : paths) {
+			InternalEndpointBuilder builder = InternalEndpointBuilder.wrap(router)
+				.withPath("/" + path)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Loads " + path)
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse(path), "The message");
+			for (String parameter : parameters) {
+				builder.withQueryParameter(parameter, "The " + parameter + " parameter", "value");
+			}
+			builder.withHandler(rc -> rc.end()).build();
+		}
+		return router;
+	}
+
+	protected List<String> names(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		for (Iterator<String> iterator = node.fieldNames(); iterator.hasNext();) {
+			names.add(iterator.next());
+		}
+		return names;
+	}
+}
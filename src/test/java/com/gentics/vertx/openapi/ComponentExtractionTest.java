@@ -0,0 +1,184 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.raml.model.ParamType;
+import org.raml.model.parameter.QueryParameter;
+
+import com.gentics.vertx.openapi.misc.ComponentExtractor;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GenerationReport;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.parameters.SimpleParameterProviderImpl;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.parser.models.SwaggerParseResult;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class ComponentExtractionTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	/**
+	 * Paging parameters, shared by the listing endpoints
+	 */
+	public static class PagingParameters extends SimpleParameterProviderImpl {
+		@Override
+		public Map<? extends String, ? extends QueryParameter> getRAMLParameters() {
+			Map<String, QueryParameter> parameters = new HashMap<>();
+			QueryParameter page = new QueryParameter();
+			page.setType(ParamType.INTEGER);
+			page.setDescription("Number of the page");
+			page.setExample("1");
+			parameters.put("page", page);
+			QueryParameter perPage = new QueryParameter();
+			perPage.setType(ParamType.INTEGER);
+			perPage.setDescription("Number of the items per page");
+			perPage.setExample("25");
+			parameters.put("perPage", perPage);
+			return parameters;
+		}
+	}
+
+	@BeforeClass
+	public static void setup() {
+		for (int i = 0; i < 5; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/extract/list" + i)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Listing " + i)
+				.withQueryParameters(PagingParameters.class)
+				.withQueryParameter("lang", "The language of the listed items", "en")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("list " + i), "The listing")
+				.withExampleResponse(HttpResponseStatus.BAD_REQUEST, new MessageResponse("Invalid paging"), "Bad request")
+				.withHandler(rc -> rc.end())
+				.build();
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/extract/list" + i)
+				.withMethod(HttpMethod.POST)
+				.withDescription("Creation " + i)
+				.withExampleResponse(HttpResponseStatus.CREATED, "Created", "Location", "/extract/items/1", "Location of the created item")
+				.withExampleResponse(HttpResponseStatus.BAD_REQUEST, new MessageResponse("Invalid paging"), "Bad request")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testExtraction() throws Exception {
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			List<GenerationReport> reports = new ArrayList<>();
+			OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+					.setExtractComponents(true)
+					.setReportListener(reports::add);
+			OpenAPI openApi = generator.generateModel("extract", Map.of(router, StringUtils.EMPTY), useVersion31, Optional.empty(), Optional.empty());
+
+			Operation list = openApi.getPaths().get("/extract/list1").getGet();
+			assertThat(list.getParameters()).as("Referenced parameters").extracting(parameter -> parameter.get$ref())
+				.contains(ComponentExtractor.PARAMETERS_PREFIX + "PagingParameters_page",
+						ComponentExtractor.PARAMETERS_PREFIX + "lang_query")
+				.doesNotContainNull();
+			assertThat(openApi.getComponents().getParameters()).as("Parameter components").containsKey("lang_query");
+			assertThat(list.getResponses().get("400").get$ref()).as("Referenced response").isEqualTo(ComponentExtractor.RESPONSES_PREFIX + "MessageResponse_400");
+			assertThat(openApi.getComponents().getResponses()).as("Response components").containsKey("MessageResponse_400");
+			assertThat(openApi.getPaths().get("/extract/list2").getPost().getResponses().get("400").get$ref()).isEqualTo(ComponentExtractor.RESPONSES_PREFIX + "MessageResponse_400");
+			assertThat(openApi.getPaths().get("/extract/list2").getPost().getResponses().get("201").get$ref()).isEqualTo(ComponentExtractor.RESPONSES_PREFIX + "Response_201");
+			assertThat(openApi.getComponents().getResponses().get("Response_201").getHeaders().get("Location").get$ref())
+				.as("Referenced header").isEqualTo(ComponentExtractor.HEADERS_PREFIX + "Location");
+			assertThat(openApi.getComponents().getHeaders().get("Location").getDescription()).isEqualTo("Location of the created item");
+			assertThat(reports.get(0).getComponentsExtracted()).isGreaterThan(0);
+			assertThat(reports.get(0).getComponentReferences()).isGreaterThan(reports.get(0).getComponentsExtracted());
+
+			for (Format format : new Format[] { Format.YAML, Format.JSON }) {
+				SwaggerParseResult result = new OpenAPIParser()
+						.readContents(generator.getWriter(useVersion31).write(openApi, format, false), null, null);
+				assertThat(result.getMessages()).as("Error messages").isNullOrEmpty();
+			}
+		}
+	}
+
+	@Test
+	public void testParameterSchemasNotShared() throws Exception {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		OpenAPI openApi = generator.generateModel("extract", Map.of(router, StringUtils.EMPTY), false, Optional.of((path, pathItem) -> {
+			if ("/extract/list1".equals(path)) {
+				lang(pathItem.getGet()).getSchema().setDescription("Changed by the transformer");
+			}
+			return path;
+		}), Optional.empty());
+		assertThat(openApi.getPaths().get("/extract/list1").getGet().getParameters())
+			.as("Inline parameters").allMatch(parameter -> parameter.get$ref() == null);
+		assertThat(openApi.getComponents().getParameters()).as("No parameter components").isNullOrEmpty();
+		assertThat(lang(openApi.getPaths().get("/extract/list1").getGet()).getSchema().getDescription()).isEqualTo("Changed by the transformer");
+		assertThat(lang(openApi.getPaths().get("/extract/list2").getGet()).getSchema().getDescription()).as("Other path")
+			.isEqualTo("The language of the listed items");
+
+		OpenAPI next = generator.generateModel("extract", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(lang(next.getPaths().get("/extract/list1").getGet()).getSchema().getDescription()).as("Next generation")
+			.isEqualTo("The language of the listed items");
+	}
+
+	protected Parameter lang(Operation operation) {
+		return operation.getParameters().stream().filter(p -> "lang".equals(p.getName())).findAny().get();
+	}
+
+	@Test
+	public void testIncrementalRegeneration() throws Exception {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+				.setExtractComponents(true)
+				.setIncrementalGeneration(true);
+		OpenAPI first = generator.generateModel("extract", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		OpenAPI second = generator.generateModel("extract", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(second.getPaths().get("/extract/list1").getGet()).as("Copied operation").isNotSameAs(first.getPaths().get("/extract/list1").getGet());
+		assertThat(new V30Writer().write(second, Format.JSON, false)).as("Same output").isEqualTo(new V30Writer().write(first, Format.JSON, false));
+		assertThat(second.getComponents().getParameters().keySet()).as("Restored parameters").containsAll(first.getComponents().getParameters().keySet());
+		assertThat(second.getComponents().getResponses().keySet()).as("Restored responses").containsAll(first.getComponents().getResponses().keySet());
+		assertThat(second.getComponents().getHeaders().keySet()).as("Restored headers").containsAll(first.getComponents().getHeaders().keySet());
+	}
+
+	@Test
+	public void testRegistryEviction() throws Exception {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setExtractComponents(true);
+		OpenAPI extracted = generator.generateModel("extract", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(extracted.getComponents().getParameters()).containsKey("lang_query");
+		assertThat(generator.extractedComponents).as("Registered components").containsKey(ComponentExtractor.PARAMETERS_PREFIX + "lang_query");
+
+		Router single = Router.router(vertx);
+		InternalEndpointBuilder.wrap(single)
+			.withPath("/single")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Single endpoint")
+			.withQueryParameter("lang", "The language of the item", "en")
+			.withExampleResponse(HttpResponseStatus.OK, "Ok")
+			.withHandler(rc -> rc.end())
+			.build();
+		generator.generateModel("single", Map.of(single, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(generator.extractedComponents).as("Evicted the components of the former generation").isEmpty();
+	}
+}
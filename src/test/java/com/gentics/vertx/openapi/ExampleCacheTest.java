@@ -0,0 +1,71 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.ExampleCache;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class ExampleCacheTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testParse() {
+		assertThat(ExampleCache.parse(" {\"message\": \"ok\"} ")).isEqualTo(Map.of("message", "ok"));
+		assertThat(ExampleCache.parse("[1, 2]")).isEqualTo(List.of(1, 2));
+		assertThat(ExampleCache.parse(" plain text ")).isEqualTo("plain text");
+		assertThat(ExampleCache.parse("{ broken")).isEqualTo("{ broken");
+		assertThat(ExampleCache.parse("{ broken }")).isEqualTo("{ broken }");
+	}
+
+	@Test
+	public void testBoundedSize() {
+		ExampleCache cache = new ExampleCache(2);
+		Object first = cache.get("[1]");
+		assertThat(cache.get("[1]")).as("Cached value").isSameAs(first);
+		cache.get("[2]");
+		cache.get("[3]");
+		assertThat(cache.size()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	public void testExamplesReused() throws Exception {
+		Router router = Router.router(vertx);
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/example")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Example endpoint")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		OpenAPI first = generator.generateModel("example", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		OpenAPI second = generator.generateModel("example", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		Object example = first.getPaths().get("/example").getGet().getResponses().get("200").getContent().get(UtilsAndConstants.APPLICATION_JSON).getExample();
+		assertThat(example).as("Parsed example").isInstanceOf(Map.class);
+		assertThat(second.getPaths().get("/example").getGet().getResponses().get("200").getContent().get(UtilsAndConstants.APPLICATION_JSON).getExample())
+			.as("Reused example").isSameAs(example);
+	}
+}
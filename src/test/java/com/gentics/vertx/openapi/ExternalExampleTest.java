@@ -0,0 +1,128 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.ExampleStore;
+import com.gentics.vertx.openapi.misc.TestUtils;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.route.ExampleHandler;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.ext.web.Router;
+
+public class ExternalExampleTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final int port = TestUtils.getRandomPort();
+	protected static final Router router = Router.router(vertx);
+	protected static final String LARGE_MESSAGE = StringUtils.repeat("large example ", 100);
+	protected static final OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+			.setExternalExampleBaseUrl("/examples/")
+			.setExternalExampleMinSize(1000);
+
+	protected static HttpServer server;
+	protected static HttpClient client;
+
+	@BeforeClass
+	public static void setup() {
+		for (String name : new String[] { "large1", "large2" }) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/" + name)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Large example")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse(LARGE_MESSAGE), "The large message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/small")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Small example")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("small"), "The small message")
+			.withHandler(rc -> rc.end())
+			.build();
+		router.get("/examples/:key").handler(new ExampleHandler(generator.getExampleStore()));
+		server = vertx.createHttpServer(new HttpServerOptions().setPort(port).setHost("127.0.0.1"));
+		server.requestHandler(router).listen().await();
+		client = vertx.createHttpClient(new HttpClientOptions().setDefaultHost("127.0.0.1").setDefaultPort(port));
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		client.close().await();
+		server.close().await();
+		vertx.close().await();
+	}
+
+	@Test
+	public void testExternalized() throws Exception {
+		OpenAPI openApi = generator.generateModel("external", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		MediaType large1 = mediaType(openApi, "/large1");
+		MediaType large2 = mediaType(openApi, "/large2");
+		MediaType small = mediaType(openApi, "/small");
+
+		assertThat(large1.getExample()).as("Inline example").isNull();
+		Example external = large1.getExamples().get(OpenAPIv3Generator.EXTERNAL_EXAMPLE_NAME);
+		assertThat(external.getExternalValue()).startsWith("/examples/").doesNotContain("//");
+		assertThat(large2.getExamples().get(OpenAPIv3Generator.EXTERNAL_EXAMPLE_NAME).getExternalValue()).as("Same content, same URL")
+			.isEqualTo(external.getExternalValue());
+		assertThat(small.getExamples()).isNull();
+		assertThat(small.getExample()).isNotNull();
+
+		String key = StringUtils.substringAfterLast(external.getExternalValue(), "/");
+		String stored = new String(generator.getExampleStore().get(key).get().getBytes(), StandardCharsets.UTF_8);
+		assertThat(stored).contains(LARGE_MESSAGE);
+		assertThat(ExampleStore.hash(stored.getBytes(StandardCharsets.UTF_8))).isEqualTo(key);
+
+		String spec = generator.generate("external", Map.of(router, StringUtils.EMPTY), Format.JSON, false, false, Optional.empty(), Optional.empty());
+		assertThat(spec).doesNotContain(LARGE_MESSAGE).contains("externalValue");
+		assertThat(new OpenAPIParser().readContents(spec, null, null).getMessages()).as("Error messages").isNullOrEmpty();
+
+		Pair<HttpClientResponse, Buffer> served = get(external.getExternalValue(), null);
+		assertThat(served.getKey().statusCode()).isEqualTo(200);
+		assertThat(served.getKey().getHeader("Content-Type")).isEqualTo(UtilsAndConstants.APPLICATION_JSON_UTF8);
+		assertThat(served.getKey().getHeader("Cache-Control")).contains("immutable");
+		assertThat(served.getValue().toString(StandardCharsets.UTF_8)).isEqualTo(stored);
+
+		assertThat(get(external.getExternalValue(), served.getKey().getHeader("ETag")).getKey().statusCode()).isEqualTo(304);
+		assertThat(get("/examples/unknown", null).getKey().statusCode()).isEqualTo(404);
+	}
+
+	protected MediaType mediaType(OpenAPI openApi, String path) {
+		return openApi.getPaths().get(path).getGet().getResponses().get("200").getContent().get(UtilsAndConstants.APPLICATION_JSON);
+	}
+
+	protected Pair<HttpClientResponse, Buffer> get(String uri, String etag) {
+		return client.request(HttpMethod.GET, uri)
+				.compose(req -> (etag != null ? req.putHeader("If-None-Match", etag) : req).send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+	}
+}
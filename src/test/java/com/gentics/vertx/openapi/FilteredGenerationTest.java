@@ -0,0 +1,96 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.PathFilter;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class FilteredGenerationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testPrefixAnalysis() {
+		PathFilter blacklisted = new PathFilter(Optional.of(List.of(Pattern.compile("/internal/.*"), Pattern.compile("/debug"))), Optional.empty());
+		assertThat(blacklisted.accepts("/internal/x")).isFalse();
+		assertThat(blacklisted.accepts("/debug")).isFalse();
+		assertThat(blacklisted.accepts("/public/x")).isTrue();
+		assertThat(blacklisted.mayAcceptBelow("/internal")).isFalse();
+		assertThat(blacklisted.mayAcceptBelow("/internal/deeper/")).isFalse();
+		assertThat(blacklisted.mayAcceptBelow("/debug")).isFalse();
+		assertThat(blacklisted.mayAcceptBelow("/debugger")).isTrue();
+
+		PathFilter whitelisted = new PathFilter(Optional.empty(), Optional.of(List.of(Pattern.compile("/api/v1/.*"), Pattern.compile("^/health"))));
+		assertThat(whitelisted.accepts("/api/v1/users")).isTrue();
+		assertThat(whitelisted.accepts("/api/v2/users")).isFalse();
+		assertThat(whitelisted.mayAcceptBelow("/api")).isTrue();
+		assertThat(whitelisted.mayAcceptBelow("/api/v1/users")).isTrue();
+		assertThat(whitelisted.mayAcceptBelow("/api/v2")).isFalse();
+		assertThat(whitelisted.mayAcceptBelow("/other")).isFalse();
+
+		PathFilter unknown = new PathFilter(Optional.of(List.of(Pattern.compile("(?i)/internal/.*"))), Optional.of(List.of(Pattern.compile("/a.*|/b.*"))));
+		assertThat(unknown.mayAcceptBelow("/internal")).isTrue();
+		assertThat(unknown.mayAcceptBelow("/c")).isTrue();
+	}
+
+	@Test
+	public void testSubRouterFiltering() {
+		Router root = Router.router(vertx);
+		Router api = Router.router(vertx);
+		endpoint(api, "/v1/users");
+		endpoint(api, "/v2/users");
+		root.route("/api*").subRouter(api);
+		Router internal = Router.router(vertx);
+		endpoint(internal, "/v1/secret");
+		root.route("/internal*").subRouter(internal);
+		endpoint(root, "/public");
+
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(),
+				Optional.of(List.of(Pattern.compile("/internal/.*"))), Optional.of(List.of(Pattern.compile("/api/v1/.*"), Pattern.compile("/internal/.*"))));
+		OpenAPI openApi = generator.generateModel("filtered", Map.of(root, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(openApi.getPaths()).containsOnlyKeys("/api/v1/users");
+	}
+
+	@Test
+	public void testBlacklistedMountPath() {
+		Router root = Router.router(vertx);
+		Router internal = Router.router(vertx);
+		endpoint(internal, "/secret");
+		root.route("/internal*").subRouter(internal);
+		endpoint(root, "/public");
+
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.of(List.of(Pattern.compile("/internal"))), Optional.empty());
+		OpenAPI openApi = generator.generateModel("filtered", Map.of(root, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(openApi.getPaths()).containsOnlyKeys("/public");
+	}
+
+	protected void endpoint(Router router, String path) {
+		InternalEndpointBuilder.wrap(router)
+			.withPath(path)
+			.withMethod(HttpMethod.GET)
+			.withDescription("Endpoint " + path)
+			.produces(UtilsAndConstants.TEXT_PLAIN)
+			.withHandler(rc -> rc.end())
+			.build();
+	}
+}
@@ -0,0 +1,90 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	/**
+	 * A model class, unique to this test, so its schema is computed within the recording.
+	 */
+	public static class RecordedModel {
+		private String value;
+
+		public String getValue() {
+			return value;
+		}
+
+		public void setValue(String value) {
+			this.value = value;
+		}
+	}
+
+	@Test
+	public void testEventsRecorded() throws IOException, OpenAPIGenerationException {
+		Path dump = Files.createTempFile("openapi", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String event : List.of("Generation", "RouterWalk", "ComponentFill", "Serialization", "SchemaComputation")) {
+				recording.enable("com.gentics.vertx.openapi." + event).withoutThreshold();
+			}
+			recording.start();
+			Router router = Router.router(vertx);
+			RecordedModel model = new RecordedModel();
+			model.setValue("recorded");
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/recorded")
+				.withMethod(HttpMethod.POST)
+				.withDescription("Recorded endpoint")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleRequest(new JsonObject().put("value", "recorded"))
+				.withExampleResponse(HttpResponseStatus.OK, model, "The model")
+				.withHandler(rc -> rc.end())
+				.build();
+			new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+				.generate("recorded", Map.of(router, StringUtils.EMPTY), Format.JSON, false, false, Optional.empty(), Optional.empty());
+			recording.stop();
+			recording.dump(dump);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+			Set<String> names = events.stream().map(event -> event.getEventType().getName()).collect(Collectors.toSet());
+			assertThat(names).contains("com.gentics.vertx.openapi.Generation", "com.gentics.vertx.openapi.RouterWalk",
+					"com.gentics.vertx.openapi.ComponentFill", "com.gentics.vertx.openapi.Serialization", "com.gentics.vertx.openapi.SchemaComputation");
+			assertThat(events.stream().filter(event -> event.getEventType().getName().equals("com.gentics.vertx.openapi.ComponentFill"))
+					.map(event -> event.getString("className"))).contains(RecordedModel.class.getName());
+		} finally {
+			Files.deleteIfExists(dump);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GenerationReport;
+import com.gentics.vertx.openapi.model.GenerationReport.Phase;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.ShardKey;
+import com.gentics.vertx.openapi.model.ShardedSpec;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class GenerationReportTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testReport() throws OpenAPIGenerationException {
+		Router router = Router.router(vertx);
+		for (int i = 0; i < 3; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/reported/item" + i)
+				.withMethod(i == 0 ? HttpMethod.POST : HttpMethod.GET)
+				.withDescription("Endpoint " + i)
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+		List<GenerationReport> reports = new ArrayList<>();
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setReportListener(reports::add);
+		String spec = generator.generate("reported", Map.of(router, StringUtils.EMPTY), Format.YAML, false, true, Optional.empty(), Optional.empty());
+
+		assertThat(reports).hasSize(1);
+		GenerationReport report = reports.get(0);
+		assertThat(report.getName()).isEqualTo("reported");
+		assertThat(report.getRoutes()).isEqualTo(3);
+		assertThat(report.getPaths()).isEqualTo(3);
+		assertThat(report.getOperations()).isEqualTo(3);
+		assertThat(report.getComponentsGenerated()).isGreaterThanOrEqualTo(2);
+		assertThat(report.getComponentsPruned()).as("AnyJson is unused").isGreaterThanOrEqualTo(1);
+		assertThat(report.getStrategyHits()).containsKey("JsonSchemaGenerationStrategy");
+		assertThat(report.getTime(Phase.ROUTER_WALK)).isPositive();
+		assertThat(report.getTime(Phase.SERIALIZATION)).isPositive();
+		assertThat(report.getOutputSizes()).containsExactly(Map.entry(OutputVariant.of(Format.YAML, false, true), (long) spec.getBytes(StandardCharsets.UTF_8).length));
+
+		ShardedSpec sharded = generator.generateSharded("reported", Map.of(router, StringUtils.EMPTY), false, ShardKey.PREFIX, Optional.empty(), Optional.empty());
+		assertThat(reports).as("Sharded spec reported").hasSize(2);
+		OutputVariant variant = OutputVariant.of(Format.JSON, false, false);
+		long size = 0;
+		for (String document : List.of(ShardedSpec.INDEX, ShardedSpec.COMMON, "item0", "item1", "item2")) {
+			size += sharded.getDocument(document, variant).get().getBytes().length;
+		}
+		assertThat(reports.get(1).getTime(Phase.SERIALIZATION)).isPositive();
+		assertThat(reports.get(1).getOutputSizes()).containsExactly(Map.entry(variant, size));
+
+		generator.setReportListener(null);
+		generator.generate("reported", Map.of(router, StringUtils.EMPTY), Format.JSON, false, false, Optional.empty(), Optional.empty());
+		assertThat(reports).as("Reporting is off").hasSize(2);
+	}
+}
@@ -0,0 +1,177 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.metadata.InternalEndpointRoute;
+import com.gentics.vertx.openapi.misc.SchemaDeduplicator;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.SpecSnapshot;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class IncrementalGenerationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testRouteChanges() {
+		Router router = Router.router(vertx);
+		InternalEndpointRoute stable = endpoint(router, "/stable");
+		InternalEndpointRoute toggled = endpoint(router, "/toggled");
+
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setIncrementalGeneration(true);
+		OpenAPI first = generator.generateModel("incremental", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(first.getPaths()).containsKeys("/stable", "/toggled");
+		assertThat(first.getComponents().getSchemas()).containsKey("MessageResponse");
+
+		Object fragment = generator.routeFragments.get(Pair.of(stable, false));
+		toggled.disable();
+		OpenAPI second = generator.generateModel("incremental", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(second.getPaths()).containsKey("/stable").doesNotContainKey("/toggled");
+		assertThat(generator.routeFragments.get(Pair.of(stable, false))).as("Reused fragment").isSameAs(fragment);
+		assertThat(generator.routeFragments).as("Pruned fragment").doesNotContainKey(Pair.of(toggled, false));
+		assertThat(second.getPaths().get("/stable").getGet()).as("Copied operation").isNotSameAs(first.getPaths().get("/stable").getGet());
+		assertThat(second.getPaths().get("/stable").getGet().getDescription()).isEqualTo(first.getPaths().get("/stable").getGet().getDescription());
+
+		toggled.enable();
+		OpenAPI third = generator.generateModel("incremental", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(third.getPaths()).containsKeys("/stable", "/toggled");
+
+		stable.description("Changed description");
+		toggled.remove();
+		OpenAPI fourth = generator.generateModel("incremental", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(fourth.getPaths()).containsKey("/stable").doesNotContainKey("/toggled");
+		assertThat(fourth.getPaths().get("/stable").getGet().getDescription()).isEqualTo("Changed description");
+		assertThat(generator.routeFragments.get(Pair.of(stable, false))).as("Recomputed fragment").isNotSameAs(fragment);
+		assertThat(fourth.getComponents().getSchemas()).containsKey("MessageResponse");
+	}
+
+	@Test
+	public void testPostProcessingSwitch() throws Exception {
+		Router router = Router.router(vertx);
+		for (int i = 0; i < 10; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/switched" + i)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Endpoint " + i)
+				.withQueryParameter("lang", "The language tags of the item content, in the order of preference", "en,de")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok " + i), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setIncrementalGeneration(true);
+		String plain = new V30Writer().write(generator.generateModel("switch", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty()), Format.JSON, false);
+
+		OpenAPI deduplicated = generator.setDeduplicateSchemas(true).setCanonicalOutput(true)
+				.generateModel("switch", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(deduplicated.getComponents().getSchemas().keySet()).anyMatch(name -> name.startsWith(SchemaDeduplicator.SHARED_SCHEMA_PREFIX));
+
+		String again = new V30Writer().write(generator.setDeduplicateSchemas(false).setCanonicalOutput(false)
+				.generateModel("switch", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty()), Format.JSON, false);
+		assertThat(again).as("Fragments untouched by the post processing").isEqualTo(plain).doesNotContain(SchemaDeduplicator.SHARED_SCHEMA_PREFIX);
+	}
+
+	@Test
+	public void testIncrementalMatchesPlain() throws Exception {
+		Router router = Router.router(vertx);
+		Router subRouter = Router.router(vertx);
+		for (int i = 0; i < 5; i++) {
+			InternalEndpointBuilder.wrap(i % 2 == 0 ? router : subRouter)
+				.withPath("/matched" + i)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Endpoint " + i)
+				.withQueryParameter("lang", "The language tags of the item content, in the order of preference", "en,de")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok " + i), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+		router.route("/sub/*").subRouter(subRouter);
+		Map<Router, String> routers = Map.of(router, StringUtils.EMPTY);
+		List<OutputVariant> variants = List.of(OutputVariant.of(Format.JSON, false, false), OutputVariant.of(Format.JSON, false, true));
+
+		OpenAPIv3Generator plain = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		OpenAPIv3Generator incremental = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setIncrementalGeneration(true);
+		for (boolean useVersion31 : List.of(false, true)) {
+			String expected = plain.generate("matched", routers, Format.JSON, false, useVersion31, Optional.empty(), Optional.empty());
+			assertThat(expected).contains("\"en,de\"");
+			// the second generation is made of the memoized fragments
+			for (int generation = 0; generation < 2; generation++) {
+				assertThat(incremental.generate("matched", routers, Format.JSON, false, useVersion31, Optional.empty(), Optional.empty()))
+					.as("Generation " + generation + " of v3.1 " + useVersion31).isEqualTo(expected);
+			}
+		}
+		Map<OutputVariant, GeneratedSpec> expectedSpecs = plain.generateSpecs("matched", routers, variants, Optional.empty(), Optional.empty());
+		SpecSnapshot expectedSnapshot = plain.generateSnapshot("matched", routers, Optional.empty(), Optional.empty());
+		Map<OutputVariant, GeneratedSpec> specs = incremental.generateSpecs("matched", routers, variants, Optional.empty(), Optional.empty());
+		SpecSnapshot snapshot = incremental.generateSnapshot("matched", routers, Optional.empty(), Optional.empty());
+		for (OutputVariant variant : variants) {
+			assertThat(specs.get(variant).asString()).as("Spec " + variant).isEqualTo(expectedSpecs.get(variant).asString());
+			assertThat(new String(snapshot.writeBytes(variant), StandardCharsets.UTF_8)).as("Snapshot " + variant)
+				.isEqualTo(new String(expectedSnapshot.writeBytes(variant), StandardCharsets.UTF_8));
+		}
+		assertThat(specs.get(variants.get(1)).asString()).as("Direct v3.1").isEqualTo(plain.generate("matched", routers, Format.JSON, false, true, Optional.empty(), Optional.empty()));
+	}
+
+	@Test
+	public void testFragmentLifecycle() {
+		Router first = Router.router(vertx);
+		InternalEndpointRoute kept = endpoint(first, "/kept");
+		Router second = Router.router(vertx);
+		InternalEndpointRoute other = endpoint(second, "/other");
+
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setIncrementalGeneration(true);
+		generator.generateModel("lifecycle", Map.of(first, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		generator.generateModel("lifecycle", Map.of(first, StringUtils.EMPTY), true, Optional.empty(), Optional.empty());
+		Object fragment = generator.routeFragments.get(Pair.of(kept, false));
+		assertThat(generator.routeFragments).containsKeys(Pair.of(kept, false), Pair.of(kept, true));
+
+		kept.exampleResponse(HttpResponseStatus.NOT_FOUND, "Not found");
+		assertThat(generator.routeFragments).as("Dropped on update").doesNotContainKeys(Pair.of(kept, false), Pair.of(kept, true));
+		OpenAPI updated = generator.generateModel("lifecycle", Map.of(first, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(updated.getPaths().get("/kept").getGet().getResponses()).containsKey("404");
+		assertThat(generator.routeFragments.get(Pair.of(kept, false))).as("Recomputed fragment").isNotNull().isNotSameAs(fragment);
+		generator.generateModel("lifecycle", Map.of(first, StringUtils.EMPTY), true, Optional.empty(), Optional.empty());
+
+		generator.generateModel("lifecycle", Map.of(second, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(generator.routeFragments).as("Pruned the fragments not walked").containsKey(Pair.of(other, false))
+			.doesNotContainKey(Pair.of(kept, false)).as("Kept the other version").containsKey(Pair.of(kept, true));
+	}
+
+	protected InternalEndpointRoute endpoint(Router router, String path) {
+		return InternalEndpointBuilder.wrap(router)
+			.withPath(path)
+			.withMethod(HttpMethod.GET)
+			.withDescription("Endpoint " + path)
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+	}
+}
@@ -0,0 +1,140 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gentics.vertx.openapi.misc.LeanSpecFilter;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.SpecDetail;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class LeanSpecTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	@BeforeClass
+	public static void setup() {
+		for (int i = 0; i < 5; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/lean/item" + i)
+				.withMethod(HttpMethod.GET)
+				.withDisplayName("Item " + i)
+				.withDescription("Loads the item " + i)
+				.withQueryParameter("lang", "The language of the item", "en")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("The item " + i), "The item")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testFilter() throws Exception {
+		OpenAPI openApi = new OpenAPI()
+				.info(new Info().title("Lean").version("1.0").description("The API"))
+				.paths(new Paths().addPathItem("/description", new PathItem().get(new Operation()
+						.summary("Summary")
+						.description("Operation")
+						.responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("Required").extensions(Map.of("x-internal", true)))))))
+				.components(new Components().addSchemas("description", new ObjectSchema()
+						.addProperty("description", new StringSchema().description("Property").example("text")._default("description"))
+						.addProperty("example", new StringSchema())
+						.description("Model")));
+		JsonNode full = Json.mapper().readTree(new V30Writer().writeBytes(openApi, Format.JSON, false));
+		JsonNode lean = Json.mapper().readTree(bytes(openApi, SpecDetail.LEAN));
+		JsonNode minimal = Json.mapper().readTree(bytes(openApi, SpecDetail.MINIMAL));
+
+		assertThat(full.at("/components/schemas/description/properties/description/example").asText()).isEqualTo("text");
+		assertThat(lean.at("/components/schemas/description/properties/description/example").isMissingNode()).as("Dropped example").isTrue();
+		assertThat(lean.at("/components/schemas/description/properties/description/description").asText()).isEqualTo("Property");
+		assertThat(lean.at("/components/schemas/description/properties/description/default").asText()).as("Kept default").isEqualTo("description");
+		assertThat(lean.at("/components/schemas/description/properties/example").isObject()).as("Kept property").isTrue();
+		assertThat(lean.at("/paths/~1description/get/responses/200/x-internal").isMissingNode()).as("Dropped extension").isTrue();
+		assertThat(lean.at("/paths/~1description/get/summary").asText()).isEqualTo("Summary");
+
+		assertThat(minimal.at("/components/schemas/description/properties/description/description").isMissingNode()).as("Dropped description").isTrue();
+		assertThat(minimal.at("/components/schemas/description/properties/description").isObject()).as("Kept property").isTrue();
+		assertThat(minimal.at("/components/schemas/description/description").isMissingNode()).isTrue();
+		assertThat(minimal.at("/info/description").isMissingNode()).isTrue();
+		assertThat(minimal.at("/paths/~1description/get/summary").isMissingNode()).as("Dropped summary").isTrue();
+		assertThat(minimal.at("/paths/~1description/get/description").isMissingNode()).isTrue();
+		assertThat(minimal.at("/paths/~1description/get/responses/200/description").asText()).as("Kept required description").isEqualTo("Required");
+	}
+
+	@Test
+	public void testVariants() throws Exception {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			OutputVariant fullVariant = OutputVariant.of(Format.JSON, false, useVersion31);
+			OutputVariant leanVariant = OutputVariant.of(Format.JSON, false, useVersion31, SpecDetail.LEAN);
+			OutputVariant minimalVariant = OutputVariant.of(Format.YAML, false, useVersion31, SpecDetail.MINIMAL);
+			Map<OutputVariant, GeneratedSpec> specs = generator.generateSpecs("lean", Map.of(router, StringUtils.EMPTY), List.of(fullVariant, leanVariant, minimalVariant),
+					Optional.empty(), Optional.empty());
+			String full = specs.get(fullVariant).asString();
+			String lean = specs.get(leanVariant).asString();
+			String minimal = specs.get(minimalVariant).asString();
+
+			assertThat(full).contains("The item 1");
+			assertThat(lean).doesNotContain("The item 1", "\"example\"", "\"examples\"").contains("Loads the item 1");
+			assertThat(lean.length()).as("Lean size").isLessThan(full.length());
+			assertThat(minimal).doesNotContain("The item 1", "Loads the item 1", "The language of the item");
+			for (String spec : List.of(lean, minimal)) {
+				assertThat(new OpenAPIParser().readContents(spec, null, null).getMessages()).as("Error messages").isNullOrEmpty();
+			}
+
+			GeneratedSpec single = generator.generateSpec("lean", Map.of(router, StringUtils.EMPTY), leanVariant, Optional.empty(), Optional.empty());
+			assertThat(single.getBytes()).isEqualTo(specs.get(leanVariant).getBytes());
+		}
+
+		GeneratedSpec fromSnapshot = generator.generateSnapshot("lean", Map.of(router, StringUtils.EMPTY), Optional.empty(), Optional.empty())
+				.toSpec(OutputVariant.of(Format.JSON, false, false, SpecDetail.LEAN));
+		GeneratedSpec fromModel = generator.generateSpec("lean", Map.of(router, StringUtils.EMPTY), OutputVariant.of(Format.JSON, false, false, SpecDetail.LEAN),
+				Optional.empty(), Optional.empty());
+		assertThat(fromSnapshot.getBytes()).as("Snapshot variant").isEqualTo(fromModel.getBytes());
+	}
+
+	protected byte[] bytes(OpenAPI openApi, SpecDetail detail) throws Exception {
+		V30Writer writer = new V30Writer();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.write(LeanSpecFilter.filter(writer.capture(openApi), detail), Format.JSON, false, out);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,86 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.raml.model.ParamType;
+import org.raml.model.parameter.FormParameter;
+
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GeneratedSpec;
+import com.gentics.vertx.openapi.model.GenerationReport;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class MultiVariantGenerationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testVariantsEqualSingleGenerations() throws OpenAPIGenerationException {
+		Router router = Router.router(vertx);
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/variant/:id")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Get the variant")
+			.withUriParameter("id", "Variant id", "42")
+			.withQueryParameter("lang", "Language", "en")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+		FormParameter file = new FormParameter();
+		file.setType(ParamType.STRING);
+		file.setExample("content");
+		file.setDescription("File content");
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/variant/:id/upload")
+			.withMethod(HttpMethod.POST)
+			.withDescription("Upload the variant file")
+			.withUriParameter("id", "Variant id", "42")
+			.withExampleRequest(Map.of("file", List.of(file)))
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+
+		List<OutputVariant> variants = new ArrayList<>();
+		for (boolean useVersion31 : new boolean[] { true, false }) {
+			for (Format format : Format.values()) {
+				variants.add(OutputVariant.of(format, true, useVersion31));
+			}
+		}
+		List<GenerationReport> reports = new ArrayList<>();
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setReportListener(reports::add);
+		Map<OutputVariant, GeneratedSpec> specs = generator.generateSpecs("variants", Map.of(router, StringUtils.EMPTY), variants, Optional.empty(), Optional.empty());
+		assertThat(specs.keySet()).containsExactlyElementsOf(variants);
+		assertThat(reports).as("Single generation").hasSize(1);
+		assertThat(reports.get(0).getOutputSizes()).containsOnlyKeys(variants);
+
+		OpenAPIv3Generator single = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		for (OutputVariant variant : variants) {
+			byte[] expected = single.generateSpec("variants", Map.of(router, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty()).getBytes();
+			assertThat(specs.get(variant).getBytes()).as(variant.toString()).isEqualTo(expected);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class ParallelGenerationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testParallelEqualsSequential() {
+		Router root = Router.router(vertx);
+		addEndpoints(root, "root", 5);
+		for (int i = 0; i < 4; i++) {
+			Router sub = Router.router(vertx);
+			addEndpoints(sub, "sub" + i, 5);
+			Router subSub = Router.router(vertx);
+			addEndpoints(subSub, "subsub" + i, 3);
+			sub.route("/deeper*").subRouter(subSub);
+			root.route("/mounted" + i + "*").subRouter(sub);
+			addEndpoints(root, "after" + i, 1);
+		}
+
+		OpenAPIv3Generator sequential = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		OpenAPI expected = sequential.generateModel("parallel", Map.of(root, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			OpenAPIv3Generator parallel = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setParallelExecutor(executor);
+			OpenAPI actual = parallel.generateModel("parallel", Map.of(root, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+			assertThat(new ArrayList<>(actual.getPaths().keySet())).as("Path order").containsExactlyElementsOf(expected.getPaths().keySet());
+			assertThat(actual.getPaths()).as("Paths").isEqualTo(expected.getPaths());
+			assertThat(actual.getComponents()).as("Components").isEqualTo(expected.getComponents());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testLaterRouteWins() {
+		Router root = Router.router(vertx);
+		addEndpoint(root, "/dup/before", "root before");
+		addEndpoint(root, "/dup/both", "root first");
+		addEndpoint(root, "/dup/own", "root early");
+		Router sub = Router.router(vertx);
+		addEndpoint(sub, "/before", "sub");
+		addEndpoint(sub, "/both", "sub");
+		addEndpoint(sub, "/own", "sub");
+		Router other = Router.router(vertx);
+		addEndpoint(other, "/before", "other");
+		root.route("/dup*").subRouter(sub);
+		root.route("/dup*").subRouter(other);
+		addEndpoint(root, "/dup/own", "root late");
+		addEndpoint(root, "/dup/after", "root after");
+
+		OpenAPI expected = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+				.generateModel("parallel", Map.of(root, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(expected.getPaths().get("/dup/before").getGet().getDescription()).isEqualTo("other");
+		assertThat(expected.getPaths().get("/dup/both").getGet().getDescription()).isEqualTo("sub");
+		assertThat(expected.getPaths().get("/dup/own").getGet().getDescription()).isEqualTo("root late");
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			OpenAPI actual = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setParallelExecutor(executor)
+					.generateModel("parallel", Map.of(root, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+			assertThat(new ArrayList<>(actual.getPaths().keySet())).as("Path order").containsExactlyElementsOf(expected.getPaths().keySet());
+			assertThat(actual.getPaths()).as("Paths").isEqualTo(expected.getPaths());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	protected void addEndpoint(Router router, String path, String description) {
+		InternalEndpointBuilder.wrap(router)
+			.withPath(path)
+			.withMethod(HttpMethod.GET)
+			.withDescription(description)
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+	}
+
+	protected void addEndpoints(Router router, String prefix, int count) {
+		for (int i = 0; i < count; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/" + prefix + "/item" + i)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Endpoint " + prefix + " " + i)
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+	}
+}
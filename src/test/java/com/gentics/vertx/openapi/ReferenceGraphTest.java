@@ -0,0 +1,54 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.ReferenceGraph;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+public class ReferenceGraphTest {
+
+	@Test
+	public void testTransitivePruning() {
+		OpenAPI openApi = new OpenAPI();
+		Components components = new Components();
+		openApi.setComponents(components);
+
+		// Root -> Item[] -> Cycle <-> Root; Param -> Id; Orphan -> Unused
+		components.addSchemas("Root", new ObjectSchema().addProperty("items", new ArraySchema().items(new Schema<>().$ref("Item"))));
+		components.addSchemas("Item", new ObjectSchema().addProperty("cycle", new Schema<>().$ref("Cycle")));
+		components.addSchemas("Cycle", new ObjectSchema().addProperty("back", new Schema<>().$ref("Root")));
+		components.addSchemas("Id", new Schema<String>().type("string"));
+		components.addSchemas("Orphan", new ObjectSchema().addProperty("unused", new Schema<>().$ref("Unused")));
+		components.addSchemas("Unused", new ObjectSchema());
+		components.addParameters("Param", new Parameter().name("id").in("path").schema(new Schema<>().$ref("Id")));
+		components.addParameters("UnusedParam", new Parameter().name("x").in("query"));
+
+		Operation operation = new Operation()
+				.addParametersItem(new Parameter().$ref("#/components/parameters/Param"))
+				.responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+						.content(new Content().addMediaType("application/json", new MediaType().schema(new Schema<>().$ref("Root"))))));
+		openApi.setPaths(new Paths().addPathItem("/root/{id}", new PathItem().get(operation)));
+
+		assertThat(ReferenceGraph.reachable(openApi)).containsExactlyInAnyOrder(
+				"#/components/schemas/Root", "#/components/schemas/Item", "#/components/schemas/Cycle",
+				"#/components/schemas/Id", "#/components/parameters/Param");
+		assertThat(ReferenceGraph.prune(openApi)).isEqualTo(3);
+		assertThat(components.getSchemas()).containsOnlyKeys("Root", "Item", "Cycle", "Id");
+		assertThat(components.getParameters()).containsOnlyKeys("Param");
+	}
+}
@@ -0,0 +1,192 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gentics.vertx.openapi.misc.SchemaDeduplicator;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GenerationReport;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+import com.gentics.vertx.openapi.writer.impl.V31Writer;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class SchemaDeduplicationTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	@BeforeClass
+	public static void setup() {
+		for (int i = 0; i < 10; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/dedup/item" + i + "/:id")
+				.withMethod(HttpMethod.GET)
+				.withDescription("Endpoint " + i)
+				.withUriParameter("id", "The uuid of the item to load, as returned by the item listing", "dd5e85cebb7311e49640316caf57479f")
+				.withQueryParameter("lang", "The language tags of the item content, in the order of preference", "en,de")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok " + i), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testDeduplicatedEqualsPlain() throws Exception {
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			OpenAPI plain = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+					.generateModel("dedup", Map.of(router, StringUtils.EMPTY), useVersion31, Optional.empty(), Optional.empty());
+			List<GenerationReport> reports = new ArrayList<>();
+			OpenAPI deduplicated = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+					.setDeduplicateSchemas(true)
+					.setReportListener(reports::add)
+					.generateModel("dedup", Map.of(router, StringUtils.EMPTY), useVersion31, Optional.empty(), Optional.empty());
+
+			assertThat(deduplicated.getComponents().getSchemas().keySet()).as("Promoted schemas").anyMatch(name -> name.startsWith(SchemaDeduplicator.SHARED_SCHEMA_PREFIX));
+			assertThat(deduplicated.getPaths().get("/dedup/item1/{id}").getGet().getParameters().get(1).getSchema())
+					.as("Shared parameter schema").isSameAs(deduplicated.getPaths().get("/dedup/item2/{id}").getGet().getParameters().get(1).getSchema());
+			assertThat(reports.get(0).getSchemasPromoted()).isGreaterThan(0);
+			assertThat(reports.get(0).getSchemasShared()).isGreaterThan(0);
+
+			for (boolean write31 : new boolean[] { false, true }) {
+				byte[] plainBytes = (write31 ? new V31Writer() : new V30Writer()).writeBytes(plain, Format.JSON, false);
+				byte[] deduplicatedBytes = (write31 ? new V31Writer() : new V30Writer()).writeBytes(deduplicated, Format.JSON, false);
+				assertThat(deduplicatedBytes.length).as("Smaller output").isLessThan(plainBytes.length);
+				assertThat(inlineShared(Json.mapper().readTree(deduplicatedBytes))).as("Same content").isEqualTo(Json.mapper().readTree(plainBytes));
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalRegeneration() throws Exception {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+				.setDeduplicateSchemas(true)
+				.setIncrementalGeneration(true);
+		OpenAPI first = generator.generateModel("dedup", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		OpenAPI second = generator.generateModel("dedup", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(second.getPaths().get("/dedup/item1/{id}").getGet()).as("Copied operation").isNotSameAs(first.getPaths().get("/dedup/item1/{id}").getGet());
+		assertThat(new V30Writer().write(second, Format.JSON, false)).as("Same output").isEqualTo(new V30Writer().write(first, Format.JSON, false));
+		assertThat(second.getComponents().getSchemas().keySet()).as("Restored shared schemas")
+				.containsAll(first.getComponents().getSchemas().keySet());
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testSharedSchemasIntact() throws Exception {
+		// a schema shared with a cache outliving the generation, e.g. a parameter schema
+		Schema<?> address = new ObjectSchema().addProperty("street", new StringSchema().description("The street name and the house number"))
+				.addProperty("city", new StringSchema().description("The city name, in the language of the country"));
+		Schema<?> person = new ObjectSchema().addProperty("name", new StringSchema()).addProperty("address", address);
+		Map<String, Schema> personProperties = person.getProperties();
+		String before = Json.mapper().writeValueAsString(person);
+
+		OpenAPI openApi = new OpenAPI().paths(new Paths());
+		for (int i = 0; i < 3; i++) {
+			openApi.getPaths().addPathItem("/person" + i, new PathItem().get(new Operation().responses(new ApiResponses()
+					.addApiResponse("200", new ApiResponse().content(new Content().addMediaType(UtilsAndConstants.APPLICATION_JSON, new MediaType().schema(person)))))));
+		}
+		SchemaDeduplicator deduplicator = new SchemaDeduplicator(new HashMap<>(), 2).deduplicate(openApi);
+
+		assertThat(deduplicator.getPromoted()).isGreaterThan(0);
+		assertThat(openApi.getPaths().get("/person0").getGet().getResponses().get("200").getContent().get(UtilsAndConstants.APPLICATION_JSON).getSchema().get$ref())
+				.as("Promoted reference").startsWith("#/components/schemas/" + SchemaDeduplicator.SHARED_SCHEMA_PREFIX);
+		assertThat(person.getProperties()).as("Original properties").isSameAs(personProperties);
+		assertThat(person.getProperties().get("address")).as("Original child").isSameAs(address);
+		assertThat(Json.mapper().writeValueAsString(person)).as("Original content").isEqualTo(before);
+	}
+
+	@Test
+	public void testRegistryEviction() throws Exception {
+		Map<String, Schema<?>> sharedSchemas = new HashMap<>();
+		sharedSchemas.put("Shared_outer", new ObjectSchema().addProperty("inner", new Schema<>().$ref("#/components/schemas/Shared_inner")));
+		sharedSchemas.put("Shared_inner", new StringSchema().description("The inner schema, referenced by the outer one only"));
+		sharedSchemas.put("Shared_stale", new StringSchema().description("The schema of a former generation"));
+
+		// a reused model part, referencing a previously promoted schema
+		OpenAPI openApi = new OpenAPI().paths(new Paths());
+		openApi.getPaths().addPathItem("/reused", new PathItem().get(new Operation().responses(new ApiResponses()
+				.addApiResponse("200", new ApiResponse().content(new Content().addMediaType(UtilsAndConstants.APPLICATION_JSON,
+						new MediaType().schema(new Schema<>().$ref("#/components/schemas/Shared_outer"))))))));
+		new SchemaDeduplicator(sharedSchemas, 2).deduplicate(openApi);
+
+		assertThat(openApi.getComponents().getSchemas()).as("Restored transitively").containsOnlyKeys("Shared_outer", "Shared_inner");
+		assertThat(sharedSchemas).as("Evicted the unreferenced").containsOnlyKeys("Shared_outer", "Shared_inner");
+
+		new SchemaDeduplicator(sharedSchemas, 2).deduplicate(new OpenAPI().paths(new Paths()));
+		assertThat(sharedSchemas).as("Evicted all").isEmpty();
+	}
+
+	/**
+	 * Replace the references to the promoted schemas by their content, and drop the promoted components.
+	 *
+	 * @param spec
+	 * @return
+	 */
+	protected JsonNode inlineShared(JsonNode spec) {
+		ObjectNode schemas = (ObjectNode) spec.get("components").get("schemas");
+		JsonNode inlined = inline(spec, schemas);
+		Iterator<String> names = inlined.get("components").get("schemas").fieldNames();
+		while (names.hasNext()) {
+			if (names.next().startsWith(SchemaDeduplicator.SHARED_SCHEMA_PREFIX)) {
+				names.remove();
+			}
+		}
+		return inlined;
+	}
+
+	protected JsonNode inline(JsonNode node, ObjectNode schemas) {
+		if (node.isObject()) {
+			JsonNode ref = node.get("$ref");
+			String prefix = "#/components/schemas/" + SchemaDeduplicator.SHARED_SCHEMA_PREFIX;
+			if (ref != null && ref.asText().startsWith(prefix)) {
+				return inline(schemas.get(ref.asText().substring("#/components/schemas/".length())), schemas);
+			}
+			ObjectNode copy = Json.mapper().createObjectNode();
+			node.fields().forEachRemaining(field -> copy.set(field.getKey(), inline(field.getValue(), schemas)));
+			return copy;
+		} else if (node.isArray()) {
+			ArrayNode copy = Json.mapper().createArrayNode();
+			node.elements().forEachRemaining(item -> copy.add(inline(item, schemas)));
+			return copy;
+		}
+		return node;
+	}
+}
@@ -0,0 +1,182 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gentics.vertx.openapi.misc.TestUtils;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.ShardKey;
+import com.gentics.vertx.openapi.model.ShardedSpec;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.route.ShardedSpecHandler;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.ext.web.Router;
+
+public class ShardedSpecTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final int port = TestUtils.getRandomPort();
+	protected static final Router api = Router.router(vertx);
+
+	protected static HttpServer server;
+	protected static HttpClient client;
+	protected static OpenAPIv3Generator generator;
+
+	@BeforeClass
+	public static void setup() {
+		route(api, "/api/v1/items", "items");
+		route(api, "/api/v1/items/:id", "items");
+		route(api, "/api/v1/users", "users");
+		route(api, "/api/v1/users/:id", null);
+		Router router = Router.router(vertx);
+		generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setCacheOutput(true);
+		router.get("/shards/*").handler(new ShardedSpecHandler(generator, "sharded", Map.of(api, StringUtils.EMPTY), ShardKey.PREFIX, false));
+		server = vertx.createHttpServer(new HttpServerOptions().setPort(port).setHost("127.0.0.1"));
+		server.requestHandler(router).listen().await();
+		client = vertx.createHttpClient(new HttpClientOptions().setDefaultHost("127.0.0.1").setDefaultPort(port));
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		client.close().await();
+		server.close().await();
+		vertx.close().await();
+	}
+
+	@Test
+	public void testPrefixShards() throws Exception {
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			ShardedSpec sharded = generator.generateSharded("sharded", Map.of(api, StringUtils.EMPTY), useVersion31, ShardKey.PREFIX, Optional.empty(), Optional.empty());
+			assertThat(sharded.getShards()).containsOnlyKeys("items", "users");
+			assertThat(sharded.getShards().get("items")).containsExactlyInAnyOrder("/api/v1/items", "/api/v1/items/{id}");
+			assertThat(sharded.getCommonComponents()).contains("#/components/schemas/MessageResponse");
+			assertThat(sharded.getDocument("unknown", OutputVariant.of(Format.JSON, false, useVersion31))).isEmpty();
+
+			JsonNode index = tree(sharded, ShardedSpec.INDEX, useVersion31);
+			assertThat(index.at("/paths/~1api~1v1~1items~1{id}/$ref").asText()).isEqualTo("items.json#/paths/~1api~1v1~1items~1{id}");
+			assertThat(index.at("/components").isMissingNode()).isTrue();
+
+			JsonNode items = tree(sharded, "items", useVersion31);
+			assertThat(items.at("/paths").size()).isEqualTo(2);
+			assertThat(items.findValuesAsText("$ref")).contains("common.json#/components/schemas/MessageResponse");
+			assertThat(items.at("/components/schemas/MessageResponse").isMissingNode()).isTrue();
+
+			JsonNode common = tree(sharded, ShardedSpec.COMMON, useVersion31);
+			assertThat(common.at("/components/schemas/MessageResponse").isObject()).isTrue();
+			assertThat(common.at("/paths").size()).isEqualTo(0);
+			assertThat(new OpenAPIParser().readContents(common.toString(), null, null).getMessages()).as("Error messages").isNullOrEmpty();
+
+			assertThat(sharded.getDocument("items", OutputVariant.of(Format.JSON, false, useVersion31)).get())
+				.as("Cached document").isSameAs(sharded.getDocument("items", OutputVariant.of(Format.JSON, false, useVersion31)).get());
+		}
+	}
+
+	@Test
+	public void testResolveShards() throws Exception {
+		ShardedSpec sharded = generator.generateSharded("sharded", Map.of(api, StringUtils.EMPTY), false, ShardKey.PREFIX, Optional.empty(), Optional.empty());
+		Map<String, JsonNode> documents = new HashMap<>();
+		for (String document : List.of(ShardedSpec.INDEX, ShardedSpec.COMMON, "items", "users")) {
+			documents.put(ShardedSpec.fileName(document, Format.JSON), tree(sharded, document, false));
+		}
+		// every external reference points at an existing node of the referenced document
+		for (Entry<String, JsonNode> document : documents.entrySet()) {
+			for (String ref : document.getValue().findValuesAsText("$ref")) {
+				String file = StringUtils.defaultIfEmpty(StringUtils.substringBefore(ref, "#"), document.getKey());
+				assertThat(documents).as("Document of " + ref).containsKey(file);
+				assertThat(documents.get(file).at(JsonPointer.compile(StringUtils.substringAfter(ref, "#"))).isObject()).as("Target of " + ref).isTrue();
+			}
+		}
+		assertThat(documents.get("index.json").at("/paths").size()).isEqualTo(4);
+		assertThat(new OpenAPIParser().readContents(documents.get("items.json").toString(), null, null).getOpenAPI().getPaths()).hasSize(2);
+	}
+
+	@Test
+	public void testTraitShards() throws Exception {
+		ShardedSpec sharded = generator.generateSharded("sharded", Map.of(api, StringUtils.EMPTY), false, ShardKey.TRAIT, Optional.empty(), Optional.empty());
+		assertThat(sharded.getShards()).containsOnlyKeys("items", "users", ShardedSpec.DEFAULT_SHARD);
+		assertThat(sharded.getShards().get(ShardedSpec.DEFAULT_SHARD)).containsExactly("/api/v1/users/{id}");
+
+		// the traits of the other router do not leak into the generation of this one
+		Router untraited = Router.router(vertx);
+		route(untraited, "/api/v1/items", null);
+		ShardedSpec other = generator.generateSharded("untraited", Map.of(untraited, StringUtils.EMPTY), false, ShardKey.TRAIT, Optional.empty(), Optional.empty());
+		assertThat(other.getShards()).containsOnlyKeys(ShardedSpec.DEFAULT_SHARD);
+	}
+
+	@Test
+	public void testHandler() throws Exception {
+		Pair<HttpClientResponse, Buffer> index = get("/shards/index.json", null);
+		assertThat(index.getKey().statusCode()).isEqualTo(200);
+		assertThat(index.getKey().getHeader("Content-Type")).isEqualTo(UtilsAndConstants.APPLICATION_JSON_UTF8);
+		assertThat(Json.mapper().readTree(index.getValue().getBytes()).at("/paths/~1api~1v1~1users/$ref").asText()).isEqualTo("users.json#/paths/~1api~1v1~1users");
+
+		Pair<HttpClientResponse, Buffer> users = get("/shards/users.yaml", null);
+		assertThat(users.getKey().statusCode()).isEqualTo(200);
+		assertThat(users.getKey().getHeader("Content-Type")).isEqualTo(UtilsAndConstants.APPLICATION_YAML_UTF8);
+		assertThat(users.getValue().toString()).contains("common.yaml#/components/schemas/MessageResponse");
+
+		String etag = users.getKey().getHeader("ETag");
+		assertThat(get("/shards/users.yaml", etag).getKey().statusCode()).isEqualTo(304);
+		assertThat(get("/shards/unknown.json", null).getKey().statusCode()).isEqualTo(404);
+		assertThat(get("/shards/users.txt", null).getKey().statusCode()).isEqualTo(404);
+	}
+
+	protected JsonNode tree(ShardedSpec sharded, String document, boolean useVersion31) throws Exception {
+		return Json.mapper().readTree(sharded.getDocument(document, OutputVariant.of(Format.JSON, false, useVersion31)).get().getBytes());
+	}
+
+	protected static void route(Router router, String path, String trait) {
+		InternalEndpointBuilder builder = InternalEndpointBuilder.wrap(router)
+			.withPath(path)
+			.withMethod(HttpMethod.GET)
+			.withDescription("Loads " + path)
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse(path), "The message")
+			.withHandler(rc -> rc.end());
+		if (path.endsWith("/:id")) {
+			builder.withUriParameter("id", "Item id", "42");
+		}
+		if (trait != null) {
+			builder.withTraits(trait);
+		}
+		builder.build();
+	}
+
+	protected Pair<HttpClientResponse, Buffer> get(String uri, String ifNoneMatch) {
+		return client.request(HttpMethod.GET, uri)
+				.compose(req -> {
+					if (ifNoneMatch != null) {
+						req.putHeader("If-None-Match", ifNoneMatch);
+					}
+					return req.send();
+				})
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+	}
+}
@@ -0,0 +1,137 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.GenerationReport;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.model.OutputVariant;
+import com.gentics.vertx.openapi.model.SpecSnapshot;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class SnapshotTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	@BeforeClass
+	public static void setup() {
+		for (int i = 0; i < 10; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/snapshot/item" + i + "/:id")
+				.withMethod(i % 2 == 0 ? HttpMethod.GET : HttpMethod.POST)
+				.withDescription("Endpoint " + i)
+				.withUriParameter("id", "Item id", "42")
+				.withQueryParameter("lang", "Language", "en")
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok " + i), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	protected List<OutputVariant> variants() {
+		List<OutputVariant> variants = new ArrayList<>();
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			for (boolean pretty : new boolean[] { false, true }) {
+				for (Format format : Format.values()) {
+					variants.add(OutputVariant.of(format, pretty, useVersion31));
+				}
+			}
+		}
+		return variants;
+	}
+
+	@Test
+	public void testSnapshotWritesEqualGenerations() throws OpenAPIGenerationException {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		SpecSnapshot snapshot = generator.generateSnapshot("snapshot", Map.of(router, StringUtils.EMPTY), Optional.empty(), Optional.empty());
+
+		List<OutputVariant> variants = variants();
+		List<byte[]> expected = new ArrayList<>();
+		for (OutputVariant variant : variants) {
+			expected.add(generator.generateSpec("snapshot", Map.of(router, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty()).getBytes());
+			assertSameContent(variant, snapshot.writeBytes(variant), expected.get(expected.size() - 1));
+		}
+
+		List<byte[]> concurrent = variants.parallelStream().map(variant -> {
+			try {
+				return snapshot.writeBuffer(variant).getBytes();
+			} catch (OpenAPIGenerationException e) {
+				throw new RuntimeException(e);
+			}
+		}).collect(Collectors.toList());
+		for (int i = 0; i < variants.size(); i++) {
+			assertSameContent(variants.get(i), concurrent.get(i), expected.get(i));
+		}
+
+		assertThat(new V30Writer().write(snapshot.toModel(false), Format.JSON, true)).as("Materialized model")
+				.isEqualTo(new String(expected.get(variants.indexOf(OutputVariant.of(Format.JSON, true, false))), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Compare the written variants. The binary formats are compared by the decoded content, since the replayed token stream
+	 * has no container sizes, and so is encoded with the indefinite length arrays and objects.
+	 */
+	protected void assertSameContent(OutputVariant variant, byte[] actual, byte[] expected) {
+		if (variant.getFormat().isBinary()) {
+			ObjectMapper mapper = new ObjectMapper(variant.getFormat() == Format.CBOR ? new CBORFactory() : new SmileFactory());
+			try {
+				assertThat(mapper.readTree(actual)).as(variant.toString()).isEqualTo(mapper.readTree(expected));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		} else {
+			assertThat(actual).as(variant.toString()).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testCachedSnapshot() throws OpenAPIGenerationException {
+		List<GenerationReport> reports = new ArrayList<>();
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+				.setCacheOutput(true)
+				.setReportListener(reports::add);
+		SpecSnapshot snapshot = generator.generateSnapshot("snapshot", Map.of(router, StringUtils.EMPTY), Optional.empty(), Optional.empty());
+		assertThat(generator.generateSnapshot("snapshot", Map.of(router, StringUtils.EMPTY), Optional.empty(), Optional.empty())).isSameAs(snapshot);
+
+		OutputVariant variant = OutputVariant.of(Format.YAML, true, true);
+		assertThat(generator.generateSpec("snapshot", Map.of(router, StringUtils.EMPTY), variant, Optional.empty(), Optional.empty()).getBytes())
+				.isEqualTo(snapshot.writeBytes(variant));
+		assertThat(generator.generateSpecs("snapshot", Map.of(router, StringUtils.EMPTY), variants(), Optional.empty(), Optional.empty())).hasSize(variants().size());
+		assertThat(reports).as("Model generated once").hasSize(1);
+
+		assertThat(generator.generateSnapshot("other", Map.of(router, StringUtils.EMPTY), Optional.empty(), Optional.empty())).isNotSameAs(snapshot);
+		assertThat(reports).hasSize(2);
+	}
+}
@@ -0,0 +1,179 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gentics.vertx.openapi.misc.SpecDiff;
+import com.gentics.vertx.openapi.misc.SpecDiff.Change;
+import com.gentics.vertx.openapi.misc.TestUtils;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.SpecManifest;
+import com.gentics.vertx.openapi.model.SpecSnapshot;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.route.SpecDeltaHandler;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.core.util.Json;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.ext.web.Router;
+
+public class SpecDeltaTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final int port = TestUtils.getRandomPort();
+	protected static final Router api = Router.router(vertx);
+
+	protected static HttpServer server;
+	protected static HttpClient client;
+
+	@BeforeClass
+	public static void setup() {
+		for (String path : new String[] { "alpha", "beta", "gamma" }) {
+			route(api, path, "Loads " + path);
+		}
+		Router router = Router.router(vertx);
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setCacheOutput(true);
+		router.get("/delta").handler(new SpecDeltaHandler(generator, "delta", Map.of(api, StringUtils.EMPTY)));
+		server = vertx.createHttpServer(new HttpServerOptions().setPort(port).setHost("127.0.0.1"));
+		server.requestHandler(router).listen().await();
+		client = vertx.createHttpClient(new HttpClientOptions().setDefaultHost("127.0.0.1").setDefaultPort(port));
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		client.close().await();
+		server.close().await();
+		vertx.close().await();
+	}
+
+	@Test
+	public void testDiff() throws Exception {
+		Router before = Router.router(vertx);
+		route(before, "alpha", "Loads alpha");
+		route(before, "beta", "Loads beta");
+		route(before, "gamma", "Loads gamma");
+		Router after = Router.router(vertx);
+		route(after, "alpha", "Loads alpha");
+		route(after, "beta", "Loads beta, changed");
+		route(after, "delta", "Loads delta");
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		SpecSnapshot from = generator.generateSnapshot("diff", Map.of(before, StringUtils.EMPTY), Optional.empty(), Optional.empty());
+		SpecSnapshot to = generator.generateSnapshot("diff", Map.of(after, StringUtils.EMPTY), Optional.empty(), Optional.empty());
+
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			SpecManifest fromManifest = from.getManifest(useVersion31);
+			SpecManifest toManifest = to.getManifest(useVersion31);
+			assertThat(fromManifest.getVersion()).isNotEqualTo(toManifest.getVersion());
+			assertThat(SpecManifest.of(to.getTree(useVersion31)).getVersion()).as("Stable version").isEqualTo(toManifest.getVersion());
+			assertThat(fromManifest.getHashes()).containsKeys("/paths/~1alpha", "/paths/~1gamma", "/components/schemas/MessageResponse", "/info");
+			assertThat(fromManifest.getHashes().get("/paths/~1alpha")).isEqualTo(toManifest.getHashes().get("/paths/~1alpha"));
+
+			List<Change> changes = SpecDiff.diff(fromManifest, toManifest);
+			assertThat(changes).extracting(Change::toString).containsExactlyInAnyOrder("REMOVED /paths/~1gamma", "CHANGED /paths/~1beta", "ADDED /paths/~1delta");
+			assertThat(SpecDiff.diff(toManifest, toManifest)).isEmpty();
+
+			JsonNode patched = apply(from.getTree(useVersion31).deepCopy(), SpecDiff.toJsonPatch(changes, to.getTree(useVersion31)));
+			assertThat(patched).isEqualTo(to.getTree(useVersion31));
+		}
+	}
+
+	@Test
+	public void testDeltaHandler() throws Exception {
+		Pair<HttpClientResponse, Buffer> full = get("/delta");
+		assertThat(full.getKey().statusCode()).isEqualTo(200);
+		assertThat(full.getKey().getHeader("Content-Type")).isEqualTo(UtilsAndConstants.APPLICATION_JSON_UTF8);
+		String version = StringUtils.strip(full.getKey().getHeader("ETag"), "\"");
+		JsonNode spec = Json.mapper().readTree(full.getValue().getBytes());
+		assertThat(spec.at("/paths/~1alpha").isObject()).isTrue();
+
+		Pair<HttpClientResponse, Buffer> unchanged = get("/delta?since=" + version);
+		assertThat(unchanged.getKey().getHeader("Content-Type")).isEqualTo(UtilsAndConstants.APPLICATION_JSON_PATCH);
+		assertThat(Json.mapper().readTree(unchanged.getValue().getBytes()).size()).isEqualTo(0);
+
+		route(api, "omega", "Loads omega");
+		Pair<HttpClientResponse, Buffer> delta = get("/delta?since=" + version);
+		String newVersion = StringUtils.strip(delta.getKey().getHeader("ETag"), "\"");
+		assertThat(newVersion).isNotEqualTo(version);
+		JsonNode patch = Json.mapper().readTree(delta.getValue().getBytes());
+		assertThat(patch.size()).isEqualTo(1);
+		assertThat(patch.get(0).get("op").asText()).isEqualTo("add");
+		assertThat(patch.get(0).get("path").asText()).isEqualTo("/paths/~1omega");
+		JsonNode patched = apply(spec, patch);
+		assertThat(patched).isEqualTo(Json.mapper().readTree(get("/delta").getValue().getBytes()));
+
+		JsonNode replaced = Json.mapper().readTree(get("/delta?since=unknown").getValue().getBytes());
+		assertThat(replaced.get(0).get("op").asText()).isEqualTo("replace");
+		assertThat(replaced.get(0).get("path").asText()).isEmpty();
+		assertThat(get("/delta?version=2.0").getKey().statusCode()).isEqualTo(400);
+
+		// the versions of the other spec version are not known
+		JsonNode crossed = Json.mapper().readTree(get("/delta?version=3.1&since=" + newVersion).getValue().getBytes());
+		assertThat(crossed.get(0).get("op").asText()).isEqualTo("replace");
+		assertThat(crossed.get(0).get("path").asText()).isEmpty();
+	}
+
+	@Test
+	public void testUncachedGenerator() {
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty());
+		assertThatThrownBy(() -> new SpecDeltaHandler(generator, "delta", Map.of(api, StringUtils.EMPTY))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	protected static void route(Router router, String path, String description) {
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/" + path)
+			.withMethod(HttpMethod.GET)
+			.withDescription(description)
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse(path), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+	}
+
+	protected Pair<HttpClientResponse, Buffer> get(String uri) {
+		return client.request(HttpMethod.GET, uri)
+				.compose(req -> req.send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+	}
+
+	/**
+	 * Apply the object member operations of a JSON Patch.
+	 */
+	protected JsonNode apply(JsonNode document, JsonNode patch) {
+		for (JsonNode operation : patch) {
+			JsonPointer pointer = JsonPointer.compile(operation.get("path").asText());
+			if (pointer.matches()) {
+				document = operation.get("value");
+				continue;
+			}
+			ObjectNode parent = (ObjectNode) document.at(pointer.head());
+			String name = pointer.last().getMatchingProperty();
+			if ("remove".equals(operation.get("op").asText())) {
+				parent.remove(name);
+			} else {
+				parent.set(name, operation.get("value"));
+			}
+		}
+		return document;
+	}
+}
@@ -0,0 +1,151 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.misc.TestUtils;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.route.OpenAPISpecHandler;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientAgent;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.ext.web.Router;
+
+public class SpecHandlerTest {
+
+	protected static final int port = TestUtils.getRandomPort();
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static HttpServer server;
+	protected static HttpClientAgent client;
+	protected static final Router revalidated = Router.router(vertx);
+
+	@BeforeClass
+	public static void setup() {
+		Router router = Router.router(vertx);
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/hello")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Says hello")
+			.produces(UtilsAndConstants.TEXT_PLAIN)
+			.withHandler(rc -> rc.end("hello"))
+			.build();
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setCacheOutput(true);
+		router.get("/openapi").handler(new OpenAPISpecHandler(generator, "handled", Map.of(router, StringUtils.EMPTY)));
+		router.get("/revalidated").handler(new OpenAPISpecHandler(new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()),
+				"revalidated", Map.of(revalidated, StringUtils.EMPTY)).setRevalidateInterval(1));
+		server = vertx.createHttpServer(new HttpServerOptions().setPort(port).setHost("127.0.0.1"));
+		server.requestHandler(router).listen().await();
+		client = vertx.createHttpClient(new HttpClientOptions().setDefaultHost("127.0.0.1").setDefaultPort(port));
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		client.close().await();
+		server.close().await();
+		vertx.close().await();
+	}
+
+	@Test
+	public void testVariantsAndEtag() throws IOException {
+		Pair<HttpClientResponse, Buffer> json = client.request(HttpMethod.GET, "/openapi")
+				.compose(req -> req.send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+		assertThat(json.getKey().statusCode()).isEqualTo(200);
+		assertThat(json.getKey().getHeader("Content-Type")).isEqualTo(UtilsAndConstants.APPLICATION_JSON_UTF8);
+		assertThat(json.getValue().toString(StandardCharsets.UTF_8)).startsWith("{").contains("/hello");
+		String etag = json.getKey().getHeader("ETag");
+		assertThat(etag).isNotBlank();
+
+		Pair<HttpClientResponse, Buffer> notModified = client.request(HttpMethod.GET, "/openapi")
+				.compose(req -> req.putHeader("If-None-Match", etag).send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+		assertThat(notModified.getKey().statusCode()).isEqualTo(304);
+
+		Pair<HttpClientResponse, Buffer> yaml = client.request(HttpMethod.GET, "/openapi?format=yaml&version=3.1")
+				.compose(req -> req.putHeader("Accept-Encoding", "deflate;q=0.5, gzip").send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+		assertThat(yaml.getKey().statusCode()).isEqualTo(200);
+		assertThat(yaml.getKey().getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(yaml.getKey().getHeader("ETag")).isNotEqualTo(etag);
+		byte[] compressed = yaml.getValue().getBytes();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(text).contains("openapi: 3.1", "/hello");
+		}
+	}
+
+	@Test
+	public void testAccept() {
+		assertThat(contentType("application/x-yaml;q=0.5, application/json")).as("Higher quality").isEqualTo(UtilsAndConstants.APPLICATION_JSON_UTF8);
+		assertThat(contentType("application/json;q=0.2, application/cbor")).as("Higher quality").isEqualTo(UtilsAndConstants.APPLICATION_CBOR);
+		assertThat(contentType("application/vnd.oai.openapi")).as("OpenAPI media type").isEqualTo(UtilsAndConstants.APPLICATION_YAML_UTF8);
+		assertThat(contentType("text/*, application/json;q=0.9")).as("Subtype wildcard").isEqualTo(UtilsAndConstants.APPLICATION_YAML_UTF8);
+		assertThat(contentType("text/html, application/x-yaml;q=0.8, */*;q=0.8")).as("Default on a tie").isEqualTo(UtilsAndConstants.APPLICATION_JSON_UTF8);
+		assertThat(contentType("*/*, application/json;q=0")).as("Excluded default").isEqualTo(UtilsAndConstants.APPLICATION_YAML_UTF8);
+	}
+
+	@Test
+	public void testDetail() {
+		Pair<HttpClientResponse, Buffer> minimal = client.request(HttpMethod.GET, "/openapi?detail=minimal")
+				.compose(req -> req.send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+		assertThat(minimal.getKey().statusCode()).isEqualTo(200);
+		assertThat(minimal.getKey().getHeader("ETag")).endsWith("-minimal\"");
+		assertThat(minimal.getValue().toString(StandardCharsets.UTF_8)).contains("/hello").doesNotContain("Says hello");
+
+		Pair<HttpClientResponse, Buffer> invalid = client.request(HttpMethod.GET, "/openapi?detail=none")
+				.compose(req -> req.send())
+				.compose(response -> response.body().map(body -> Pair.of(response, body))).await();
+		assertThat(invalid.getKey().statusCode()).isEqualTo(400);
+	}
+
+	@Test
+	public void testRevalidate() throws Exception {
+		assertThat(get("/revalidated")).doesNotContain("/added");
+		InternalEndpointBuilder.wrap(revalidated)
+			.withPath("/added")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Added later")
+			.produces(UtilsAndConstants.TEXT_PLAIN)
+			.withHandler(rc -> rc.end())
+			.build();
+		String spec = get("/revalidated");
+		for (int i = 0; i < 50 && !spec.contains("/added"); i++) {
+			Thread.sleep(20);
+			spec = get("/revalidated");
+		}
+		assertThat(spec).as("Regenerated after the input check").contains("/added");
+	}
+
+	protected String contentType(String accept) {
+		return client.request(HttpMethod.GET, "/openapi")
+				.compose(req -> req.putHeader("Accept", accept).send())
+				.compose(response -> response.body().map(body -> response.getHeader("Content-Type"))).await();
+	}
+
+	protected String get(String uri) {
+		return client.request(HttpMethod.GET, uri)
+				.compose(req -> req.send())
+				.compose(response -> response.body()).await().toString(StandardCharsets.UTF_8);
+	}
+}
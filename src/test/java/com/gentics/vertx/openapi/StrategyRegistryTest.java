@@ -0,0 +1,124 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.gentics.vertx.openapi.metadata.InternalEndpointRoute;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.strategy.ComponentGenerationStrategy;
+import com.gentics.vertx.openapi.strategy.ComponentGenerationStrategyRegistry;
+import com.gentics.vertx.openapi.strategy.impl.JavaReflectionGenerationStrategy;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class StrategyRegistryTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	@Test
+	public void testResolutionMemoized() {
+		Router router = Router.router(vertx);
+		InternalEndpointRoute first = null;
+		for (int i = 0; i < 3; i++) {
+			InternalEndpointRoute endpoint = InternalEndpointBuilder.wrap(router)
+				.withPath("/memo/item" + i)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Endpoint " + i)
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+				.withExampleResponse(HttpResponseStatus.NOT_FOUND, new MessageResponse("not found"), "The error")
+				.withHandler(rc -> rc.end())
+				.build();
+			if (first == null) {
+				first = endpoint;
+			}
+		}
+		OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setForceReflectionStrategy(true);
+		CountingStrategy counting = new CountingStrategy(new JavaReflectionGenerationStrategy(generator));
+		ComponentGenerationStrategyRegistry registry = new ComponentGenerationStrategyRegistry().setFallbackStrategy(counting);
+		generator.setStrategyRegistry(registry);
+
+		OpenAPI openApi = generator.generateModel("memo", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(openApi.getComponents().getSchemas()).containsKey("MessageResponse");
+		assertThat(counting.names.get()).as("Name resolutions, once per class and route").isEqualTo(3);
+
+		generator.generateModel("memo", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+		assertThat(counting.names.get()).as("Name resolutions of the next generation").isEqualTo(6);
+
+		generator.setForceReflectionStrategy(false);
+		assertThat(registry.getStrategies(Optional.of(first), false)).as("Untracked strategies").isNotSameAs(registry.getStrategies(Optional.of(first), false));
+		generator.setIncrementalGeneration(true);
+		assertThat(registry.isTrackRoutes()).isTrue();
+		assertThat(registry.getStrategies(Optional.of(first), false)).as("Reused strategies").isSameAs(registry.getStrategies(Optional.of(first), false));
+	}
+
+	@Test
+	public void testRoutesDoNotRetainGenerators() throws Exception {
+		Router router = Router.router(vertx);
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/retained")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Endpoint")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+		List<WeakReference<OpenAPIv3Generator>> generators = new ArrayList<>();
+		for (boolean incremental : new boolean[] { false, true }) {
+			OpenAPIv3Generator generator = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty()).setIncrementalGeneration(incremental);
+			generator.generateModel("retained", Map.of(router, StringUtils.EMPTY), false, Optional.empty(), Optional.empty());
+			generators.add(new WeakReference<>(generator));
+		}
+		for (int i = 0; i < 20 && generators.stream().anyMatch(ref -> ref.get() != null); i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertThat(generators).as("Collected generators").allMatch(ref -> ref.get() == null);
+	}
+
+	/**
+	 * A delegating strategy, counting the component name requests.
+	 */
+	protected static class CountingStrategy implements ComponentGenerationStrategy<Object> {
+		protected final ComponentGenerationStrategy<?> delegate;
+		protected final AtomicInteger names = new AtomicInteger();
+
+		public CountingStrategy(ComponentGenerationStrategy<?> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Optional<Schema<?>> checkFillComponent(Object input, OpenAPI openApi, Set<String> usedComponents) {
+			return delegate.checkFillComponent(input, openApi, usedComponents);
+		}
+
+		@Override
+		public Optional<String> makeComponentName(Object input) {
+			names.incrementAndGet();
+			return delegate.makeComponentName(input);
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.impl.StreamingYamlGenerator;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.core.util.Yaml31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+
+public class StreamingYamlTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	protected static final List<String> TRICKY = List.of("", " ", "plain", "two words", "true", "False", "NULL", "~", "y", "no", "off",
+			"42", "-1", "+1.5", "1e10", ".5", "1.", "-", "0", "007", "0_1", "0x1F", "1.0.0", "--- doc", "...", "- item", "-item", "? key", "?key",
+			": value", ":value", "key: value", "key:value", "a #comment", "a#comment", "#comment", "[list]", "a[0]", "{map}", "a, b", "&anchor", "*alias",
+			"!tag", "|literal", ">folded", "'single'", "it's", "\"double\"", "%directive", "@at", "`tick`", " leading", "trailing ", "a\tb", "tab\t",
+			"line\nbreak", "line\n", "\n", "\n\n", "\nleading", "trailing\n\n", "space \nbreak", "break\n space", "  indented\nblock", "cr\rlf",
+			"nel\u0085next", "ls ps ", "nbsp ", "bom﻿", "umlaut äöü", "emoji 😀", "lone \ud83d", "ctrl\u0001\u001f\u007f",
+			"bell\u0007esc\u001b", "backslash\\", "/path/{id}", "application/json", "#/components/schemas/Item", "http://example.com/a?b=c&d=e",
+			StringUtils.repeat("long words ", 30), StringUtils.repeat("x", 200), StringUtils.repeat("a ", 60) + "end",
+			StringUtils.repeat("word ", 20) + "\"quoted\" " + StringUtils.repeat("more ", 20), StringUtils.repeat("it's ", 40),
+			StringUtils.repeat("line ", 30) + "\n" + StringUtils.repeat("next ", 30), StringUtils.repeat("tab\t", 40),
+			StringUtils.repeat("a  ", 40), StringUtils.repeat("ä ", 50) + ": x");
+
+	@BeforeClass
+	public static void setup() {
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/yaml/items/:id")
+			.withMethod(HttpMethod.POST)
+			.withDescription("Multi-line description:\n  - with an indented list\n\nand a trailing line. " + StringUtils.repeat("Long text ", 20))
+			.withUriParameter("id", "Item id", "007")
+			.withQueryParameter("flag", "A flag: true or false", "true")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleRequest(new MessageResponse("it's a 'quoted' message # with a comment"))
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok: done"), "The message")
+			.withExampleResponse(HttpResponseStatus.NOT_FOUND, new MessageResponse(""), "Not found")
+			.withHandler(rc -> rc.end())
+			.build();
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	protected void assertParity(Object value) throws IOException {
+		for (ObjectMapper mapper : List.of(Yaml.mapper(), Yaml31.mapper())) {
+			assertThat(StreamingYamlGenerator.writeValueAsString(mapper.writer(), value)).isEqualTo(mapper.writeValueAsString(value));
+		}
+	}
+
+	@Test
+	public void testSpecParity() throws IOException, OpenAPIGenerationException {
+		for (boolean useVersion31 : new boolean[] { false, true }) {
+			OpenAPI openApi = new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+					.generateModel("yaml", Map.of(router, StringUtils.EMPTY), useVersion31, Optional.empty(), Optional.empty());
+			assertParity(openApi);
+			if (!useVersion31) {
+				assertThat(new V30Writer().write(openApi, Format.YAML, false)).isEqualTo(Yaml.mapper().writeValueAsString(openApi));
+			}
+		}
+	}
+
+	@Test
+	public void testScalarParity() throws IOException {
+		for (String text : TRICKY) {
+			Map<String, Object> doc = new LinkedHashMap<>();
+			doc.put(text, text);
+			doc.put("list", List.of(text, List.of(text, List.of()), Map.of(), Map.of(text, List.of(text))));
+			doc.put("nested", Map.of("value", text, "empty", List.of()));
+			assertParity(doc);
+			assertParity(List.of(text, doc));
+		}
+	}
+
+	@Test
+	public void testValueParity() throws IOException {
+		Map<String, Object> doc = new LinkedHashMap<>();
+		doc.put("int", 42);
+		doc.put("long", Long.MIN_VALUE);
+		doc.put("double", 1.5e-10);
+		doc.put("float", Float.NaN);
+		doc.put("decimal", new BigDecimal("1E+3"));
+		doc.put("boolean", true);
+		doc.put("null", null);
+		doc.put("empty", Map.of());
+		doc.put(StringUtils.repeat("long key ", 20), List.of(Map.of("a", 1), List.of(List.of()), Map.of("b", Map.of("c", List.of("d")))));
+		assertParity(doc);
+		assertParity(List.of());
+		assertParity(Map.of());
+		assertParity(List.of(List.of(List.of(1, 2), 3)));
+	}
+
+	@Test
+	public void testRandomParity() throws IOException {
+		String alphabet = "ab 0-:#,'\"[]{}?!&*|>%@`~.\n\t\\ä\u0085 😀\u0001";
+		Random random = new Random(4711);
+		for (int i = 0; i < 500; i++) {
+			assertParity(randomNode(random, alphabet, 0));
+		}
+	}
+
+	protected Object randomNode(Random random, String alphabet, int level) {
+		int kind = level > 3 ? 0 : random.nextInt(4);
+		if (kind == 2) {
+			List<Object> list = new ArrayList<>();
+			for (int i = random.nextInt(4); i > 0; i--) {
+				list.add(randomNode(random, alphabet, level + 1));
+			}
+			return list;
+		} else if (kind == 3) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			for (int i = random.nextInt(4); i > 0; i--) {
+				map.put(randomText(random, alphabet), randomNode(random, alphabet, level + 1));
+			}
+			return map;
+		} else {
+			return randomText(random, alphabet);
+		}
+	}
+
+	protected String randomText(Random random, String alphabet) {
+		StringBuilder text = new StringBuilder();
+		for (int i = random.nextInt(random.nextBoolean() ? 8 : 200); i > 0; i--) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,300 @@
+package com.gentics.vertx.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gentics.vertx.openapi.misc.ChunkedBufferOutputStream;
+import com.gentics.vertx.openapi.misc.UtilsAndConstants;
+import com.gentics.vertx.openapi.model.Format;
+import com.gentics.vertx.openapi.model.MessageResponse;
+import com.gentics.vertx.openapi.model.OpenAPIGenerationException;
+import com.gentics.vertx.openapi.route.InternalEndpointBuilder;
+import com.gentics.vertx.openapi.writer.OpenAPIVersionWriter;
+import com.gentics.vertx.openapi.writer.impl.V30Writer;
+import com.gentics.vertx.openapi.writer.impl.V31Writer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.core.util.OpenAPI30To31;
+import io.swagger.v3.core.util.Yaml31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.Router;
+
+public class WriterTest {
+
+	protected static final Vertx vertx = Vertx.vertx();
+	protected static final Router router = Router.router(vertx);
+
+	@BeforeClass
+	public static void setup() {
+		for (int i = 0; i < 50; i++) {
+			InternalEndpointBuilder.wrap(router)
+				.withPath("/written/item" + i)
+				.withMethod(HttpMethod.GET)
+				.withDescription("Endpoint " + i)
+				.produces(UtilsAndConstants.APPLICATION_JSON)
+				.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok " + i), "The message")
+				.withHandler(rc -> rc.end())
+				.build();
+		}
+		InternalEndpointBuilder.wrap(router)
+			.withPath("/written/param/:id")
+			.withMethod(HttpMethod.GET)
+			.withDescription("Endpoint with parameters")
+			.withUriParameter("id", "Item id", "42")
+			.withQueryParameter("lang", "Language", "en")
+			.produces(UtilsAndConstants.APPLICATION_JSON)
+			.withExampleResponse(HttpResponseStatus.OK, new MessageResponse("ok"), "The message")
+			.withHandler(rc -> rc.end())
+			.build();
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		vertx.close().await();
+	}
+
+	protected OpenAPI model(boolean useVersion31) {
+		return new OpenAPIv3Generator("1.0", List.of(), Optional.empty(), Optional.empty())
+				.generateModel("written", Map.of(router, StringUtils.EMPTY), useVersion31, Optional.empty(), Optional.empty());
+	}
+
+	@Test
+	public void testStreamingSinks() throws Exception {
+		OpenAPIVersionWriter writer = new V30Writer();
+		OpenAPI openApi = model(false);
+		for (Format format : Format.values()) {
+			byte[] expected = writer.writeBytes(openApi, format, true);
+			if (!format.isBinary()) {
+				assertThat(writer.write(openApi, format, true).getBytes(StandardCharsets.UTF_8)).as("String " + format).isEqualTo(expected);
+			}
+
+			assertThat(writer.writeBuffer(openApi, format, true).getBytes()).as("Buffer " + format).isEqualTo(expected);
+
+			ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.buffer();
+			try {
+				assertThat(ByteBufUtil.getBytes(writer.write(openApi, format, true, byteBuf))).as("ByteBuf " + format).isEqualTo(expected);
+			} finally {
+				byteBuf.release();
+			}
+
+			CollectingWriteStream stream = new CollectingWriteStream();
+			assertThat(writer.write(openApi, format, true, stream).succeeded()).isTrue();
+			assertThat(stream.writes).as("Chunks written").isEqualTo((stream.collected.length() - 1) / ChunkedBufferOutputStream.DEFAULT_CHUNK_SIZE + 1);
+			if (format == Format.CBOR) {
+				// the streamed CBOR containers have the indefinite length
+				ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+				assertThat(cbor.readTree(stream.collected.getBytes())).as("WriteStream " + format).isEqualTo(cbor.readTree(expected));
+			} else {
+				assertThat(stream.collected.getBytes()).as("WriteStream " + format).isEqualTo(expected);
+			}
+		}
+	}
+
+	@Test
+	public void testLazyChunks() throws Exception {
+		ChunkedBufferOutputStream out = new ChunkedBufferOutputStream(16);
+		int[] produced = new int[1];
+		PendingWriteStream stream = new PendingWriteStream();
+		Future<Void> piped = out.pipeTo(stream, target -> {
+			target.write(new byte[10]);
+			return ++produced[0] < 100;
+		});
+		assertThat(stream.writes).as("Writes before the first completion").isEqualTo(1);
+		// the written chunk, and the next one ready
+		assertThat(produced[0] * 10).as("Produced before the first completion").isLessThan(3 * 16);
+		while (!piped.isComplete()) {
+			stream.pending.complete();
+		}
+		assertThat(piped.succeeded()).isTrue();
+		assertThat(stream.collected.length()).isEqualTo(1000);
+		assertThat(stream.writes).isEqualTo(63);
+		assertThat(stream.handlersSet).as("Stream handlers replaced").isFalse();
+
+		CollectingWriteStream spec = new CollectingWriteStream();
+		OpenAPI openApi = model(false);
+		assertThat(new V30Writer().write(openApi, Format.JSON, false, spec).succeeded()).isTrue();
+		assertThat(spec.handlersSet).as("Stream handlers replaced").isFalse();
+		assertThat(spec.collected.getBytes()).isEqualTo(new V30Writer().writeBytes(openApi, Format.JSON, false));
+	}
+
+	@Test
+	public void testDefaultCapture() throws Exception {
+		OpenAPI openApi = model(false);
+		V30Writer v30Writer = new V30Writer();
+		OpenAPIVersionWriter textWriter = (api, format, pretty) -> v30Writer.write(api, format, pretty);
+		ByteArrayOutputStream replayed = new ByteArrayOutputStream();
+		textWriter.write(textWriter.capture(openApi), Format.JSON, false, replayed);
+		assertThat(replayed.toByteArray()).isEqualTo(v30Writer.writeBytes(openApi, Format.JSON, false));
+	}
+
+	@Test
+	public void testPrettyMapping() throws Exception {
+		OpenAPI openApi = model(false);
+		for (OpenAPIVersionWriter writer : List.of(new V30Writer(), new V31Writer())) {
+			String name = writer.getClass().getSimpleName();
+			assertThat(writer.write(openApi, Format.JSON, false)).as("Compact JSON " + name).doesNotContain("\n");
+			assertThat(writer.write(openApi, Format.JSON, true)).as("Pretty JSON " + name).contains("\n  ");
+			assertThat(writer.writeBytes(openApi, Format.JSON, false)).as("Compact JSON bytes " + name)
+					.isEqualTo(writer.write(openApi, Format.JSON, false).getBytes(StandardCharsets.UTF_8));
+			assertThat(writer.writeBytes(openApi, Format.JSON, true)).as("Pretty JSON bytes " + name)
+					.isEqualTo(writer.write(openApi, Format.JSON, true).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testBinaryFormats() throws Exception {
+		OpenAPI openApi = model(false);
+		ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+		ObjectMapper smile = new ObjectMapper(new SmileFactory());
+		for (OpenAPIVersionWriter writer : List.of(new V30Writer(), new V31Writer())) {
+			JsonNode expected = Json.mapper().readTree(writer.writeBytes(openApi, Format.JSON, false));
+			byte[] cborBytes = writer.writeBytes(openApi, Format.CBOR, false);
+			byte[] smileBytes = writer.writeBytes(openApi, Format.SMILE, false);
+
+			assertThat(cbor.readTree(cborBytes)).as("CBOR " + writer.getClass().getSimpleName()).isEqualTo(expected);
+			assertThat(smile.readTree(smileBytes)).as("Smile " + writer.getClass().getSimpleName()).isEqualTo(expected);
+			assertThat(writer.writeBytes(openApi, Format.CBOR, true)).as("Binary formats are not prettified").isEqualTo(cborBytes);
+			assertThatThrownBy(() -> writer.write(openApi, Format.SMILE, false)).isInstanceOf(OpenAPIGenerationException.class);
+
+			ByteArrayOutputStream replayed = new ByteArrayOutputStream();
+			writer.write(writer.capture(openApi), Format.CBOR, false, replayed);
+			assertThat(cbor.readTree(replayed.toByteArray())).as("CBOR replay " + writer.getClass().getSimpleName()).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testV31WriterKeepsModel() throws Exception {
+		OpenAPI openApi = model(false);
+		V30Writer v30Writer = new V30Writer();
+		V31Writer v31Writer = new V31Writer();
+		String v30Json = v30Writer.write(openApi, Format.JSON, true);
+
+		// the former in-place conversion of a model, generated for v3.1
+		OpenAPI converted = model(true);
+		new OpenAPI30To31().process(converted);
+		converted.jsonSchemaDialect(V31Writer.JSON_SCHEMA_DIALECT);
+		assertThat(v31Writer.write(openApi, Format.JSON, false)).isEqualTo(Json31.mapper().writeValueAsString(converted));
+		assertThat(v31Writer.write(openApi, Format.JSON, true)).isEqualTo(Json31.pretty().writeValueAsString(converted));
+		assertThat(v31Writer.write(openApi, Format.YAML, false)).isEqualTo(Yaml31.mapper().writeValueAsString(converted));
+		assertThat(v31Writer.write(openApi, Format.YAML, true)).isEqualTo(Yaml31.pretty().writeValueAsString(converted));
+
+		List<String> expected = List.of(v30Json, v31Writer.write(openApi, Format.JSON, true), v31Writer.write(openApi, Format.YAML, true));
+		List<String> concurrent = IntStream.range(0, 24).parallel().mapToObj(i -> {
+			try {
+				switch (i % 3) {
+				case 0:
+					return v30Writer.write(openApi, Format.JSON, true);
+				case 1:
+					return v31Writer.write(openApi, Format.JSON, true);
+				default:
+					return v31Writer.write(openApi, Format.YAML, true);
+				}
+			} catch (OpenAPIGenerationException e) {
+				throw new RuntimeException(e);
+			}
+		}).collect(Collectors.toList());
+		for (int i = 0; i < concurrent.size(); i++) {
+			assertThat(concurrent.get(i)).as("Concurrent write " + i).isEqualTo(expected.get(i % 3));
+		}
+		assertThat(openApi.getOpenapi()).isEqualTo("3.0.1");
+		assertThat(openApi.getJsonSchemaDialect()).isNull();
+	}
+
+	/**
+	 * A write stream, which reports its queue as full after each write, and drains on the next check.
+	 */
+	protected static class CollectingWriteStream implements WriteStream<Buffer> {
+		protected final Buffer collected = Buffer.buffer();
+		protected boolean full;
+		protected int writes;
+		protected boolean handlersSet;
+
+		@Override
+		public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+			handlersSet = true;
+			return this;
+		}
+
+		@Override
+		public Future<Void> write(Buffer data) {
+			collected.appendBuffer(data);
+			writes++;
+			full = true;
+			return Future.succeededFuture();
+		}
+
+		@Override
+		public Future<Void> end() {
+			return Future.succeededFuture();
+		}
+
+		@Override
+		public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+			return this;
+		}
+
+		@Override
+		public boolean writeQueueFull() {
+			boolean result = full;
+			full = false;
+			return result;
+		}
+
+		@Override
+		public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+			handlersSet = true;
+			handler.handle(null);
+			return this;
+		}
+	}
+
+	/**
+	 * A write stream, which is full until its last write is completed by the test.
+	 */
+	protected static class PendingWriteStream extends CollectingWriteStream {
+		protected Promise<Void> pending;
+
+		@Override
+		public Future<Void> write(Buffer data) {
+			collected.appendBuffer(data);
+			writes++;
+			pending = Promise.promise();
+			return pending.future();
+		}
+
+		@Override
+		public boolean writeQueueFull() {
+			return pending != null && !pending.future().isComplete();
+		}
+	}
+}